@@ -0,0 +1,105 @@
+package com.urlshortener.analytics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compacts sealed click log segments into per-code counts and click time
+ * series in Mongo, one bulk write per collection and segment.
+ *
+ * Segments are node-local, so every node aggregates its own. A segment is
+ * marked aggregated only after its write succeeded, which makes delivery
+ * at-least-once: a node dying between the two counts that segment again.
+ */
+@Component
+public class ClickAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickAggregator.class);
+
+    private final ClickEventLog clickEventLog;
+    private final ClickStatsStore clickStatsStore;
+    private final ClickSeriesStore clickSeriesStore;
+    private final Counter aggregatedCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public ClickAggregator(ClickEventLog clickEventLog, ClickStatsStore clickStatsStore,
+                           ClickSeriesStore clickSeriesStore, MeterRegistry meterRegistry) {
+        this.clickEventLog = clickEventLog;
+        this.clickStatsStore = clickStatsStore;
+        this.clickSeriesStore = clickSeriesStore;
+        this.aggregatedCounter = Counter.builder("clicks.aggregated")
+                .description("Click events compacted into Mongo")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("clicks.aggregate.failures")
+                .description("Segment aggregations that failed and were retried on the next run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Aggregate every sealed segment, then drop aggregated ones past retention
+     * @return number of events aggregated
+     */
+    @Scheduled(fixedDelayString = "${app.clicks.aggregate-interval-ms:10000}")
+    public long aggregate() {
+        long total = 0;
+        try {
+            for (Path segment : clickEventLog.sealedSegments()) {
+                long events = aggregate(segment);
+                if (events < 0) {
+                    break; // Mongo is failing; retry the rest next run, in order
+                }
+                total += events;
+            }
+            clickEventLog.deleteExpired(System.currentTimeMillis());
+        } catch (IOException e) {
+            logger.warn("Click log directory not readable: {}", e.getMessage());
+        }
+        return total;
+    }
+
+    /**
+     * @return events aggregated, or -1 if the write failed
+     */
+    private long aggregate(Path segment) throws IOException {
+        Map<String, CodeClicks> clicks = new HashMap<>();
+        long events;
+        try {
+            events = ClickSegment.read(segment, (shortCode, timestampMillis, referrerHash, userAgentClass, clientHash) ->
+                    clicks.computeIfAbsent(shortCode, code -> new CodeClicks())
+                            .add(timestampMillis, userAgentClass, clientHash));
+        } catch (IOException e) {
+            // Keep it around (until retention) for inspection, but do not block the log
+            logger.error("Skipping unreadable click log segment {}: {}", segment.getFileName(), e.getMessage());
+            clickEventLog.markAggregated(segment);
+            return 0;
+        }
+
+        try {
+            clickStatsStore.apply(clicks);
+            clickSeriesStore.apply(clicks);
+            // Idempotent, so a retried segment does not inflate unique visitors
+            clickStatsStore.mergeVisitors(clicks);
+        } catch (DataAccessException e) {
+            failedCounter.increment();
+            logger.warn("Failed to aggregate click log segment {}: {}", segment.getFileName(), e.getMessage());
+            return -1;
+        }
+        clickEventLog.markAggregated(segment);
+        aggregatedCounter.increment(events);
+        logger.debug("Aggregated {} clicks for {} short codes from {}", events, clicks.size(), segment.getFileName());
+        return events;
+    }
+}
@@ -0,0 +1,121 @@
+package com.urlshortener.analytics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring of click events, many producers and one consumer.
+ *
+ * Events are stored field by field in preallocated arrays, so publishing
+ * allocates nothing. A producer claims a sequence with one CAS, fills the
+ * slot and then marks it published; the consumer reads slots in sequence
+ * order up to the first one not yet published. When the ring is full,
+ * {@link #offer} fails instead of waiting.
+ */
+public final class ClickEventBuffer {
+
+    /**
+     * Receives drained events; called on the consumer thread only
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void onEvent(String shortCode, long timestampMillis, int referrerHash, byte userAgentClass, long clientHash);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final String[] shortCodes;
+    private final long[] timestamps;
+    private final int[] referrerHashes;
+    private final byte[] userAgentClasses;
+    private final long[] clientHashes;
+    // Holds sequence + 1 once the slot for that sequence is readable
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    public ClickEventBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = this.capacity - 1;
+        this.shortCodes = new String[this.capacity];
+        this.timestamps = new long[this.capacity];
+        this.referrerHashes = new int[this.capacity];
+        this.userAgentClasses = new byte[this.capacity];
+        this.clientHashes = new long[this.capacity];
+        this.published = new AtomicLongArray(this.capacity);
+    }
+
+    /**
+     * Publish an event if there is room
+     * @return false if the ring was full and the event was not stored
+     */
+    public boolean offer(String shortCode, long timestampMillis, int referrerHash, byte userAgentClass,
+                         long clientHash) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        shortCodes[slot] = shortCode;
+        timestamps[slot] = timestampMillis;
+        referrerHashes[slot] = referrerHash;
+        userAgentClasses[slot] = userAgentClass;
+        clientHashes[slot] = clientHash;
+        published.setRelease(slot, sequence + 1);
+        return true;
+    }
+
+    /**
+     * Hand published events to {@code handler} in order. Must only be called
+     * by one thread at a time.
+     * @param handler receives each event
+     * @param maxEvents upper bound for this call
+     * @return number of events drained
+     */
+    public int drain(Handler handler, int maxEvents) {
+        long sequence = consumed;
+        int drained = 0;
+        while (drained < maxEvents) {
+            int slot = (int) sequence & mask;
+            if (published.getAcquire(slot) != sequence + 1) {
+                break;
+            }
+            handler.onEvent(shortCodes[slot], timestamps[slot], referrerHashes[slot], userAgentClasses[slot],
+                    clientHashes[slot]);
+            shortCodes[slot] = null;
+            sequence++;
+            drained++;
+        }
+        if (drained > 0) {
+            // Frees the slots for producers
+            consumed = sequence;
+        }
+        return drained;
+    }
+
+    /**
+     * @return events published or being published and not yet drained
+     */
+    public int size() {
+        return (int) Math.max(0, claimed.get() - consumed);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,372 @@
+package com.urlshortener.analytics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only, node-local log of redirects.
+ *
+ * The redirect path only puts an event into a {@link ClickEventBuffer}; a
+ * single writer thread drains it into memory-mapped segment files. A segment
+ * is sealed when it is full or old enough and is then picked up by the
+ * {@link ClickAggregator}. If the writer falls behind and the buffer fills
+ * up, events are dropped and counted, the redirect never waits.
+ *
+ * Listeners registered with {@link #addListener} see every event on the
+ * writer thread, for in-memory analytics that must not slow the redirect.
+ *
+ * Segment files move through {@code .open} (being written), {@code .seg}
+ * (sealed, awaiting aggregation) and {@code .done} (aggregated, deleted after
+ * the retention period).
+ */
+@Component
+public class ClickEventLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickEventLog.class);
+
+    static final String OPEN_SUFFIX = ".open";
+    static final String SEALED_SUFFIX = ".seg";
+    static final String DONE_SUFFIX = ".done";
+    private static final String PREFIX = "clicks-";
+
+    private static final int DRAIN_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * When mapped segment pages are forced to disk. Without a force they
+     * still survive a process crash (the kernel owns them), not a power loss.
+     */
+    public enum Durability {
+        /** Leave write-back to the OS */
+        NONE,
+        /** Force every sync interval and when a segment is sealed */
+        INTERVAL,
+        /** Force after every drained batch */
+        BATCH
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long segmentMaxAgeMillis;
+    private final Durability durability;
+    private final long syncIntervalMillis;
+    private final long retentionMillis;
+    private final ClickEventBuffer buffer;
+    private final ClickEventBuffer.Handler appender = this::append;
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter written;
+    private volatile ClickEventBuffer.Handler[] listeners = new ClickEventBuffer.Handler[0];
+
+    private Thread writer;
+    private volatile boolean running;
+
+    // Writer state, touched only by the writer thread (or by shutdown after it stopped)
+    private long nextSegment;
+    private Path segmentPath;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private long segmentOpenedMillis;
+    private long lastSyncMillis;
+    private boolean dirty;
+
+    @Autowired
+    public ClickEventLog(MeterRegistry meterRegistry,
+                         @Value("${app.clicks.log.directory:data/clicks}") String directory,
+                         @Value("${app.clicks.log.buffer-capacity:65536}") int bufferCapacity,
+                         @Value("${app.clicks.log.segment-size-mb:16}") int segmentSizeMb,
+                         @Value("${app.clicks.log.segment-max-age-ms:60000}") long segmentMaxAgeMillis,
+                         @Value("${app.clicks.log.durability:interval}") String durability,
+                         @Value("${app.clicks.log.sync-interval-ms:1000}") long syncIntervalMillis,
+                         @Value("${app.clicks.log.retention-hours:24}") long retentionHours) {
+        this.directory = Paths.get(directory);
+        this.segmentBytes = Math.max(64 * 1024, segmentSizeMb * 1024 * 1024);
+        this.segmentMaxAgeMillis = segmentMaxAgeMillis;
+        this.durability = Durability.valueOf(durability.trim().toUpperCase(Locale.ROOT));
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.retentionMillis = TimeUnit.HOURS.toMillis(retentionHours);
+        this.buffer = new ClickEventBuffer(bufferCapacity);
+
+        this.published = Counter.builder("clicks.events")
+                .description("Click events handed to the log")
+                .tag("outcome", "published")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("clicks.events")
+                .description("Click events handed to the log")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        this.written = Counter.builder("clicks.log.written")
+                .description("Click events appended to segment files")
+                .register(meterRegistry);
+        Gauge.builder("clicks.buffer.size", buffer, ClickEventBuffer::size)
+                .description("Click events waiting for the log writer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            Files.createDirectories(directory);
+            nextSegment = recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot use click log directory " + directory.toAbsolutePath(), e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "click-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Click log writing to {} ({} durability)", directory.toAbsolutePath(), durability);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        // Writer has stopped; whatever it left in the buffer is written here
+        try {
+            while (buffer.drain(appender, DRAIN_BATCH) > 0) {
+                // keep draining
+            }
+            seal();
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Failed to seal click log segment on shutdown: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Record a redirect. Never blocks.
+     * @param shortCode the code that was followed
+     * @param timestampMillis when
+     * @param referrerHash see {@link ClickEvents#hashReferrer}
+     * @param userAgentClass see {@link ClickEvents#classifyUserAgent}
+     * @param clientHash see {@link ClickEvents#hashClient}, 0 if unknown
+     * @return false if the event was dropped because the buffer was full
+     */
+    public boolean publish(String shortCode, long timestampMillis, int referrerHash, byte userAgentClass,
+                           long clientHash) {
+        if (buffer.offer(shortCode, timestampMillis, referrerHash, userAgentClass, clientHash)) {
+            published.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * Hand every event to {@code listener} as well. It is called on the
+     * writer thread, so it must be quick and must not block.
+     * @param listener receives each event
+     */
+    public synchronized void addListener(ClickEventBuffer.Handler listener) {
+        ClickEventBuffer.Handler[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * @return sealed segments not yet aggregated, oldest first
+     */
+    public List<Path> sealedSegments() throws IOException {
+        return list(SEALED_SUFFIX);
+    }
+
+    /**
+     * Mark a segment as aggregated; it is deleted once past retention
+     * @param segment a path returned by {@link #sealedSegments()}
+     */
+    public void markAggregated(Path segment) throws IOException {
+        Files.move(segment, withSuffix(segment, DONE_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Delete aggregated segments older than the retention period
+     * @param nowMillis current time
+     * @return number of segments deleted
+     */
+    public int deleteExpired(long nowMillis) throws IOException {
+        int deleted = 0;
+        for (Path done : list(DONE_SUFFIX)) {
+            if (nowMillis - Files.getLastModifiedTime(done).toMillis() > retentionMillis) {
+                Files.deleteIfExists(done);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                int drained = buffer.drain(appender, DRAIN_BATCH);
+                long now = System.currentTimeMillis();
+                if (segment != null && now - segmentOpenedMillis >= segmentMaxAgeMillis) {
+                    seal();
+                }
+                if (dirty && (durability == Durability.BATCH
+                        || durability == Durability.INTERVAL && now - lastSyncMillis >= syncIntervalMillis)) {
+                    sync(now);
+                }
+                if (drained == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (IOException | UncheckedIOException e) {
+                // Events in the current segment stay on disk; continue in a new one
+                logger.error("Click log write failed: {}", e.getMessage(), e);
+                closeQuietly();
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private void append(String shortCode, long timestampMillis, int referrerHash, byte userAgentClass,
+                        long clientHash) {
+        int codeBytes = ClickSegment.encodedLength(shortCode);
+        if (codeBytes == 0 || codeBytes > ClickSegment.MAX_CODE_BYTES) {
+            dropped.increment();
+            return;
+        }
+        for (ClickEventBuffer.Handler listener : listeners) {
+            listener.onEvent(shortCode, timestampMillis, referrerHash, userAgentClass, clientHash);
+        }
+        int recordBytes = ClickSegment.recordLength(codeBytes);
+        try {
+            if (segment != null && segment.remaining() < recordBytes) {
+                seal();
+            }
+            if (segment == null) {
+                open();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ClickSegment.append(segment, shortCode, codeBytes, timestampMillis, referrerHash, userAgentClass, clientHash);
+        dirty = true;
+        written.increment();
+    }
+
+    private void open() throws IOException {
+        Path path = directory.resolve(String.format("%s%019d%s", PREFIX, nextSegment++, OPEN_SUFFIX));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        segmentChannel = channel;
+        segmentPath = path;
+        ClickSegment.writeHeader(segment);
+        segmentOpenedMillis = System.currentTimeMillis();
+    }
+
+    private void seal() throws IOException {
+        if (segment == null) {
+            return;
+        }
+        if (durability != Durability.NONE) {
+            sync(System.currentTimeMillis());
+        }
+        Path open = segmentPath;
+        closeQuietly();
+        Files.move(open, withSuffix(open, SEALED_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void sync(long now) {
+        if (segment != null) {
+            segment.force();
+        }
+        dirty = false;
+        lastSyncMillis = now;
+    }
+
+    private void closeQuietly() {
+        segment = null;
+        segmentPath = null;
+        dirty = false;
+        if (segmentChannel != null) {
+            try {
+                segmentChannel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close click log segment: {}", e.getMessage());
+            }
+            segmentChannel = null;
+        }
+    }
+
+    /**
+     * Seal segments left open by a previous process, whose records are
+     * readable up to where it stopped
+     * @return the number to give the next segment
+     */
+    private long recover() throws IOException {
+        long next = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int dot = name.lastIndexOf('.');
+                if (dot <= PREFIX.length()) {
+                    continue;
+                }
+                try {
+                    next = Math.max(next, Long.parseLong(name.substring(PREFIX.length(), dot)) + 1);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (name.endsWith(OPEN_SUFFIX)) {
+                    Files.move(file, withSuffix(file, SEALED_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+                    logger.info("Recovered unsealed click log segment {}", name);
+                }
+            }
+        }
+        return next;
+    }
+
+    private List<Path> list(String suffix) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + suffix)) {
+            files.forEach(segments::add);
+        }
+        // Zero-padded sequence numbers sort by name
+        segments.sort(null);
+        return segments;
+    }
+
+    private static Path withSuffix(Path segment, String suffix) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.lastIndexOf('.')) + suffix);
+    }
+}
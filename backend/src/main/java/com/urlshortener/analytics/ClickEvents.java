@@ -0,0 +1,223 @@
+package com.urlshortener.analytics;
+
+/**
+ * Reduces the request details kept per click to primitives: a hash of the
+ * referrer, a coarse user agent class and a hash identifying the client
+ * (address and user agent) for unique visitor counts. Works on header strings
+ * (servlet path) and on raw header bytes (NIO listener) without allocating,
+ * and both give the same result for ASCII values.
+ *
+ * The client hash is one-way and only ever stored inside HyperLogLog
+ * registers, so no visitor identifier is persisted.
+ */
+public final class ClickEvents {
+
+    public static final byte UA_UNKNOWN = 0;
+    public static final byte UA_BROWSER = 1;
+    public static final byte UA_MOBILE = 2;
+    public static final byte UA_BOT = 3;
+
+    /** Number of user agent classes, for per-class counters */
+    public static final int UA_CLASSES = 4;
+
+    /** Referrer hash of requests without a Referer header */
+    public static final int NO_REFERRER = 0;
+
+    private static final String[] UA_NAMES = {"unknown", "browser", "mobile", "bot"};
+    private static final String[] BOT_MARKERS = {"bot", "crawl", "spider", "slurp", "curl", "wget", "python"};
+    private static final String[] MOBILE_MARKERS = {"mobile", "android", "iphone", "ipad"};
+
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final long FNV64_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV64_PRIME = 0x100000001b3L;
+
+    private ClickEvents() {
+    }
+
+    /**
+     * @param userAgentClass one of the {@code UA_*} constants
+     * @return its name as stored in Mongo
+     */
+    public static String userAgentName(byte userAgentClass) {
+        return userAgentClass >= 0 && userAgentClass < UA_CLASSES ? UA_NAMES[userAgentClass] : UA_NAMES[UA_UNKNOWN];
+    }
+
+    /**
+     * Classify a User-Agent header value
+     * @param userAgent the header value, may be null
+     * @return one of the {@code UA_*} constants
+     */
+    public static byte classifyUserAgent(CharSequence userAgent) {
+        if (userAgent == null || userAgent.length() == 0) {
+            return UA_UNKNOWN;
+        }
+        if (containsAny(userAgent, BOT_MARKERS)) {
+            return UA_BOT;
+        }
+        return containsAny(userAgent, MOBILE_MARKERS) ? UA_MOBILE : UA_BROWSER;
+    }
+
+    /**
+     * Classify a User-Agent header value given as bytes
+     * @param buf header bytes
+     * @param from first byte of the value
+     * @param to end of the value
+     * @return one of the {@code UA_*} constants
+     */
+    public static byte classifyUserAgent(byte[] buf, int from, int to) {
+        if (from >= to) {
+            return UA_UNKNOWN;
+        }
+        if (containsAny(buf, from, to, BOT_MARKERS)) {
+            return UA_BOT;
+        }
+        return containsAny(buf, from, to, MOBILE_MARKERS) ? UA_MOBILE : UA_BROWSER;
+    }
+
+    /**
+     * Hash a Referer header value (FNV-1a over its characters)
+     * @param referrer the header value, may be null
+     * @return the hash, {@link #NO_REFERRER} if absent
+     */
+    public static int hashReferrer(CharSequence referrer) {
+        if (referrer == null || referrer.length() == 0) {
+            return NO_REFERRER;
+        }
+        int hash = FNV_OFFSET;
+        for (int i = 0; i < referrer.length(); i++) {
+            hash = (hash ^ referrer.charAt(i)) * FNV_PRIME;
+        }
+        return hash == NO_REFERRER ? 1 : hash;
+    }
+
+    /**
+     * Hash a Referer header value given as bytes
+     * @param buf header bytes
+     * @param from first byte of the value
+     * @param to end of the value
+     * @return the hash, {@link #NO_REFERRER} if empty
+     */
+    public static int hashReferrer(byte[] buf, int from, int to) {
+        if (from >= to) {
+            return NO_REFERRER;
+        }
+        int hash = FNV_OFFSET;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ (buf[i] & 0xff)) * FNV_PRIME;
+        }
+        return hash == NO_REFERRER ? 1 : hash;
+    }
+
+    /**
+     * Start a client hash from the remote address. Connections of the NIO
+     * listener keep this per connection and finish it per request.
+     * @param address the client address, may be null
+     * @return intermediate hash state for {@link #finishClientHash}
+     */
+    public static long startClientHash(CharSequence address) {
+        long hash = FNV64_OFFSET;
+        if (address != null) {
+            for (int i = 0; i < address.length(); i++) {
+                hash = (hash ^ address.charAt(i)) * FNV64_PRIME;
+            }
+        }
+        return (hash ^ '|') * FNV64_PRIME;
+    }
+
+    /**
+     * Finish a client hash with the User-Agent header value
+     * @param state result of {@link #startClientHash}
+     * @param userAgent the header value, may be null
+     * @return well-mixed 64-bit client hash, never 0
+     */
+    public static long finishClientHash(long state, CharSequence userAgent) {
+        long hash = state;
+        if (userAgent != null) {
+            for (int i = 0; i < userAgent.length(); i++) {
+                hash = (hash ^ userAgent.charAt(i)) * FNV64_PRIME;
+            }
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Finish a client hash with the User-Agent header value given as bytes
+     * @param state result of {@link #startClientHash}
+     * @param buf header bytes
+     * @param from first byte of the value
+     * @param to end of the value
+     * @return well-mixed 64-bit client hash, never 0
+     */
+    public static long finishClientHash(long state, byte[] buf, int from, int to) {
+        long hash = state;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ (buf[i] & 0xff)) * FNV64_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * @return client hash of an address and User-Agent
+     */
+    public static long hashClient(CharSequence address, CharSequence userAgent) {
+        return finishClientHash(startClientHash(address), userAgent);
+    }
+
+    private static long mix(long hash) {
+        // MurmurHash3 finalizer, so every output bit depends on every input bit
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static boolean containsAny(CharSequence value, String[] lowerMarkers) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(value.charAt(i));
+            for (String marker : lowerMarkers) {
+                if (marker.charAt(0) == c && i + marker.length() <= length && regionMatches(value, i, marker)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(CharSequence value, int offset, String lowerMarker) {
+        for (int j = 1; j < lowerMarker.length(); j++) {
+            if (Character.toLowerCase(value.charAt(offset + j)) != lowerMarker.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsAny(byte[] buf, int from, int to, String[] lowerMarkers) {
+        for (int i = from; i < to; i++) {
+            int c = toLower(buf[i]);
+            for (String marker : lowerMarkers) {
+                if (marker.charAt(0) == c && i + marker.length() <= to && regionMatches(buf, i, marker)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(byte[] buf, int offset, String lowerMarker) {
+        for (int j = 1; j < lowerMarker.length(); j++) {
+            if (toLower(buf[offset + j]) != lowerMarker.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? b | 0x20 : b & 0xff;
+    }
+}
@@ -0,0 +1,72 @@
+package com.urlshortener.analytics;
+
+import java.util.Locale;
+
+/**
+ * Rollup levels of the per-link click series. Each level lives in its own
+ * collection of fixed-size documents: one document per short code and
+ * {@link #getSlotsPerDocument()} slots, so a link's storage is bounded by the
+ * retention of each level, not by its traffic.
+ */
+public enum ClickResolution {
+
+    /** One-minute slots, an hour per document */
+    MINUTE(60_000L, 60, "click_series_minute"),
+    /** One-hour slots, a day per document */
+    HOUR(3_600_000L, 24, "click_series_hour"),
+    /** One-day slots, 32 days per document */
+    DAY(86_400_000L, 32, "click_series_day");
+
+    private final long slotMillis;
+    private final int slotsPerDocument;
+    private final String collection;
+
+    ClickResolution(long slotMillis, int slotsPerDocument, String collection) {
+        this.slotMillis = slotMillis;
+        this.slotsPerDocument = slotsPerDocument;
+        this.collection = collection;
+    }
+
+    public long getSlotMillis() {
+        return slotMillis;
+    }
+
+    public int getSlotsPerDocument() {
+        return slotsPerDocument;
+    }
+
+    public long getDocumentMillis() {
+        return slotMillis * slotsPerDocument;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * @return start of the slot containing {@code timestampMillis}
+     */
+    public long slotStart(long timestampMillis) {
+        return Math.floorDiv(timestampMillis, slotMillis) * slotMillis;
+    }
+
+    /**
+     * @return start of the document containing {@code timestampMillis}
+     */
+    public long documentStart(long timestampMillis) {
+        return Math.floorDiv(timestampMillis, getDocumentMillis()) * getDocumentMillis();
+    }
+
+    /**
+     * @param value "minute", "hour" or "day", any case
+     * @return the resolution
+     * @throws IllegalArgumentException for anything else
+     */
+    public static ClickResolution parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Resolution must be minute, hour or day");
+        }
+    }
+}
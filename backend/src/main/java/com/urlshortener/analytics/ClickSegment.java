@@ -0,0 +1,126 @@
+package com.urlshortener.analytics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * On-disk format of a click log segment.
+ *
+ * A segment is a preallocated file: an 8 byte header (magic, version)
+ * followed by records of
+ * {@code u16 codeLength | code (modified UTF-8) | i64 timestamp | i32 referrerHash | i8 userAgentClass
+ * | i64 clientHash}. Version 1 segments, written before the client hash
+ * existed, are still read (with a client hash of 0).
+ * Unused space stays zero, so a zero code length marks the end of the data,
+ * also in a segment whose writer died before sealing it.
+ */
+final class ClickSegment {
+
+    static final int MAGIC = 0x434c4b53; // "CLKS"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 8;
+
+    /** Longest encoded short code a record may carry */
+    static final int MAX_CODE_BYTES = 1024;
+
+    private static final int V1_FIXED_BYTES = 2 + 8 + 4 + 1;
+    private static final int FIXED_BYTES = V1_FIXED_BYTES + 8;
+
+    private ClickSegment() {
+    }
+
+    static void writeHeader(ByteBuffer buf) {
+        buf.putInt(MAGIC).putInt(VERSION);
+    }
+
+    /**
+     * @return bytes the code takes in a record, as in {@code DataOutput.writeUTF}
+     */
+    static int encodedLength(String shortCode) {
+        int length = 0;
+        for (int i = 0; i < shortCode.length(); i++) {
+            char c = shortCode.charAt(i);
+            length += c >= 0x01 && c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        return length;
+    }
+
+    /**
+     * @return bytes a record with a code of {@code codeBytes} takes
+     */
+    static int recordLength(int codeBytes) {
+        return FIXED_BYTES + codeBytes;
+    }
+
+    private static int recordLength(int codeBytes, int version) {
+        return (version == 1 ? V1_FIXED_BYTES : FIXED_BYTES) + codeBytes;
+    }
+
+    /**
+     * Append one record; the caller checks that it fits
+     */
+    static void append(ByteBuffer buf, String shortCode, int codeBytes, long timestampMillis,
+                       int referrerHash, byte userAgentClass, long clientHash) {
+        buf.putShort((short) codeBytes);
+        for (int i = 0; i < shortCode.length(); i++) {
+            char c = shortCode.charAt(i);
+            if (c >= 0x01 && c < 0x80) {
+                buf.put((byte) c);
+            } else if (c < 0x800) {
+                buf.put((byte) (0xc0 | c >> 6)).put((byte) (0x80 | c & 0x3f));
+            } else {
+                buf.put((byte) (0xe0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3f)).put((byte) (0x80 | c & 0x3f));
+            }
+        }
+        buf.putLong(timestampMillis).putInt(referrerHash).put(userAgentClass).putLong(clientHash);
+    }
+
+    /**
+     * Read every record of a segment
+     * @param path the segment file
+     * @param handler receives each event
+     * @return number of events read
+     * @throws IOException if the file cannot be read or is not a segment
+     */
+    static long read(Path path, ClickEventBuffer.Handler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC) {
+                throw new IOException("Not a click log segment: " + path);
+            }
+            int version = buf.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported click log segment version " + version + ": " + path);
+            }
+            long events = 0;
+            char[] chars = new char[MAX_CODE_BYTES];
+            while (buf.remaining() >= recordLength(1, version)) {
+                int codeBytes = buf.getShort(buf.position()) & 0xffff;
+                if (codeBytes == 0 || codeBytes > MAX_CODE_BYTES || buf.remaining() < recordLength(codeBytes, version)) {
+                    break; // End of data, or a record cut short by a crash
+                }
+                buf.position(buf.position() + 2);
+                int length = 0;
+                int end = buf.position() + codeBytes;
+                while (buf.position() < end) {
+                    int b = buf.get() & 0xff;
+                    if (b < 0x80) {
+                        chars[length++] = (char) b;
+                    } else if (b < 0xe0) {
+                        chars[length++] = (char) ((b & 0x1f) << 6 | buf.get() & 0x3f);
+                    } else {
+                        chars[length++] = (char) ((b & 0x0f) << 12 | (buf.get() & 0x3f) << 6 | buf.get() & 0x3f);
+                    }
+                }
+                handler.onEvent(new String(chars, 0, length), buf.getLong(), buf.getInt(), buf.get(),
+                        version == 1 ? 0L : buf.getLong());
+                events++;
+            }
+            return events;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.urlshortener.analytics;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-link click time series, pre-aggregated at every {@link ClickResolution}.
+ *
+ * Compacted minute buckets are rolled up to hours and days in memory and the
+ * three levels are written in the same flush, so every level is complete as
+ * soon as the click log is aggregated and a query reads exactly one level.
+ * Documents carry an {@code expireAt} for a TTL index, which enforces the
+ * retention of each level.
+ */
+@Component
+public class ClickSeriesStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickSeriesStore.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<ClickResolution, Long> retentionMillis = new EnumMap<>(ClickResolution.class);
+    private volatile boolean indexesReady;
+
+    @Autowired
+    public ClickSeriesStore(MongoTemplate mongoTemplate,
+                            @Value("${app.clicks.series.minute-retention-hours:48}") long minuteRetentionHours,
+                            @Value("${app.clicks.series.hour-retention-days:90}") long hourRetentionDays,
+                            @Value("${app.clicks.series.day-retention-days:730}") long dayRetentionDays) {
+        this.mongoTemplate = mongoTemplate;
+        retentionMillis.put(ClickResolution.MINUTE, Duration.ofHours(minuteRetentionHours).toMillis());
+        retentionMillis.put(ClickResolution.HOUR, Duration.ofDays(hourRetentionDays).toMillis());
+        retentionMillis.put(ClickResolution.DAY, Duration.ofDays(dayRetentionDays).toMillis());
+    }
+
+    /**
+     * @return how far back a resolution is kept
+     */
+    public long retentionMillis(ClickResolution resolution) {
+        return retentionMillis.get(resolution);
+    }
+
+    /**
+     * Add compacted clicks to every resolution, one unordered bulk upsert per level
+     * @param clicks clicks per short code
+     */
+    public void apply(Map<String, CodeClicks> clicks) {
+        if (clicks.isEmpty()) {
+            return;
+        }
+        ensureIndexes();
+        for (ClickResolution resolution : ClickResolution.values()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                    resolution.getCollection());
+            for (Map.Entry<String, CodeClicks> entry : clicks.entrySet()) {
+                for (Map.Entry<Long, Map<Integer, Long>> document : rollUp(entry.getValue(), resolution).entrySet()) {
+                    bulk.upsert(Query.query(Criteria.where("_id").is(documentId(entry.getKey(), document.getKey()))),
+                            update(entry.getKey(), resolution, document.getKey(), document.getValue()));
+                }
+            }
+            bulk.execute();
+        }
+    }
+
+    /**
+     * Read a link's clicks at one resolution
+     * @param shortCode the short code
+     * @param resolution the level to read
+     * @param fromMillis first slot start, aligned to the resolution
+     * @param slots number of slots
+     * @return clicks per slot, zero where there were none
+     */
+    public long[] read(String shortCode, ClickResolution resolution, long fromMillis, int slots) {
+        long[] counts = new long[slots];
+        long toMillis = fromMillis + slots * resolution.getSlotMillis();
+        // Document ids are derived from the range, so only the _id index is used
+        List<String> ids = new ArrayList<>();
+        for (long start = resolution.documentStart(fromMillis); start < toMillis; start += resolution.getDocumentMillis()) {
+            ids.add(documentId(shortCode, start));
+        }
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        for (Document document : mongoTemplate.find(query, Document.class, resolution.getCollection())) {
+            long documentStart = document.getDate("start").getTime();
+            Document slotCounts = document.get("counts", Document.class);
+            if (slotCounts == null) {
+                continue;
+            }
+            for (Map.Entry<String, Object> slot : slotCounts.entrySet()) {
+                long slotStart = documentStart + Integer.parseInt(slot.getKey()) * resolution.getSlotMillis();
+                if (slotStart >= fromMillis && slotStart < toMillis) {
+                    counts[(int) ((slotStart - fromMillis) / resolution.getSlotMillis())] +=
+                            ((Number) slot.getValue()).longValue();
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Group a link's minute buckets by document and slot of a resolution
+     * @return slot counts per document start
+     */
+    static Map<Long, Map<Integer, Long>> rollUp(CodeClicks clicks, ClickResolution resolution) {
+        Map<Long, Map<Integer, Long>> documents = new HashMap<>();
+        for (Map.Entry<Long, Long> minute : clicks.getMinutes().entrySet()) {
+            long documentStart = resolution.documentStart(minute.getKey());
+            int slot = (int) ((minute.getKey() - documentStart) / resolution.getSlotMillis());
+            documents.computeIfAbsent(documentStart, start -> new HashMap<>())
+                    .merge(slot, minute.getValue(), Long::sum);
+        }
+        return documents;
+    }
+
+    private Update update(String shortCode, ClickResolution resolution, long documentStart, Map<Integer, Long> slots) {
+        long expireAt = documentStart + resolution.getDocumentMillis() + retentionMillis.get(resolution);
+        Update update = new Update()
+                .setOnInsert("shortCode", shortCode)
+                .setOnInsert("start", new Date(documentStart))
+                .setOnInsert("expireAt", new Date(expireAt));
+        long total = 0;
+        for (Map.Entry<Integer, Long> slot : slots.entrySet()) {
+            update.inc("counts." + slot.getKey(), slot.getValue());
+            total += slot.getValue();
+        }
+        return update.inc("total", total);
+    }
+
+    private void ensureIndexes() {
+        if (indexesReady) {
+            return;
+        }
+        try {
+            for (ClickResolution resolution : ClickResolution.values()) {
+                mongoTemplate.indexOps(resolution.getCollection())
+                        .ensureIndex(new Index().on("expireAt", Sort.Direction.ASC).expire(Duration.ZERO));
+            }
+            indexesReady = true;
+        } catch (DataAccessException e) {
+            // Retried on the next flush; data is only kept a little longer meanwhile
+            logger.warn("Could not create click series TTL indexes: {}", e.getMessage());
+        }
+    }
+
+    private static String documentId(String shortCode, long documentStart) {
+        return shortCode + ":" + documentStart;
+    }
+}
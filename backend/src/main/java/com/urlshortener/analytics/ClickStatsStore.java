@@ -0,0 +1,199 @@
+package com.urlshortener.analytics;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.urlshortener.util.HyperLogLog;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated click counts, kept out of {@code urls_shortened} so counting
+ * never writes to the mappings (or wakes their change stream).
+ *
+ * {@code click_stats} holds one document per short code with its total and
+ * user agent split; time series are kept by {@link ClickSeriesStore}.
+ *
+ * It also holds the code's unique visitor sketch ({@link HyperLogLog}
+ * bytes) with its estimate. Nodes aggregate their own click logs, so each
+ * merges its sketch into the stored one; the write is conditional on a
+ * version field and retried when another node got there first.
+ */
+@Component
+public class ClickStatsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickStatsStore.class);
+
+    static final String STATS_COLLECTION = "click_stats";
+
+    private static final int MAX_MERGE_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public ClickStatsStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Add compacted clicks with one unordered bulk upsert
+     * @param clicks clicks per short code
+     */
+    public void apply(Map<String, CodeClicks> clicks) {
+        if (clicks.isEmpty()) {
+            return;
+        }
+        BulkOperations stats = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, STATS_COLLECTION);
+        for (Map.Entry<String, CodeClicks> entry : clicks.entrySet()) {
+            String shortCode = entry.getKey();
+            CodeClicks code = entry.getValue();
+
+            Update update = new Update().inc("total", code.getTotal())
+                    .max("lastClickAt", new Date(code.getLastClickMillis()));
+            for (byte ua = 0; ua < ClickEvents.UA_CLASSES; ua++) {
+                if (code.getByUserAgent(ua) > 0) {
+                    update.inc("userAgents." + ClickEvents.userAgentName(ua), code.getByUserAgent(ua));
+                }
+            }
+            stats.upsert(Query.query(Criteria.where("_id").is(shortCode)), update);
+        }
+        stats.execute();
+    }
+
+    /**
+     * Merge the visitor sketches of compacted clicks into the stored ones.
+     * Merging is idempotent, so re-applying a segment after a failure does
+     * not count its visitors twice.
+     * @param clicks clicks per short code
+     */
+    public void mergeVisitors(Map<String, CodeClicks> clicks) {
+        Map<String, HyperLogLog> sketches = new HashMap<>();
+        clicks.forEach((shortCode, code) -> {
+            if (code.getVisitors() != null) {
+                sketches.put(shortCode, code.getVisitors());
+            }
+        });
+        if (sketches.isEmpty()) {
+            return;
+        }
+        Map<String, Document> stored = findVisitors(sketches.keySet());
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, STATS_COLLECTION);
+        for (Map.Entry<String, HyperLogLog> entry : sketches.entrySet()) {
+            Document current = stored.get(entry.getKey());
+            updates.updateOne(versioned(entry.getKey(), current), mergedUpdate(current, entry.getValue()));
+        }
+        BulkWriteResult result = updates.execute();
+        if (result.getMatchedCount() < sketches.size()) {
+            // Another node merged some of these in between; redo them one by one
+            logger.debug("Visitor merge raced on {} of {} codes",
+                    sketches.size() - result.getMatchedCount(), sketches.size());
+            sketches.forEach(this::mergeOne);
+        }
+    }
+
+    private void mergeOne(String shortCode, HyperLogLog sketch) {
+        for (int attempt = 0; attempt < MAX_MERGE_ATTEMPTS; attempt++) {
+            Document current = findVisitors(List.of(shortCode)).get(shortCode);
+            if (mongoTemplate.updateFirst(versioned(shortCode, current), mergedUpdate(current, sketch),
+                    STATS_COLLECTION).getMatchedCount() > 0) {
+                return;
+            }
+        }
+        logger.warn("Gave up merging visitors of {} after {} attempts", shortCode, MAX_MERGE_ATTEMPTS);
+    }
+
+    private Map<String, Document> findVisitors(Collection<String> shortCodes) {
+        Query query = Query.query(Criteria.where("_id").in(shortCodes));
+        query.fields().include("visitors").include("visitorsVersion");
+        Map<String, Document> found = new HashMap<>();
+        for (Document stats : mongoTemplate.find(query, Document.class, STATS_COLLECTION)) {
+            found.put(stats.getString("_id"), stats);
+        }
+        return found;
+    }
+
+    private static Query versioned(String shortCode, Document current) {
+        Number version = current == null ? null : current.get("visitorsVersion", Number.class);
+        Criteria criteria = Criteria.where("_id").is(shortCode);
+        return Query.query(version == null
+                ? criteria.and("visitorsVersion").exists(false)
+                : criteria.and("visitorsVersion").is(version.longValue()));
+    }
+
+    private static Update mergedUpdate(Document current, HyperLogLog sketch) {
+        HyperLogLog merged = HyperLogLog.fromBytes(sketch.toBytes());
+        Object bytes = current == null ? null : current.get("visitors");
+        if (bytes instanceof Binary binary) {
+            merged.merge(HyperLogLog.fromBytes(binary.getData()));
+        } else if (bytes instanceof byte[] raw) {
+            merged.merge(HyperLogLog.fromBytes(raw));
+        }
+        return new Update().set("visitors", merged.toBytes())
+                .set("uniqueVisitors", merged.estimate())
+                .inc("visitorsVersion", 1L);
+    }
+
+    /**
+     * @param shortCodes codes to look up
+     * @return aggregated totals and unique visitors of the codes that have any
+     */
+    public Map<String, ClickSummary> summaries(Collection<String> shortCodes) {
+        Map<String, ClickSummary> summaries = new HashMap<>();
+        if (shortCodes.isEmpty()) {
+            return summaries;
+        }
+        Query query = Query.query(Criteria.where("_id").in(shortCodes));
+        query.fields().include("total").include("uniqueVisitors");
+        for (Document stats : mongoTemplate.find(query, Document.class, STATS_COLLECTION)) {
+            summaries.put(stats.getString("_id"),
+                    new ClickSummary(longValue(stats, "total"), longValue(stats, "uniqueVisitors")));
+        }
+        return summaries;
+    }
+
+    private static long longValue(Document document, String field) {
+        Number value = document.get(field, Number.class);
+        return value == null ? 0L : value.longValue();
+    }
+
+    /**
+     * @param limit number of codes
+     * @return the most clicked codes of all time, most clicked first
+     */
+    public List<String> topCodes(int limit) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "total")).limit(limit);
+        query.fields().include("_id");
+        List<String> codes = new ArrayList<>();
+        for (Document stats : mongoTemplate.find(query, Document.class, STATS_COLLECTION)) {
+            codes.add(stats.getString("_id"));
+        }
+        return codes;
+    }
+
+    /**
+     * @return aggregated clicks over all short codes
+     */
+    public long grandTotal() {
+        Document result = mongoTemplate.aggregate(
+                Aggregation.newAggregation(Aggregation.group().sum("total").as("total")),
+                STATS_COLLECTION, Document.class).getUniqueMappedResult();
+        Number total = result == null ? null : result.get("total", Number.class);
+        return total == null ? 0L : total.longValue();
+    }
+}
@@ -0,0 +1,26 @@
+package com.urlshortener.analytics;
+
+/**
+ * Aggregated clicks of one short code as stored in {@code click_stats}
+ */
+public final class ClickSummary {
+
+    private final long total;
+    private final long uniqueVisitors;
+
+    public ClickSummary(long total, long uniqueVisitors) {
+        this.total = total;
+        this.uniqueVisitors = uniqueVisitors;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return estimated distinct clients, from the code's HyperLogLog sketch
+     */
+    public long getUniqueVisitors() {
+        return uniqueVisitors;
+    }
+}
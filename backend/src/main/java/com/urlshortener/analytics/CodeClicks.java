@@ -0,0 +1,62 @@
+package com.urlshortener.analytics;
+
+import com.urlshortener.util.HyperLogLog;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Clicks of one short code compacted from the click log: a total, a split
+ * by user agent class, minute buckets and a sketch of distinct clients.
+ */
+public final class CodeClicks {
+
+    private long total;
+    private final long[] byUserAgent = new long[ClickEvents.UA_CLASSES];
+    private long lastClickMillis;
+    private final Map<Long, Long> minutes = new TreeMap<>();
+    private HyperLogLog visitors;
+
+    void add(long timestampMillis, byte userAgentClass, long clientHash) {
+        total++;
+        byUserAgent[userAgentClass >= 0 && userAgentClass < ClickEvents.UA_CLASSES ? userAgentClass : 0]++;
+        lastClickMillis = Math.max(lastClickMillis, timestampMillis);
+        minutes.merge(ClickResolution.MINUTE.slotStart(timestampMillis), 1L, Long::sum);
+        if (clientHash != 0) {
+            if (visitors == null) {
+                visitors = new HyperLogLog();
+            }
+            visitors.add(clientHash);
+        }
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @param userAgentClass one of the {@code ClickEvents.UA_*} constants
+     * @return clicks from that class
+     */
+    public long getByUserAgent(byte userAgentClass) {
+        return byUserAgent[userAgentClass];
+    }
+
+    public long getLastClickMillis() {
+        return lastClickMillis;
+    }
+
+    /**
+     * @return clicks per minute, keyed by the minute's start in epoch millis
+     */
+    public Map<Long, Long> getMinutes() {
+        return minutes;
+    }
+
+    /**
+     * @return distinct clients seen, or null if no click carried a client hash
+     */
+    public HyperLogLog getVisitors() {
+        return visitors;
+    }
+}
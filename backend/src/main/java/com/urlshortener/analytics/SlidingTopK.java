@@ -0,0 +1,59 @@
+package com.urlshortener.analytics;
+
+import com.urlshortener.util.SpaceSaving;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Heavy hitters of one {@link TrendingWindow}: a ring of Space-Saving
+ * summaries, one per bucket. A bucket is cleared in place when the window
+ * slides onto it, so memory stays fixed and recording allocates nothing.
+ */
+final class SlidingTopK {
+
+    private final TrendingWindow window;
+    private final SpaceSaving[] buckets;
+    // Bucket number (time / bucket length) each ring slot currently holds
+    private final long[] epochs;
+
+    SlidingTopK(TrendingWindow window, int capacity, int sketchDepth, int sketchWidth) {
+        this.window = window;
+        this.buckets = new SpaceSaving[window.getBuckets()];
+        this.epochs = new long[window.getBuckets()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new SpaceSaving(capacity, sketchDepth, sketchWidth);
+            epochs[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Count a click; clicks older than the slot's current bucket are ignored
+     */
+    synchronized void record(String shortCode, long timestampMillis) {
+        long epoch = Math.floorDiv(timestampMillis, window.getBucketMillis());
+        int slot = (int) Math.floorMod(epoch, (long) buckets.length);
+        if (epochs[slot] < epoch) {
+            buckets[slot].clear();
+            epochs[slot] = epoch;
+        } else if (epochs[slot] > epoch) {
+            return;
+        }
+        buckets[slot].offer(shortCode);
+    }
+
+    /**
+     * @param nowMillis current time
+     * @return estimated clicks per monitored code, summed over the buckets in the window
+     */
+    synchronized Map<String, Long> snapshot(long nowMillis) {
+        long current = Math.floorDiv(nowMillis, window.getBucketMillis());
+        Map<String, Long> totals = new HashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (epochs[i] > current - buckets.length && epochs[i] <= current) {
+                buckets[i].addTo(totals);
+            }
+        }
+        return totals;
+    }
+}
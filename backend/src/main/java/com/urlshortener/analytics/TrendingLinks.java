@@ -0,0 +1,47 @@
+package com.urlshortener.analytics;
+
+import java.util.Map;
+
+/**
+ * Most clicked links of a trending window, merged over the nodes that
+ * reported recently
+ */
+public final class TrendingLinks {
+
+    private final TrendingWindow window;
+    private final Map<String, Long> clicks;
+    private final int nodes;
+    private final boolean partial;
+
+    public TrendingLinks(TrendingWindow window, Map<String, Long> clicks, int nodes, boolean partial) {
+        this.window = window;
+        this.clicks = clicks;
+        this.nodes = nodes;
+        this.partial = partial;
+    }
+
+    public TrendingWindow getWindow() {
+        return window;
+    }
+
+    /**
+     * @return estimated clicks per short code, most clicked first
+     */
+    public Map<String, Long> getClicks() {
+        return clicks;
+    }
+
+    /**
+     * @return number of nodes whose clicks are included
+     */
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return true if other nodes could not be read and only this node's clicks are included
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+}
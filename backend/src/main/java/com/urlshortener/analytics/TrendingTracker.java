@@ -0,0 +1,167 @@
+package com.urlshortener.analytics;
+
+import com.urlshortener.util.CoarseClock;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming heavy hitters: the most clicked links over the last 5 minutes,
+ * hour and day, without scanning or sorting stored counts.
+ *
+ * Every click reaches a {@link SlidingTopK} per window on the click log's
+ * writer thread, so the redirect itself does no extra work. Each node
+ * publishes its current top links to {@code trending_nodes} and a query
+ * sums them with this node's live view. Snapshots of nodes that stopped
+ * publishing expire after a few intervals.
+ */
+@Component
+public class TrendingTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingTracker.class);
+
+    static final String COLLECTION = "trending_nodes";
+
+    /** Publish intervals after which a node's snapshot no longer counts */
+    private static final int SNAPSHOT_TTL_INTERVALS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final ClickEventLog clickEventLog;
+    private final CoarseClock clock;
+    private final String nodeId;
+    private final int capacity;
+    private final long publishIntervalMillis;
+    private final Map<TrendingWindow, SlidingTopK> windows = new EnumMap<>(TrendingWindow.class);
+
+    private volatile boolean indexReady;
+
+    @Autowired
+    public TrendingTracker(MongoTemplate mongoTemplate, ClickEventLog clickEventLog, CoarseClock clock,
+                           @Value("${app.node-id:${HOSTNAME:local}}") String nodeId,
+                           @Value("${app.trending.capacity:100}") int capacity,
+                           @Value("${app.trending.sketch-depth:4}") int sketchDepth,
+                           @Value("${app.trending.sketch-width:1024}") int sketchWidth,
+                           @Value("${app.trending.publish-interval-ms:10000}") long publishIntervalMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.clickEventLog = clickEventLog;
+        this.clock = clock;
+        this.nodeId = nodeId;
+        this.capacity = capacity;
+        this.publishIntervalMillis = publishIntervalMillis;
+        for (TrendingWindow window : TrendingWindow.values()) {
+            windows.put(window, new SlidingTopK(window, capacity, sketchDepth, sketchWidth));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        clickEventLog.addListener((shortCode, timestampMillis, referrerHash, userAgentClass, clientHash) ->
+                record(shortCode, timestampMillis));
+    }
+
+    /**
+     * Count a click in every window
+     * @param shortCode the code that was followed
+     * @param timestampMillis when
+     */
+    public void record(String shortCode, long timestampMillis) {
+        for (SlidingTopK window : windows.values()) {
+            window.record(shortCode, timestampMillis);
+        }
+    }
+
+    /**
+     * Publish this node's top links of every window for the other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.trending.publish-interval-ms:10000}")
+    public void publish() {
+        long now = clock.currentTimeMillis();
+        Document snapshot = new Document("_id", nodeId)
+                .append("publishedAt", new Date(now))
+                .append("expireAt", new Date(now + SNAPSHOT_TTL_INTERVALS * publishIntervalMillis));
+        Document byWindow = new Document();
+        for (Map.Entry<TrendingWindow, SlidingTopK> entry : windows.entrySet()) {
+            List<Document> links = new ArrayList<>();
+            top(entry.getValue().snapshot(now), capacity).forEach((shortCode, clicks) ->
+                    links.add(new Document("shortCode", shortCode).append("clicks", clicks)));
+            byWindow.append(entry.getKey().getLabel(), links);
+        }
+        snapshot.append("windows", byWindow);
+        try {
+            ensureIndex();
+            mongoTemplate.save(snapshot, COLLECTION);
+        } catch (DataAccessException e) {
+            logger.warn("Could not publish trending links: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Most clicked links of a window over all nodes that published recently.
+     * Falls back to this node's clicks alone if the other nodes cannot be read.
+     * @param window the window
+     * @param limit number of links, capped at the tracker capacity
+     * @return the links, most clicked first
+     */
+    public TrendingLinks trending(TrendingWindow window, int limit) {
+        long now = clock.currentTimeMillis();
+        Map<String, Long> totals = windows.get(window).snapshot(now);
+        int nodes = 1;
+        boolean partial = false;
+        try {
+            Query query = Query.query(Criteria.where("_id").ne(nodeId).and("expireAt").gt(new Date(now)));
+            query.fields().include("windows." + window.getLabel());
+            for (Document node : mongoTemplate.find(query, Document.class, COLLECTION)) {
+                Document byWindow = node.get("windows", Document.class);
+                List<Document> links = byWindow == null ? null : byWindow.getList(window.getLabel(), Document.class);
+                if (links == null) {
+                    continue;
+                }
+                for (Document link : links) {
+                    Number clicks = link.get("clicks", Number.class);
+                    totals.merge(link.getString("shortCode"), clicks == null ? 0L : clicks.longValue(), Long::sum);
+                }
+                nodes++;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not read trending links of other nodes: {}", e.getMessage());
+            partial = true;
+        }
+        return new TrendingLinks(window, top(totals, Math.min(limit, capacity)), nodes, partial);
+    }
+
+    private static Map<String, Long> top(Map<String, Long> totals, int limit) {
+        Map<String, Long> top = new LinkedHashMap<>();
+        totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    private void ensureIndex() {
+        if (!indexReady) {
+            mongoTemplate.indexOps(COLLECTION)
+                    .ensureIndex(new Index().on("expireAt", Sort.Direction.ASC).expire(Duration.ZERO));
+            indexReady = true;
+        }
+    }
+}
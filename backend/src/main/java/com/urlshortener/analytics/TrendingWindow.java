@@ -0,0 +1,55 @@
+package com.urlshortener.analytics;
+
+/**
+ * Sliding windows of the trending links tracker. Each window is a ring of
+ * fixed-size buckets, so it slides one bucket at a time and covers between
+ * {@code buckets - 1} and {@code buckets} bucket lengths of clicks.
+ */
+public enum TrendingWindow {
+
+    /** Last five minutes, in one-minute buckets */
+    FIVE_MINUTES("5m", 60_000L, 5),
+    /** Last hour, in five-minute buckets */
+    ONE_HOUR("1h", 300_000L, 12),
+    /** Last day, in one-hour buckets */
+    ONE_DAY("24h", 3_600_000L, 24);
+
+    private final String label;
+    private final long bucketMillis;
+    private final int buckets;
+
+    TrendingWindow(String label, long bucketMillis, int buckets) {
+        this.label = label;
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+    }
+
+    /**
+     * @return name used in the API and in stored node snapshots
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * @param value "5m", "1h" or "24h"
+     * @return the window
+     * @throws IllegalArgumentException for anything else
+     */
+    public static TrendingWindow parse(String value) {
+        for (TrendingWindow window : values()) {
+            if (window.label.equalsIgnoreCase(value.trim())) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("Window must be 5m, 1h or 24h");
+    }
+}
@@ -0,0 +1,193 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.util.HierarchicalTimingWheel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+
+/**
+ * Snapshot of a URL mapping held in the per-node redirect cache.
+ * Only the fields needed to answer a redirect are kept, with the expiry
+ * pre-converted to epoch millis so checking it needs no date objects, and
+ * the Location header value encoded once when the snapshot is built.
+ */
+public final class CachedMapping {
+
+    /** Sentinel for mappings without an expiry date */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final String id;
+    private final String shortCode;
+    private final String originalUrl;
+    private final String location;
+    private final long expiresAtMillis;
+    private final long loadedAtMillis;
+    // 0 means the configured default status
+    private final int redirectStatus;
+    private final boolean exactAnalytics;
+    private final boolean blocked;
+
+    // Last headers computed by the redirect policy, replaced when they go stale
+    private volatile RedirectHeaders redirectHeaders;
+
+    // Pending eviction at expiresAt, cancelled when the entry leaves the cache early
+    private volatile HierarchicalTimingWheel.Timeout<CachedMapping> expiryTimeout;
+
+    public CachedMapping(String id, String shortCode, String originalUrl, long expiresAtMillis, long loadedAtMillis) {
+        this(id, shortCode, originalUrl, expiresAtMillis, loadedAtMillis, 0, false);
+    }
+
+    public CachedMapping(String id, String shortCode, String originalUrl, long expiresAtMillis, long loadedAtMillis,
+                         int redirectStatus, boolean exactAnalytics) {
+        this(id, shortCode, originalUrl, expiresAtMillis, loadedAtMillis, redirectStatus, exactAnalytics, false);
+    }
+
+    public CachedMapping(String id, String shortCode, String originalUrl, long expiresAtMillis, long loadedAtMillis,
+                         int redirectStatus, boolean exactAnalytics, boolean blocked) {
+        this.id = id;
+        this.shortCode = shortCode;
+        this.originalUrl = originalUrl;
+        this.location = toLocation(originalUrl);
+        this.expiresAtMillis = expiresAtMillis;
+        this.loadedAtMillis = loadedAtMillis;
+        this.redirectStatus = redirectStatus;
+        this.exactAnalytics = exactAnalytics;
+        this.blocked = blocked;
+    }
+
+    /**
+     * Build a cache snapshot from a persisted mapping
+     * @param mapping the mapping loaded from Mongo
+     * @param nowMillis the load time in epoch millis
+     * @return the cache snapshot
+     */
+    public static CachedMapping from(URLMapping mapping, long nowMillis) {
+        long expiresAtMillis = mapping.getExpiresAt() == null
+                ? NO_EXPIRY
+                : mapping.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        int redirectStatus = mapping.getRedirectStatus() == null ? 0 : mapping.getRedirectStatus();
+        return new CachedMapping(mapping.getId(), mapping.getShortCode(), mapping.getOriginalUrl(),
+                expiresAtMillis, nowMillis, redirectStatus, mapping.isExactAnalytics(), mapping.isBlocked());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public String getOriginalUrl() {
+        return originalUrl;
+    }
+
+    /**
+     * @return the original URL as a header-safe Location value; the same
+     *         instance as {@link #getOriginalUrl()} when it is plain ASCII
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    /**
+     * @return the per-link redirect status, or 0 for the configured default
+     */
+    public int getRedirectStatus() {
+        return redirectStatus;
+    }
+
+    /**
+     * @return true if every redirect must reach this service, so none may be cached downstream
+     */
+    public boolean isExactAnalytics() {
+        return exactAnalytics;
+    }
+
+    /**
+     * @return true if the destination was flagged by the blocklist
+     */
+    public boolean isBlocked() {
+        return blocked;
+    }
+
+    public RedirectHeaders getRedirectHeaders() {
+        return redirectHeaders;
+    }
+
+    public void setRedirectHeaders(RedirectHeaders redirectHeaders) {
+        this.redirectHeaders = redirectHeaders;
+    }
+
+    void setExpiryTimeout(HierarchicalTimingWheel.Timeout<CachedMapping> expiryTimeout) {
+        this.expiryTimeout = expiryTimeout;
+    }
+
+    void cancelExpiry() {
+        HierarchicalTimingWheel.Timeout<CachedMapping> timeout = expiryTimeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis > expiresAtMillis;
+    }
+
+    /**
+     * Percent-encode everything outside visible ASCII. Containers write header
+     * values as ISO-8859-1, so other characters would be mangled, and CR/LF
+     * must never reach a header.
+     */
+    static String toLocation(String url) {
+        if (url == null) {
+            return null;
+        }
+        int i = 0;
+        while (i < url.length() && isVisibleAscii(url.charAt(i))) {
+            i++;
+        }
+        if (i == url.length()) {
+            return url;
+        }
+        StringBuilder encoded = new StringBuilder(url.length() + 16).append(url, 0, i);
+        while (i < url.length()) {
+            char c = url.charAt(i);
+            if (isVisibleAscii(c)) {
+                encoded.append(c);
+                i++;
+                continue;
+            }
+            int end = i + Character.charCount(url.codePointAt(i));
+            for (byte b : url.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                encoded.append('%')
+                        .append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+            i = end;
+        }
+        return encoded.toString();
+    }
+
+    private static boolean isVisibleAscii(char c) {
+        return c > 0x20 && c < 0x7F;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedMapping{" +
+                "shortCode='" + shortCode + '\'' +
+                ", expiresAtMillis=" + expiresAtMillis +
+                ", loadedAtMillis=" + loadedAtMillis +
+                '}';
+    }
+}
@@ -0,0 +1,318 @@
+package com.urlshortener.cache;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.UrlEncryptionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscribes to the change stream of the URL mapping collection and keeps the
+ * local {@link RedirectCache} coherent with writes made by any node.
+ *
+ * Deletes (TTL index, cleanup sweeps) invalidate the cached entry, updates
+ * refresh it in place. Click counter increments are filtered out server-side.
+ * When change streams are unavailable (e.g. a standalone mongod) the cache
+ * runs in TTL-only mode and the subscription is retried periodically.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.change-stream.enabled", havingValue = "true", matchIfMissing = true)
+public class MappingChangeStreamListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappingChangeStreamListener.class);
+
+    // Server error codes, see mongo/base/error_codes.yml
+    private static final int NOT_A_REPLICA_SET = 40573;
+    private static final Set<Integer> RESUME_NOT_POSSIBLE = Set.of(260, 280, 286);
+
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final RedirectCache redirectCache;
+    private final UrlEncryptionService encryptionService;
+    private final ResumeTokenStore resumeTokenStore;
+    private final String nodeId;
+    private final long unavailableRetryMillis;
+    private final long tokenSaveIntervalMillis;
+
+    private final Timer propagationLag;
+    private final Map<OperationType, Counter> eventCounters = new EnumMap<>(OperationType.class);
+
+    private volatile boolean running = false;
+    private volatile Thread worker;
+    private BsonDocument resumeToken;
+    private long lastTokenSaveMillis;
+
+    @Autowired
+    public MappingChangeStreamListener(MongoTemplate mongoTemplate,
+                                       RedirectCache redirectCache,
+                                       UrlEncryptionService encryptionService,
+                                       ResumeTokenStore resumeTokenStore,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.node-id:${HOSTNAME:local}}") String nodeId,
+                                       @Value("${app.cache.change-stream.retry-seconds:60}") long unavailableRetrySeconds,
+                                       @Value("${app.cache.change-stream.token-save-interval-ms:1000}") long tokenSaveIntervalMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.redirectCache = redirectCache;
+        this.encryptionService = encryptionService;
+        this.resumeTokenStore = resumeTokenStore;
+        this.nodeId = nodeId;
+        this.unavailableRetryMillis = TimeUnit.SECONDS.toMillis(unavailableRetrySeconds);
+        this.tokenSaveIntervalMillis = tokenSaveIntervalMillis;
+
+        this.propagationLag = Timer.builder("redirect.cache.coherence.lag")
+                .description("Delay between a write committing in Mongo and this node applying it to its cache")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        for (OperationType type : OperationType.values()) {
+            eventCounters.put(type, Counter.builder("redirect.cache.coherence.events")
+                    .description("Change stream events applied to the redirect cache")
+                    .tag("type", type.getValue())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("redirect.cache.coherence.mode", redirectCache, cache -> cache.isCoherent() ? 1 : 0)
+                .description("1 when the redirect cache is fed by a change stream, 0 in TTL-only mode")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "cache-change-stream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        try {
+            resumeToken = resumeTokenStore.load(nodeId);
+        } catch (RuntimeException e) {
+            logger.warn("Could not load change stream resume token for node {}: {}", nodeId, e.getMessage());
+        }
+
+        long backoffMillis = 1000;
+        while (running) {
+            try {
+                consume();
+                backoffMillis = 1000;
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == NOT_A_REPLICA_SET) {
+                    logger.warn("Change streams unavailable ({}), redirect cache running in TTL-only mode", e.getErrorMessage());
+                    redirectCache.setCoherent(false);
+                    sleep(unavailableRetryMillis);
+                } else if (RESUME_NOT_POSSIBLE.contains(e.getErrorCode())) {
+                    logger.warn("Cannot resume change stream ({}), flushing redirect cache", e.getErrorMessage());
+                    resumeToken = null;
+                    clearToken();
+                    redirectCache.invalidateAll();
+                } else {
+                    backoffMillis = handleTransientFailure(e, backoffMillis);
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                backoffMillis = handleTransientFailure(e, backoffMillis);
+            }
+        }
+        saveToken(true);
+        redirectCache.setCoherent(false);
+    }
+
+    private void consume() {
+        ChangeStreamIterable<Document> stream = mongoTemplate
+                .getCollection(mongoTemplate.getCollectionName(URLMapping.class))
+                .watch(pipeline())
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(500, TimeUnit.MILLISECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            redirectCache.setCoherent(true);
+            logger.info("Redirect cache subscribed to change stream (resumed: {})", resumeToken != null);
+
+            while (running) {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (event != null) {
+                    apply(event);
+                    if (event.getOperationType() == OperationType.INVALIDATE) {
+                        resumeToken = null;
+                        return;
+                    }
+                }
+                BsonDocument token = cursor.getResumeToken();
+                if (token != null) {
+                    resumeToken = token;
+                }
+                saveToken(false);
+            }
+        }
+    }
+
+    void apply(ChangeStreamDocument<Document> event) {
+        OperationType type = event.getOperationType();
+        switch (type) {
+            case DELETE -> redirectCache.invalidateById(idOf(event.getDocumentKey()));
+            case UPDATE, REPLACE -> {
+                Document fullDocument = event.getFullDocument();
+                if (fullDocument == null) {
+                    redirectCache.invalidateById(idOf(event.getDocumentKey()));
+                } else {
+                    refresh(event, mongoTemplate.getConverter().read(URLMapping.class, fullDocument));
+                }
+            }
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> redirectCache.invalidateAll();
+            default -> {
+                // Inserts cannot make a cached entry stale
+            }
+        }
+
+        eventCounters.get(type).increment();
+        recordLag(event);
+    }
+
+    /**
+     * Converter reads skip the entity callbacks, so decrypt here; an entry
+     * that cannot be decrypted is dropped and reloaded on its next lookup
+     */
+    private void refresh(ChangeStreamDocument<Document> event, URLMapping mapping) {
+        try {
+            mapping.setOriginalUrl(encryptionService.decrypt(mapping.getOriginalUrl(), mapping.getShortCode()));
+        } catch (IllegalStateException e) {
+            logger.warn("Dropping cached entry for {}: {}", mapping.getShortCode(), e.getMessage());
+            redirectCache.invalidateById(idOf(event.getDocumentKey()));
+            return;
+        }
+        redirectCache.refreshIfPresent(mapping, System.currentTimeMillis());
+    }
+
+    private void recordLag(ChangeStreamDocument<Document> event) {
+        long committedAtMillis;
+        if (event.getWallTime() != null) {
+            committedAtMillis = event.getWallTime().getValue();
+        } else if (event.getClusterTime() != null) {
+            committedAtMillis = TimeUnit.SECONDS.toMillis(event.getClusterTime().getTime());
+        } else {
+            return;
+        }
+        long lagMillis = Math.max(0, System.currentTimeMillis() - committedAtMillis);
+        propagationLag.record(lagMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Only deliver events that can change a redirect: deletes, replaces,
+     * collection-level events, and updates touching more than the click counter.
+     */
+    static List<Bson> pipeline() {
+        Document otherFieldsChanged = new Document("$gt", List.of(
+                new Document("$size", new Document("$filter", new Document()
+                        .append("input", new Document("$objectToArray",
+                                new Document("$ifNull", List.of("$updateDescription.updatedFields", new Document()))))
+                        .append("cond", new Document("$ne", List.of("$$this.k", "clickCount"))))),
+                0));
+        Document fieldsRemoved = new Document("$gt", List.of(
+                new Document("$size", new Document("$ifNull", List.of("$updateDescription.removedFields", List.of()))),
+                0));
+
+        Document match = new Document("$or", List.of(
+                new Document("operationType", new Document("$in",
+                        List.of("delete", "replace", "drop", "rename", "dropDatabase", "invalidate"))),
+                new Document("$and", List.of(
+                        new Document("operationType", "update"),
+                        new Document("$expr", new Document("$or", List.of(otherFieldsChanged, fieldsRemoved)))))));
+        return List.of(new Document("$match", match));
+    }
+
+    private static String idOf(BsonDocument documentKey) {
+        if (documentKey == null) {
+            return null;
+        }
+        BsonValue id = documentKey.get("_id");
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private void saveToken(boolean force) {
+        if (resumeToken == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!force && now - lastTokenSaveMillis < tokenSaveIntervalMillis) {
+            return;
+        }
+        try {
+            resumeTokenStore.save(nodeId, resumeToken);
+            lastTokenSaveMillis = now;
+        } catch (RuntimeException e) {
+            logger.debug("Failed to persist change stream resume token: {}", e.getMessage());
+        }
+    }
+
+    private void clearToken() {
+        try {
+            resumeTokenStore.clear(nodeId);
+        } catch (RuntimeException e) {
+            logger.debug("Failed to clear change stream resume token: {}", e.getMessage());
+        }
+    }
+
+    private long handleTransientFailure(RuntimeException e, long backoffMillis) {
+        // Entries fall back to the short TTL until the stream is resumed
+        redirectCache.setCoherent(false);
+        logger.warn("Change stream interrupted, retrying in {} ms: {}", backoffMillis, e.getMessage());
+        sleep(backoffMillis);
+        return Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
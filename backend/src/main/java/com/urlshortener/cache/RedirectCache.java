@@ -0,0 +1,412 @@
+package com.urlshortener.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.urlshortener.exception.LookupUnavailableException;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.MappingRemovalListener;
+import com.urlshortener.util.CoarseClock;
+import com.urlshortener.util.HierarchicalTimingWheel;
+import com.urlshortener.util.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded per-node cache of short code to redirect target.
+ *
+ * Entries live for a short TTL while the node runs in TTL-only mode. When a
+ * change stream keeps the cache coherent the longer coherent TTL applies,
+ * since deletes and updates are pushed to every node as they happen.
+ *
+ * Independently of the TTL, each entry is registered with a timing wheel and
+ * evicted as soon as its mapping's expiresAt passes.
+ *
+ * Misses are coalesced: concurrent lookups of the same short code share one
+ * load instead of each querying Mongo. A load that was overtaken by an
+ * invalidation or update of its short code is returned to its callers but
+ * not cached, so a delete or block pushed while it ran is not undone.
+ *
+ * Entries past their TTL are not dropped straight away. Within the
+ * stale-while-revalidate window the old snapshot is served immediately and
+ * refreshed in the background; beyond it the lookup loads synchronously, and
+ * if Mongo is unavailable a snapshot up to the stale-if-error age is served
+ * rather than failing the redirect. A mapping's own expiresAt always wins.
+ */
+@Component
+public class RedirectCache implements MappingRemovalListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedirectCache.class);
+
+    private static final int EPOCH_STRIPES = 1024;
+
+    private final Cache<String, CachedMapping> entries;
+    private final HierarchicalTimingWheel<CachedMapping> expiryWheel;
+    private final SingleFlight<String, CachedMapping> loads;
+
+    // Change stream delete events only carry the document _id
+    private final ConcurrentHashMap<String, String> shortCodesById = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation or update of a short code in the stripe,
+    // and globally by a delete whose short code is not cached
+    private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_STRIPES);
+    private final AtomicLong unresolvedEpoch = new AtomicLong();
+
+    private final long ttlMillis;
+    private final long coherentTtlMillis;
+    private final long coalesceWaitMillis;
+    private final long staleWhileRevalidateMillis;
+    private final long staleIfErrorMillis;
+
+    private final CoarseClock clock;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Counter staleServed;
+    private final Counter staleOnError;
+
+    private volatile boolean coherent = false;
+
+    @Autowired
+    public RedirectCache(@Value("${app.cache.redirect.max-size:100000}") long maxSize,
+                         @Value("${app.cache.redirect.ttl-seconds:60}") long ttlSeconds,
+                         @Value("${app.cache.redirect.coherent-ttl-seconds:3600}") long coherentTtlSeconds,
+                         @Value("${app.cache.redirect.expiry-resolution-ms:100}") long expiryResolutionMillis,
+                         @Value("${app.cache.redirect.coalesce-wait-ms:200}") long coalesceWaitMillis,
+                         @Value("${app.cache.redirect.stale-while-revalidate-seconds:30}") long staleWhileRevalidateSeconds,
+                         @Value("${app.cache.redirect.stale-if-error-seconds:86400}") long staleIfErrorSeconds,
+                         @Value("${app.cache.redirect.refresh-threads:4}") int refreshThreads,
+                         CoarseClock clock,
+                         MeterRegistry meterRegistry) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.coherentTtlMillis = TimeUnit.SECONDS.toMillis(coherentTtlSeconds);
+        this.coalesceWaitMillis = coalesceWaitMillis;
+        this.staleWhileRevalidateMillis = TimeUnit.SECONDS.toMillis(staleWhileRevalidateSeconds);
+        this.staleIfErrorMillis = TimeUnit.SECONDS.toMillis(staleIfErrorSeconds);
+        this.clock = clock;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // Keep snapshots around for stale-if-error, then let Caffeine drop them
+                .expireAfterWrite(Math.max(ttlMillis, coherentTtlMillis)
+                        + Math.max(staleWhileRevalidateMillis, staleIfErrorMillis), TimeUnit.MILLISECONDS)
+                .removalListener((String shortCode, CachedMapping mapping, RemovalCause cause) -> {
+                    if (mapping == null) {
+                        return;
+                    }
+                    mapping.cancelExpiry();
+                    if (mapping.getId() != null && cause != RemovalCause.REPLACED) {
+                        shortCodesById.remove(mapping.getId(), shortCode);
+                    }
+                })
+                .build();
+
+        this.expiryWheel = new HierarchicalTimingWheel<>(expiryResolutionMillis, clock.currentTimeMillis(), this::evictExpired);
+        clock.addTickListener(expiryWheel::advance);
+
+        Counter loaded = loadCounter(meterRegistry, "loaded");
+        Counter shared = loadCounter(meterRegistry, "shared");
+        Counter timedOut = loadCounter(meterRegistry, "timed_out");
+        this.loads = new SingleFlight<>(outcome -> {
+            switch (outcome) {
+                case LOADED -> loaded.increment();
+                case SHARED -> shared.increment();
+                case TIMED_OUT -> timedOut.increment();
+            }
+        });
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(refreshThreads * 64), runnable -> {
+                    Thread thread = new Thread(runnable, "redirect-cache-refresh-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+
+        this.staleServed = staleCounter(meterRegistry, "revalidate");
+        this.staleOnError = staleCounter(meterRegistry, "error");
+
+        Gauge.builder("redirect.cache.size", entries, Cache::estimatedSize)
+                .description("Entries held in the per-node redirect cache")
+                .register(meterRegistry);
+        Gauge.builder("redirect.cache.expiry.scheduled", expiryWheel, HierarchicalTimingWheel::size)
+                .description("Cache entries waiting on the timing wheel for their expiresAt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Look up a cached mapping that is still within its cache TTL
+     * @param shortCode the short code
+     * @param nowMillis current time in epoch millis
+     * @return the cached mapping, or null on a miss
+     */
+    public CachedMapping get(String shortCode, long nowMillis) {
+        CachedMapping mapping = entries.getIfPresent(shortCode);
+        if (mapping == null) {
+            return null;
+        }
+        if (nowMillis - mapping.getLoadedAtMillis() > currentTtlMillis()) {
+            return null;
+        }
+        return mapping;
+    }
+
+    /**
+     * Look up a mapping, loading it on a miss. Concurrent misses for the same
+     * short code share a single call to the loader. Stale entries are served
+     * while they are revalidated, or when the loader reports Mongo unavailable.
+     * @param shortCode the short code
+     * @param nowMillis current time in epoch millis
+     * @param loader loads the mapping from Mongo, returning null if it does not exist
+     * @return the cached mapping, or null if the loader found nothing
+     * @throws LookupUnavailableException if the loader failed and no usable stale entry exists
+     */
+    public CachedMapping getOrLoad(String shortCode, long nowMillis, Function<String, URLMapping> loader) {
+        CachedMapping cached = entries.getIfPresent(shortCode);
+        if (cached != null) {
+            long age = nowMillis - cached.getLoadedAtMillis();
+            long ttl = currentTtlMillis();
+            if (age <= ttl) {
+                return cached;
+            }
+            if (age <= ttl + staleWhileRevalidateMillis && !cached.isExpired(nowMillis)) {
+                staleServed.increment();
+                refreshAsync(shortCode, loader);
+                return cached;
+            }
+        }
+
+        try {
+            return loads.execute(shortCode, () -> {
+                // A flight that finished just before this one started may have filled the entry
+                CachedMapping filled = get(shortCode, nowMillis);
+                if (filled != null) {
+                    return filled;
+                }
+                return loadAndPut(shortCode, loader, nowMillis);
+            }, coalesceWaitMillis);
+        } catch (LookupUnavailableException e) {
+            // Re-read rather than reuse the entry seen above: it may have been
+            // invalidated by the change stream while the load was failing
+            CachedMapping stale = entries.getIfPresent(shortCode);
+            if (stale != null && !stale.isExpired(nowMillis)
+                    && nowMillis - stale.getLoadedAtMillis() <= currentTtlMillis() + staleIfErrorMillis) {
+                staleOnError.increment();
+                logger.debug("Serving stale mapping for short code {}: {}", shortCode, e.getMessage());
+                return stale;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cache a freshly loaded mapping
+     * @param mapping the mapping loaded from Mongo
+     * @param nowMillis load time in epoch millis
+     * @return the cached snapshot
+     */
+    public CachedMapping put(URLMapping mapping, long nowMillis) {
+        CachedMapping cached = CachedMapping.from(mapping, nowMillis);
+        scheduleExpiry(cached);
+        entries.put(cached.getShortCode(), cached);
+        if (cached.getId() != null) {
+            shortCodesById.put(cached.getId(), cached.getShortCode());
+        }
+        return cached;
+    }
+
+    /**
+     * Replace an entry only if this node already caches the short code
+     * @param mapping the updated mapping
+     * @param nowMillis load time in epoch millis
+     */
+    public void refreshIfPresent(URLMapping mapping, long nowMillis) {
+        CachedMapping cached = CachedMapping.from(mapping, nowMillis);
+        // A load in flight may have read the previous version
+        epochs.incrementAndGet(stripe(cached.getShortCode()));
+        if (entries.asMap().computeIfPresent(cached.getShortCode(), (code, old) -> cached) != null) {
+            scheduleExpiry(cached);
+            logger.debug("Refreshed cached mapping for short code: {}", cached.getShortCode());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    public void invalidate(String shortCode) {
+        epochs.incrementAndGet(stripe(shortCode));
+        entries.invalidate(shortCode);
+    }
+
+    /**
+     * Invalidate by Mongo document id, as delivered by delete events
+     * @param id the document id
+     */
+    public void invalidateById(String id) {
+        String shortCode = shortCodesById.remove(id);
+        if (shortCode == null) {
+            // Not cached yet, but a load in flight may be about to cache it.
+            // Loads register the id before checking the epochs, so after this
+            // bump either the id is found below or that load is discarded.
+            unresolvedEpoch.incrementAndGet();
+            shortCode = shortCodesById.remove(id);
+            if (shortCode == null) {
+                return;
+            }
+        }
+        invalidate(shortCode);
+        logger.debug("Invalidated cached mapping for short code: {}", shortCode);
+    }
+
+    @Override
+    public void onMappingsRemoved(Collection<String> shortCodes) {
+        for (String shortCode : shortCodes) {
+            epochs.incrementAndGet(stripe(shortCode));
+        }
+        entries.invalidateAll(shortCodes);
+    }
+
+    public void invalidateAll() {
+        unresolvedEpoch.incrementAndGet();
+        entries.invalidateAll();
+        shortCodesById.clear();
+    }
+
+    /**
+     * Switch between coherent (change stream) and TTL-only mode.
+     * Leaving coherent mode shortens the TTL of every entry, so anything
+     * older than the TTL-only window is reloaded on its next lookup.
+     * @param coherent whether a change stream currently feeds this cache
+     */
+    public void setCoherent(boolean coherent) {
+        this.coherent = coherent;
+    }
+
+    public boolean isCoherent() {
+        return coherent;
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private static Counter loadCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("redirect.cache.loads")
+                .description("Cache miss loads by outcome: loaded from Mongo, shared with an in-flight load, or wait timed out")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter staleCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("redirect.cache.stale_served")
+                .description("Stale cache entries served while revalidating or because Mongo was unavailable")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private CachedMapping loadAndPut(String shortCode, Function<String, URLMapping> loader, long nowMillis) {
+        int stripe = stripe(shortCode);
+        long epoch = epochs.get(stripe);
+        long unresolved = unresolvedEpoch.get();
+        URLMapping mapping = loader.apply(shortCode);
+        if (mapping == null) {
+            invalidate(shortCode);
+            return null;
+        }
+
+        CachedMapping loaded = CachedMapping.from(mapping, nowMillis);
+        CachedMapping stored = entries.asMap().compute(shortCode, (code, old) -> {
+            if (loaded.getId() != null) {
+                shortCodesById.put(loaded.getId(), code);
+            }
+            if (epochs.get(stripe) == epoch && unresolvedEpoch.get() == unresolved) {
+                return loaded;
+            }
+            // Invalidated or updated while loading: what was read may be stale.
+            // Whatever is cached now was put after that and stays.
+            if (loaded.getId() != null && (old == null || !loaded.getId().equals(old.getId()))) {
+                shortCodesById.remove(loaded.getId(), code);
+            }
+            return old;
+        });
+        if (stored == loaded) {
+            scheduleExpiry(loaded);
+        } else {
+            logger.debug("Not caching short code {}: invalidated while it was loading", shortCode);
+        }
+        return loaded;
+    }
+
+    /**
+     * Reload a stale entry off the request thread. At most one refresh per
+     * short code is queued; if the pool is saturated the entry simply stays
+     * stale until a later lookup tries again. Like any load, a refresh
+     * overtaken by an invalidation does not put its result back.
+     */
+    private void refreshAsync(String shortCode, Function<String, URLMapping> loader) {
+        if (!refreshing.add(shortCode)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    loads.execute(shortCode, () -> loadAndPut(shortCode, loader, clock.currentTimeMillis()),
+                            coalesceWaitMillis);
+                } catch (RuntimeException e) {
+                    logger.debug("Background refresh failed for short code {}: {}", shortCode, e.getMessage());
+                } finally {
+                    refreshing.remove(shortCode);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(shortCode);
+        }
+    }
+
+    private void scheduleExpiry(CachedMapping cached) {
+        if (cached.getExpiresAtMillis() != CachedMapping.NO_EXPIRY) {
+            cached.setExpiryTimeout(expiryWheel.schedule(cached, cached.getExpiresAtMillis()));
+        }
+    }
+
+    /**
+     * Batch callback from the timing wheel. Only removes the exact snapshot
+     * that was scheduled, so a refreshed entry is left alone.
+     */
+    private void evictExpired(List<CachedMapping> expired) {
+        for (CachedMapping mapping : expired) {
+            entries.asMap().remove(mapping.getShortCode(), mapping);
+        }
+        logger.debug("Evicted {} expired redirect cache entries", expired.size());
+    }
+
+    private static int stripe(String shortCode) {
+        int hash = shortCode.hashCode();
+        return (hash ^ (hash >>> 16)) & (EPOCH_STRIPES - 1);
+    }
+
+    private long currentTtlMillis() {
+        return coherent ? coherentTtlMillis : ttlMillis;
+    }
+}
@@ -0,0 +1,69 @@
+package com.urlshortener.cache;
+
+/**
+ * Status and header values of a redirect response, computed by the redirect
+ * policy and cached on the mapping until one of the values would change.
+ * Immutable, so a new instance means new headers and listeners that
+ * pre-encode responses can compare by identity.
+ */
+public final class RedirectHeaders {
+
+    private final int status;
+    private final String location;
+    private final String cacheControl;
+    private final String surrogateControl;
+    private final String vary;
+    private final long validUntilMillis;
+
+    /**
+     * @param status 301, 302, 307 or 308
+     * @param location header-safe Location value
+     * @param cacheControl Cache-Control value for browsers and shared caches
+     * @param surrogateControl Surrogate-Control value for the CDN, or null
+     * @param vary Vary value, or null
+     * @param validUntilMillis last epoch milli at which these values are still correct
+     */
+    public RedirectHeaders(int status, String location, String cacheControl, String surrogateControl,
+                           String vary, long validUntilMillis) {
+        this.status = status;
+        this.location = location;
+        this.cacheControl = cacheControl;
+        this.surrogateControl = surrogateControl;
+        this.vary = vary;
+        this.validUntilMillis = validUntilMillis;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getCacheControl() {
+        return cacheControl;
+    }
+
+    public String getSurrogateControl() {
+        return surrogateControl;
+    }
+
+    public String getVary() {
+        return vary;
+    }
+
+    public boolean isValidAt(long nowMillis) {
+        return nowMillis <= validUntilMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "RedirectHeaders{" +
+                "status=" + status +
+                ", cacheControl='" + cacheControl + '\'' +
+                ", surrogateControl='" + surrogateControl + '\'' +
+                ", validUntilMillis=" + validUntilMillis +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package com.urlshortener.cache;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Persists the last change stream resume token per node, so a restarted
+ * node continues from where it stopped instead of from "now".
+ */
+@Component
+public class ResumeTokenStore {
+
+    static final String COLLECTION = "cache_resume_tokens";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public ResumeTokenStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Load the last saved token for a node
+     * @param nodeId the node identifier
+     * @return the resume token, or null if none was saved
+     */
+    public BsonDocument load(String nodeId) {
+        Document stored = mongoTemplate.findById(nodeId, Document.class, COLLECTION);
+        if (stored == null || stored.get("token") == null) {
+            return null;
+        }
+        return BsonDocument.parse(stored.get("token", Document.class).toJson());
+    }
+
+    /**
+     * Save the latest token for a node
+     * @param nodeId the node identifier
+     * @param token the resume token
+     */
+    public void save(String nodeId, BsonDocument token) {
+        Query query = Query.query(Criteria.where("_id").is(nodeId));
+        Update update = Update.update("token", Document.parse(token.toJson()))
+                .set("updatedAt", new Date());
+        mongoTemplate.upsert(query, update, COLLECTION);
+    }
+
+    /**
+     * Forget the token for a node, e.g. after it fell out of the oplog window
+     * @param nodeId the node identifier
+     */
+    public void clear(String nodeId) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(nodeId)), COLLECTION);
+    }
+}
@@ -0,0 +1,46 @@
+package com.urlshortener.config;
+
+import com.urlshortener.filter.BulkheadFilter;
+import com.urlshortener.filter.RequestPriority;
+import com.urlshortener.resilience.Bulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Map;
+
+/**
+ * Isolated execution lanes for redirects, shorten and admin endpoints.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+    /**
+     * Runs after the concurrency limiter, so shed requests never queue in a lane.
+     */
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(
+            @Value("${app.bulkhead.redirect.max-concurrent:120}") int redirectConcurrent,
+            @Value("${app.bulkhead.redirect.max-queue:30}") int redirectQueue,
+            @Value("${app.bulkhead.shorten.max-concurrent:24}") int shortenConcurrent,
+            @Value("${app.bulkhead.shorten.max-queue:16}") int shortenQueue,
+            @Value("${app.bulkhead.admin.max-concurrent:4}") int adminConcurrent,
+            @Value("${app.bulkhead.admin.max-queue:4}") int adminQueue,
+            @Value("${app.bulkhead.max-wait-ms:50}") long maxWaitMillis,
+            @Value("${app.bulkhead.retry-after-seconds:1}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        Map<RequestPriority, Bulkhead> lanes = Map.of(
+                RequestPriority.REDIRECT, new Bulkhead("redirect", redirectConcurrent, redirectQueue, maxWaitMillis),
+                RequestPriority.SHORTEN, new Bulkhead("shorten", shortenConcurrent, shortenQueue, maxWaitMillis),
+                RequestPriority.ADMIN, new Bulkhead("admin", adminConcurrent, adminQueue, maxWaitMillis));
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(
+                new BulkheadFilter(lanes, retryAfterSeconds, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,62 @@
+package com.urlshortener.config;
+
+import com.urlshortener.filter.ConcurrencyLimitFilter;
+import com.urlshortener.filter.RequestPriority;
+import com.urlshortener.resilience.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limiting in front of the controllers.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.load-shedding.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig {
+
+    /**
+     * Shared limiter. Exposed as concurrency.limit and concurrency.in_flight.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter requestConcurrencyLimiter(
+            @Value("${app.load-shedding.initial-limit:100}") int initialLimit,
+            @Value("${app.load-shedding.min-limit:20}") int minLimit,
+            @Value("${app.load-shedding.max-limit:1000}") int maxLimit,
+            MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Runs ahead of the security chain so shed requests cost as little as possible.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter requestConcurrencyLimiter,
+            @Value("${app.load-shedding.shorten-share:0.9}") double shortenShare,
+            @Value("${app.load-shedding.admin-share:0.5}") double adminShare,
+            @Value("${app.load-shedding.retry-after-seconds:1}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        Map<RequestPriority, Double> shares = Map.of(
+                RequestPriority.REDIRECT, 1.0,
+                RequestPriority.SHORTEN, shortenShare,
+                RequestPriority.ADMIN, adminShare);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(requestConcurrencyLimiter, shares, retryAfterSeconds, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
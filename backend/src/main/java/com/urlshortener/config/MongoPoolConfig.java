@@ -0,0 +1,28 @@
+package com.urlshortener.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection pool floor for the Mongo client, so a node keeps warm
+ * connections instead of opening them under its first burst of traffic.
+ */
+@Configuration
+public class MongoPoolConfig {
+
+    /**
+     * Applies {@code app.mongo.min-pool-size}; 0 leaves the driver default
+     * (or a minPoolSize given in the connection string).
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(
+            @Value("${app.mongo.min-pool-size:0}") int minPoolSize) {
+        return settings -> {
+            if (minPoolSize > 0) {
+                settings.applyToConnectionPoolSettings(pool -> pool.minSize(minPoolSize));
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.urlshortener.config;
+
+import com.urlshortener.dto.ShortenURLRequest;
+import com.urlshortener.dto.ShortenURLResponse;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.validation.ValidHttpUrlValidator;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the GraalVM native image (-Pnative).
+ *
+ * Spring's AOT processing covers beans and repositories, and springdoc ships
+ * hints for its OpenAPI model; what is left is what Jackson and the Mongo
+ * mapper reach only through reflection, plus the Swagger UI static files.
+ * Ignored on the JVM.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ApplicationHints.class)
+public class NativeHintsConfig {
+
+    static class ApplicationHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Request and response bodies bound by Jackson
+            bindingHints.registerReflectionHints(hints.reflection(), ShortenURLRequest.class, ShortenURLResponse.class);
+            // Read and written field by field by MappingMongoConverter
+            hints.reflection().registerType(URLMapping.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+            // Instantiated by Hibernate Validator for @ValidHttpUrl
+            hints.reflection().registerType(ValidHttpUrlValidator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.urlshortener.config;
+
+import com.urlshortener.filter.RateLimitFilter;
+import com.urlshortener.resilience.ClientRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-client rate limiting of URL creation.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    /**
+     * Runs first, ahead of load shedding and the security chain, so an
+     * abusive client is turned away before it takes any shared capacity.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            @Value("${app.rate-limit.shorten.requests-per-minute:60}") double requestsPerMinute,
+            @Value("${app.rate-limit.shorten.burst:20}") int burst,
+            @Value("${app.rate-limit.slots:1048576}") int slots,
+            MeterRegistry meterRegistry) {
+        ClientRateLimiter limiter = new ClientRateLimiter(requestsPerMinute / 60.0, burst, slots);
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(limiter, meterRegistry));
+        registration.addUrlPatterns("/api/shorten");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
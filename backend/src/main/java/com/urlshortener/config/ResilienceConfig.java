@@ -0,0 +1,37 @@
+package com.urlshortener.config;
+
+import com.urlshortener.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Circuit breakers guarding calls to Mongo.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    /**
+     * Breaker around redirect lookups. Exposed as redirect.lookup.breaker.state
+     * (0 closed, 1 open, 2 half-open).
+     */
+    @Bean
+    public CircuitBreaker redirectLookupBreaker(
+            @Value("${app.redirect.breaker.window-size:100}") int windowSize,
+            @Value("${app.redirect.breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${app.redirect.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${app.redirect.breaker.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+            @Value("${app.redirect.breaker.slow-call-ms:50}") long slowCallMillis,
+            @Value("${app.redirect.breaker.open-ms:5000}") long openMillis,
+            @Value("${app.redirect.breaker.half-open-probes:5}") int halfOpenProbes,
+            MeterRegistry meterRegistry) {
+        CircuitBreaker breaker = new CircuitBreaker("redirect-lookup", windowSize, minimumCalls,
+                failureRateThreshold, slowCallRateThreshold, slowCallMillis, openMillis, halfOpenProbes);
+        Gauge.builder("redirect.lookup.breaker.state", breaker, b -> b.getState().ordinal())
+                .description("Redirect lookup circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        return breaker;
+    }
+}
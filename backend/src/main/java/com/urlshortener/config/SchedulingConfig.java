@@ -0,0 +1,12 @@
+package com.urlshortener.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs such as the expiry sweeper.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -27,8 +27,9 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 // Allow public access to all API endpoints
                 .requestMatchers("/api/**").permitAll()
-                // Allow public access to health endpoint
-                .requestMatchers("/health", "/actuator/health").permitAll()
+                // Allow public access to health endpoint and the orchestrator's probes
+                .requestMatchers("/health", "/actuator/health", "/actuator/health/liveness",
+                        "/actuator/health/readiness").permitAll()
                 // Restrict other actuator endpoints - require ADMIN role
                 .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // Allow public access to static resources and homepage
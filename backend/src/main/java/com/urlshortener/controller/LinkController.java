@@ -0,0 +1,90 @@
+package com.urlshortener.controller;
+
+import com.urlshortener.service.LinkAnalyticsService;
+import com.urlshortener.service.URLService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST controller for per-link data
+ */
+@RestController
+@RequestMapping("/api/links")
+@CrossOrigin(origins = "*") // Configure this properly for production
+public class LinkController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LinkController.class);
+    
+    private final LinkAnalyticsService linkAnalyticsService;
+    private final URLService urlService;
+    
+    @Autowired
+    public LinkController(LinkAnalyticsService linkAnalyticsService, URLService urlService) {
+        this.linkAnalyticsService = linkAnalyticsService;
+        this.urlService = urlService;
+    }
+    
+    /**
+     * List links newest first, a page at a time
+     * @param domain only links of this link domain, optional
+     * @param status active or expired, optional
+     * @param minClicks only links clicked at least this often, optional
+     * @param limit page size, optional
+     * @param cursor nextCursor from the previous page, optional
+     * @return the links and the cursor of the next page (null at the end)
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> listLinks(@RequestParam(required = false) String domain,
+                                                         @RequestParam(required = false) String status,
+                                                         @RequestParam(required = false) Long minClicks,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String cursor) {
+        logger.debug("Received link listing request (domain {}, status {}, minClicks {}, limit {})",
+                domain, status, minClicks, limit);
+        
+        try {
+            return ResponseEntity.ok(urlService.listLinks(domain, status, minClicks, limit, cursor));
+            
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid link listing request: {}", e.getMessage());
+            throw e;
+            
+        } catch (Exception e) {
+            logger.error("Error listing links: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to list links", e);
+        }
+    }
+    
+    /**
+     * Get the click time series of a link
+     * @param shortCode the short code
+     * @param from ISO-8601 start (inclusive), optional
+     * @param to ISO-8601 end (exclusive), optional
+     * @param resolution minute, hour or day, optional
+     * @return clicks per slot
+     */
+    @GetMapping("/{shortCode}/clicks")
+    public ResponseEntity<Map<String, Object>> getClicks(@PathVariable String shortCode,
+                                                         @RequestParam(required = false) String from,
+                                                         @RequestParam(required = false) String to,
+                                                         @RequestParam(required = false) String resolution) {
+        logger.debug("Received click series request for {} ({} to {}, {})", shortCode, from, to, resolution);
+        
+        try {
+            return ResponseEntity.ok(linkAnalyticsService.getClickSeries(shortCode, from, to, resolution));
+            
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid click series request for {}: {}", shortCode, e.getMessage());
+            throw e;
+            
+        } catch (Exception e) {
+            logger.error("Error retrieving clicks for {}: {}", shortCode, e.getMessage(), e);
+            throw new RuntimeException("Failed to retrieve clicks", e);
+        }
+    }
+}
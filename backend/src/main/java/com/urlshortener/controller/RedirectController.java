@@ -1,11 +1,15 @@
 package com.urlshortener.controller;
 
+import com.urlshortener.analytics.ClickEvents;
+import com.urlshortener.cache.RedirectHeaders;
+import com.urlshortener.exception.LookupUnavailableException;
 import com.urlshortener.service.URLService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +25,8 @@ public class RedirectController {
     
     private static final Logger logger = LoggerFactory.getLogger(RedirectController.class);
     
+    private static final String SURROGATE_CONTROL = "Surrogate-Control";
+    
     private final URLService urlService;
     
     @Autowired
@@ -29,27 +35,49 @@ public class RedirectController {
     }
     
     /**
-     * Redirect to original URL using short code
+     * Redirect to original URL using short code. Status and cache headers
+     * come from the redirect policy and are cached with the mapping, so a
+     * cache hit allocates nothing here.
+     * The click log keeps the Referer only as a hash, the User-Agent as a
+     * coarse class and both with the client address as a one-way client hash.
      * @param shortCode the short code
-     * @return redirect response
+     * @param request the servlet request
+     * @param response the servlet response
      */
     @GetMapping("/{shortCode}")
-    public ResponseEntity<Void> redirectToOriginalUrl(@PathVariable String shortCode) {
-        logger.info("Received redirect request for short code: {}", shortCode);
-        
+    public void redirectToOriginalUrl(@PathVariable String shortCode,
+                                      HttpServletRequest request,
+                                      HttpServletResponse response) {
         try {
-            String originalUrl = urlService.getOriginalUrl(shortCode);
+            String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+            RedirectHeaders redirect = urlService.getRedirect(shortCode,
+                    ClickEvents.hashReferrer(request.getHeader(HttpHeaders.REFERER)),
+                    ClickEvents.classifyUserAgent(userAgent),
+                    ClickEvents.hashClient(request.getRemoteAddr(), userAgent));
             
-            HttpHeaders headers = new HttpHeaders();
-            headers.add("Location", originalUrl);
+            response.setStatus(redirect.getStatus());
+            response.setHeader(HttpHeaders.LOCATION, redirect.getLocation());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, redirect.getCacheControl());
+            if (redirect.getSurrogateControl() != null) {
+                response.setHeader(SURROGATE_CONTROL, redirect.getSurrogateControl());
+            }
+            if (redirect.getVary() != null) {
+                // Added, not set: CORS handling may already have put Origin in Vary
+                response.addHeader(HttpHeaders.VARY, redirect.getVary());
+            }
             
-            logger.info("Redirecting {} to {}", shortCode, originalUrl);
-            return new ResponseEntity<>(headers, HttpStatus.MOVED_PERMANENTLY);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Redirecting {} to {} with {}", shortCode, redirect.getLocation(), redirect.getStatus());
+            }
             
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid short code: {}", shortCode);
             throw e;
             
+        } catch (LookupUnavailableException e) {
+            logger.warn("Lookup unavailable for short code {}: {}", shortCode, e.getMessage());
+            throw e;
+            
         } catch (Exception e) {
             logger.error("Unexpected error during redirect for short code {}: {}", shortCode, e.getMessage(), e);
             throw new RuntimeException("Failed to redirect", e);
@@ -73,6 +101,10 @@ public class RedirectController {
             info.put("originalUrl", originalUrl);
             info.put("status", "active");
             info.put("timestamp", java.time.Instant.now().toString());
+            Long uniqueVisitors = urlService.getUniqueVisitors(shortCode);
+            if (uniqueVisitors != null) {
+                info.put("uniqueVisitors", uniqueVisitors);
+            }
             
             return ResponseEntity.ok(info);
             
@@ -80,6 +112,10 @@ public class RedirectController {
             logger.warn("Invalid short code for info request: {}", shortCode);
             throw e;
             
+        } catch (LookupUnavailableException e) {
+            logger.warn("Lookup unavailable for info request {}: {}", shortCode, e.getMessage());
+            throw e;
+            
         } catch (Exception e) {
             logger.error("Unexpected error retrieving info for short code {}: {}", shortCode, e.getMessage(), e);
             throw new RuntimeException("Failed to retrieve URL info", e);
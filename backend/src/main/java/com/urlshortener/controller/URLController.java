@@ -2,6 +2,10 @@ package com.urlshortener.controller;
 
 import com.urlshortener.dto.ShortenURLRequest;
 import com.urlshortener.dto.ShortenURLResponse;
+import com.urlshortener.exception.LookupUnavailableException;
+import com.urlshortener.exception.WriteUnavailableException;
+import com.urlshortener.scheduling.ExpirySweeper;
+import com.urlshortener.service.LinkAnalyticsService;
 import com.urlshortener.service.URLService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -25,10 +29,15 @@ public class URLController {
     private static final Logger logger = LoggerFactory.getLogger(URLController.class);
     
     private final URLService urlService;
+    private final ExpirySweeper expirySweeper;
+    private final LinkAnalyticsService linkAnalyticsService;
     
     @Autowired
-    public URLController(URLService urlService) {
+    public URLController(URLService urlService, ExpirySweeper expirySweeper,
+                         LinkAnalyticsService linkAnalyticsService) {
         this.urlService = urlService;
+        this.expirySweeper = expirySweeper;
+        this.linkAnalyticsService = linkAnalyticsService;
     }
     
     /**
@@ -49,6 +58,10 @@ public class URLController {
             logger.warn("Invalid request for URL shortening: {}", e.getMessage());
             throw e; // Will be handled by global exception handler
             
+        } catch (WriteUnavailableException | LookupUnavailableException e) {
+            logger.warn("Shorten unavailable for {}: {}", request.getUrl(), e.getMessage());
+            throw e; // 503 with Retry-After
+            
         } catch (Exception e) {
             logger.error("Unexpected error while shortening URL: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to shorten URL", e);
@@ -74,22 +87,45 @@ public class URLController {
     }
     
     /**
-     * Clean up expired URLs
-     * @return cleanup result
+     * Most clicked links over a sliding window, across all nodes
+     * @param window 5m, 1h or 24h
+     * @param limit number of links
+     * @return trending links, most clicked first
+     */
+    @GetMapping("/stats/trending")
+    public ResponseEntity<Map<String, Object>> getTrending(@RequestParam(required = false) String window,
+                                                           @RequestParam(required = false) Integer limit) {
+        logger.debug("Received trending request for window {}", window);
+        
+        try {
+            return ResponseEntity.ok(linkAnalyticsService.getTrending(window, limit));
+            
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid trending request: {}", e.getMessage());
+            throw e;
+            
+        } catch (Exception e) {
+            logger.error("Error retrieving trending links: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to retrieve trending links", e);
+        }
+    }
+    
+    /**
+     * Request a sweep of expired URLs and report sweeper progress.
+     * The sweep itself runs in the background on the sweeper leader.
+     * @return cleanup progress
      */
     @PostMapping("/cleanup")
     public ResponseEntity<Map<String, Object>> cleanupExpiredUrls() {
         logger.info("Received request to cleanup expired URLs");
         
         try {
-            long deletedCount = urlService.cleanupExpiredUrls();
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("message", "Cleanup completed successfully");
-            result.put("deletedCount", deletedCount);
+            Map<String, Object> result = new HashMap<>(expirySweeper.requestSweep());
+            result.put("message", "Cleanup scheduled");
+            result.putIfAbsent("deletedCount", 0L);
             result.put("timestamp", java.time.Instant.now().toString());
             
-            logger.info("Cleanup completed, deleted {} expired URLs", deletedCount);
+            logger.info("Cleanup requested, sweeper status: {}", result.get("status"));
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
@@ -1,7 +1,7 @@
 package com.urlshortener.dto;
 
+import com.urlshortener.validation.ValidHttpUrl;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 
 /**
@@ -10,10 +10,7 @@ import jakarta.validation.constraints.Positive;
 public class ShortenURLRequest {
     
     @NotBlank(message = "URL cannot be empty")
-    @Pattern(
-        regexp = "^https?://.*", //can potentially be improved
-        message = "URL must start with http:// or https://"
-    )
+    @ValidHttpUrl
     private String url;
     
     @Positive(message = "Expiry days must be positive")
@@ -21,6 +18,12 @@ public class ShortenURLRequest {
     
     private String customCode;
     
+    // One of 301, 302, 307, 308; defaults to app.redirect.default-status
+    private Integer redirectStatus;
+    
+    // Serve redirects uncached so every click reaches the service
+    private Boolean exactAnalytics;
+    
     // Default constructor
     public ShortenURLRequest() {}
     
@@ -60,12 +63,30 @@ public class ShortenURLRequest {
         this.customCode = customCode;
     }
     
+    public Integer getRedirectStatus() {
+        return redirectStatus;
+    }
+    
+    public void setRedirectStatus(Integer redirectStatus) {
+        this.redirectStatus = redirectStatus;
+    }
+    
+    public Boolean getExactAnalytics() {
+        return exactAnalytics;
+    }
+    
+    public void setExactAnalytics(Boolean exactAnalytics) {
+        this.exactAnalytics = exactAnalytics;
+    }
+    
     @Override
     public String toString() {
         return "ShortenURLRequest{" +
                 "url='" + url + '\'' +
                 ", expiresInDays=" + expiresInDays +
                 ", customCode='" + customCode + '\'' +
+                ", redirectStatus=" + redirectStatus +
+                ", exactAnalytics=" + exactAnalytics +
                 '}';
     }
 }
\ No newline at end of file
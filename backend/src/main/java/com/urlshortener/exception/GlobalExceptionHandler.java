@@ -2,6 +2,8 @@ package com.urlshortener.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -21,6 +23,9 @@ public class GlobalExceptionHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
     
+    @Value("${app.redirect.lookup.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+    
     /**
      * Handle validation errors
      */
@@ -58,6 +63,40 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
     
+    /**
+     * Handle lookups rejected by the circuit breaker or timed out against Mongo
+     */
+    @ExceptionHandler(LookupUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleLookupUnavailableException(LookupUnavailableException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Service temporarily unavailable");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("timestamp", Instant.now().toString());
+        errorResponse.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        
+        logger.warn("Lookup unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(errorResponse);
+    }
+    
+    /**
+     * Handle writes rejected by a full insert queue or a batch that timed out
+     */
+    @ExceptionHandler(WriteUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleWriteUnavailableException(WriteUnavailableException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Service temporarily unavailable");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("timestamp", Instant.now().toString());
+        errorResponse.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        
+        logger.warn("Write unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(errorResponse);
+    }
+    
     /**
      * Handle runtime exceptions
      */
@@ -0,0 +1,16 @@
+package com.urlshortener.exception;
+
+/**
+ * Thrown when a short code cannot be resolved because the backing store is
+ * unavailable, slow, or shielded by an open circuit breaker.
+ */
+public class LookupUnavailableException extends RuntimeException {
+
+    public LookupUnavailableException(String message) {
+        super(message);
+    }
+
+    public LookupUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
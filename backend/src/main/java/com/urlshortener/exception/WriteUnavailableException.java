@@ -0,0 +1,16 @@
+package com.urlshortener.exception;
+
+/**
+ * Thrown when a write cannot be accepted right now, e.g. the insert queue is
+ * full or the batch carrying it did not complete in time.
+ */
+public class WriteUnavailableException extends RuntimeException {
+
+    public WriteUnavailableException(String message) {
+        super(message);
+    }
+
+    public WriteUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
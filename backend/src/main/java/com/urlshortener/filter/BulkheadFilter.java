@@ -0,0 +1,86 @@
+package com.urlshortener.filter;
+
+import com.urlshortener.resilience.Bulkhead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Runs each request class in its own {@link Bulkhead} lane: redirects,
+ * shorten, and admin endpoints (stats, cleanup). A slow stats query or a
+ * long cleanup can only occupy the admin lane's threads, so redirects keep
+ * the rest of the container pool.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    private final Map<RequestPriority, Bulkhead> lanes;
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+    private final String retryAfterSeconds;
+
+    /**
+     * @param lanes one bulkhead per request class
+     * @param retryAfterSeconds Retry-After sent with rejected responses
+     * @param meterRegistry registry for per-lane gauges and counters
+     */
+    public BulkheadFilter(Map<RequestPriority, Bulkhead> lanes, long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.lanes = new EnumMap<>(lanes);
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        this.lanes.forEach((priority, bulkhead) -> {
+            String lane = priority.name().toLowerCase();
+            Gauge.builder("bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .description("Requests running in the lane")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.queue.depth", bulkhead, Bulkhead::getQueueDepth)
+                    .description("Requests waiting for a slot in the lane")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+            rejected.put(priority, Counter.builder("bulkhead.rejected")
+                    .description("Requests rejected because the lane and its queue were full")
+                    .tag("lane", lane)
+                    .register(meterRegistry));
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPriority priority = RequestPriority.classify(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        Bulkhead lane = priority != null ? lanes.get(priority) : null;
+        if (lane == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!lane.tryEnter()) {
+            // Counted per lane; a full lane means overload, so no per-request warning
+            rejected.get(priority).increment();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Bulkhead '{}' full, rejecting {}", lane.getName(), request.getRequestURI());
+            }
+            OverloadResponses.reject(response, HttpStatus.SERVICE_UNAVAILABLE.value(), retryAfterSeconds,
+                    "Too many concurrent " + lane.getName() + " requests, retry later");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            lane.exit();
+        }
+    }
+}
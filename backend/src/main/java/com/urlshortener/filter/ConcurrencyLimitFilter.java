@@ -0,0 +1,82 @@
+package com.urlshortener.filter;
+
+import com.urlshortener.resilience.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admits requests through an {@link AdaptiveConcurrencyLimiter} and sheds the
+ * rest with a fast 503 before they reach a controller.
+ *
+ * Each priority may use a share of the limit: redirects the whole of it,
+ * shorten and admin endpoints progressively less, so as the limit tightens
+ * stats and cleanup are shed first and redirects last.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<RequestPriority, Double> shares;
+    private final Map<RequestPriority, Counter> shed = new EnumMap<>(RequestPriority.class);
+    private final String retryAfterSeconds;
+
+    /**
+     * @param limiter the shared limiter
+     * @param shares fraction of the limit each priority may use
+     * @param retryAfterSeconds Retry-After sent with shed responses
+     * @param meterRegistry registry for shed counters
+     */
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, Map<RequestPriority, Double> shares,
+                                  long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.shares = new EnumMap<>(shares);
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        for (RequestPriority priority : RequestPriority.values()) {
+            shed.put(priority, Counter.builder("concurrency.shed")
+                    .description("Requests rejected by the adaptive concurrency limiter")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPriority priority = RequestPriority.classify(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        if (priority == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire(shares.getOrDefault(priority, 1.0))) {
+            shed.get(priority).increment();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Shed {} request {} at limit {}", priority, request.getRequestURI(), limiter.getLimit());
+            }
+            OverloadResponses.reject(response, HttpStatus.SERVICE_UNAVAILABLE.value(), retryAfterSeconds,
+                    "Server overloaded, retry later");
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - startNanos, priority.isLatencySensitive());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.urlshortener.filter;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Writes rejection responses from filters in the same shape as
+ * {@code GlobalExceptionHandler}, without going through the dispatcher.
+ */
+final class OverloadResponses {
+
+    private OverloadResponses() {
+    }
+
+    static void reject(HttpServletResponse response, int status, String retryAfterSeconds, String error)
+            throws IOException {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + error + "\",\"status\":" + status
+                + ",\"timestamp\":\"" + Instant.now() + "\"}");
+    }
+}
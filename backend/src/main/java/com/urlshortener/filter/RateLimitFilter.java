@@ -0,0 +1,87 @@
+package com.urlshortener.filter;
+
+import com.urlshortener.resilience.ClientRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits URL creation per client, keyed by remote address. Nothing
+ * authenticates API keys, so a header value is never used as the key: a
+ * client could send a fresh one with every request and never be limited.
+ * Limited requests get a 429 with a prebuilt body, so rejecting a flood
+ * costs no allocation beyond the response itself.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] LIMITED_BODY =
+            "{\"error\":\"Rate limit exceeded\",\"status\":429}".getBytes(StandardCharsets.UTF_8);
+    private static final String[] RETRY_AFTER = new String[61];
+
+    static {
+        for (int i = 0; i < RETRY_AFTER.length; i++) {
+            RETRY_AFTER[i] = String.valueOf(i);
+        }
+    }
+
+    private final ClientRateLimiter limiter;
+    private final Counter allowed;
+    private final Counter limited;
+
+    /**
+     * @param limiter per-client buckets
+     * @param meterRegistry registry for outcome counters
+     */
+    public RateLimitFilter(ClientRateLimiter limiter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.allowed = outcomeCounter(meterRegistry, "allowed");
+        this.limited = outcomeCounter(meterRegistry, "limited");
+        FunctionCounter.builder("ratelimit.shorten.collisions", limiter, ClientRateLimiter::getCollisions)
+                .description("Requests that shared a bucket with another active client")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitMicros = limiter.tryAcquire(request.getRemoteAddr());
+        if (waitMicros == 0) {
+            allowed.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        limited.increment();
+        long retryAfter = Math.max(1, (waitMicros + TimeUnit.SECONDS.toMicros(1) - 1) / TimeUnit.SECONDS.toMicros(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                retryAfter < RETRY_AFTER.length ? RETRY_AFTER[(int) retryAfter] : String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(LIMITED_BODY.length);
+        response.getOutputStream().write(LIMITED_BODY);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ratelimit.shorten")
+                .description("Shorten requests checked against the per-client rate limit")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
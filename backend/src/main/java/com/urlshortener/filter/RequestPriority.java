@@ -0,0 +1,64 @@
+package com.urlshortener.filter;
+
+/**
+ * Priority classes for incoming requests, highest first.
+ */
+public enum RequestPriority {
+
+    /** Short code redirects and info lookups */
+    REDIRECT(true),
+
+    /** URL creation */
+    SHORTEN(true),
+
+    /** Stats, cleanup and other operational endpoints */
+    ADMIN(false);
+
+    private final boolean latencySensitive;
+
+    RequestPriority(boolean latencySensitive) {
+        this.latencySensitive = latencySensitive;
+    }
+
+    /**
+     * @return whether latency of this class steers the adaptive limit;
+     *         slow admin queries would otherwise drag it down
+     */
+    public boolean isLatencySensitive() {
+        return latencySensitive;
+    }
+
+    /**
+     * Classify a request path. Only a single segment that looks like a short
+     * code, or /info/ followed by one, is a redirect; documentation, static
+     * assets and anything else unknown run as admin traffic.
+     * @param path request path without the context path
+     * @return the priority, or null for health checks and actuator, which are never limited
+     */
+    public static RequestPriority classify(String path) {
+        if (path.startsWith("/api/")) {
+            return path.equals("/api/shorten") ? SHORTEN : ADMIN;
+        }
+        if (path.equals("/health") || path.startsWith("/actuator")) {
+            return null;
+        }
+        int codeStart = path.startsWith("/info/") ? "/info/".length() : 1;
+        return isShortCode(path, codeStart) ? REDIRECT : ADMIN;
+    }
+
+    /**
+     * Same characters as the NIO redirect listener accepts in a short code
+     */
+    private static boolean isShortCode(String path, int from) {
+        if (from >= path.length()) {
+            return false;
+        }
+        for (int i = from; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -25,6 +25,18 @@ public class URLMapping {
     private String domain;
     
     private int clickCount = 0;
+    
+    // 301, 302, 307 or 308; null uses app.redirect.default-status
+    private Integer redirectStatus;
+    
+    // Keep redirects out of browser and CDN caches so every click is counted
+    private boolean exactAnalytics;
+    
+    // Destination matched the blocklist; redirects are refused
+    private boolean blocked;
+    
+    // Blocklist rule that matched
+    private String blockedBy;
 
     public URLMapping() {}
     
@@ -99,6 +111,38 @@ public class URLMapping {
         this.clickCount = clickCount;
     }
     
+    public Integer getRedirectStatus() {
+        return redirectStatus;
+    }
+    
+    public void setRedirectStatus(Integer redirectStatus) {
+        this.redirectStatus = redirectStatus;
+    }
+    
+    public boolean isExactAnalytics() {
+        return exactAnalytics;
+    }
+    
+    public void setExactAnalytics(boolean exactAnalytics) {
+        this.exactAnalytics = exactAnalytics;
+    }
+    
+    public boolean isBlocked() {
+        return blocked;
+    }
+    
+    public void setBlocked(boolean blocked) {
+        this.blocked = blocked;
+    }
+    
+    public String getBlockedBy() {
+        return blockedBy;
+    }
+    
+    public void setBlockedBy(String blockedBy) {
+        this.blockedBy = blockedBy;
+    }
+    
     public void incrementClickCount() {
         this.clickCount++;
     }
@@ -118,6 +162,8 @@ public class URLMapping {
                 ", expiresAt=" + expiresAt +
                 ", domain='" + domain + '\'' +
                 ", clickCount=" + clickCount +
+                ", redirectStatus=" + redirectStatus +
+                ", exactAnalytics=" + exactAnalytics +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.urlshortener.nio;
+
+import com.urlshortener.analytics.ClickEvents;
+
+/**
+ * Allocation-free parsing of the HTTP/1.1 requests the redirect listener
+ * accepts: {@code GET /{shortCode} HTTP/1.x} followed by headers.
+ *
+ * Results are written into the connection's fields instead of a request
+ * object, and the short code is left in place as an offset and length into
+ * the read buffer.
+ */
+final class HttpRequestParser {
+
+    /** Request is fine, short code located */
+    static final int OK = 0;
+    /** Malformed request line */
+    static final int BAD_REQUEST = 400;
+    /** Path is not a single short code segment */
+    static final int NOT_FOUND = 404;
+    /** Method other than GET */
+    static final int METHOD_NOT_ALLOWED = 405;
+
+    private static final int MAX_CODE_LENGTH = 64;
+    private static final byte[] CONNECTION = "connection:".getBytes();
+    private static final byte[] CLOSE = "close".getBytes();
+    private static final byte[] REFERER = "referer:".getBytes();
+    private static final byte[] USER_AGENT = "user-agent:".getBytes();
+
+    private HttpRequestParser() {
+    }
+
+    /**
+     * Find the end of the header block
+     * @param buf request bytes
+     * @param from first byte of the request
+     * @param to end of the bytes read so far
+     * @return index just past the blank line, or -1 if the headers are incomplete
+     */
+    static int headerEnd(byte[] buf, int from, int to) {
+        for (int i = from + 3; i < to; i++) {
+            if (buf[i] == '\n' && buf[i - 1] == '\r' && buf[i - 2] == '\n' && buf[i - 3] == '\r') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parse a complete request head into {@code conn}
+     * @param buf request bytes
+     * @param from first byte of the request
+     * @param end index returned by {@link #headerEnd}
+     * @param conn receives the short code location, hash, keep-alive flag and click details
+     * @return {@link #OK} or the HTTP status to answer with
+     */
+    static int parse(byte[] buf, int from, int end, RedirectConnection conn) {
+        if (!matches(buf, from, end, "GET ")) {
+            conn.keepAlive = false;
+            return METHOD_NOT_ALLOWED;
+        }
+        int i = from + 4;
+
+        if (i >= end || buf[i] != '/') {
+            conn.keepAlive = false;
+            return BAD_REQUEST;
+        }
+        int codeStart = ++i;
+        int hash = 0;
+        while (i < end && buf[i] != ' ' && buf[i] != '?') {
+            byte b = buf[i];
+            if (!isCodeChar(b)) {
+                return skipToVersion(buf, i, end, conn, NOT_FOUND);
+            }
+            hash = 31 * hash + b;
+            i++;
+        }
+        int codeLength = i - codeStart;
+        while (i < end && buf[i] != ' ') {
+            i++; // query string is ignored
+        }
+        conn.codeOffset = codeStart;
+        conn.codeLength = codeLength;
+        conn.codeHash = hash;
+
+        int status = codeLength == 0 || codeLength > MAX_CODE_LENGTH ? NOT_FOUND : OK;
+        return skipToVersion(buf, i, end, conn, status);
+    }
+
+    private static int skipToVersion(byte[] buf, int i, int end, RedirectConnection conn, int status) {
+        while (i < end && buf[i] != ' ') {
+            i++;
+        }
+        i++;
+        if (!matches(buf, i, end, "HTTP/1.")) {
+            conn.keepAlive = false;
+            return BAD_REQUEST;
+        }
+        // HTTP/1.0 closes unless asked otherwise; we never keep 1.0 connections
+        conn.keepAlive = i + 7 < end && buf[i + 7] == '1' && !hasConnectionClose(buf, i, end);
+        readClickHeaders(buf, i, end, conn);
+        return status;
+    }
+
+    /**
+     * Reduce Referer and User-Agent to what the click log keeps, straight from the bytes
+     */
+    private static void readClickHeaders(byte[] buf, int from, int end, RedirectConnection conn) {
+        conn.referrerHash = ClickEvents.NO_REFERRER;
+        conn.userAgentClass = ClickEvents.UA_UNKNOWN;
+        conn.clientHash = ClickEvents.finishClientHash(conn.clientAddressHash, buf, 0, 0);
+        for (int i = from; i < end; i++) {
+            if (buf[i] != '\n') {
+                continue;
+            }
+            if (matchesIgnoreCase(buf, i + 1, end, REFERER)) {
+                int start = skipSpaces(buf, i + 1 + REFERER.length, end);
+                conn.referrerHash = ClickEvents.hashReferrer(buf, start, lineEnd(buf, start, end));
+            } else if (matchesIgnoreCase(buf, i + 1, end, USER_AGENT)) {
+                int start = skipSpaces(buf, i + 1 + USER_AGENT.length, end);
+                int valueEnd = lineEnd(buf, start, end);
+                conn.userAgentClass = ClickEvents.classifyUserAgent(buf, start, valueEnd);
+                conn.clientHash = ClickEvents.finishClientHash(conn.clientAddressHash, buf, start, valueEnd);
+            }
+        }
+    }
+
+    private static int skipSpaces(byte[] buf, int i, int end) {
+        while (i < end && (buf[i] == ' ' || buf[i] == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int lineEnd(byte[] buf, int i, int end) {
+        while (i < end && buf[i] != '\r' && buf[i] != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean hasConnectionClose(byte[] buf, int from, int end) {
+        for (int i = from; i < end - CONNECTION.length; i++) {
+            if (buf[i] == '\n' && matchesIgnoreCase(buf, i + 1, end, CONNECTION)) {
+                for (int j = i + 1 + CONNECTION.length; j < end && buf[j] != '\r'; j++) {
+                    if (matchesIgnoreCase(buf, j, end, CLOSE)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCodeChar(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '-' || b == '_';
+    }
+
+    private static boolean matches(byte[] buf, int from, int end, String token) {
+        if (from + token.length() > end) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (buf[from + i] != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesIgnoreCase(byte[] buf, int from, int end, byte[] lowerToken) {
+        if (from + lowerToken.length > end) {
+            return false;
+        }
+        for (int i = 0; i < lowerToken.length; i++) {
+            if ((buf[from + i] | 0x20) != lowerToken[i] && buf[from + i] != lowerToken[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,409 @@
+package com.urlshortener.nio;
+
+import com.urlshortener.analytics.ClickEvents;
+import com.urlshortener.cache.RedirectHeaders;
+import com.urlshortener.exception.LookupUnavailableException;
+import com.urlshortener.service.URLService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal HTTP/1.1 listener on its own port that only serves
+ * {@code GET /{shortCode}}, bypassing the servlet container, the security
+ * chain and Spring MVC.
+ *
+ * An acceptor thread hands connections round-robin to one selector loop per
+ * core. Loops only do I/O and parsing; resolving a short code can block on
+ * Mongo, so each parsed request runs on a bounded worker pool through the
+ * same {@link URLService} and redirect cache as the MVC path, then writes a
+ * pre-encoded response. Parsing and writing reuse per-connection buffers.
+ *
+ * Rate limiting, load shedding and bulkheads are servlet filters and do not
+ * apply here; size the worker pool to bound this listener instead.
+ */
+@Component
+@ConditionalOnProperty(name = "app.nio-redirect.enabled", havingValue = "true")
+public class NioRedirectServer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(NioRedirectServer.class);
+
+    private final URLService urlService;
+    private final RedirectResponses responses;
+    private final int port;
+    private final int backlog;
+    private final int ioThreads;
+    private final int bufferSize;
+    private final long idleTimeoutNanos;
+    private final ThreadPoolExecutor workers;
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final Counter redirects;
+    private final Counter notFound;
+    private final Counter rejected;
+    private final Counter errors;
+
+    private ServerSocketChannel serverChannel;
+    private EventLoop[] loops;
+    private Thread acceptor;
+    private volatile boolean running;
+
+    @Autowired
+    public NioRedirectServer(URLService urlService,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.nio-redirect.port:8081}") int port,
+                             @Value("${app.nio-redirect.backlog:1024}") int backlog,
+                             @Value("${app.nio-redirect.io-threads:0}") int ioThreads,
+                             @Value("${app.nio-redirect.worker-threads:64}") int workerThreads,
+                             @Value("${app.nio-redirect.buffer-size:8192}") int bufferSize,
+                             @Value("${app.nio-redirect.idle-timeout-seconds:30}") long idleTimeoutSeconds,
+                             @Value("${app.nio-redirect.response-cache-size:65536}") int responseCacheSize) {
+        this.urlService = urlService;
+        this.responses = new RedirectResponses(responseCacheSize);
+        this.port = port;
+        this.backlog = backlog;
+        this.ioThreads = ioThreads > 0 ? ioThreads : Runtime.getRuntime().availableProcessors();
+        this.bufferSize = bufferSize;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(workerThreads * 64), runnable -> {
+                    Thread thread = new Thread(runnable, "nio-redirect-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.redirects = responseCounter(meterRegistry, "3xx");
+        this.notFound = responseCounter(meterRegistry, "404");
+        this.rejected = responseCounter(meterRegistry, "503");
+        this.errors = responseCounter(meterRegistry, "error");
+        Gauge.builder("nio.redirect.connections", connections, AtomicInteger::get)
+                .description("Open connections on the NIO redirect listener")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port), backlog);
+            loops = new EventLoop[ioThreads];
+            for (int i = 0; i < ioThreads; i++) {
+                loops[i] = new EventLoop(i);
+                loops[i].start();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start NIO redirect listener on port " + port, e);
+        }
+        running = true;
+        acceptor = new Thread(this::acceptLoop, "nio-redirect-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("NIO redirect listener started on port {} with {} I/O threads", getPort(), ioThreads);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Error closing NIO redirect listener: {}", e.getMessage());
+        }
+        if (loops != null) {
+            for (EventLoop loop : loops) {
+                loop.shutdown();
+            }
+        }
+        workers.shutdownNow();
+        logger.info("NIO redirect listener stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return the bound port, useful when configured with port 0
+     */
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return port;
+        }
+    }
+
+    boolean dispatch(RedirectConnection conn) {
+        try {
+            workers.execute(conn);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Turn a parsed request into response bytes. Runs on a worker thread.
+     */
+    byte[] resolve(RedirectConnection conn, int status) {
+        switch (status) {
+            case HttpRequestParser.OK:
+                break;
+            case HttpRequestParser.NOT_FOUND:
+                notFound.increment();
+                return RedirectResponses.NOT_FOUND;
+            case HttpRequestParser.METHOD_NOT_ALLOWED:
+                errors.increment();
+                return RedirectResponses.METHOD_NOT_ALLOWED;
+            default:
+                errors.increment();
+                return RedirectResponses.BAD_REQUEST;
+        }
+
+        String shortCode = responses.shortCode(conn.in.array(), conn.codeOffset, conn.codeLength, conn.codeHash);
+        try {
+            RedirectHeaders redirect = urlService.getRedirect(shortCode, conn.referrerHash, conn.userAgentClass,
+                    conn.clientHash);
+            byte[] response = responses.redirect(shortCode, conn.codeHash, redirect);
+            if (response == null) {
+                errors.increment();
+                return RedirectResponses.INTERNAL_ERROR;
+            }
+            redirects.increment();
+            return response;
+        } catch (IllegalArgumentException e) {
+            notFound.increment();
+            return RedirectResponses.NOT_FOUND;
+        } catch (LookupUnavailableException e) {
+            rejected.increment();
+            return RedirectResponses.UNAVAILABLE;
+        } catch (RuntimeException e) {
+            errors.increment();
+            logger.error("Unexpected error serving short code {}: {}", shortCode, e.getMessage(), e);
+            return RedirectResponses.INTERNAL_ERROR;
+        }
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                try {
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                } catch (IOException e) {
+                    // Reset before it could be set up; not a listener failure
+                    closeQuietly(channel);
+                    continue;
+                }
+                loops[next].register(channel);
+                next = (next + 1) % loops.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Error accepting redirect connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Error closing redirect connection: {}", e.getMessage());
+        }
+    }
+
+    private static Counter responseCounter(MeterRegistry meterRegistry, String status) {
+        return Counter.builder("nio.redirect.responses")
+                .description("Responses written by the NIO redirect listener")
+                .tag("status", status)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One selector and thread; owns the connections registered with it
+     */
+    final class EventLoop implements Runnable {
+
+        private final Selector selector;
+        private final Thread thread;
+        private final ConcurrentLinkedQueue<SocketChannel> pendingRegistrations = new ConcurrentLinkedQueue<>();
+        private long lastIdleCheckNanos = System.nanoTime();
+
+        EventLoop(int index) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, "nio-redirect-io-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        NioRedirectServer server() {
+            return NioRedirectServer.this;
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void register(SocketChannel channel) {
+            pendingRegistrations.add(channel);
+            selector.wakeup();
+        }
+
+        /**
+         * Set the interest ops of a connection; wakes the selector when called
+         * from a worker so the change takes effect immediately
+         */
+        void interest(RedirectConnection conn, int ops) {
+            if (!conn.key.isValid()) {
+                return;
+            }
+            conn.key.interestOps(ops);
+            if (Thread.currentThread() != thread) {
+                selector.wakeup();
+            }
+        }
+
+        void close(RedirectConnection conn) {
+            synchronized (conn) {
+                if (conn.closed) {
+                    return;
+                }
+                conn.closed = true;
+            }
+            if (conn.key != null) {
+                conn.key.cancel();
+            }
+            try {
+                conn.channel.close();
+            } catch (IOException e) {
+                logger.debug("Error closing redirect connection: {}", e.getMessage());
+            }
+            connections.decrementAndGet();
+            // The socket is only released once the selector deregisters the cancelled key
+            if (Thread.currentThread() != thread) {
+                selector.wakeup();
+            }
+        }
+
+        void shutdown() {
+            try {
+                for (SelectionKey key : selector.keys()) {
+                    key.channel().close();
+                }
+                selector.close();
+            } catch (IOException e) {
+                logger.debug("Error closing redirect selector: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public void run() {
+            while (selector.isOpen()) {
+                try {
+                    selector.select(1000);
+                    registerPending();
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        handle(key);
+                    }
+                    selector.selectedKeys().clear();
+                    closeIdle();
+                } catch (IOException | RuntimeException e) {
+                    if (selector.isOpen()) {
+                        logger.warn("Error in NIO redirect loop: {}", e.getMessage(), e);
+                    }
+                }
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            RedirectConnection conn = (RedirectConnection) key.attachment();
+            try {
+                if (!key.isValid()) {
+                    close(conn);
+                } else if (key.isWritable()) {
+                    conn.onWritable();
+                } else if (key.isReadable()) {
+                    int read = conn.channel.read(conn.in);
+                    if (read < 0) {
+                        close(conn);
+                        return;
+                    }
+                    conn.lastActiveNanos = System.nanoTime();
+                    conn.dispatchOrRead();
+                }
+            } catch (IOException | RuntimeException e) {
+                close(conn);
+            }
+        }
+
+        private void registerPending() {
+            SocketChannel channel;
+            while ((channel = pendingRegistrations.poll()) != null) {
+                RedirectConnection conn = new RedirectConnection(channel, this, bufferSize);
+                try {
+                    conn.clientAddressHash = ClickEvents.startClientHash(
+                            ((InetSocketAddress) channel.getRemoteAddress()).getAddress().getHostAddress());
+                    conn.key = channel.register(selector, SelectionKey.OP_READ, conn);
+                    conn.lastActiveNanos = System.nanoTime();
+                    connections.incrementAndGet();
+                } catch (IOException | RuntimeException e) {
+                    // Reset before registration, or the selector is closing
+                    logger.debug("Connection closed before registration: {}", e.getMessage());
+                    closeQuietly(channel);
+                }
+            }
+        }
+
+        /**
+         * Close keep-alive connections idle past the timeout. Connections with
+         * a request in flight have no interest ops and are skipped.
+         */
+        private void closeIdle() {
+            long now = System.nanoTime();
+            if (now - lastIdleCheckNanos < TimeUnit.SECONDS.toNanos(1)) {
+                return;
+            }
+            lastIdleCheckNanos = now;
+            for (SelectionKey key : selector.keys()) {
+                RedirectConnection conn = (RedirectConnection) key.attachment();
+                if (key.isValid() && key.interestOps() == SelectionKey.OP_READ
+                        && now - conn.lastActiveNanos > idleTimeoutNanos) {
+                    close(conn);
+                }
+            }
+        }
+    }
+}
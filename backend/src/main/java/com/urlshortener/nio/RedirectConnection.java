@@ -0,0 +1,132 @@
+package com.urlshortener.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * State of one keep-alive connection on the redirect listener.
+ *
+ * Buffers are allocated once per connection and reused for every request on
+ * it. The connection is its own worker task: while a request is being
+ * resolved its selection key has no interest ops, so the event loop and the
+ * worker never touch it at the same time.
+ */
+final class RedirectConnection implements Runnable {
+
+    final SocketChannel channel;
+    final NioRedirectServer.EventLoop loop;
+    final ByteBuffer in;
+    final ByteBuffer out;
+    SelectionKey key;
+    long lastActiveNanos;
+    boolean closed;
+    // Client address half of the click client hash, see ClickEvents.startClientHash
+    long clientAddressHash;
+
+    // Filled in by HttpRequestParser for the request being served
+    int codeOffset;
+    int codeLength;
+    int codeHash;
+    boolean keepAlive;
+    int referrerHash;
+    byte userAgentClass;
+    long clientHash;
+    private int requestEnd;
+    private int status;
+
+    RedirectConnection(SocketChannel channel, NioRedirectServer.EventLoop loop, int bufferSize) {
+        this.channel = channel;
+        this.loop = loop;
+        this.in = ByteBuffer.allocate(bufferSize);
+        this.out = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Called after bytes were read or a response was fully written. Hands the
+     * next complete request to a worker, or waits for more input.
+     */
+    void dispatchOrRead() throws IOException {
+        byte[] buf = in.array();
+        int end = HttpRequestParser.headerEnd(buf, 0, in.position());
+        if (end < 0) {
+            if (!in.hasRemaining()) {
+                keepAlive = false;
+                respond(RedirectResponses.HEADERS_TOO_LARGE);
+                return;
+            }
+            loop.interest(this, SelectionKey.OP_READ);
+            return;
+        }
+        requestEnd = end;
+        status = HttpRequestParser.parse(buf, 0, end, this);
+        key.interestOps(0);
+        if (!loop.server().dispatch(this)) {
+            keepAlive = false;
+            respond(RedirectResponses.UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Resolve the parsed request on a worker thread and write the response
+     */
+    @Override
+    public void run() {
+        try {
+            respond(loop.server().resolve(this, status));
+        } catch (IOException e) {
+            loop.close(this);
+        }
+    }
+
+    /**
+     * Flush pending output from the event loop after OP_WRITE
+     */
+    void onWritable() throws IOException {
+        channel.write(out);
+        if (!out.hasRemaining()) {
+            afterResponse();
+        }
+    }
+
+    private void respond(byte[] response) throws IOException {
+        consumeRequest();
+        if (response.length > out.capacity()) {
+            // Only a target URL longer than the buffer gets here
+            response = RedirectResponses.INTERNAL_ERROR;
+        }
+        out.clear();
+        out.put(response).flip();
+        channel.write(out);
+        if (out.hasRemaining()) {
+            loop.interest(this, SelectionKey.OP_WRITE);
+            return;
+        }
+        afterResponse();
+    }
+
+    private void afterResponse() throws IOException {
+        if (!keepAlive) {
+            loop.close(this);
+            return;
+        }
+        dispatchOrRead();
+    }
+
+    /**
+     * Drop the bytes of the request just answered, keeping any pipelined ones
+     */
+    private void consumeRequest() {
+        if (requestEnd <= 0) {
+            in.clear();
+            return;
+        }
+        int remaining = in.position() - requestEnd;
+        if (remaining > 0) {
+            System.arraycopy(in.array(), requestEnd, in.array(), 0, remaining);
+        }
+        in.position(Math.max(0, remaining));
+        requestEnd = 0;
+    }
+}
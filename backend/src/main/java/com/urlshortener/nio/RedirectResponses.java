@@ -0,0 +1,113 @@
+package com.urlshortener.nio;
+
+import com.urlshortener.cache.RedirectHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pre-encoded responses for the redirect listener.
+ *
+ * Error responses are static. Redirects are encoded once per short code and
+ * set of redirect headers and kept in a direct-mapped table, so a repeated hit reuses both the
+ * short code string and the response bytes. Entries are immutable and the
+ * table is written without locking; a lost race only costs a re-encode.
+ */
+final class RedirectResponses {
+
+    static final byte[] BAD_REQUEST = error(400, "Bad Request", "", "Bad request");
+    static final byte[] NOT_FOUND = error(404, "Not Found", "", "Short code not found");
+    static final byte[] METHOD_NOT_ALLOWED = error(405, "Method Not Allowed", "Allow: GET\r\n", "Method not allowed");
+    static final byte[] HEADERS_TOO_LARGE = error(431, "Request Header Fields Too Large", "", "Request headers too large");
+    static final byte[] INTERNAL_ERROR = error(500, "Internal Server Error", "", "Internal server error");
+    static final byte[] UNAVAILABLE = error(503, "Service Unavailable", "Retry-After: 1\r\n", "Service temporarily unavailable");
+
+    private final Entry[] entries;
+    private final int mask;
+
+    /**
+     * @param size table size, rounded up to a power of two
+     */
+    RedirectResponses(int size) {
+        int capacity = Integer.highestOneBit(Math.max(2, size - 1)) << 1;
+        this.entries = new Entry[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * The short code as a string, reusing the cached instance when the same
+     * code was seen before
+     */
+    String shortCode(byte[] buf, int offset, int length, int hash) {
+        Entry entry = entries[spread(hash) & mask];
+        if (entry != null && entry.matches(buf, offset, length)) {
+            return entry.shortCode;
+        }
+        return new String(buf, offset, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * The encoded redirect for a short code
+     * @param redirect status and headers from the redirect policy
+     * @return the response bytes, or null if the target cannot be put in a header
+     */
+    byte[] redirect(String shortCode, int hash, RedirectHeaders redirect) {
+        int index = spread(hash) & mask;
+        Entry entry = entries[index];
+        // Identity check is enough: the policy hands out the same instance until a header changes
+        if (entry != null && entry.redirect == redirect && entry.shortCode.equals(shortCode)) {
+            return entry.response;
+        }
+        String location = redirect.getLocation();
+        if (location.indexOf('\r') >= 0 || location.indexOf('\n') >= 0) {
+            return null;
+        }
+        StringBuilder head = new StringBuilder(128 + location.length())
+                .append("HTTP/1.1 ").append(redirect.getStatus()).append(' ').append(reason(redirect.getStatus()))
+                .append("\r\nLocation: ").append(location)
+                .append("\r\nCache-Control: ").append(redirect.getCacheControl());
+        if (redirect.getSurrogateControl() != null) {
+            head.append("\r\nSurrogate-Control: ").append(redirect.getSurrogateControl());
+        }
+        if (redirect.getVary() != null) {
+            head.append("\r\nVary: ").append(redirect.getVary());
+        }
+        byte[] response = head.append("\r\nContent-Length: 0\r\n\r\n").toString()
+                .getBytes(StandardCharsets.US_ASCII);
+        entries[index] = new Entry(shortCode.getBytes(StandardCharsets.US_ASCII), shortCode, redirect, response);
+        return response;
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 301:
+                return "Moved Permanently";
+            case 302:
+                return "Found";
+            case 307:
+                return "Temporary Redirect";
+            default:
+                return "Permanent Redirect";
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static byte[] error(int status, String reason, String extraHeaders, String message) {
+        String body = "{\"error\":\"" + message + "\",\"status\":" + status + "}";
+        return ("HTTP/1.1 " + status + " " + reason + "\r\n"
+                + extraHeaders
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: " + body.length() + "\r\n\r\n"
+                + body).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record Entry(byte[] code, String shortCode, RedirectHeaders redirect, byte[] response) {
+
+        boolean matches(byte[] buf, int offset, int length) {
+            return Arrays.equals(code, 0, code.length, buf, offset, offset + length);
+        }
+    }
+}
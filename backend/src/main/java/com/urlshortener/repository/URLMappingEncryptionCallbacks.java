@@ -0,0 +1,48 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.UrlEncryptionService;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encrypts originalUrl on its way into Mongo and decrypts it when a mapping
+ * is read, for every repository and MongoTemplate operation on
+ * {@link URLMapping} (bulk inserts included).
+ *
+ * Only the outgoing document is changed on save, so the caller's mapping
+ * keeps its plaintext URL. Raw {@link Document} reads (change stream, jobs)
+ * bypass these callbacks and decrypt through {@link UrlEncryptionService}.
+ */
+@Component
+public class URLMappingEncryptionCallbacks implements BeforeSaveCallback<URLMapping>, AfterConvertCallback<URLMapping> {
+
+    private static final String FIELD = "originalUrl";
+
+    private final UrlEncryptionService encryptionService;
+
+    @Autowired
+    public URLMappingEncryptionCallbacks(UrlEncryptionService encryptionService) {
+        this.encryptionService = encryptionService;
+    }
+
+    @Override
+    public URLMapping onBeforeSave(URLMapping entity, Document document, String collection) {
+        String url = entity.getOriginalUrl();
+        if (encryptionService.isEnabled() && !encryptionService.isEncrypted(url)) {
+            document.put(FIELD, encryptionService.encrypt(url, entity.getShortCode()));
+        }
+        return entity;
+    }
+
+    @Override
+    public URLMapping onAfterConvert(URLMapping entity, Document document, String collection) {
+        if (encryptionService.isEncrypted(entity.getOriginalUrl())) {
+            entity.setOriginalUrl(encryptionService.decrypt(entity.getOriginalUrl(), entity.getShortCode()));
+        }
+        return entity;
+    }
+}
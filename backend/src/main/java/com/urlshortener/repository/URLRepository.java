@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface URLRepository extends MongoRepository<URLMapping, String> {
+public interface URLRepository extends MongoRepository<URLMapping, String>, URLRepositoryCustom {
     
     /**
      * Find a URL mapping by short code
@@ -0,0 +1,25 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.model.URLMapping;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queries on URL mappings that derived query methods cannot express
+ */
+public interface URLRepositoryCustom {
+
+    /**
+     * One keyset page of mappings, newest first (createdAt, then id, both
+     * descending), read through the matching compound index so the cost does
+     * not grow with how far the listing has got. Only the fields a listing
+     * shows are read.
+     * @param domain only mappings of this link domain, or null for all
+     * @param afterCreatedAt createdAt of the last mapping already seen, or null to start from the newest
+     * @param afterId id of the last mapping already seen, or null to start from the newest
+     * @param limit most mappings to return
+     * @return the page, in listing order
+     */
+    List<URLMapping> findPageNewestFirst(String domain, LocalDateTime afterCreatedAt, String afterId, int limit);
+}
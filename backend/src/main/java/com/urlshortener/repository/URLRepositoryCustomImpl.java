@@ -0,0 +1,77 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.model.URLMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * MongoTemplate implementation of {@link URLRepositoryCustom}, picked up by
+ * Spring Data through its name
+ */
+public class URLRepositoryCustomImpl implements URLRepositoryCustom {
+
+    private static final Logger logger = LoggerFactory.getLogger(URLRepositoryCustomImpl.class);
+
+    static final String NEWEST_FIRST_INDEX = "createdAt_-1__id_-1";
+    static final String DOMAIN_NEWEST_FIRST_INDEX = "domain_1_createdAt_-1__id_-1";
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "_id"));
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile boolean indexesReady;
+
+    @Autowired
+    public URLRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<URLMapping> findPageNewestFirst(String domain, LocalDateTime afterCreatedAt, String afterId,
+                                                int limit) {
+        ensureIndexes();
+        Criteria criteria = domain != null ? Criteria.where("domain").is(domain) : new Criteria();
+        if (afterCreatedAt != null && afterId != null) {
+            // Strictly after the last seen (createdAt, _id) in descending order
+            criteria.orOperator(
+                    Criteria.where("createdAt").lt(afterCreatedAt),
+                    Criteria.where("createdAt").is(afterCreatedAt).and("_id").lt(afterId));
+        }
+        Query query = Query.query(criteria).with(NEWEST_FIRST).limit(limit);
+        query.fields().include("shortCode").include("originalUrl").include("createdAt")
+                .include("expiresAt").include("clickCount");
+        if (indexesReady) {
+            query.withHint(domain != null ? DOMAIN_NEWEST_FIRST_INDEX : NEWEST_FIRST_INDEX);
+        }
+        return mongoTemplate.find(query, URLMapping.class);
+    }
+
+    private void ensureIndexes() {
+        if (indexesReady) {
+            return;
+        }
+        try {
+            IndexOperations indexes = mongoTemplate.indexOps(URLMapping.class);
+            indexes.ensureIndex(new Index().on("createdAt", Sort.Direction.DESC).on("_id", Sort.Direction.DESC)
+                    .named(NEWEST_FIRST_INDEX));
+            indexes.ensureIndex(new Index().on("domain", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC)
+                    .on("_id", Sort.Direction.DESC).named(DOMAIN_NEWEST_FIRST_INDEX));
+            indexesReady = true;
+        } catch (DataAccessException e) {
+            // Retried on the next page; the query still works, only slower
+            logger.warn("Could not create link listing indexes: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.urlshortener.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency, in the style of the
+ * gradient algorithm from Netflix's concurrency-limits.
+ *
+ * A long-term EWMA of latency is compared with each new sample. While new
+ * samples stay near the long-term average the limit grows by a small queue
+ * allowance; once latency rises above it the gradient drops below one and
+ * the limit shrinks proportionally. The limit is only raised while the
+ * system actually uses at least half of it, so an idle node does not drift
+ * towards the maximum.
+ *
+ * Callers acquire with a share of the limit, which is how priorities work:
+ * a low priority request asking for half the limit is rejected long before
+ * a full-share request is.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRttNanos;
+    private long samples;
+
+    /**
+     * @param initialLimit starting concurrency limit
+     * @param minLimit lower bound for the limit
+     * @param maxLimit upper bound for the limit
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Try to start a request
+     * @param share fraction of the limit this request may use, 1.0 for top priority
+     * @return true if admitted; the caller must then call {@link #release}
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Finish an admitted request
+     * @param rttNanos how long the request took
+     * @param sample whether this request's latency should steer the limit
+     */
+    public void release(long rttNanos, boolean sample) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (sample && rttNanos > 0) {
+            onSample(rttNanos, inFlightAtCompletion);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion) {
+        if (samples++ == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            double factor = samples < LONG_WINDOW ? 1.0 / samples : 2.0 / (LONG_WINDOW + 1);
+            longRttNanos += (rttNanos - longRttNanos) * factor;
+        }
+        // Let the baseline recover quickly after a sustained latency shift
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        double current = limit;
+        if (inFlightAtCompletion < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
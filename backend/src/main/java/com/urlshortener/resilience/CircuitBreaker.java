@@ -0,0 +1,168 @@
+package com.urlshortener.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Count-based circuit breaker that opens on error rate or slow-call rate.
+ *
+ * Outcomes of the last {@code windowSize} calls are kept in a ring. Once at
+ * least {@code minimumCalls} have been seen and either rate crosses its
+ * threshold, the breaker opens and rejects calls for {@code openMillis}.
+ * It then lets {@code halfOpenProbes} calls through; if they all succeed
+ * quickly it closes again, otherwise it re-opens.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final byte SUCCESS = 0;
+    private static final byte SLOW = 1;
+    private static final byte FAILURE = 2;
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallMillis;
+    private final long openMillis;
+    private final int halfOpenProbes;
+
+    private final byte[] window;
+    private int windowIndex;
+    private int recordedCalls;
+    private int failures;
+    private int slowCalls;
+
+    private volatile State state = State.CLOSED;
+    private volatile long openUntilMillis;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          double slowCallRateThreshold, long slowCallMillis, long openMillis, int halfOpenProbes) {
+        this.name = name;
+        this.window = new byte[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallMillis = slowCallMillis;
+        this.openMillis = openMillis;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * Ask for permission to make a call
+     * @param nowMillis current epoch millis
+     * @return true if the call may proceed; it must then be reported as success or failure
+     */
+    public boolean tryAcquire(long nowMillis) {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (nowMillis < openUntilMillis) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesStarted >= halfOpenProbes) {
+                    return false;
+                }
+                probesStarted++;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Report a completed call
+     * @param elapsedMillis how long the call took
+     * @param nowMillis current epoch millis
+     */
+    public synchronized void onSuccess(long elapsedMillis, long nowMillis) {
+        boolean slow = elapsedMillis >= slowCallMillis;
+        if (state == State.HALF_OPEN) {
+            if (slow) {
+                open(nowMillis);
+            } else if (++probesSucceeded >= halfOpenProbes) {
+                resetWindow();
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(slow ? SLOW : SUCCESS, nowMillis);
+    }
+
+    /**
+     * Report a failed or timed-out call
+     * @param nowMillis current epoch millis
+     */
+    public synchronized void onFailure(long nowMillis) {
+        if (state == State.HALF_OPEN) {
+            open(nowMillis);
+            return;
+        }
+        record(FAILURE, nowMillis);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void record(byte outcome, long nowMillis) {
+        if (recordedCalls == window.length) {
+            byte evicted = window[windowIndex];
+            if (evicted == FAILURE) {
+                failures--;
+            } else if (evicted == SLOW) {
+                slowCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowIndex] = outcome;
+        windowIndex = (windowIndex + 1) % window.length;
+        if (outcome == FAILURE) {
+            failures++;
+        } else if (outcome == SLOW) {
+            slowCalls++;
+        }
+
+        if (state == State.CLOSED && recordedCalls >= minimumCalls
+                && ((double) failures / recordedCalls >= failureRateThreshold
+                    || (double) slowCalls / recordedCalls >= slowCallRateThreshold)) {
+            open(nowMillis);
+        }
+    }
+
+    private void open(long nowMillis) {
+        openUntilMillis = nowMillis + openMillis;
+        resetWindow();
+        transitionTo(State.OPEN);
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        recordedCalls = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void transitionTo(State next) {
+        if (state != next) {
+            logger.warn("Circuit breaker '{}' changed from {} to {}", name, state, next);
+            state = next;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.urlshortener.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client token buckets in a fixed-size, lock-free slot table.
+ *
+ * Each bucket is a single long updated by CAS, so there are no locks and no
+ * per-client objects: memory is {@code 8 * slots} bytes however many clients
+ * show up. The bucket is kept in GCRA form, a theoretical arrival time (TAT)
+ * that advances by one emission interval per request, which is equivalent to
+ * a token bucket of {@code burst} tokens refilled at {@code ratePerSecond}.
+ *
+ * A slot packs a 16-bit client fingerprint with a 48-bit TAT in micros. A
+ * client hashes to two candidate slots and uses the one holding its
+ * fingerprint, or claims one whose bucket has refilled completely: an idle
+ * bucket carries no state worth keeping, so eviction is implicit and free.
+ * If both slots belong to other active clients the less loaded one is
+ * shared, which can only make limiting stricter, never looser.
+ */
+public class ClientRateLimiter {
+
+    private static final int FINGERPRINT_SHIFT = 48;
+    private static final long TAT_MASK = (1L << FINGERPRINT_SHIFT) - 1;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long intervalMicros;
+    private final long toleranceMicros;
+    private final long originNanos = System.nanoTime();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * @param ratePerSecond sustained requests per second per client
+     * @param burst requests a client may make back to back
+     * @param slots table size, rounded up to a power of two
+     */
+    public ClientRateLimiter(double ratePerSecond, int burst, int slots) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(2, slots - 1)) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.intervalMicros = Math.max(1, Math.round(TimeUnit.SECONDS.toMicros(1) / ratePerSecond));
+        this.toleranceMicros = intervalMicros * (burst - 1);
+    }
+
+    /**
+     * Take a token for a client
+     * @param clientKey client IP address
+     * @return 0 if the request may proceed, otherwise micros until it would be allowed
+     */
+    public long tryAcquire(String clientKey) {
+        return tryAcquire(clientKey, (System.nanoTime() - originNanos) / 1000);
+    }
+
+    long tryAcquire(String clientKey, long nowMicros) {
+        long hash = hash(clientKey);
+        long fingerprint = Math.max(1, hash >>> FINGERPRINT_SHIFT);
+        int first = (int) hash & mask;
+        int second = (int) (hash >>> 24) & mask;
+
+        while (true) {
+            int index = first;
+            long current = slots.get(first);
+            boolean shared = false;
+            if (!usable(current, fingerprint, nowMicros)) {
+                long other = slots.get(second);
+                if (usable(other, fingerprint, nowMicros)) {
+                    index = second;
+                    current = other;
+                } else {
+                    shared = true;
+                    if ((other & TAT_MASK) < (current & TAT_MASK)) {
+                        index = second;
+                        current = other;
+                    }
+                }
+            }
+
+            long owner = shared ? current >>> FINGERPRINT_SHIFT : fingerprint;
+            long tat = Math.max(current & TAT_MASK, nowMicros);
+            long wait = tat - nowMicros - toleranceMicros;
+            if (wait > 0) {
+                return wait;
+            }
+            if (slots.compareAndSet(index, current, (owner << FINGERPRINT_SHIFT) | (tat + intervalMicros))) {
+                if (shared) {
+                    collisions.increment();
+                }
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return number of times a client had to share a bucket with another active client
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    public int getSlots() {
+        return slots.length();
+    }
+
+    /**
+     * A slot can be used by a client if it already owns it or the previous
+     * owner's bucket has refilled, i.e. the owner went idle.
+     */
+    private static boolean usable(long slot, long fingerprint, long nowMicros) {
+        return slot >>> FINGERPRINT_SHIFT == fingerprint || (slot & TAT_MASK) <= nowMicros;
+    }
+
+    /**
+     * 64-bit FNV-1a over the key's chars with a murmur finalizer, without
+     * allocating
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
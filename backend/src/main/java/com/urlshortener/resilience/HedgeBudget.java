@@ -0,0 +1,58 @@
+package com.urlshortener.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps hedged requests to a fraction of primary requests.
+ *
+ * Every primary request deposits {@code ratio} of a token, up to
+ * {@code maxTokens}; every hedge withdraws a whole token. When the backend
+ * slows down across the board the deposits stop keeping up and hedging
+ * switches itself off instead of doubling the load.
+ */
+public class HedgeBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio hedges allowed per primary request, e.g. 0.1 for 10%
+     * @param maxTokens burst of hedges allowed after a quiet period
+     */
+    public HedgeBudget(double ratio, int maxTokens) {
+        this.deposit = Math.max(1, Math.round(ratio * SCALE));
+        this.maxBalance = maxTokens * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Account for one primary request
+     */
+    public void onRequest() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(maxBalance, current + deposit)));
+    }
+
+    /**
+     * Take a token for a hedge
+     * @return true if the hedge may be sent
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
@@ -0,0 +1,192 @@
+package com.urlshortener.scheduling;
+
+import com.urlshortener.cache.RedirectCache;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.Blocklist;
+import com.urlshortener.service.BlocklistService;
+import com.urlshortener.service.UrlEncryptionService;
+import com.urlshortener.util.HttpUrl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Re-checks stored mappings whenever the blocklist changes and flags those
+ * whose destination is now blocked, so their redirects are refused.
+ *
+ * Only the node holding the "blocklist-rescan" lease scans. It streams the
+ * unblocked mappings through one cursor, checks each in memory and writes
+ * the newly blocked ones in unordered bulk updates. The fingerprint of the
+ * last fully scanned blocklist is kept in Mongo, so each version is scanned
+ * once across the cluster; nodes are expected to share the same file.
+ */
+@Component
+public class BlocklistRescanJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlocklistRescanJob.class);
+
+    static final String LOCK_NAME = "blocklist-rescan";
+    static final String PROGRESS_COLLECTION = "blocklist_rescan";
+
+    private final MongoTemplate mongoTemplate;
+    private final LeaseLock leaseLock;
+    private final BlocklistService blocklistService;
+    private final RedirectCache redirectCache;
+    private final UrlEncryptionService encryptionService;
+    private final Counter flaggedCounter;
+
+    @Value("${app.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    @Value("${app.blocklist.rescan.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.blocklist.rescan.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.blocklist.rescan.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Autowired
+    public BlocklistRescanJob(MongoTemplate mongoTemplate, LeaseLock leaseLock, BlocklistService blocklistService,
+                              RedirectCache redirectCache, UrlEncryptionService encryptionService,
+                              MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseLock = leaseLock;
+        this.blocklistService = blocklistService;
+        this.redirectCache = redirectCache;
+        this.encryptionService = encryptionService;
+        this.flaggedCounter = Counter.builder("blocklist.flagged")
+                .description("Stored mappings flagged by a blocklist re-scan")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start a scan when the loaded blocklist has not been scanned yet. Cheap
+     * when nothing changed: one read of the progress document.
+     */
+    @Scheduled(fixedDelayString = "${app.blocklist.rescan.poll-interval-ms:30000}",
+               initialDelayString = "${app.blocklist.rescan.poll-interval-ms:30000}")
+    public void poll() {
+        Blocklist blocklist = blocklistService.current();
+        if (!enabled || blocklist.isEmpty()) {
+            return;
+        }
+        try {
+            Document progress = mongoTemplate.findById(LOCK_NAME, Document.class, PROGRESS_COLLECTION);
+            if (progress != null && blocklist.getFingerprint().equals(progress.getString("fingerprint"))) {
+                return;
+            }
+            Duration lease = Duration.ofSeconds(leaseSeconds);
+            if (!leaseLock.tryAcquire(LOCK_NAME, nodeId, lease)) {
+                return;
+            }
+            try {
+                rescan(blocklist, lease);
+            } finally {
+                leaseLock.release(LOCK_NAME, nodeId);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Blocklist re-scan failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Scan all unblocked mappings against a blocklist
+     * @return number of mappings flagged, or -1 if the lease was lost first
+     */
+    long rescan(Blocklist blocklist, Duration lease) {
+        logger.info("Re-scanning mappings against blocklist {} on node {}", blocklist.getFingerprint(), nodeId);
+        String collection = mongoTemplate.getCollectionName(URLMapping.class);
+        Query unblocked = Query.query(Criteria.where("blocked").ne(true)).cursorBatchSize(batchSize);
+        unblocked.fields().include("shortCode").include("originalUrl");
+
+        long scanned = 0;
+        long flagged = 0;
+        List<Object> ids = new ArrayList<>();
+        List<String> rules = new ArrayList<>();
+        List<String> shortCodes = new ArrayList<>();
+        try (Stream<Document> mappings = mongoTemplate.stream(unblocked, Document.class, collection)) {
+            Iterator<Document> cursor = mappings.iterator();
+            while (cursor.hasNext()) {
+                Document mapping = cursor.next();
+                scanned++;
+                HttpUrl destination = HttpUrl.parse(destinationOf(mapping));
+                String rule = destination == null ? null : blocklist.match(destination);
+                if (rule != null) {
+                    ids.add(mapping.get("_id"));
+                    rules.add(rule);
+                    shortCodes.add(mapping.getString("shortCode"));
+                }
+                if (scanned % batchSize == 0) {
+                    flagged += flag(collection, ids, rules, shortCodes);
+                    if (!leaseLock.tryAcquire(LOCK_NAME, nodeId, lease)) {
+                        logger.warn("Lost blocklist re-scan lease after {} mappings", scanned);
+                        return -1;
+                    }
+                }
+            }
+        }
+        flagged += flag(collection, ids, rules, shortCodes);
+
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(LOCK_NAME)), new Update()
+                .set("fingerprint", blocklist.getFingerprint())
+                .set("scanned", scanned)
+                .set("flagged", flagged)
+                .set("finishedAt", new Date())
+                .set("node", nodeId), PROGRESS_COLLECTION);
+        logger.info("Blocklist re-scan finished: {} mappings scanned, {} flagged", scanned, flagged);
+        return flagged;
+    }
+
+    /**
+     * @return the plaintext destination, or null if it cannot be decrypted
+     */
+    private String destinationOf(Document mapping) {
+        try {
+            return encryptionService.decrypt(mapping.getString("originalUrl"), mapping.getString("shortCode"));
+        } catch (IllegalStateException e) {
+            logger.warn("Skipping mapping in blocklist re-scan: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private long flag(String collection, List<Object> ids, List<String> rules, List<String> shortCodes) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        Date now = new Date();
+        for (int i = 0; i < ids.size(); i++) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(ids.get(i))),
+                    new Update().set("blocked", true).set("blockedBy", rules.get(i)).set("blockedAt", now));
+        }
+        long modified = bulk.execute().getModifiedCount();
+        // Other nodes drop their copies through the change stream or their cache TTL
+        shortCodes.forEach(redirectCache::invalidate);
+        flaggedCounter.increment(modified);
+        logger.warn("Blocked {} stored mappings, e.g. {} ({})", modified, shortCodes.get(0), rules.get(0));
+        ids.clear();
+        rules.clear();
+        shortCodes.clear();
+        return modified;
+    }
+}
@@ -0,0 +1,256 @@
+package com.urlshortener.scheduling;
+
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.MappingRemovalListener;
+import com.urlshortener.service.RedirectLatencyMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background job that removes expired URL mappings in bounded batches.
+ *
+ * Only the node holding the "expiry-sweeper" lease sweeps. Deletes are paced
+ * to a target rate and slowed down further while redirect latency is above
+ * the configured threshold. Progress is kept in Mongo so any node can report
+ * it, and a sweep can be requested from any node.
+ */
+@Component
+public class ExpirySweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpirySweeper.class);
+
+    static final String LOCK_NAME = "expiry-sweeper";
+    static final String PROGRESS_COLLECTION = "sweeper_progress";
+
+    private static final int MAX_BACKOFF_FACTOR = 16;
+
+    private final MongoTemplate mongoTemplate;
+    private final LeaseLock leaseLock;
+    private final RedirectLatencyMonitor latencyMonitor;
+    private final List<MappingRemovalListener> removalListeners;
+    private final Counter deletedCounter;
+
+    @Value("${app.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    @Value("${app.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.sweeper.interval-ms:300000}")
+    private long intervalMillis;
+
+    @Value("${app.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.sweeper.max-deletes-per-second:2000}")
+    private int maxDeletesPerSecond;
+
+    @Value("${app.sweeper.lease-seconds:30}")
+    private long leaseSeconds;
+
+    @Value("${app.sweeper.latency-threshold-ms:50}")
+    private double latencyThresholdMillis;
+
+    private int backoffFactor = 1;
+
+    @Autowired
+    public ExpirySweeper(MongoTemplate mongoTemplate,
+                         LeaseLock leaseLock,
+                         RedirectLatencyMonitor latencyMonitor,
+                         List<MappingRemovalListener> removalListeners,
+                         MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseLock = leaseLock;
+        this.latencyMonitor = latencyMonitor;
+        this.removalListeners = removalListeners;
+        this.deletedCounter = Counter.builder("sweeper.deleted")
+                .description("Expired URL mappings removed by the sweeper")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Poll for due or requested sweeps. Cheap on followers: one read of the
+     * progress document and, when a sweep is due, one failed lease attempt.
+     */
+    @Scheduled(fixedDelayString = "${app.sweeper.poll-interval-ms:5000}",
+               initialDelayString = "${app.sweeper.poll-interval-ms:5000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Document progress = loadProgress();
+            if (!isRequested(progress) && !isDue(progress)) {
+                return;
+            }
+            Duration lease = Duration.ofSeconds(leaseSeconds);
+            if (!leaseLock.tryAcquire(LOCK_NAME, nodeId, lease)) {
+                return;
+            }
+            try {
+                sweep(lease);
+            } finally {
+                leaseLock.release(LOCK_NAME, nodeId);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Expiry sweep failed: {}", e.getMessage(), e);
+            updateProgress(new Update().set("state", "FAILED").set("lastError", e.getMessage()));
+        }
+    }
+
+    /**
+     * Ask the current leader to start a sweep on its next poll
+     * @return the current progress
+     */
+    public Map<String, Object> requestSweep() {
+        updateProgress(new Update().set("requestedAt", new Date()));
+        return getProgress();
+    }
+
+    /**
+     * @return progress of the current or last sweep, as reported by the leader
+     */
+    public Map<String, Object> getProgress() {
+        Document progress = loadProgress();
+        Map<String, Object> result = new HashMap<>();
+        result.put("status", progress.getString("state") != null ? progress.getString("state") : "IDLE");
+        result.put("leader", progress.getString("leader"));
+        result.put("deletedCount", progress.get("deletedInRun", 0L));
+        result.put("totalDeleted", progress.get("totalDeleted", 0L));
+        result.put("lastRunStartedAt", toIsoString(progress.getDate("runStartedAt")));
+        result.put("lastRunFinishedAt", toIsoString(progress.getDate("runFinishedAt")));
+        result.put("requestedAt", toIsoString(progress.getDate("requestedAt")));
+        return result;
+    }
+
+    void sweep(Duration lease) {
+        Date startedAt = new Date();
+        logger.info("Starting expiry sweep on node {}", nodeId);
+        updateProgress(new Update()
+                .set("state", "RUNNING")
+                .set("leader", nodeId)
+                .set("runStartedAt", startedAt)
+                .set("deletedInRun", 0L)
+                .unset("lastError"));
+
+        String collection = mongoTemplate.getCollectionName(URLMapping.class);
+        long deletedInRun = 0;
+        while (true) {
+            long batchStartNanos = System.nanoTime();
+            Date now = new Date();
+
+            Query expired = Query.query(Criteria.where("expiresAt").lt(now))
+                    .with(Sort.by(Sort.Direction.ASC, "expiresAt"))
+                    .limit(batchSize);
+            expired.fields().include("shortCode");
+            List<Document> batch = mongoTemplate.find(expired, Document.class, collection);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<Object> ids = new ArrayList<>(batch.size());
+            List<String> shortCodes = new ArrayList<>(batch.size());
+            for (Document document : batch) {
+                ids.add(document.get("_id"));
+                shortCodes.add(document.getString("shortCode"));
+            }
+
+            // Re-check expiry so a mapping extended in the meantime survives
+            long deleted = mongoTemplate.remove(
+                    Query.query(Criteria.where("_id").in(ids).and("expiresAt").lt(now)), collection)
+                    .getDeletedCount();
+            deletedInRun += deleted;
+            deletedCounter.increment(deleted);
+            notifyRemoved(shortCodes);
+            updateProgress(new Update().set("deletedInRun", deletedInRun).inc("totalDeleted", deleted));
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+            if (!leaseLock.tryAcquire(LOCK_NAME, nodeId, lease)) {
+                logger.warn("Lost expiry sweeper lease, stopping after {} deletions", deletedInRun);
+                break;
+            }
+            throttle(deleted, System.nanoTime() - batchStartNanos);
+        }
+
+        updateProgress(new Update().set("state", "IDLE").set("runFinishedAt", new Date()));
+        logger.info("Expiry sweep finished, deleted {} expired URLs", deletedInRun);
+    }
+
+    private void notifyRemoved(List<String> shortCodes) {
+        for (MappingRemovalListener listener : removalListeners) {
+            try {
+                listener.onMappingsRemoved(shortCodes);
+            } catch (RuntimeException e) {
+                logger.warn("Removal listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sleep long enough to stay under the target delete rate, stretched while
+     * redirects are slower than the latency threshold.
+     */
+    private void throttle(long deleted, long elapsedNanos) {
+        if (latencyMonitor.averageMillis() > latencyThresholdMillis) {
+            backoffFactor = Math.min(backoffFactor * 2, MAX_BACKOFF_FACTOR);
+        } else if (backoffFactor > 1) {
+            backoffFactor = backoffFactor / 2;
+        }
+
+        long budgetMillis = deleted * 1000 / Math.max(1, maxDeletesPerSecond);
+        long sleepMillis = budgetMillis * backoffFactor - elapsedNanos / 1_000_000;
+        if (sleepMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(sleepMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isRequested(Document progress) {
+        Date requestedAt = progress.getDate("requestedAt");
+        Date runStartedAt = progress.getDate("runStartedAt");
+        return requestedAt != null && (runStartedAt == null || requestedAt.after(runStartedAt));
+    }
+
+    private boolean isDue(Document progress) {
+        Date runStartedAt = progress.getDate("runStartedAt");
+        return runStartedAt == null || System.currentTimeMillis() - runStartedAt.getTime() >= intervalMillis;
+    }
+
+    private Document loadProgress() {
+        Document progress = mongoTemplate.findById(LOCK_NAME, Document.class, PROGRESS_COLLECTION);
+        return progress != null ? progress : new Document();
+    }
+
+    private void updateProgress(Update update) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(LOCK_NAME)), update, PROGRESS_COLLECTION);
+    }
+
+    private static String toIsoString(Date date) {
+        return date != null ? date.toInstant().toString() : null;
+    }
+}
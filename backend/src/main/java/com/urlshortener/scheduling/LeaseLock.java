@@ -0,0 +1,74 @@
+package com.urlshortener.scheduling;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Mongo-backed lease lock used to elect a single node for background jobs.
+ *
+ * A lease is a document keyed by lock name that records its owner and an
+ * expiry. It can be taken when free or expired and must be renewed by the
+ * owner before it runs out, so a crashed leader is replaced after one lease.
+ */
+@Component
+public class LeaseLock {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaseLock.class);
+
+    static final String COLLECTION = "leases";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public LeaseLock(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Acquire or renew a lease
+     * @param name the lock name
+     * @param owner the node asking for the lease
+     * @param lease how long the lease stays valid without renewal
+     * @return true if the caller now holds the lease
+     */
+    public boolean tryAcquire(String name, String owner, Duration lease) {
+        Date now = new Date();
+        Query query = Query.query(Criteria.where("_id").is(name)
+                .orOperator(Criteria.where("owner").is(owner), Criteria.where("expiresAt").lt(now)));
+        Update update = Update.update("owner", owner)
+                .set("expiresAt", new Date(now.getTime() + lease.toMillis()))
+                .set("renewedAt", now);
+
+        try {
+            Document held = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COLLECTION);
+            return held != null && owner.equals(held.getString("owner"));
+        } catch (DuplicateKeyException e) {
+            // The upsert raced with a live lease held by another node
+            logger.debug("Lease {} is held by another node", name);
+            return false;
+        }
+    }
+
+    /**
+     * Give up a lease early so another node can take over without waiting
+     * @param name the lock name
+     * @param owner the node releasing the lease
+     */
+    public void release(String name, String owner) {
+        Query query = Query.query(Criteria.where("_id").is(name).and("owner").is(owner));
+        mongoTemplate.updateFirst(query, Update.update("expiresAt", new Date()), COLLECTION);
+    }
+}
@@ -0,0 +1,192 @@
+package com.urlshortener.scheduling;
+
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.UrlEncryptionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Rewrites stored URLs that are not encrypted with the active key: plaintext
+ * from before encryption was enabled, and values under an older key after a
+ * rotation.
+ *
+ * Only the node holding the "url-reencryption" lease works. It streams the
+ * affected mappings through one cursor and writes them back in unordered
+ * bulk updates, each conditional on the stored value being unchanged so a
+ * concurrent write is never overwritten. The active key id of the last
+ * completed pass is kept in Mongo, so each rotation runs once across the
+ * cluster. Values that cannot be decrypted are counted and left in place,
+ * and leave the pass incomplete: the next poll retries them, which succeeds
+ * once their key has been added to app.encryption.keys.
+ */
+@Component
+public class UrlReencryptionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(UrlReencryptionJob.class);
+
+    static final String LOCK_NAME = "url-reencryption";
+    static final String PROGRESS_COLLECTION = "url_reencryption";
+
+    private final MongoTemplate mongoTemplate;
+    private final LeaseLock leaseLock;
+    private final UrlEncryptionService encryptionService;
+    private final Counter rewrittenCounter;
+
+    @Value("${app.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    @Value("${app.encryption.reencrypt.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.encryption.reencrypt.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.encryption.reencrypt.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Autowired
+    public UrlReencryptionJob(MongoTemplate mongoTemplate, LeaseLock leaseLock,
+                              UrlEncryptionService encryptionService, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseLock = leaseLock;
+        this.encryptionService = encryptionService;
+        this.rewrittenCounter = Counter.builder("url.encryption.reencrypted")
+                .description("Stored URLs re-encrypted with the active key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start a pass when the active key has not been applied yet. Cheap when
+     * nothing changed: one read of the progress document.
+     */
+    @Scheduled(fixedDelayString = "${app.encryption.reencrypt.poll-interval-ms:60000}",
+               initialDelayString = "${app.encryption.reencrypt.poll-interval-ms:60000}")
+    public void poll() {
+        if (!enabled || !encryptionService.isEnabled()) {
+            return;
+        }
+        String keyId = encryptionService.getActiveKeyId();
+        try {
+            Document progress = mongoTemplate.findById(LOCK_NAME, Document.class, PROGRESS_COLLECTION);
+            if (progress != null && keyId.equals(progress.getString("keyId"))) {
+                return;
+            }
+            Duration lease = Duration.ofSeconds(leaseSeconds);
+            if (!leaseLock.tryAcquire(LOCK_NAME, nodeId, lease)) {
+                return;
+            }
+            try {
+                reencrypt(keyId, lease);
+            } finally {
+                leaseLock.release(LOCK_NAME, nodeId);
+            }
+        } catch (RuntimeException e) {
+            logger.error("URL re-encryption failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Re-encrypt every mapping not yet under the active key
+     * @return number of mappings rewritten, or -1 if the lease was lost first
+     */
+    long reencrypt(String keyId, Duration lease) {
+        logger.info("Re-encrypting stored URLs with key {} on node {}", keyId, nodeId);
+        String collection = mongoTemplate.getCollectionName(URLMapping.class);
+        Pattern current = Pattern.compile("^" + Pattern.quote("enc:" + keyId + ":"));
+        Query stale = Query.query(Criteria.where("originalUrl").not().regex(current)).cursorBatchSize(batchSize);
+        stale.fields().include("shortCode").include("originalUrl");
+
+        long scanned = 0;
+        long rewritten = 0;
+        long failed = 0;
+        List<Object> ids = new ArrayList<>();
+        List<String> oldValues = new ArrayList<>();
+        List<String> newValues = new ArrayList<>();
+        try (Stream<Document> mappings = mongoTemplate.stream(stale, Document.class, collection)) {
+            Iterator<Document> cursor = mappings.iterator();
+            while (cursor.hasNext()) {
+                Document mapping = cursor.next();
+                scanned++;
+                String stored = mapping.getString("originalUrl");
+                String shortCode = mapping.getString("shortCode");
+                if (stored != null && !encryptionService.isCurrent(stored)) {
+                    try {
+                        String url = encryptionService.decrypt(stored, shortCode);
+                        ids.add(mapping.get("_id"));
+                        oldValues.add(stored);
+                        newValues.add(encryptionService.encrypt(url, shortCode));
+                    } catch (IllegalStateException e) {
+                        failed++;
+                        // Retried on every poll; the pass summary is logged at error
+                        logger.debug("Cannot re-encrypt {}: {}", shortCode, e.getMessage());
+                    }
+                }
+                if (scanned % batchSize == 0) {
+                    rewritten += write(collection, ids, oldValues, newValues);
+                    if (!leaseLock.tryAcquire(LOCK_NAME, nodeId, lease)) {
+                        logger.warn("Lost URL re-encryption lease after {} mappings", scanned);
+                        return -1;
+                    }
+                }
+            }
+        }
+        rewritten += write(collection, ids, oldValues, newValues);
+
+        Update progress = new Update()
+                .set("passKeyId", keyId)
+                .set("scanned", scanned)
+                .set("rewritten", rewritten)
+                .set("failed", failed)
+                .set("finishedAt", new Date())
+                .set("node", nodeId);
+        if (failed == 0) {
+            // Only a complete pass marks the key as applied
+            progress.set("keyId", keyId);
+        }
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(LOCK_NAME)), progress, PROGRESS_COLLECTION);
+        if (failed > 0) {
+            logger.error("URL re-encryption left {} values that could not be decrypted; "
+                    + "it is retried on the next poll, add their keys to app.encryption.keys", failed);
+        }
+        logger.info("URL re-encryption finished: {} mappings scanned, {} rewritten", scanned, rewritten);
+        return rewritten;
+    }
+
+    private long write(String collection, List<Object> ids, List<String> oldValues, List<String> newValues) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        for (int i = 0; i < ids.size(); i++) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(ids.get(i)).and("originalUrl").is(oldValues.get(i))),
+                    Update.update("originalUrl", newValues.get(i)));
+        }
+        long modified = bulk.execute().getModifiedCount();
+        // The change stream refreshes cached entries with the same plaintext
+        rewrittenCounter.increment(modified);
+        ids.clear();
+        oldValues.clear();
+        newValues.clear();
+        return modified;
+    }
+}
@@ -0,0 +1,136 @@
+package com.urlshortener.service;
+
+import com.urlshortener.util.AhoCorasick;
+import com.urlshortener.util.DomainSuffixTrie;
+import com.urlshortener.util.HttpUrl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable compiled blocklist of destination domains and URL substrings.
+ *
+ * One entry per line; blank lines and lines starting with '#' are skipped.
+ * A line starting with '~' is a substring matched anywhere in the URL, any
+ * other line a domain blocking itself and all its subdomains ("*." and
+ * surrounding dots are ignored). Both match case-insensitively. A check walks
+ * the host once backwards through a suffix trie and the URL once forwards
+ * through an Aho-Corasick automaton, so it is linear in the URL length
+ * whatever the size of the list.
+ */
+public final class Blocklist {
+
+    public static final Blocklist EMPTY = parse(List.of());
+
+    private final List<String> domains;
+    private final List<String> substrings;
+    private final DomainSuffixTrie domainTrie;
+    private final AhoCorasick substringMatcher;
+    private final String fingerprint;
+
+    private Blocklist(List<String> domains, List<String> substrings) {
+        this.domains = domains;
+        this.substrings = substrings;
+        this.domainTrie = new DomainSuffixTrie(domains);
+        this.substringMatcher = new AhoCorasick(substrings);
+        this.fingerprint = fingerprint(domains, substrings);
+    }
+
+    /**
+     * @param lines blocklist file lines
+     * @return the compiled blocklist
+     */
+    public static Blocklist parse(List<String> lines) {
+        Set<String> domains = new LinkedHashSet<>();
+        Set<String> substrings = new LinkedHashSet<>();
+        for (String line : lines) {
+            String entry = line.strip();
+            if (entry.isEmpty() || entry.startsWith("#")) {
+                continue;
+            }
+            if (entry.startsWith("~")) {
+                if (entry.length() > 1) {
+                    substrings.add(entry.substring(1).toLowerCase(Locale.ROOT));
+                }
+                continue;
+            }
+            String domain = entry.toLowerCase(Locale.ROOT);
+            if (domain.startsWith("*.")) {
+                domain = domain.substring(2);
+            }
+            domain = stripDots(domain);
+            if (!domain.isEmpty()) {
+                domains.add(domain);
+            }
+        }
+        return new Blocklist(List.copyOf(domains), List.copyOf(substrings));
+    }
+
+    /**
+     * @param url the parsed destination
+     * @return the rule blocking it ("~" prefixed for substrings), or null if allowed
+     */
+    public String match(HttpUrl url) {
+        String text = url.toString();
+        int domain = domainTrie.match(text, url.getHostStart(), url.getHostEnd());
+        if (domain >= 0) {
+            return domains.get(domain);
+        }
+        int substring = substringMatcher.find(text);
+        return substring >= 0 ? "~" + substrings.get(substring) : null;
+    }
+
+    public boolean isEmpty() {
+        return domains.isEmpty() && substrings.isEmpty();
+    }
+
+    public int getDomainCount() {
+        return domains.size();
+    }
+
+    public int getSubstringCount() {
+        return substrings.size();
+    }
+
+    /**
+     * @return digest of the normalized rules; equal lists have equal fingerprints
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    private static String stripDots(String domain) {
+        int start = 0;
+        int end = domain.length();
+        while (start < end && domain.charAt(start) == '.') {
+            start++;
+        }
+        while (end > start && domain.charAt(end - 1) == '.') {
+            end--;
+        }
+        return domain.substring(start, end);
+    }
+
+    private static String fingerprint(List<String> domains, List<String> substrings) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            List<String> rules = new ArrayList<>(domains);
+            substrings.forEach(substring -> rules.add("~" + substring));
+            rules.sort(null);
+            for (String rule : rules) {
+                digest.update(rule.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
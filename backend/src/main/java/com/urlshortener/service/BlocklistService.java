@@ -0,0 +1,107 @@
+package com.urlshortener.service;
+
+import com.urlshortener.util.HttpUrl;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Destination blocklist loaded from a local file and reloaded when it changes.
+ *
+ * The compiled {@link Blocklist} is immutable and published through a
+ * volatile field: a reload builds the new one off to the side and swaps it
+ * in, so checks never lock and always see one complete version. A file that
+ * cannot be read keeps the previous version in place.
+ */
+@Service
+public class BlocklistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlocklistService.class);
+
+    private final Path file;
+
+    private volatile Blocklist blocklist = Blocklist.EMPTY;
+
+    // Size and modification time of the file last loaded, to skip unchanged reloads
+    private long loadedSize = -1;
+    private long loadedModifiedMillis = -1;
+
+    @Autowired
+    public BlocklistService(@Value("${app.blocklist.file:}") String file, MeterRegistry meterRegistry) {
+        this.file = file.isBlank() ? null : Path.of(file);
+        Gauge.builder("blocklist.rules", this, service -> service.blocklist.getDomainCount())
+                .tag("type", "domain")
+                .description("Rules in the loaded destination blocklist")
+                .register(meterRegistry);
+        Gauge.builder("blocklist.rules", this, service -> service.blocklist.getSubstringCount())
+                .tag("type", "substring")
+                .description("Rules in the loaded destination blocklist")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        reloadIfChanged();
+    }
+
+    /**
+     * Reload the file if its size or modification time changed
+     * @return true if a new version was swapped in
+     */
+    @Scheduled(fixedDelayString = "${app.blocklist.reload-interval-ms:10000}",
+               initialDelayString = "${app.blocklist.reload-interval-ms:10000}")
+    public synchronized boolean reloadIfChanged() {
+        if (file == null) {
+            return false;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            long modifiedMillis = attributes.lastModifiedTime().toMillis();
+            if (size == loadedSize && modifiedMillis == loadedModifiedMillis) {
+                return false;
+            }
+            Blocklist loaded = Blocklist.parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+            loadedSize = size;
+            loadedModifiedMillis = modifiedMillis;
+            if (loaded.getFingerprint().equals(blocklist.getFingerprint())) {
+                return false;
+            }
+            blocklist = loaded;
+            logger.info("Loaded blocklist {} from {}: {} domains, {} substrings", loaded.getFingerprint(), file,
+                    loaded.getDomainCount(), loaded.getSubstringCount());
+            return true;
+        } catch (IOException e) {
+            logger.warn("Could not read blocklist {}, keeping version {}: {}", file,
+                    blocklist.getFingerprint(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @param url the parsed destination
+     * @return the rule blocking it, or null if allowed
+     */
+    public String match(HttpUrl url) {
+        return blocklist.match(url);
+    }
+
+    /**
+     * @return the version currently in use
+     */
+    public Blocklist current() {
+        return blocklist;
+    }
+}
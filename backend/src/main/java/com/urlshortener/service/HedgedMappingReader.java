@@ -0,0 +1,228 @@
+package com.urlshortener.service;
+
+import com.mongodb.ReadPreference;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.resilience.HedgeBudget;
+import com.urlshortener.util.RollingPercentile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads mappings for the redirect path with their own read preference and,
+ * optionally, hedging.
+ *
+ * With hedging on, a lookup that has not answered after the tracked
+ * percentile of recent primary latencies sends a duplicate read with the
+ * hedge read preference, usually a secondary, and takes whichever answers
+ * first. A "not found" from the hedge is not trusted on its own since the
+ * secondary may lag a fresh insert; only the preferred read can report a
+ * miss. Hedges are capped by a {@link HedgeBudget} so they stop when every
+ * read is slow.
+ *
+ * Writes in {@code shortenUrl} go through the repository and keep the
+ * client's default read preference.
+ */
+@Component
+public class HedgedMappingReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgedMappingReader.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadPreference readPreference;
+    private final ReadPreference hedgeReadPreference;
+    private final boolean hedgingEnabled;
+    private final long minDelayMicros;
+    private final long maxDelayMicros;
+
+    private final RollingPercentile primaryLatencyMicros;
+    private final HedgeBudget budget;
+    private final ThreadPoolExecutor executor;
+
+    private final Counter hedgesSent;
+    private final Counter hedgesSuppressed;
+    private final Counter primaryWins;
+    private final Counter hedgeWins;
+
+    @Autowired
+    public HedgedMappingReader(MongoTemplate mongoTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.redirect.read-preference:primary}") String readPreference,
+                               @Value("${app.redirect.hedge.enabled:false}") boolean hedgingEnabled,
+                               @Value("${app.redirect.hedge.read-preference:secondaryPreferred}") String hedgeReadPreference,
+                               @Value("${app.redirect.hedge.percentile:0.95}") double percentile,
+                               @Value("${app.redirect.hedge.min-delay-ms:2}") long minDelayMillis,
+                               @Value("${app.redirect.hedge.max-delay-ms:50}") long maxDelayMillis,
+                               @Value("${app.redirect.hedge.max-rate:0.1}") double maxRate,
+                               @Value("${app.redirect.hedge.pool-size:32}") int poolSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.readPreference = ReadPreference.valueOf(readPreference);
+        this.hedgeReadPreference = ReadPreference.valueOf(hedgeReadPreference);
+        this.hedgingEnabled = hedgingEnabled;
+        this.minDelayMicros = TimeUnit.MILLISECONDS.toMicros(minDelayMillis);
+        this.maxDelayMicros = TimeUnit.MILLISECONDS.toMicros(maxDelayMillis);
+        this.primaryLatencyMicros = new RollingPercentile(1024, percentile, 1000, maxDelayMicros);
+        this.budget = new HedgeBudget(maxRate, 10);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(poolSize * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "redirect-read-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.hedgesSent = hedgeCounter(meterRegistry, "redirect.hedge.requests", "outcome", "sent");
+        this.hedgesSuppressed = hedgeCounter(meterRegistry, "redirect.hedge.requests", "outcome", "suppressed");
+        this.primaryWins = hedgeCounter(meterRegistry, "redirect.hedge.winner", "source", "primary");
+        this.hedgeWins = hedgeCounter(meterRegistry, "redirect.hedge.winner", "source", "hedge");
+        Gauge.builder("redirect.hedge.delay", this, reader -> reader.hedgeDelayMicros() / 1000.0)
+                .description("Current delay before a redirect read is hedged")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        logger.info("Redirect reads use {} (hedging {})", this.readPreference.getName(),
+                hedgingEnabled ? "to " + this.hedgeReadPreference.getName() : "disabled");
+    }
+
+    /**
+     * Find a mapping by short code
+     * @param shortCode the short code
+     * @return the mapping, or null if it does not exist
+     */
+    public URLMapping findByShortCode(String shortCode) {
+        if (!hedgingEnabled) {
+            return find(shortCode, readPreference);
+        }
+
+        budget.onRequest();
+        CompletableFuture<URLMapping> primary = submit(shortCode, readPreference);
+        if (primary == null) {
+            return find(shortCode, readPreference);
+        }
+        long startNanos = System.nanoTime();
+        primary.whenComplete((mapping, error) -> {
+            if (error == null) {
+                primaryLatencyMicros.record((System.nanoTime() - startNanos) / 1000, System.currentTimeMillis());
+            }
+        });
+
+        try {
+            return primary.get(hedgeDelayMicros(), TimeUnit.MICROSECONDS);
+        } catch (TimeoutException e) {
+            // Fall through and hedge
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during redirect read", e);
+        }
+
+        CompletableFuture<URLMapping> hedge = budget.tryAcquire() ? submit(shortCode, hedgeReadPreference) : null;
+        if (hedge == null) {
+            hedgesSuppressed.increment();
+            return await(primary);
+        }
+        hedgesSent.increment();
+        return await(firstAnswer(primary, hedge));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The primary's answer is authoritative, including a miss. The hedge only
+     * wins with a found mapping, or stands in when the primary fails.
+     */
+    private CompletableFuture<URLMapping> firstAnswer(CompletableFuture<URLMapping> primary,
+                                                      CompletableFuture<URLMapping> hedge) {
+        CompletableFuture<URLMapping> winner = new CompletableFuture<>();
+        primary.whenComplete((mapping, error) -> {
+            if (error == null) {
+                if (winner.complete(mapping)) {
+                    primaryWins.increment();
+                }
+                return;
+            }
+            hedge.whenComplete((hedged, hedgeError) -> {
+                if (hedgeError == null && hedged != null) {
+                    if (winner.complete(hedged)) {
+                        hedgeWins.increment();
+                    }
+                } else {
+                    winner.completeExceptionally(error);
+                }
+            });
+        });
+        hedge.whenComplete((mapping, error) -> {
+            if (error == null && mapping != null && winner.complete(mapping)) {
+                hedgeWins.increment();
+            }
+        });
+        return winner;
+    }
+
+    private CompletableFuture<URLMapping> submit(String shortCode, ReadPreference preference) {
+        try {
+            return CompletableFuture.supplyAsync(() -> find(shortCode, preference), executor);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private URLMapping find(String shortCode, ReadPreference preference) {
+        Query query = Query.query(Criteria.where("shortCode").is(shortCode)).withReadPreference(preference);
+        return mongoTemplate.findOne(query, URLMapping.class);
+    }
+
+    private long hedgeDelayMicros() {
+        return Math.max(minDelayMicros, Math.min(maxDelayMicros, primaryLatencyMicros.get()));
+    }
+
+    private static URLMapping await(CompletableFuture<URLMapping> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during redirect read", e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static Counter hedgeCounter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        return Counter.builder(name)
+                .description("Hedged redirect reads")
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+}
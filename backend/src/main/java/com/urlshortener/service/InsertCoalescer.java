@@ -0,0 +1,334 @@
+package com.urlshortener.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.urlshortener.exception.WriteUnavailableException;
+import com.urlshortener.model.URLMapping;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for new URL mappings: inserts from concurrent shorten
+ * requests are gathered for a short linger window, or until a batch is full,
+ * and written with one unordered insertMany.
+ *
+ * Unordered means one failing document does not stop the rest; each caller's
+ * future completes with its own mapping or its own error, a duplicate short
+ * code surfacing as {@link DuplicateKeyException}. Ids are assigned before
+ * queueing so results never depend on the driver filling them in.
+ *
+ * That relies on the unique index on shortCode, which is ensured on startup:
+ * without it a taken code would be inserted a second time instead of
+ * failing, so the application refuses to start if it cannot be created.
+ */
+@Component
+public class InsertCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsertCoalescer.class);
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final long lingerNanos;
+    private final int maxBatchSize;
+    private final int writerCount;
+    private final long timeoutMillis;
+    private final BlockingQueue<PendingInsert> queue;
+    private final DistributionSummary batchSizes;
+    private final Timer lingerTimer;
+    private final Counter rejected;
+
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Autowired
+    public InsertCoalescer(MongoTemplate mongoTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.shorten.batch.enabled:true}") boolean enabled,
+                           @Value("${app.shorten.batch.linger-ms:2}") long lingerMillis,
+                           @Value("${app.shorten.batch.max-size:256}") int maxBatchSize,
+                           @Value("${app.shorten.batch.writers:2}") int writerCount,
+                           @Value("${app.shorten.batch.queue-capacity:10000}") int queueCapacity,
+                           @Value("${app.shorten.batch.timeout-ms:5000}") long timeoutMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, lingerMillis));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.writerCount = Math.max(1, writerCount);
+        this.timeoutMillis = timeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        this.batchSizes = DistributionSummary.builder("shorten.batch.size")
+                .description("Mappings written per insertMany")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.lingerTimer = Timer.builder("shorten.batch.linger")
+                .description("Time a new mapping waited for its batch to be written")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("shorten.batch.rejected")
+                .description("Inserts refused because the batch queue was full")
+                .register(meterRegistry);
+        Gauge.builder("shorten.batch.queue", queue, BlockingQueue::size)
+                .description("Mappings waiting for a batch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        ensureShortCodeIndex();
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < writerCount; i++) {
+            Thread writer = new Thread(this::writeLoop, "insert-coalescer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    private void ensureShortCodeIndex() {
+        try {
+            IndexOperations indexes = mongoTemplate.indexOps(URLMapping.class);
+            // Any unique index on shortCode will do, whoever created it: an
+            // equivalent one under another name would be rejected by Mongo
+            for (IndexInfo index : indexes.getIndexInfo()) {
+                if (index.isUnique() && index.getIndexFields().size() == 1
+                        && index.isIndexForFields(List.of("shortCode"))) {
+                    return;
+                }
+            }
+            // Same name as @Indexed on URLMapping.shortCode
+            indexes.ensureIndex(new Index().on("shortCode", Sort.Direction.ASC).unique().named("shortCode"));
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Could not ensure the unique shortCode index: " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Thread writer : writers) {
+            writer.interrupt();
+        }
+        for (Thread writer : writers) {
+            try {
+                writer.join(timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        writers.clear();
+        // Whatever is still queued is written by the caller thread
+        List<PendingInsert> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+    }
+
+    /**
+     * Insert a new mapping, waiting for the batch that carries it.
+     * On timeout a mapping still waiting for its batch is withdrawn, so it is
+     * not written after the caller was told to retry; one already handed to
+     * insertMany cannot be recalled and may still be written.
+     * @param mapping the mapping to insert
+     * @return the inserted mapping, with its id set
+     * @throws DuplicateKeyException if the short code is taken
+     * @throws WriteUnavailableException if the queue is full or the batch did not complete in time
+     */
+    public URLMapping insert(URLMapping mapping) {
+        PendingInsert pending = enqueue(mapping);
+        try {
+            return pending.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (TimeoutException e) {
+            withdraw(pending, new WriteUnavailableException("Insert not acknowledged within " + timeoutMillis + " ms"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            withdraw(pending, new WriteUnavailableException("Interrupted while waiting for insert", e));
+        }
+        // Withdrawn, or its batch completed between the timeout and the withdrawal
+        try {
+            return pending.future.join();
+        } catch (CompletionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    /**
+     * Queue a new mapping for the next batch
+     * @param mapping the mapping to insert
+     * @return completes with the inserted mapping, or with the error for this mapping alone
+     */
+    public CompletableFuture<URLMapping> submit(URLMapping mapping) {
+        return enqueue(mapping).future;
+    }
+
+    private PendingInsert enqueue(URLMapping mapping) {
+        if (mapping.getId() == null) {
+            mapping.setId(new ObjectId().toHexString());
+        }
+        PendingInsert pending = new PendingInsert(mapping, System.nanoTime());
+        if (!running) {
+            // Batching off (or shutting down): a batch of one on the caller's thread
+            write(new ArrayList<>(List.of(pending)));
+        } else if (!queue.offer(pending)) {
+            rejected.increment();
+            pending.future.completeExceptionally(new WriteUnavailableException("Insert queue is full"));
+        }
+        return pending;
+    }
+
+    /**
+     * Fail a pending insert so no writer picks it up; a no-op once its batch
+     * has completed
+     */
+    private void withdraw(PendingInsert pending, WriteUnavailableException error) {
+        if (pending.future.completeExceptionally(error)) {
+            queue.remove(pending);
+        }
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException("Insert failed", cause);
+    }
+
+    private void writeLoop() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                linger(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                // Shutdown; anything left in the queue is written by shutdown()
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Insert batch failed unexpectedly: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Take more inserts until the batch is full or the linger window of its
+     * first insert has passed
+     */
+    private void linger(List<PendingInsert> batch) throws InterruptedException {
+        long deadline = batch.get(0).enqueuedNanos + lingerNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<PendingInsert> batch) {
+        // Withdrawn while lingering: the caller has already been told to retry
+        batch.removeIf(pending -> pending.future.isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        List<URLMapping> mappings = new ArrayList<>(batch.size());
+        for (PendingInsert pending : batch) {
+            lingerTimer.record(startNanos - pending.enqueuedNanos, TimeUnit.NANOSECONDS);
+            mappings.add(pending.mapping);
+        }
+        batchSizes.record(batch.size());
+
+        RuntimeException[] failures = new RuntimeException[batch.size()];
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, URLMapping.class)
+                    .insert(mappings)
+                    .execute();
+        } catch (BulkOperationException e) {
+            // Unordered: only the listed documents failed, the rest were inserted
+            for (BulkWriteError error : e.getErrors()) {
+                failures[error.getIndex()] = error.getCode() == DUPLICATE_KEY
+                        ? new DuplicateKeyException(error.getMessage())
+                        : new DataIntegrityViolationException(error.getMessage());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Insert batch of {} failed: {}", batch.size(), e.getMessage());
+            for (PendingInsert pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            PendingInsert pending = batch.get(i);
+            if (failures[i] != null) {
+                pending.future.completeExceptionally(failures[i]);
+            } else {
+                pending.future.complete(pending.mapping);
+            }
+        }
+    }
+
+    private static final class PendingInsert {
+
+        final URLMapping mapping;
+        final long enqueuedNanos;
+        final CompletableFuture<URLMapping> future = new CompletableFuture<>();
+
+        PendingInsert(URLMapping mapping, long enqueuedNanos) {
+            this.mapping = mapping;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
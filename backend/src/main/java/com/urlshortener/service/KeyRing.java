@@ -0,0 +1,97 @@
+package com.urlshortener.service;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable set of AES keys for encrypting stored URLs, identified by short
+ * key ids written next to each ciphertext.
+ *
+ * Parsed from "id:base64key" entries separated by commas. The first entry is
+ * the active key, used for all new encryptions; the others only decrypt
+ * values written before a rotation. Keys must be 16, 24 or 32 bytes.
+ */
+public final class KeyRing {
+
+    public static final KeyRing EMPTY = new KeyRing(Map.of(), null);
+
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    private final Map<String, SecretKey> keys;
+    private final String activeKeyId;
+
+    private KeyRing(Map<String, SecretKey> keys, String activeKeyId) {
+        this.keys = keys;
+        this.activeKeyId = activeKeyId;
+    }
+
+    /**
+     * @param spec comma-separated "id:base64key" entries, active key first; blank for none
+     * @return the key ring
+     * @throws IllegalArgumentException if an entry is malformed, an id repeats or a key has a bad length
+     */
+    public static KeyRing parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return EMPTY;
+        }
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.strip();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.indexOf(':');
+            String id = colon > 0 ? trimmed.substring(0, colon) : "";
+            if (!KEY_ID.matcher(id).matches()) {
+                throw new IllegalArgumentException("Encryption key entries must look like id:base64key");
+            }
+            byte[] material;
+            try {
+                material = Base64.getDecoder().decode(trimmed.substring(colon + 1));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Encryption key " + id + " is not valid Base64");
+            }
+            if (material.length != 16 && material.length != 24 && material.length != 32) {
+                throw new IllegalArgumentException("Encryption key " + id + " must be 16, 24 or 32 bytes");
+            }
+            if (keys.putIfAbsent(id, new SecretKeySpec(material, "AES")) != null) {
+                throw new IllegalArgumentException("Encryption key id " + id + " is listed twice");
+            }
+        }
+        if (keys.isEmpty()) {
+            return EMPTY;
+        }
+        return new KeyRing(Map.copyOf(keys), keys.keySet().iterator().next());
+    }
+
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * @return id of the key new values are encrypted with, or null if the ring is empty
+     */
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public SecretKey getActiveKey() {
+        return activeKeyId == null ? null : keys.get(activeKeyId);
+    }
+
+    /**
+     * @param keyId a key id read from a ciphertext
+     * @return the key, or null if it is not in the ring
+     */
+    public SecretKey get(String keyId) {
+        return keys.get(keyId);
+    }
+}
@@ -0,0 +1,167 @@
+package com.urlshortener.service;
+
+import com.urlshortener.model.URLMapping;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chooses the length of randomly generated short codes so the keyspace never
+ * gets full enough for collisions to matter.
+ *
+ * Utilization of the current length is estimated two ways and the larger
+ * wins: the observed collision rate of random inserts (an unbiased estimate
+ * for uniform draws) and the collection size over the keyspace size (an upper
+ * bound, as it counts codes of every length). Once it reaches the threshold,
+ * new codes get one more character, long before retries start failing.
+ * Lengths only grow; existing codes of any length keep resolving since
+ * lookups never depend on the length.
+ */
+@Component
+public class KeyspaceManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyspaceManager.class);
+
+    /** 62^10 is the largest power of 62 that fits in a long */
+    static final int MAX_LENGTH = 10;
+
+    private static final int BASE = 62;
+
+    private final MongoTemplate mongoTemplate;
+    private final double maxUtilization;
+    private final double alpha;
+    private final Counter inserted;
+    private final Counter collisions;
+
+    private volatile int currentLength;
+    private volatile long storedMappings;
+    // EWMA of collisions per random insert attempt at the current length
+    private final AtomicLong collisionRateBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+
+    @Autowired
+    public KeyspaceManager(MongoTemplate mongoTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.short-code-length:6}") int minLength,
+                           @Value("${app.keyspace.max-utilization:0.05}") double maxUtilization,
+                           @Value("${app.keyspace.collision-window:1000}") int collisionWindow) {
+        if (minLength < 1 || minLength > MAX_LENGTH) {
+            throw new IllegalArgumentException("Short code length must be between 1 and " + MAX_LENGTH);
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.currentLength = minLength;
+        this.maxUtilization = maxUtilization;
+        this.alpha = 1.0 / Math.max(1, collisionWindow);
+
+        this.inserted = attemptCounter(meterRegistry, "inserted");
+        this.collisions = attemptCounter(meterRegistry, "collision");
+        Gauge.builder("keyspace.code_length", this, KeyspaceManager::currentLength)
+                .description("Length of newly generated short codes")
+                .register(meterRegistry);
+        Gauge.builder("keyspace.utilization", this, KeyspaceManager::utilization)
+                .description("Estimated share of the current keyspace already taken")
+                .register(meterRegistry);
+        Gauge.builder("keyspace.expected_collisions", this, KeyspaceManager::expectedCollisions)
+                .description("Expected collisions per newly generated short code")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the length for the next generated short code
+     */
+    public int currentLength() {
+        return currentLength;
+    }
+
+    /**
+     * @param length a short code length
+     * @return number of distinct Base62 codes of that length
+     */
+    public static long keyspaceSize(int length) {
+        long size = 1;
+        for (int i = 0; i < length; i++) {
+            size *= BASE;
+        }
+        return size;
+    }
+
+    /**
+     * Record the outcome of inserting a randomly generated code
+     * @param length length of the code that was tried
+     * @param collided true if the code was already taken
+     */
+    public void recordAttempt(int length, boolean collided) {
+        (collided ? collisions : inserted).increment();
+        if (length != currentLength) {
+            return; // Drawn just before a switch; says nothing about the new length
+        }
+        double sample = collided ? 1.0 : 0.0;
+        long currentBits;
+        long updatedBits;
+        do {
+            currentBits = collisionRateBits.get();
+            double current = Double.longBitsToDouble(currentBits);
+            updatedBits = Double.doubleToRawLongBits(current + alpha * (sample - current));
+        } while (!collisionRateBits.compareAndSet(currentBits, updatedBits));
+        if (collided) {
+            maybeGrow();
+        }
+    }
+
+    /**
+     * Refresh the occupancy estimate from the collection size. Uses collection
+     * metadata, so it does not scan.
+     */
+    @Scheduled(fixedDelayString = "${app.keyspace.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            storedMappings = mongoTemplate.estimatedCount(URLMapping.class);
+        } catch (DataAccessException e) {
+            logger.warn("Could not refresh keyspace occupancy: {}", e.getMessage());
+            return;
+        }
+        maybeGrow();
+    }
+
+    /**
+     * @return estimated share of the current keyspace already taken
+     */
+    public double utilization() {
+        double byCount = (double) storedMappings / keyspaceSize(currentLength);
+        return Math.min(1.0, Math.max(byCount, Double.longBitsToDouble(collisionRateBits.get())));
+    }
+
+    /**
+     * @return expected collisions before a new code is found, u / (1 - u)
+     */
+    public double expectedCollisions() {
+        double utilization = utilization();
+        return utilization >= 1.0 ? Double.POSITIVE_INFINITY : utilization / (1.0 - utilization);
+    }
+
+    private synchronized void maybeGrow() {
+        while (currentLength < MAX_LENGTH && utilization() >= maxUtilization) {
+            double previous = utilization();
+            currentLength++;
+            collisionRateBits.set(Double.doubleToRawLongBits(0.0));
+            logger.info("Short code keyspace {}% utilized, generating codes of length {} from now on",
+                    String.format("%.2f", previous * 100), currentLength);
+        }
+    }
+
+    private static Counter attemptCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("keyspace.attempts")
+                .description("Inserts of randomly generated short codes")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,155 @@
+package com.urlshortener.service;
+
+import com.urlshortener.analytics.ClickResolution;
+import com.urlshortener.analytics.ClickSeriesStore;
+import com.urlshortener.analytics.TrendingLinks;
+import com.urlshortener.analytics.TrendingTracker;
+import com.urlshortener.analytics.TrendingWindow;
+import com.urlshortener.util.CoarseClock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Read side of per-link click analytics.
+ *
+ * Series come from the click log once it has been aggregated, so the most
+ * recent minute or two may not be included yet. Trending links come from the
+ * in-memory heavy-hitter tracker and are current to within a publish interval.
+ */
+@Service
+public class LinkAnalyticsService {
+
+    /** Most points one series query may return, a day of minutes */
+    static final int MAX_POINTS = 1440;
+
+    /** Trending links returned when no limit is given */
+    static final int DEFAULT_TRENDING_LIMIT = 10;
+
+    private final ClickSeriesStore clickSeriesStore;
+    private final TrendingTracker trendingTracker;
+    private final CoarseClock clock;
+
+    @Autowired
+    public LinkAnalyticsService(ClickSeriesStore clickSeriesStore, TrendingTracker trendingTracker,
+                                CoarseClock clock) {
+        this.clickSeriesStore = clickSeriesStore;
+        this.trendingTracker = trendingTracker;
+        this.clock = clock;
+    }
+
+    /**
+     * Clicks of a link over time, read from a single rollup level
+     * @param shortCode the short code
+     * @param from ISO-8601 start, inclusive; defaults to one day before {@code to}
+     * @param to ISO-8601 end, exclusive; defaults to now
+     * @param resolution minute, hour or day; defaults to the finest level that
+     *                   still holds {@code from} and fits in {@link #MAX_POINTS}
+     * @return the series, one point per slot including empty ones
+     */
+    public Map<String, Object> getClickSeries(String shortCode, String from, String to, String resolution) {
+        long now = clock.currentTimeMillis();
+        long toMillis = to != null ? parseInstant("to", to) : now;
+        long fromMillis = from != null ? parseInstant("from", from) : toMillis - Duration.ofDays(1).toMillis();
+        if (fromMillis >= toMillis) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        ClickResolution level = resolution != null
+                ? ClickResolution.parse(resolution)
+                : chooseResolution(fromMillis, toMillis, now);
+
+        long start = level.slotStart(fromMillis);
+        long slots = slotCount(level, fromMillis, toMillis);
+        if (slots > MAX_POINTS) {
+            throw new IllegalArgumentException("Range too large for " + name(level) + " resolution, at most "
+                    + MAX_POINTS + " points");
+        }
+        long[] counts = clickSeriesStore.read(shortCode, level, start, (int) slots);
+
+        List<Map<String, Object>> points = new ArrayList<>(counts.length);
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("timestamp", Instant.ofEpochMilli(start + i * level.getSlotMillis()).toString());
+            point.put("count", counts[i]);
+            points.add(point);
+            total += counts[i];
+        }
+
+        Map<String, Object> series = new HashMap<>();
+        series.put("shortCode", shortCode);
+        series.put("resolution", name(level));
+        series.put("from", Instant.ofEpochMilli(start).toString());
+        series.put("to", Instant.ofEpochMilli(toMillis).toString());
+        series.put("totalClicks", total);
+        series.put("points", points);
+        return series;
+    }
+
+    /**
+     * Most clicked links of a sliding window, over all nodes. Counts are
+     * estimates that may slightly overcount, never undercount.
+     * @param window 5m, 1h or 24h; defaults to 1h
+     * @param limit number of links; defaults to {@link #DEFAULT_TRENDING_LIMIT}
+     * @return the links, most clicked first
+     */
+    public Map<String, Object> getTrending(String window, Integer limit) {
+        TrendingWindow trendingWindow = window != null ? TrendingWindow.parse(window) : TrendingWindow.ONE_HOUR;
+        int count = limit != null ? limit : DEFAULT_TRENDING_LIMIT;
+        if (count < 1) {
+            throw new IllegalArgumentException("'limit' must be positive");
+        }
+        TrendingLinks trending = trendingTracker.trending(trendingWindow, count);
+
+        List<Map<String, Object>> links = new ArrayList<>(trending.getClicks().size());
+        trending.getClicks().forEach((shortCode, clicks) -> {
+            Map<String, Object> link = new LinkedHashMap<>();
+            link.put("shortCode", shortCode);
+            link.put("clicks", clicks);
+            links.add(link);
+        });
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("window", trendingWindow.getLabel());
+        result.put("nodes", trending.getNodes());
+        result.put("partial", trending.isPartial());
+        result.put("links", links);
+        return result;
+    }
+
+    private ClickResolution chooseResolution(long fromMillis, long toMillis, long now) {
+        for (ClickResolution level : ClickResolution.values()) {
+            boolean retained = fromMillis >= now - clickSeriesStore.retentionMillis(level);
+            if (retained && slotCount(level, fromMillis, toMillis) <= MAX_POINTS) {
+                return level;
+            }
+        }
+        return ClickResolution.DAY;
+    }
+
+    private static long slotCount(ClickResolution level, long fromMillis, long toMillis) {
+        long start = level.slotStart(fromMillis);
+        return (toMillis - start + level.getSlotMillis() - 1) / level.getSlotMillis();
+    }
+
+    private static long parseInstant(String name, String value) {
+        try {
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("'" + name + "' must be an ISO-8601 instant, e.g. 2024-01-31T12:00:00Z");
+        }
+    }
+
+    private static String name(ClickResolution level) {
+        return level.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,76 @@
+package com.urlshortener.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Continuation token of the link listing: the createdAt and id of the last
+ * mapping examined, plus a hash of the filters it was issued for, as
+ * URL-safe Base64. A position rather than an offset, so a page costs the
+ * same at any depth and inserts ahead of it do not shift later pages.
+ */
+final class LinkCursor {
+
+    private static final String VERSION = "1";
+
+    private final LocalDateTime createdAt;
+    private final String id;
+    private final int filterHash;
+
+    LinkCursor(LocalDateTime createdAt, String id, int filterHash) {
+        this.createdAt = createdAt;
+        this.id = id;
+        this.filterHash = filterHash;
+    }
+
+    /**
+     * @return a hash binding a cursor to the filters of the listing that issued it
+     */
+    static int filterHash(String domain, Boolean active, long minClicks) {
+        return Objects.hash(domain, active, minClicks);
+    }
+
+    /**
+     * @param token a token from {@link #encode()}
+     * @param filterHash hash of the filters of the current request
+     * @return the position
+     * @throws IllegalArgumentException if the token is malformed or was issued for other filters
+     */
+    static LinkCursor decode(String token, int filterHash) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 4 || !VERSION.equals(parts[0]) || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        LinkCursor cursor;
+        try {
+            cursor = new LinkCursor(LocalDateTime.parse(parts[1]), parts[2], Integer.parseUnsignedInt(parts[3], 16));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (cursor.filterHash != filterHash) {
+            throw new IllegalArgumentException("Cursor was issued for different filters");
+        }
+        return cursor;
+    }
+
+    String encode() {
+        String position = VERSION + "|" + createdAt + "|" + id + "|" + Integer.toHexString(filterHash);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    String getId() {
+        return id;
+    }
+}
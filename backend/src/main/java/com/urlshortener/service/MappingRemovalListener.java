@@ -0,0 +1,16 @@
+package com.urlshortener.service;
+
+import java.util.Collection;
+
+/**
+ * Callback for in-memory components that hold per-short-code state and must
+ * drop it once the mapping is removed from Mongo.
+ */
+public interface MappingRemovalListener {
+
+    /**
+     * Called after a batch of mappings has been deleted
+     * @param shortCodes the short codes that no longer exist
+     */
+    void onMappingsRemoved(Collection<String> shortCodes);
+}
@@ -0,0 +1,53 @@
+package com.urlshortener.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks redirect lookup latency as an exponentially weighted moving average,
+ * so background jobs can back off while user-facing traffic is suffering.
+ */
+@Component
+public class RedirectLatencyMonitor {
+
+    // Weight of the newest sample, roughly a 100-sample window
+    private static final double ALPHA = 0.02;
+
+    private final AtomicLong ewmaNanosBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final Timer lookupTimer;
+
+    @Autowired
+    public RedirectLatencyMonitor(MeterRegistry meterRegistry) {
+        this.lookupTimer = Timer.builder("redirect.lookup")
+                .description("Time spent resolving a short code to its original URL")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record one redirect lookup
+     * @param elapsedNanos lookup duration in nanoseconds
+     */
+    public void record(long elapsedNanos) {
+        lookupTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        long currentBits;
+        long updatedBits;
+        do {
+            currentBits = ewmaNanosBits.get();
+            double current = Double.longBitsToDouble(currentBits);
+            double updated = current == 0.0 ? elapsedNanos : current + ALPHA * (elapsedNanos - current);
+            updatedBits = Double.doubleToRawLongBits(updated);
+        } while (!ewmaNanosBits.compareAndSet(currentBits, updatedBits));
+    }
+
+    /**
+     * @return the moving average lookup latency in milliseconds
+     */
+    public double averageMillis() {
+        return Double.longBitsToDouble(ewmaNanosBits.get()) / 1_000_000.0;
+    }
+}
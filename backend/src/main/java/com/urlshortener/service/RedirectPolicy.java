@@ -0,0 +1,94 @@
+package com.urlshortener.service;
+
+import com.urlshortener.cache.CachedMapping;
+import com.urlshortener.cache.RedirectHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides how a short code is redirected: the status code and how long
+ * browsers and a CDN in front of the service may cache the answer.
+ *
+ * Cache lifetimes never outlast the link: max-age counts down to expiresAt,
+ * capped separately for browsers (Cache-Control) and for the CDN
+ * (Surrogate-Control). Links flagged for exact analytics are sent with
+ * no-store so every click reaches the service and gets counted.
+ *
+ * Computed headers are kept on the cached mapping and only rebuilt when a
+ * max-age would change, which for links further from expiry than both caps
+ * is never.
+ */
+@Component
+public class RedirectPolicy {
+
+    static final String UNCACHED = "private, no-store";
+    static final String SURROGATE_UNCACHED = "no-store";
+
+    private final int defaultStatus;
+    private final long maxAgeSeconds;
+    private final long surrogateMaxAgeSeconds;
+    private final String vary;
+
+    @Autowired
+    public RedirectPolicy(@Value("${app.redirect.default-status:301}") int defaultStatus,
+                          @Value("${app.redirect.cache.max-age-seconds:3600}") long maxAgeSeconds,
+                          @Value("${app.redirect.cache.surrogate-max-age-seconds:86400}") long surrogateMaxAgeSeconds,
+                          @Value("${app.redirect.cache.vary:Accept-Encoding}") String vary) {
+        if (!isSupportedStatus(defaultStatus)) {
+            throw new IllegalArgumentException("Unsupported default redirect status: " + defaultStatus);
+        }
+        this.defaultStatus = defaultStatus;
+        this.maxAgeSeconds = Math.max(0, maxAgeSeconds);
+        this.surrogateMaxAgeSeconds = Math.max(0, surrogateMaxAgeSeconds);
+        this.vary = vary == null || vary.isBlank() ? null : vary.trim();
+    }
+
+    /**
+     * @param status an HTTP status code
+     * @return true for the redirect codes a link may use
+     */
+    public static boolean isSupportedStatus(int status) {
+        return status == 301 || status == 302 || status == 307 || status == 308;
+    }
+
+    /**
+     * Headers for redirecting a live mapping
+     * @param mapping the cached mapping, not expired
+     * @param nowMillis current epoch millis
+     * @return the headers, reused from the mapping while still correct
+     */
+    public RedirectHeaders headersFor(CachedMapping mapping, long nowMillis) {
+        RedirectHeaders headers = mapping.getRedirectHeaders();
+        if (headers != null && headers.isValidAt(nowMillis)) {
+            return headers;
+        }
+        // Racing threads compute equal values; whichever is stored last wins
+        headers = compute(mapping, nowMillis);
+        mapping.setRedirectHeaders(headers);
+        return headers;
+    }
+
+    private RedirectHeaders compute(CachedMapping mapping, long nowMillis) {
+        int status = mapping.getRedirectStatus() == 0 ? defaultStatus : mapping.getRedirectStatus();
+        if (mapping.isExactAnalytics()) {
+            return new RedirectHeaders(status, mapping.getLocation(), UNCACHED, SURROGATE_UNCACHED, null,
+                    Long.MAX_VALUE);
+        }
+
+        long maxAge = maxAgeSeconds;
+        long surrogateMaxAge = surrogateMaxAgeSeconds;
+        long validUntil = Long.MAX_VALUE;
+        long expiresAt = mapping.getExpiresAtMillis();
+        if (expiresAt != CachedMapping.NO_EXPIRY) {
+            // Rounded down, so a cache never keeps the redirect past expiresAt
+            long remainingSeconds = Math.max(0, (expiresAt - nowMillis) / 1000);
+            maxAge = Math.min(maxAge, remainingSeconds);
+            surrogateMaxAge = Math.min(surrogateMaxAge, remainingSeconds);
+            // The larger age is the first to start counting down
+            validUntil = expiresAt - 1000 * Math.max(maxAge, surrogateMaxAge);
+        }
+        return new RedirectHeaders(status, mapping.getLocation(), "public, max-age=" + maxAge,
+                "max-age=" + surrogateMaxAge, vary, validUntil);
+    }
+}
@@ -0,0 +1,126 @@
+package com.urlshortener.service;
+
+import com.urlshortener.exception.LookupUnavailableException;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads mappings for the redirect path under a per-call time budget and a
+ * circuit breaker, so a slow Mongo cannot pin request threads.
+ *
+ * The query runs on a small dedicated pool; the request thread waits at most
+ * the budget and then gives up. Failures, timeouts and slow calls feed the
+ * breaker, and while it is open lookups fail fast so the cache can serve
+ * stale entries instead.
+ */
+@Component
+public class ResilientMappingLoader {
+
+    private final HedgedMappingReader reader;
+    private final CircuitBreaker breaker;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    private final Counter rejected;
+    private final Counter timeouts;
+    private final Counter failures;
+
+    @Autowired
+    public ResilientMappingLoader(HedgedMappingReader reader,
+                                  @Qualifier("redirectLookupBreaker") CircuitBreaker breaker,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.redirect.lookup.timeout-ms:100}") long timeoutMillis,
+                                  @Value("${app.redirect.lookup.pool-size:32}") int poolSize) {
+        this.reader = reader;
+        this.breaker = breaker;
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(poolSize * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "redirect-lookup-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.rejected = outcomeCounter(meterRegistry, "rejected");
+        this.timeouts = outcomeCounter(meterRegistry, "timeout");
+        this.failures = outcomeCounter(meterRegistry, "error");
+    }
+
+    /**
+     * Load a mapping from Mongo
+     * @param shortCode the short code
+     * @return the mapping, or null if it does not exist
+     * @throws LookupUnavailableException if the breaker is open or the call failed or timed out
+     */
+    public URLMapping load(String shortCode) {
+        long startMillis = System.currentTimeMillis();
+        if (!breaker.tryAcquire(startMillis)) {
+            rejected.increment();
+            throw new LookupUnavailableException("Redirect lookups temporarily unavailable");
+        }
+
+        Future<URLMapping> result;
+        try {
+            result = executor.submit(() -> reader.findByShortCode(shortCode));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            breaker.onFailure(System.currentTimeMillis());
+            throw new LookupUnavailableException("Redirect lookup pool saturated", e);
+        }
+
+        try {
+            URLMapping mapping = result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            long now = System.currentTimeMillis();
+            breaker.onSuccess(now - startMillis, now);
+            return mapping;
+        } catch (TimeoutException e) {
+            // Drop it if still queued, but never interrupt a running read: the
+            // driver closes a pooled connection interrupted mid-I/O, while a
+            // finished read simply returns it to the pool
+            result.cancel(false);
+            timeouts.increment();
+            breaker.onFailure(System.currentTimeMillis());
+            throw new LookupUnavailableException("Redirect lookup timed out after " + timeoutMillis + " ms", e);
+        } catch (ExecutionException e) {
+            failures.increment();
+            breaker.onFailure(System.currentTimeMillis());
+            throw new LookupUnavailableException("Redirect lookup failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(false);
+            breaker.onFailure(System.currentTimeMillis());
+            throw new LookupUnavailableException("Interrupted during redirect lookup", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("redirect.lookup.failures")
+                .description("Redirect lookups that did not return a result from Mongo")
+                .tag("reason", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,21 +1,35 @@
 package com.urlshortener.service;
 
+import com.urlshortener.analytics.ClickEventLog;
+import com.urlshortener.analytics.ClickStatsStore;
+import com.urlshortener.analytics.ClickSummary;
+import com.urlshortener.cache.CachedMapping;
+import com.urlshortener.cache.RedirectCache;
+import com.urlshortener.cache.RedirectHeaders;
 import com.urlshortener.dto.ShortenURLRequest;
 import com.urlshortener.dto.ShortenURLResponse;
+import com.urlshortener.exception.LookupUnavailableException;
 import com.urlshortener.model.URLMapping;
 import com.urlshortener.repository.URLRepository;
 import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.CoarseClock;
+import com.urlshortener.util.HttpUrl;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.function.Function;
 
 /**
  * Service class for URL shortening operations
@@ -27,26 +41,74 @@ public class URLService {
     
     private final URLRepository urlRepository;
     private final Base62Encoder base62Encoder;
+    private final RedirectCache redirectCache;
+    private final RedirectLatencyMonitor latencyMonitor;
+    private final CoarseClock clock;
+    private final Function<String, URLMapping> mappingLoader;
+    private final ClickEventLog clickEventLog;
+    private final ClickStatsStore clickStatsStore;
+    private final RedirectPolicy redirectPolicy;
+    private final InsertCoalescer insertCoalescer;
+    private final KeyspaceManager keyspaceManager;
+    private final BlocklistService blocklistService;
     private final Random random;
     
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
     
-    @Value("${app.short-code-length:6}")
-    private int shortCodeLength;
-    
     @Value("${app.default-expiry-days:7}")
     private int defaultExpiryDays;
     
+    @Value("${app.links.default-limit:20}")
+    private int defaultPageSize;
+    
+    @Value("${app.links.max-limit:100}")
+    private int maxPageSize;
+    
+    @Value("${app.links.max-scan:1000}")
+    private int maxPageScan;
+    
+    // Parsed once from baseUrl
+    private String baseDomain;
+    private String shortUrlPrefix;
+    
     private static final int MAX_RETRY_ATTEMPTS = 5;
     
     @Autowired
-    public URLService(URLRepository urlRepository, Base62Encoder base62Encoder) {
+    public URLService(URLRepository urlRepository, Base62Encoder base62Encoder, RedirectCache redirectCache,
+                      RedirectLatencyMonitor latencyMonitor, CoarseClock clock,
+                      ResilientMappingLoader mappingLoader, ClickEventLog clickEventLog,
+                      ClickStatsStore clickStatsStore, RedirectPolicy redirectPolicy, InsertCoalescer insertCoalescer,
+                      KeyspaceManager keyspaceManager, BlocklistService blocklistService) {
         this.urlRepository = urlRepository;
         this.base62Encoder = base62Encoder;
+        this.redirectCache = redirectCache;
+        this.latencyMonitor = latencyMonitor;
+        this.clock = clock;
+        // Bound once; a method reference taken per lookup would allocate
+        this.mappingLoader = mappingLoader::load;
+        this.clickEventLog = clickEventLog;
+        this.clickStatsStore = clickStatsStore;
+        this.redirectPolicy = redirectPolicy;
+        this.insertCoalescer = insertCoalescer;
+        this.keyspaceManager = keyspaceManager;
+        this.blocklistService = blocklistService;
         this.random = new Random();
     }
     
+    /**
+     * Split the configured base URL into the pieces every shorten needs
+     */
+    @PostConstruct
+    void resolveBaseUrl() {
+        HttpUrl base = HttpUrl.parse(baseUrl);
+        if (base == null) {
+            logger.warn("Base URL {} is not a valid http(s) URL; using localhost as link domain", baseUrl);
+        }
+        baseDomain = base == null ? "localhost" : base.getHost();
+        shortUrlPrefix = baseUrl + "/";
+    }
+    
     /**
      * Shorten a URL
      * @param request the shorten URL request
@@ -56,9 +118,20 @@ public class URLService {
         logger.info("Shortening URL: {}", request.getUrl());
         
         // Validate URL
-        if (!isValidUrl(request.getUrl())) {
+        HttpUrl destination = HttpUrl.parse(request.getUrl());
+        if (destination == null) {
+            logger.debug("Invalid URL format: {}", request.getUrl());
             throw new IllegalArgumentException("Invalid URL format");
         }
+        String blockedBy = blocklistService.match(destination);
+        if (blockedBy != null) {
+            logger.warn("Rejected blocked destination {} (rule {})", request.getUrl(), blockedBy);
+            throw new IllegalArgumentException("URL destination is not allowed");
+        }
+        
+        if (request.getRedirectStatus() != null && !RedirectPolicy.isSupportedStatus(request.getRedirectStatus())) {
+            throw new IllegalArgumentException("Redirect status must be 301, 302, 307 or 308");
+        }
         
         // Calculate expiry date
         LocalDateTime expiresAt = null;
@@ -68,26 +141,25 @@ public class URLService {
             expiresAt = LocalDateTime.now().plusDays(defaultExpiryDays);
         }
         
-        // Generate short code
-        String shortCode;
+        String domain = baseDomain;
+        
+        // Insert first: the unique shortCode index is the collision check, so a
+        // shorten costs one round-trip (shared with concurrent ones in an insertMany)
+        URLMapping urlMapping;
         if (request.getCustomCode() != null && !request.getCustomCode().trim().isEmpty()) {
-            shortCode = request.getCustomCode().trim();
-            if (urlRepository.existsByShortCode(shortCode)) {
-                throw new IllegalArgumentException("Custom short code already exists: " + shortCode);
+            String customCode = request.getCustomCode().trim();
+            try {
+                urlMapping = insertCoalescer.insert(newMapping(customCode, request, domain, expiresAt));
+            } catch (DuplicateKeyException e) {
+                throw new IllegalArgumentException("Custom short code already exists: " + customCode);
             }
         } else {
-            shortCode = generateUniqueShortCode();
+            urlMapping = insertWithGeneratedCode(request, domain, expiresAt);
         }
-        
-        // Extract domain from base URL
-        String domain = extractDomain(baseUrl);
-        
-        // Create and save URL mapping
-        URLMapping urlMapping = new URLMapping(shortCode, request.getUrl(), domain, expiresAt);
-        urlMapping = urlRepository.save(urlMapping);
+        String shortCode = urlMapping.getShortCode();
         
         // Build response
-        String shortUrl = baseUrl + "/" + shortCode;
+        String shortUrl = shortUrlPrefix + shortCode;
         ShortenURLResponse response = new ShortenURLResponse(
             shortUrl, 
             shortCode, 
@@ -106,104 +178,137 @@ public class URLService {
      * @return the original URL
      */
     public String getOriginalUrl(String shortCode) {
-        logger.debug("Looking up original URL for short code: {}", shortCode);
-        
-        Optional<URLMapping> urlMapping = urlRepository.findByShortCode(shortCode);
+        return resolve(shortCode).getOriginalUrl();
+    }
+    
+    /**
+     * Get the redirect for a short code: status, Location and cache headers
+     * as decided by the redirect policy. Cached with the mapping, so a cache
+     * hit allocates nothing. The click goes to the click log.
+     * @param shortCode the short code
+     * @param referrerHash hash of the Referer header, see {@code ClickEvents.hashReferrer}
+     * @param userAgentClass class of the User-Agent header, see {@code ClickEvents.classifyUserAgent}
+     * @param clientHash hash of client address and User-Agent, see {@code ClickEvents.hashClient}
+     * @return the redirect headers
+     */
+    public RedirectHeaders getRedirect(String shortCode, int referrerHash, byte userAgentClass, long clientHash) {
+        CachedMapping mapping = resolve(shortCode);
+        long now = clock.currentTimeMillis();
+        // Never blocks; dropped (and counted) if the log writer is behind
+        clickEventLog.publish(shortCode, now, referrerHash, userAgentClass, clientHash);
+        return redirectPolicy.headersFor(mapping, now);
+    }
+    
+    /**
+     * Run the redirect and shorten code paths without side effects, so the
+     * JIT compiles them before the node takes traffic: a redirect resolved
+     * without logging a click, and a shorten request validated and turned
+     * into a mapping without inserting it.
+     * @param shortCode a code to resolve, ideally already cached; null to skip the redirect
+     * @param sample a shorten request
+     */
+    public void warmUp(String shortCode, ShortenURLRequest sample) {
+        if (shortCode != null) {
+            try {
+                redirectPolicy.headersFor(resolve(shortCode), clock.currentTimeMillis());
+            } catch (IllegalArgumentException | LookupUnavailableException e) {
+                logger.debug("Warm-up redirect for {} failed: {}", shortCode, e.getMessage());
+            }
+        }
+        HttpUrl destination = HttpUrl.parse(sample.getUrl());
+        if (destination != null && blocklistService.match(destination) == null) {
+            newMapping(generateShortCode(keyspaceManager.currentLength()), sample, baseDomain, null);
+        }
+    }
+    
+    /**
+     * Estimated distinct clients that followed a short code, as of the last
+     * click aggregation
+     * @param shortCode the short code
+     * @return the estimate, 0 if no clicks were aggregated yet, or null if the
+     *         click stats cannot be read
+     */
+    public Long getUniqueVisitors(String shortCode) {
+        try {
+            ClickSummary summary = clickStatsStore.summaries(List.of(shortCode)).get(shortCode);
+            return summary == null ? 0L : summary.getUniqueVisitors();
+        } catch (DataAccessException e) {
+            logger.warn("Click stats unavailable for {}: {}", shortCode, e.getMessage());
+            return null;
+        }
+    }
+    
+    private CachedMapping resolve(String shortCode) {
+        long startNanos = System.nanoTime();
+        try {
+            return lookup(shortCode);
+        } finally {
+            latencyMonitor.record(System.nanoTime() - startNanos);
+        }
+    }
+    
+    private CachedMapping lookup(String shortCode) {
+        long now = clock.currentTimeMillis();
+        CachedMapping mapping = redirectCache.getOrLoad(shortCode, now, mappingLoader);
         
-        if (urlMapping.isEmpty()) {
+        if (mapping == null) {
             logger.warn("Short code not found: {}", shortCode);
             throw new IllegalArgumentException("Short code not found: " + shortCode);
         }
         
-        URLMapping mapping = urlMapping.get();
-        
         // Check if URL has expired
-        if (mapping.isExpired()) {
+        if (mapping.isExpired(now)) {
             logger.warn("Short code has expired: {}", shortCode);
             throw new IllegalArgumentException("Short code has expired: " + shortCode);
         }
         
-        // Increment click count
-        mapping.incrementClickCount();
-        urlRepository.save(mapping);
-        
-        logger.debug("Found original URL: {} for short code: {} (clicks: {})", 
-                    mapping.getOriginalUrl(), shortCode, mapping.getClickCount());
-        return mapping.getOriginalUrl();
-    }    /**
-     * Generate a unique short code
-     * @return unique short code
-     */
-    private String generateUniqueShortCode() {
-        String shortCode;
-        int attempts = 0;
-        
-        do {
-            if (attempts >= MAX_RETRY_ATTEMPTS) {
-                throw new RuntimeException("Failed to generate unique short code after " + MAX_RETRY_ATTEMPTS + " attempts");
-            }
-            
-            // Generate random number and encode to Base62
-            long randomNumber = Math.abs(random.nextLong());
-            shortCode = base62Encoder.encodeWithMinLength(randomNumber, shortCodeLength);
-            
-            // Ensure we don't exceed the desired length
-            if (shortCode.length() > shortCodeLength) {
-                shortCode = shortCode.substring(0, shortCodeLength);
-            }
-            
-            attempts++;
-            
-        } while (urlRepository.existsByShortCode(shortCode));
+        if (mapping.isBlocked()) {
+            logger.warn("Short code is blocked: {}", shortCode);
+            throw new IllegalArgumentException("Short code has been disabled: " + shortCode);
+        }
         
-        logger.debug("Generated unique short code: {} after {} attempts", shortCode, attempts);
-        return shortCode;
+        return mapping;
     }
     
     /**
-     * Validate if URL is properly formatted
-     * @param urlString the URL to validate
-     * @return true if valid, false otherwise
+     * Insert under a random short code, drawing a new one whenever the unique
+     * index reports a collision
+     * @return the inserted mapping
      */
-    private boolean isValidUrl(String urlString) {
-        if (urlString == null || urlString.trim().isEmpty()) {
-            return false;
-        }
-        
-        try {
-            URI uri = new URI(urlString);
-            String scheme = uri.getScheme();
-            return "http".equals(scheme) || "https".equals(scheme);
-        } catch (URISyntaxException e) {
-            logger.debug("Invalid URL format: {}", urlString);
-            return false;
+    private URLMapping insertWithGeneratedCode(ShortenURLRequest request, String domain, LocalDateTime expiresAt) {
+        for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS; attempt++) {
+            int length = keyspaceManager.currentLength();
+            String shortCode = generateShortCode(length);
+            try {
+                URLMapping inserted = insertCoalescer.insert(newMapping(shortCode, request, domain, expiresAt));
+                keyspaceManager.recordAttempt(length, false);
+                logger.debug("Generated unique short code: {} after {} attempts", shortCode, attempt);
+                return inserted;
+            } catch (DuplicateKeyException e) {
+                keyspaceManager.recordAttempt(length, true);
+                logger.debug("Short code {} already taken, drawing another", shortCode);
+            }
         }
+        throw new RuntimeException("Failed to generate unique short code after " + MAX_RETRY_ATTEMPTS + " attempts");
     }
     
     /**
-     * Extract domain from URL
-     * @param urlString the URL
-     * @return the domain
+     * Generate a random short code candidate
+     * @param length the code length chosen by the keyspace manager
+     * @return short code drawn uniformly from all codes of that length
      */
-    private String extractDomain(String urlString) {
-        try {
-            URI uri = new URI(urlString);
-            return uri.getHost();
-        } catch (URISyntaxException e) {
-            logger.warn("Failed to extract domain from URL: {}", urlString);
-            return "localhost";
-        }
+    private String generateShortCode(int length) {
+        // Uniform over [0, 62^length), so every code of that length is equally likely
+        long randomNumber = random.nextLong(KeyspaceManager.keyspaceSize(length));
+        return base62Encoder.encodeWithMinLength(randomNumber, length);
     }
     
-    /**
-     * Clean up expired URLs
-     * @return number of cleaned URLs
-     */
-    public long cleanupExpiredUrls() {
-        logger.info("Starting cleanup of expired URLs");
-        long deletedCount = urlRepository.deleteExpiredUrls(LocalDateTime.now());
-        logger.info("Cleaned up {} expired URLs", deletedCount);
-        return deletedCount;
+    private static URLMapping newMapping(String shortCode, ShortenURLRequest request, String domain,
+                                         LocalDateTime expiresAt) {
+        URLMapping urlMapping = new URLMapping(shortCode, request.getUrl(), domain, expiresAt);
+        urlMapping.setRedirectStatus(request.getRedirectStatus());
+        urlMapping.setExactAnalytics(Boolean.TRUE.equals(request.getExactAnalytics()));
+        return urlMapping;
     }
     
     /**
@@ -229,19 +334,25 @@ public class URLService {
             
             // Calculate basic stats
             long totalUrls = allUrls.size();
-            long totalClicks = allUrls.stream().mapToLong(URLMapping::getClickCount).sum();
+            // clickCount on the mapping holds clicks counted before the click log existed
+            long totalClicks = allUrls.stream().mapToLong(URLMapping::getClickCount).sum()
+                    + clickStatsStore.grandTotal();
             long activeUrls = allUrls.stream().filter(url -> url.getExpiresAt() == null || url.getExpiresAt().isAfter(now)).count();
             long expiredUrls = totalUrls - activeUrls;
             
             // Get recent URLs (last 10, ordered by creation date)
             java.util.List<URLMapping> recentUrls = urlRepository.findTop10ByOrderByCreatedAtDesc();
+            java.util.Map<String, ClickSummary> recentClicks = clickStatsStore.summaries(
+                    recentUrls.stream().map(URLMapping::getShortCode).collect(java.util.stream.Collectors.toList()));
             
             // Build response
             stats.put("totalUrls", totalUrls);
             stats.put("totalClicks", totalClicks);
             stats.put("activeUrls", activeUrls);
             stats.put("expiredUrls", expiredUrls);
-            stats.put("recentUrls", recentUrls.stream().map(this::mapToUrlInfo).collect(java.util.stream.Collectors.toList()));
+            stats.put("recentUrls", recentUrls.stream()
+                    .map(url -> mapToUrlInfo(url, recentClicks.get(url.getShortCode())))
+                    .collect(java.util.stream.Collectors.toList()));
             
             return stats;
         } catch (Exception e) {
@@ -250,44 +361,121 @@ public class URLService {
         }
     }
     
+    /**
+     * List links newest first, one keyset page at a time. Each page reads at
+     * most app.links.max-scan mappings, so its cost does not depend on how
+     * deep the listing is; with selective filters a page may come back short
+     * (or empty) with a cursor to continue from.
+     * @param domain only links of this link domain, optional
+     * @param status "active" or "expired", optional
+     * @param minClicks only links clicked at least this often, optional
+     * @param limit most links to return, optional
+     * @param cursor nextCursor of the previous page, optional
+     * @return the links and nextCursor, null once the listing is complete
+     */
+    public Map<String, Object> listLinks(String domain, String status, Long minClicks, Integer limit,
+                                         String cursor) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageSize);
+        }
+        Boolean active = parseStatus(status);
+        long minimumClicks = minClicks != null ? minClicks : 0;
+        if (minimumClicks < 0) {
+            throw new IllegalArgumentException("minClicks must not be negative");
+        }
+        int filterHash = LinkCursor.filterHash(domain, active, minimumClicks);
+        LinkCursor position = cursor == null || cursor.isEmpty() ? null : LinkCursor.decode(cursor, filterHash);
+        boolean filtered = active != null || minimumClicks > 0;
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Map<String, Object>> links = new ArrayList<>(pageSize);
+        boolean exhausted = false;
+        int scanned = 0;
+        while (links.size() < pageSize && scanned < maxPageScan) {
+            int wanted = pageSize - links.size();
+            // Unfiltered, one extra mapping tells whether another page exists; filtered, read ahead
+            int batchSize = Math.min(filtered ? Math.max(wanted * 4, 50) : wanted + 1, maxPageScan - scanned);
+            List<URLMapping> batch = urlRepository.findPageNewestFirst(domain,
+                    position != null ? position.getCreatedAt() : null, position != null ? position.getId() : null,
+                    batchSize);
+            Map<String, ClickSummary> clicks = clickStatsStore.summaries(
+                    batch.stream().map(URLMapping::getShortCode).toList());
+            int consumed = 0;
+            for (URLMapping mapping : batch) {
+                if (links.size() == pageSize) {
+                    break;
+                }
+                consumed++;
+                position = new LinkCursor(mapping.getCreatedAt(), mapping.getId(), filterHash);
+                ClickSummary summary = clicks.get(mapping.getShortCode());
+                boolean isActive = mapping.getExpiresAt() == null || mapping.getExpiresAt().isAfter(now);
+                long totalClicks = mapping.getClickCount() + (summary == null ? 0L : summary.getTotal());
+                if ((active == null || active == isActive) && totalClicks >= minimumClicks) {
+                    links.add(mapToUrlInfo(mapping, summary));
+                }
+            }
+            scanned += consumed;
+            if (batch.size() < batchSize && consumed == batch.size()) {
+                exhausted = true;
+                break;
+            }
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("links", links);
+        page.put("count", links.size());
+        page.put("nextCursor", exhausted || position == null ? null : position.encode());
+        return page;
+    }
+    
+    private static Boolean parseStatus(String status) {
+        if (status == null || status.isEmpty()) {
+            return null;
+        }
+        return switch (status) {
+            case "active" -> Boolean.TRUE;
+            case "expired" -> Boolean.FALSE;
+            default -> throw new IllegalArgumentException("Status must be active or expired");
+        };
+    }
+    
     /**
      * Extract base URL (protocol + domain) from a full URL for privacy
      * @param fullUrl the complete URL
      * @return base URL with path redacted
      */
     private String extractBaseUrlForDisplay(String fullUrl) {
-        try {
-            URI uri = new URI(fullUrl);
-            String baseUrl = uri.getScheme() + "://" + uri.getHost();
-            
-            // Add port if it's not default
-            if (uri.getPort() != -1 && 
-                !((uri.getPort() == 80 && "http".equals(uri.getScheme())) || 
-                  (uri.getPort() == 443 && "https".equals(uri.getScheme())))) {
-                baseUrl += ":" + uri.getPort();
-            }
-            
-            // Add path indicator if there was a path
-            if (uri.getPath() != null && !uri.getPath().isEmpty() && !"/".equals(uri.getPath())) {
-                baseUrl += "/[path-redacted]";
-            }
-            
-            // Add query indicator if there were query parameters
-            if (uri.getQuery() != null && !uri.getQuery().isEmpty()) {
-                baseUrl += "?[params-redacted]";
-            }
-            
-            return baseUrl;
-        } catch (URISyntaxException e) {
+        HttpUrl url = HttpUrl.parse(fullUrl);
+        if (url == null) {
             logger.warn("Failed to parse URL for privacy redaction: {}", fullUrl);
             return "[url-redacted]";
         }
+        StringBuilder display = new StringBuilder(64)
+                .append(url.getScheme()).append("://").append(fullUrl, url.getHostStart(), url.getHostEnd());
+        
+        // Add port if it's not default
+        if (!url.isDefaultPort()) {
+            display.append(':').append(url.getPort());
+        }
+        
+        // Add path indicator if there was a path
+        if (url.hasPath()) {
+            display.append("/[path-redacted]");
+        }
+        
+        // Add query indicator if there were query parameters
+        if (url.hasQuery()) {
+            display.append("?[params-redacted]");
+        }
+        
+        return display.toString();
     }
 
     /**
      * Convert URLMapping to URLInfo for API response
      */
-    private java.util.Map<String, Object> mapToUrlInfo(URLMapping urlMapping) {
+    private java.util.Map<String, Object> mapToUrlInfo(URLMapping urlMapping, ClickSummary aggregated) {
         java.util.Map<String, Object> urlInfo = new java.util.HashMap<>();
         LocalDateTime now = LocalDateTime.now();
         
@@ -295,7 +483,8 @@ public class URLService {
         urlInfo.put("originalUrl", extractBaseUrlForDisplay(urlMapping.getOriginalUrl()));
         urlInfo.put("createdAt", urlMapping.getCreatedAt().toString());
         urlInfo.put("expiresAt", urlMapping.getExpiresAt() != null ? urlMapping.getExpiresAt().toString() : null);
-        urlInfo.put("clickCount", urlMapping.getClickCount());
+        urlInfo.put("clickCount", urlMapping.getClickCount() + (aggregated == null ? 0L : aggregated.getTotal()));
+        urlInfo.put("uniqueVisitors", aggregated == null ? 0L : aggregated.getUniqueVisitors());
         urlInfo.put("isActive", urlMapping.getExpiresAt() == null || urlMapping.getExpiresAt().isAfter(now));
         
         return urlInfo;
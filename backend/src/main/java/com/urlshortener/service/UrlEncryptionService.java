@@ -0,0 +1,175 @@
+package com.urlshortener.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Field-level AES-GCM encryption of stored original URLs.
+ *
+ * A stored value is "enc:{keyId}:{base64url(nonce | ciphertext | tag)}" with
+ * a random 96-bit nonce and the short code as associated data, so a value
+ * copied onto another mapping fails to decrypt. Values without the prefix
+ * are plaintext from before encryption was enabled and are returned as-is.
+ *
+ * The JDK's SunJCE AES-GCM is intrinsified on AES-NI/PCLMULQDQ (and ARMv8
+ * crypto) hardware. Cipher instances are not thread-safe and costly to look
+ * up, so each thread keeps its own, together with its own DRBG for nonces.
+ * Decryption only runs when a mapping is loaded from Mongo; plaintext URLs
+ * are then held only by the bounded redirect cache.
+ */
+@Service
+public class UrlEncryptionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UrlEncryptionService.class);
+
+    static final String PREFIX = "enc:";
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_LENGTH = 16;
+
+    private static final ThreadLocal<CipherState> CIPHERS = ThreadLocal.withInitial(CipherState::new);
+
+    private final KeyRing keyRing;
+    private final String activePrefix;
+    private final Counter failures;
+
+    @Autowired
+    public UrlEncryptionService(@Value("${app.encryption.keys:}") String keys, MeterRegistry meterRegistry) {
+        this.keyRing = KeyRing.parse(keys);
+        this.activePrefix = keyRing.isEmpty() ? null : PREFIX + keyRing.getActiveKeyId() + ":";
+        this.failures = Counter.builder("url.encryption.failures")
+                .description("Stored URLs that could not be decrypted")
+                .register(meterRegistry);
+        Gauge.builder("url.encryption.keys", keyRing, KeyRing::size)
+                .description("Keys in the URL encryption key ring")
+                .register(meterRegistry);
+        if (keyRing.isEmpty()) {
+            logger.info("URL encryption disabled: no keys in app.encryption.keys");
+        } else {
+            logger.info("URL encryption enabled with active key {} ({} keys)", keyRing.getActiveKeyId(), keyRing.size());
+        }
+    }
+
+    /**
+     * @return true if a key ring is configured and new values are encrypted
+     */
+    public boolean isEnabled() {
+        return !keyRing.isEmpty();
+    }
+
+    public String getActiveKeyId() {
+        return keyRing.getActiveKeyId();
+    }
+
+    /**
+     * @param url the plaintext URL
+     * @param shortCode the mapping's short code, bound as associated data
+     * @return the value to store; the URL unchanged if encryption is disabled
+     */
+    public String encrypt(String url, String shortCode) {
+        if (url == null || !isEnabled()) {
+            return url;
+        }
+        CipherState state = CIPHERS.get();
+        byte[] plaintext = url.getBytes(StandardCharsets.UTF_8);
+        byte[] sealed = new byte[NONCE_LENGTH + plaintext.length + TAG_LENGTH];
+        state.random.nextBytes(state.nonce);
+        System.arraycopy(state.nonce, 0, sealed, 0, NONCE_LENGTH);
+        try {
+            Cipher cipher = state.cipher;
+            cipher.init(Cipher.ENCRYPT_MODE, keyRing.getActiveKey(), new GCMParameterSpec(TAG_LENGTH * 8, state.nonce));
+            if (shortCode != null) {
+                cipher.updateAAD(shortCode.getBytes(StandardCharsets.UTF_8));
+            }
+            cipher.doFinal(plaintext, 0, plaintext.length, sealed, NONCE_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt URL for " + shortCode, e);
+        }
+        return activePrefix + Base64.getUrlEncoder().withoutPadding().encodeToString(sealed);
+    }
+
+    /**
+     * @param stored the stored value
+     * @param shortCode the mapping's short code, bound as associated data
+     * @return the plaintext URL; the value unchanged if it is not encrypted
+     * @throws IllegalStateException if the key is not in the ring or the value fails authentication
+     */
+    public String decrypt(String stored, String shortCode) {
+        if (!isEncrypted(stored)) {
+            return stored;
+        }
+        int colon = stored.indexOf(':', PREFIX.length());
+        String keyId = colon < 0 ? "" : stored.substring(PREFIX.length(), colon);
+        SecretKey key = keyRing.get(keyId);
+        if (key == null) {
+            failures.increment();
+            throw new IllegalStateException("URL of " + shortCode + " is encrypted with unknown key '" + keyId + "'");
+        }
+        try {
+            byte[] sealed = Base64.getUrlDecoder().decode(stored.substring(colon + 1));
+            if (sealed.length < NONCE_LENGTH + TAG_LENGTH) {
+                throw new IllegalArgumentException("too short");
+            }
+            Cipher cipher = CIPHERS.get().cipher;
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, sealed, 0, NONCE_LENGTH));
+            if (shortCode != null) {
+                cipher.updateAAD(shortCode.getBytes(StandardCharsets.UTF_8));
+            }
+            byte[] plaintext = cipher.doFinal(sealed, NONCE_LENGTH, sealed.length - NONCE_LENGTH);
+            return new String(plaintext, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            failures.increment();
+            throw new IllegalStateException("URL of " + shortCode + " could not be decrypted: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param stored the stored value
+     * @return true if it carries the encryption prefix
+     */
+    public boolean isEncrypted(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /**
+     * @param stored the stored value
+     * @return true if it is encrypted with the active key, so needs no re-encryption
+     */
+    public boolean isCurrent(String stored) {
+        return activePrefix != null && stored != null && stored.startsWith(activePrefix);
+    }
+
+    /**
+     * Per-thread cipher, nonce buffer and random source
+     */
+    private static final class CipherState {
+
+        final Cipher cipher;
+        final SecureRandom random;
+        final byte[] nonce = new byte[NONCE_LENGTH];
+
+        CipherState() {
+            try {
+                cipher = Cipher.getInstance(TRANSFORMATION);
+                random = SecureRandom.getInstance("DRBG");
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("AES-GCM is not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.urlshortener.startup;
+
+import com.urlshortener.analytics.ClickEvents;
+import com.urlshortener.analytics.ClickStatsStore;
+import com.urlshortener.analytics.TrendingTracker;
+import com.urlshortener.analytics.TrendingWindow;
+import com.urlshortener.cache.RedirectCache;
+import com.urlshortener.dto.ShortenURLRequest;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.URLService;
+import com.urlshortener.util.CoarseClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms a node up before it reports ready.
+ *
+ * Spring Boot flips the readiness state to accepting traffic only after all
+ * application runners have returned, so this runs while the readiness probe
+ * still fails: it opens the Mongo pool to its minimum size, preloads the
+ * hottest short codes into the redirect cache and runs the redirect and
+ * shorten paths until the JIT stops compiling. All of it shares one time
+ * budget; whatever is left undone when it runs out is simply skipped.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final int LOAD_BATCH = 500;
+    private static final int ROUND_CALLS = 1_000;
+    /** Rounds without new JIT compilation after which the paths count as compiled */
+    private static final int QUIET_ROUNDS = 3;
+
+    private static final String SAMPLE_URL = "https://www.example.com/warm-up/path?utm_source=warmup";
+    private static final String SAMPLE_REFERRER = "https://news.example.com/article";
+    private static final String SAMPLE_USER_AGENT =
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) AppleWebKit/605.1.15 Mobile/15E148";
+
+    private final MongoTemplate mongoTemplate;
+    private final RedirectCache redirectCache;
+    private final URLService urlService;
+    private final TrendingTracker trendingTracker;
+    private final ClickStatsStore clickStatsStore;
+    private final CoarseClock clock;
+    private final long budgetMillis;
+    private final int hotCodes;
+    private final int maxCalls;
+    private final int poolConnections;
+
+    @Autowired
+    public WarmupRunner(MongoTemplate mongoTemplate, RedirectCache redirectCache, URLService urlService,
+                        TrendingTracker trendingTracker, ClickStatsStore clickStatsStore, CoarseClock clock,
+                        @Value("${app.warmup.budget-ms:30000}") long budgetMillis,
+                        @Value("${app.warmup.hot-codes:1000}") int hotCodes,
+                        @Value("${app.warmup.max-calls:200000}") int maxCalls,
+                        @Value("${app.mongo.min-pool-size:0}") int poolConnections) {
+        this.mongoTemplate = mongoTemplate;
+        this.redirectCache = redirectCache;
+        this.urlService = urlService;
+        this.trendingTracker = trendingTracker;
+        this.clickStatsStore = clickStatsStore;
+        this.clock = clock;
+        this.budgetMillis = budgetMillis;
+        this.hotCodes = hotCodes;
+        this.maxCalls = maxCalls;
+        this.poolConnections = poolConnections;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+
+        int connections = openConnections(deadlineNanos);
+        List<String> codes = preloadHotCodes(deadlineNanos);
+        int calls = exercisePaths(codes, deadlineNanos);
+
+        logger.info("Warm-up done in {} ms: {} Mongo connections, {} hot codes cached, {} synthetic calls",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), connections, codes.size(), calls);
+    }
+
+    /**
+     * Ping Mongo from as many threads as the pool's minimum size, so each
+     * ping needs a connection of its own
+     * @return number of successful pings
+     */
+    int openConnections(long deadlineNanos) {
+        if (poolConnections <= 0) {
+            return 0;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(poolConnections);
+        try {
+            List<Callable<Boolean>> pings = new ArrayList<>();
+            for (int i = 0; i < poolConnections; i++) {
+                pings.add(() -> mongoTemplate.executeCommand("{ ping: 1 }") != null);
+            }
+            int opened = 0;
+            for (var ping : executor.invokeAll(pings, remainingNanos(deadlineNanos), TimeUnit.NANOSECONDS)) {
+                try {
+                    opened += !ping.isCancelled() && ping.get() ? 1 : 0;
+                } catch (Exception e) {
+                    logger.debug("Warm-up ping failed: {}", e.getMessage());
+                }
+            }
+            return opened;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Cache the hottest codes: trending over the last day across nodes
+     * first, then the most clicked of all time
+     * @return the codes now cached
+     */
+    List<String> preloadHotCodes(long deadlineNanos) {
+        List<String> cached = new ArrayList<>();
+        if (hotCodes <= 0 || remainingNanos(deadlineNanos) == 0) {
+            return cached;
+        }
+        Set<String> codes = new LinkedHashSet<>();
+        try {
+            codes.addAll(trendingTracker.trending(TrendingWindow.ONE_DAY, hotCodes).getClicks().keySet());
+            if (codes.size() < hotCodes) {
+                codes.addAll(clickStatsStore.topCodes(hotCodes));
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not read hot codes for warm-up: {}", e.getMessage());
+        }
+
+        List<String> pending = new ArrayList<>(codes);
+        for (int from = 0; from < pending.size() && remainingNanos(deadlineNanos) > 0; from += LOAD_BATCH) {
+            List<String> batch = pending.subList(from, Math.min(pending.size(), from + LOAD_BATCH));
+            try {
+                long now = clock.currentTimeMillis();
+                for (URLMapping mapping : mongoTemplate.find(
+                        Query.query(Criteria.where("shortCode").in(batch)), URLMapping.class)) {
+                    if (!redirectCache.put(mapping, now).isExpired(now)) {
+                        cached.add(mapping.getShortCode());
+                    }
+                }
+            } catch (DataAccessException e) {
+                logger.warn("Warm-up preload stopped: {}", e.getMessage());
+                break;
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Run the redirect and shorten paths in rounds until a few rounds pass
+     * without JIT compilation, the call cap is reached or time runs out
+     * @return number of calls made
+     */
+    int exercisePaths(List<String> codes, long deadlineNanos) {
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean tracked = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        ShortenURLRequest sample = new ShortenURLRequest(SAMPLE_URL);
+        long lastCompileMillis = tracked ? compiler.getTotalCompilationTime() : 0;
+        int quietRounds = 0;
+        int calls = 0;
+        long sink = 0;
+
+        while (calls < maxCalls && remainingNanos(deadlineNanos) > 0 && quietRounds < QUIET_ROUNDS) {
+            for (int i = 0; i < ROUND_CALLS && calls < maxCalls; i++, calls++) {
+                urlService.warmUp(codes.isEmpty() ? null : codes.get(calls % codes.size()), sample);
+                sink += ClickEvents.hashReferrer(SAMPLE_REFERRER) + ClickEvents.classifyUserAgent(SAMPLE_USER_AGENT)
+                        + ClickEvents.hashClient("203.0.113.7", SAMPLE_USER_AGENT);
+            }
+            if (tracked) {
+                long compileMillis = compiler.getTotalCompilationTime();
+                quietRounds = compileMillis == lastCompileMillis ? quietRounds + 1 : 0;
+                lastCompileMillis = compileMillis;
+            }
+        }
+        logger.debug("Warm-up checksum {}", sink);
+        return calls;
+    }
+
+    private static long remainingNanos(long deadlineNanos) {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+}
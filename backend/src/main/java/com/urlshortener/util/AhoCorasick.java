@@ -0,0 +1,117 @@
+package com.urlshortener.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton finding any of a set of substrings in one pass over
+ * the text, case-insensitively.
+ *
+ * Each text character costs one transition plus, amortized, a constant number
+ * of failure-link steps, so matching is linear in the text length however
+ * many patterns there are. Immutable once built and safe to share between
+ * threads; matching allocates nothing.
+ */
+public final class AhoCorasick {
+
+    private final CharTransitions transitions;
+    private final int[] fail;
+    // Index of a pattern ending at each node or at one of its failure-link suffixes, -1 for none
+    private final int[] output;
+    private final int size;
+
+    /**
+     * @param patterns non-empty patterns; indexes into this list are reported
+     *                 by {@link #find}
+     */
+    public AhoCorasick(List<String> patterns) {
+        Map<Long, Integer> edges = new HashMap<>();
+        List<int[]> childEdges = new ArrayList<>();
+        childEdges.add(new int[0]);
+        List<Integer> own = new ArrayList<>();
+        own.add(-1);
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = Character.toLowerCase(pattern.charAt(i));
+                long key = CharTransitions.key(node, c);
+                Integer child = edges.get(key);
+                if (child == null) {
+                    child = own.size();
+                    edges.put(key, child);
+                    own.add(-1);
+                    childEdges.add(new int[0]);
+                    int[] siblings = childEdges.get(node);
+                    int[] grown = Arrays.copyOf(siblings, siblings.length + 1);
+                    grown[siblings.length] = c;
+                    childEdges.set(node, grown);
+                }
+                node = child;
+            }
+            if (node != 0 && own.get(node) < 0) {
+                own.set(node, p);
+            }
+        }
+
+        int nodes = own.size();
+        this.transitions = new CharTransitions(edges);
+        this.fail = new int[nodes];
+        this.output = new int[nodes];
+        this.size = patterns.size();
+        output[0] = -1;
+
+        // Breadth-first, so a node's failure target is always finished before it
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int c : childEdges.get(node)) {
+                int child = transitions.get(node, (char) c);
+                if (node != 0) {
+                    int f = fail[node];
+                    while (f != 0 && transitions.get(f, (char) c) < 0) {
+                        f = fail[f];
+                    }
+                    int target = transitions.get(f, (char) c);
+                    fail[child] = target >= 0 ? target : 0;
+                }
+                output[child] = own.get(child) >= 0 ? own.get(child) : output[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * @param text the text to search
+     * @return index of a pattern occurring in the text (the one ending
+     *         earliest), or -1 if none does
+     */
+    public int find(CharSequence text) {
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next = transitions.get(state, c);
+            while (next < 0 && state != 0) {
+                state = fail[state];
+                next = transitions.get(state, c);
+            }
+            state = next < 0 ? 0 : next;
+            if (output[state] >= 0) {
+                return output[state];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return number of patterns the automaton was built from
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,71 @@
+package com.urlshortener.util;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Read-only (node, char) -> child table shared by the character tries.
+ *
+ * Open addressing over packed {@code node << 16 | char} keys, so a step
+ * through a trie is one multiply and usually one probe, and nothing is
+ * allocated. Filled once from a map built at construction time.
+ */
+final class CharTransitions {
+
+    private static final long EMPTY = -1L;
+
+    private final long[] keys;
+    private final int[] children;
+    private final int mask;
+    private final int shift;
+
+    /**
+     * @param edges child node per packed key, see {@link #key}
+     */
+    CharTransitions(Map<Long, Integer> edges) {
+        int size = 2;
+        while (size < edges.size() * 2) {
+            size <<= 1;
+        }
+        this.keys = new long[size];
+        this.children = new int[size];
+        this.mask = size - 1;
+        this.shift = 64 - Integer.numberOfTrailingZeros(size);
+        Arrays.fill(keys, EMPTY);
+        for (Map.Entry<Long, Integer> edge : edges.entrySet()) {
+            int slot = slot(edge.getKey());
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = edge.getKey();
+            children[slot] = edge.getValue();
+        }
+    }
+
+    static long key(int node, char c) {
+        return ((long) node << 16) | c;
+    }
+
+    /**
+     * @return the child of {@code node} along {@code c}, or -1 if there is none
+     */
+    int get(int node, char c) {
+        long key = key(node, c);
+        int slot = slot(key);
+        while (true) {
+            long found = keys[slot];
+            if (found == key) {
+                return children[slot];
+            }
+            if (found == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int slot(long key) {
+        // Fibonacci hashing; a 2-slot table has shift 63
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift) & mask;
+    }
+}
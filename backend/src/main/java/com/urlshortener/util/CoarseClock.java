@@ -0,0 +1,87 @@
+package com.urlshortener.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Millisecond clock refreshed by a single background thread.
+ *
+ * Hot paths read a volatile field instead of calling System.currentTimeMillis()
+ * or allocating a LocalDateTime. The price is up to one tick of staleness.
+ * Tick listeners (e.g. timing wheels) are driven from the same thread.
+ */
+@Component
+public class CoarseClock {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoarseClock.class);
+
+    private final long tickMillis;
+    private final List<LongConsumer> tickListeners = new CopyOnWriteArrayList<>();
+
+    private volatile long nowMillis;
+    private ScheduledExecutorService ticker;
+
+    public CoarseClock(@Value("${app.clock.tick-ms:5}") long tickMillis) {
+        this.tickMillis = tickMillis;
+        this.nowMillis = System.currentTimeMillis();
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the current time in epoch millis, at most one tick old
+     */
+    public long currentTimeMillis() {
+        return nowMillis;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Run a callback with the refreshed time on every tick
+     * @param listener receives the current epoch millis
+     */
+    public void addTickListener(LongConsumer listener) {
+        tickListeners.add(listener);
+    }
+
+    void tick() {
+        long now = System.currentTimeMillis();
+        nowMillis = now;
+        for (LongConsumer listener : tickListeners) {
+            try {
+                listener.accept(now);
+            } catch (RuntimeException e) {
+                logger.warn("Clock tick listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.urlshortener.util;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min sketch over string keys with conservative update.
+ *
+ * Estimates never undercount; they overcount by at most a small fraction of
+ * the total added, with high probability. Only the rows holding the current
+ * minimum are incremented (conservative update), which keeps the overcount
+ * well below the textbook bound for skewed streams. Memory is fixed at
+ * construction and adding allocates nothing.
+ *
+ * Not thread-safe.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final int[] counters;
+
+    /**
+     * @param depth number of hash rows
+     * @param width counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1 || width > 1 << 24) {
+            throw new IllegalArgumentException("Depth must be positive and width between 1 and 2^24");
+        }
+        int size = 1;
+        while (size < width) {
+            size <<= 1;
+        }
+        this.depth = depth;
+        this.mask = size - 1;
+        this.counters = new int[depth * size];
+    }
+
+    /**
+     * Count one occurrence of a key
+     * @param key the key
+     * @return the key's estimate including this occurrence
+     */
+    public int add(String key) {
+        int h1 = key.hashCode();
+        int h2 = mix(h1);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[index(row, h1, h2)]);
+        }
+        if (min == Integer.MAX_VALUE) {
+            return min;
+        }
+        for (int row = 0; row < depth; row++) {
+            int i = index(row, h1, h2);
+            if (counters[i] == min) {
+                counters[i] = min + 1;
+            }
+        }
+        return min + 1;
+    }
+
+    /**
+     * @param key the key
+     * @return estimated occurrences of the key, never less than the true count
+     */
+    public int estimate(String key) {
+        int h1 = key.hashCode();
+        int h2 = mix(h1);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[index(row, h1, h2)]);
+        }
+        return min;
+    }
+
+    public void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    private int index(int row, int h1, int h2) {
+        // Kirsch-Mitzenmacher: row hashes derived from two base hashes
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        // Odd, so every row probes a different position
+        return h | 1;
+    }
+}
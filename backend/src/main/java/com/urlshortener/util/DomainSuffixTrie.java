@@ -0,0 +1,91 @@
+package com.urlshortener.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches host names against a set of domains, each also covering all of
+ * its subdomains, with a trie over the domains' characters in reverse.
+ *
+ * Walking a host from its last character towards its first follows the
+ * labels from the top-level domain down, so "a.b.example.com" and
+ * "example.com" share a path and a host is checked in one backward pass over
+ * its characters, whatever the number of rules. A rule only matches at a
+ * label boundary: "example.com" covers "mail.example.com" but not
+ * "badexample.com". ASCII and other letters match case-insensitively.
+ * Immutable once built and safe to share between threads.
+ */
+public final class DomainSuffixTrie {
+
+    private final CharTransitions transitions;
+    // Index + 1 of the rule ending at each node, 0 for none
+    private final int[] ruleAt;
+    private final int size;
+
+    /**
+     * @param domains lower-case domains without leading or trailing dots;
+     *                indexes into this list are reported by {@link #match}
+     */
+    public DomainSuffixTrie(List<String> domains) {
+        Map<Long, Integer> edges = new HashMap<>();
+        int[] rules = new int[16];
+        int nodes = 1;
+        for (int rule = 0; rule < domains.size(); rule++) {
+            String domain = domains.get(rule);
+            int node = 0;
+            for (int i = domain.length() - 1; i >= 0; i--) {
+                long key = CharTransitions.key(node, Character.toLowerCase(domain.charAt(i)));
+                Integer child = edges.get(key);
+                if (child == null) {
+                    child = nodes++;
+                    edges.put(key, child);
+                }
+                node = child;
+            }
+            if (node >= rules.length) {
+                rules = Arrays.copyOf(rules, Math.max(node + 1, rules.length * 2));
+            }
+            if (node != 0 && rules[node] == 0) {
+                rules[node] = rule + 1;
+            }
+        }
+        this.transitions = new CharTransitions(edges);
+        this.ruleAt = Arrays.copyOf(rules, nodes);
+        this.size = domains.size();
+    }
+
+    /**
+     * Find the rule covering a host, given as a region of a larger string
+     * such as a whole URL; a single trailing dot is ignored
+     * @param text string holding the host
+     * @param start offset of the host's first character
+     * @param end offset just past the host
+     * @return index of the matching domain, the longest one if several do, or -1
+     */
+    public int match(CharSequence text, int start, int end) {
+        if (end > start && text.charAt(end - 1) == '.') {
+            end--;
+        }
+        int node = 0;
+        int matched = -1;
+        for (int i = end - 1; i >= start; i--) {
+            node = transitions.get(node, Character.toLowerCase(text.charAt(i)));
+            if (node < 0) {
+                break;
+            }
+            if (ruleAt[node] != 0 && (i == start || text.charAt(i - 1) == '.')) {
+                matched = ruleAt[node] - 1;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * @return number of domains the trie was built from
+     */
+    public int size() {
+        return size;
+    }
+}
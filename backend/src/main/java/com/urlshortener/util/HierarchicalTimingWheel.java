@@ -0,0 +1,308 @@
+package com.urlshortener.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for expiring in-memory entries at their deadline
+ * without scanning.
+ *
+ * Four levels of 256/64/64/64 slots cover 2^26 ticks; later deadlines are
+ * parked in the outermost level and re-placed as the wheel turns. Scheduling
+ * and cancelling are O(1) and lock-free for the caller: requests are queued
+ * and applied by the single thread that calls {@link #advance(long)}, which
+ * then hands every entry that expired during the advance to the handler in
+ * one batch.
+ *
+ * @param <T> payload carried by each timeout
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private static final int ROOT_BITS = 8;
+    private static final int LEVEL_BITS = 6;
+    private static final int ROOT_SIZE = 1 << ROOT_BITS;
+    private static final int LEVEL_SIZE = 1 << LEVEL_BITS;
+    private static final int ROOT_MASK = ROOT_SIZE - 1;
+    private static final int LEVEL_MASK = LEVEL_SIZE - 1;
+    private static final int OUTER_LEVELS = 3;
+    private static final long MAX_DELTA = 1L << (ROOT_BITS + OUTER_LEVELS * LEVEL_BITS);
+
+    private final long tickMillis;
+    private final Consumer<List<T>> expiryHandler;
+
+    private final Bucket<T>[] root;
+    private final Bucket<T>[][] levels;
+
+    private final Queue<Timeout<T>> pendingAdds = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<T>> pendingCancels = new ConcurrentLinkedQueue<>();
+
+    // Last processed tick, only touched by the advancing thread
+    private long currentTick;
+    private int scheduledCount;
+
+    /**
+     * @param tickMillis resolution of the wheel
+     * @param startMillis epoch millis the wheel starts at
+     * @param expiryHandler receives expired payloads in batches
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, long startMillis, Consumer<List<T>> expiryHandler) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.expiryHandler = expiryHandler;
+        this.currentTick = startMillis / tickMillis;
+
+        this.root = new Bucket[ROOT_SIZE];
+        for (int i = 0; i < ROOT_SIZE; i++) {
+            root[i] = new Bucket<>();
+        }
+        this.levels = new Bucket[OUTER_LEVELS][LEVEL_SIZE];
+        for (int level = 0; level < OUTER_LEVELS; level++) {
+            for (int i = 0; i < LEVEL_SIZE; i++) {
+                levels[level][i] = new Bucket<>();
+            }
+        }
+    }
+
+    /**
+     * Schedule a payload to expire at a deadline
+     * @param payload the payload handed to the expiry handler
+     * @param deadlineMillis epoch millis at which the payload expires
+     * @return a handle that can be cancelled
+     */
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(this, payload, deadlineMillis / tickMillis);
+        pendingAdds.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Advance the wheel to the given time and fire everything that is due.
+     * Must only be called from one thread.
+     * @param nowMillis current epoch millis
+     */
+    public void advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        drainCancels();
+        drainAdds(expired);
+
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            int rootIndex = (int) (currentTick & ROOT_MASK);
+            if (rootIndex == 0) {
+                cascade(0);
+            }
+            scheduledCount -= root[rootIndex].expireAll(expired);
+        }
+
+        if (!expired.isEmpty()) {
+            expiryHandler.accept(expired);
+        }
+    }
+
+    /**
+     * @return number of timeouts placed on the wheel, excluding queued requests
+     */
+    public int size() {
+        return scheduledCount;
+    }
+
+    private void cascade(int level) {
+        int shift = ROOT_BITS + level * LEVEL_BITS;
+        int index = (int) ((currentTick >> shift) & LEVEL_MASK);
+        // Higher levels turn over once this level wraps
+        if (index == 0 && level + 1 < OUTER_LEVELS) {
+            cascade(level + 1);
+        }
+        Timeout<T> timeout = levels[level][index].takeAll();
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.next = null;
+            timeout.prev = null;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long deadlineTick = timeout.deadlineTick;
+        long delta = deadlineTick - currentTick;
+        Bucket<T> bucket;
+        if (delta < ROOT_SIZE) {
+            bucket = root[(int) (Math.max(deadlineTick, currentTick) & ROOT_MASK)];
+        } else {
+            if (delta >= MAX_DELTA) {
+                deadlineTick = currentTick + MAX_DELTA - 1;
+                delta = MAX_DELTA - 1;
+            }
+            int level = 0;
+            while (delta >= (1L << (ROOT_BITS + (level + 1) * LEVEL_BITS))) {
+                level++;
+            }
+            int shift = ROOT_BITS + level * LEVEL_BITS;
+            bucket = levels[level][(int) ((deadlineTick >> shift) & LEVEL_MASK)];
+        }
+        bucket.add(timeout);
+    }
+
+    private void drainAdds(List<T> expired) {
+        Timeout<T> timeout;
+        while ((timeout = pendingAdds.poll()) != null) {
+            if (timeout.state != Timeout.INIT) {
+                continue;
+            }
+            if (timeout.deadlineTick <= currentTick) {
+                if (timeout.markExpired()) {
+                    expired.add(timeout.payload);
+                }
+                continue;
+            }
+            place(timeout);
+            scheduledCount++;
+        }
+    }
+
+    private void drainCancels() {
+        Timeout<T> timeout;
+        while ((timeout = pendingCancels.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+                scheduledCount--;
+            }
+        }
+    }
+
+    /**
+     * Handle to a scheduled expiry
+     * @param <T> payload type
+     */
+    public static final class Timeout<T> {
+
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HierarchicalTimingWheel<T> wheel;
+        private final T payload;
+        private final long deadlineTick;
+
+        private volatile int state = INIT;
+
+        // Intrusive list links, owned by the advancing thread
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private Bucket<T> bucket;
+
+        private Timeout(HierarchicalTimingWheel<T> wheel, T payload, long deadlineTick) {
+            this.wheel = wheel;
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Cancel the expiry if it has not fired yet
+         * @return true if this call cancelled it
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, INIT, CANCELLED)) {
+                return false;
+            }
+            wheel.pendingCancels.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        private boolean markExpired() {
+            return STATE.compareAndSet(this, INIT, EXPIRED);
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts sharing a slot
+     */
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        Timeout<T> takeAll() {
+            Timeout<T> first = head;
+            head = null;
+            tail = null;
+            for (Timeout<T> timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.bucket = null;
+            }
+            return first;
+        }
+
+        /**
+         * Empty the slot, collecting payloads that were not cancelled meanwhile
+         * @return number of timeouts taken off the wheel
+         */
+        int expireAll(List<T> expired) {
+            int removed = 0;
+            Timeout<T> timeout = takeAll();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.next = null;
+                timeout.prev = null;
+                if (timeout.markExpired()) {
+                    expired.add(timeout.payload);
+                }
+                removed++;
+                timeout = next;
+            }
+            return removed;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.urlshortener.util;
+
+/**
+ * Single-pass parser and validator for absolute http(s) URLs.
+ *
+ * One left-to-right scan checks the URL and records where its host, port,
+ * path, query and fragment are, as offsets into the original string; nothing
+ * is copied unless a getter that returns a string is called. Stricter than
+ * "starts with http(s)://": the host must be a DNS-style name, an IPv4
+ * address or a bracketed IPv6 literal, user info is rejected (it is mostly
+ * used to disguise the real host), the port must be 1-65535, and the rest may
+ * only hold characters RFC 3986 allows, valid percent escapes or non-ASCII
+ * text. Scheme and host are case-insensitive.
+ */
+public final class HttpUrl {
+
+    /** Longest URL accepted; browsers and CDNs start failing around 2-8 KB */
+    public static final int MAX_LENGTH = 2048;
+
+    private static final int MAX_HOST_LENGTH = 253;
+    private static final int MAX_LABEL_LENGTH = 63;
+
+    /** ASCII characters allowed as-is in path, query and fragment */
+    private static final boolean[] ALLOWED = new boolean[128];
+
+    static {
+        String allowed = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789"
+                + "-._~!$&'()*+,;=:@/?";
+        for (int i = 0; i < allowed.length(); i++) {
+            ALLOWED[allowed.charAt(i)] = true;
+        }
+    }
+
+    private final String url;
+    private boolean https;
+    private int hostStart;
+    private int hostEnd;
+    private int port = -1;
+    private int pathStart;
+    private int queryStart = -1;
+    private int fragmentStart = -1;
+
+    private HttpUrl(String url) {
+        this.url = url;
+    }
+
+    /**
+     * @param url the candidate URL
+     * @return the parsed URL, or null if it is not a valid http(s) URL
+     */
+    public static HttpUrl parse(String url) {
+        if (url == null) {
+            return null;
+        }
+        HttpUrl parsed = new HttpUrl(url);
+        return scan(url, parsed) ? parsed : null;
+    }
+
+    /**
+     * Validate without allocating
+     * @param url the candidate URL
+     * @return true if {@link #parse} would accept it
+     */
+    public static boolean isValid(String url) {
+        return url != null && scan(url, null);
+    }
+
+    public String getScheme() {
+        return https ? "https" : "http";
+    }
+
+    public boolean isHttps() {
+        return https;
+    }
+
+    /**
+     * @return the host as written, IPv6 literals with their brackets
+     */
+    public String getHost() {
+        return url.substring(hostStart, hostEnd);
+    }
+
+    public int getHostStart() {
+        return hostStart;
+    }
+
+    public int getHostEnd() {
+        return hostEnd;
+    }
+
+    /**
+     * @return the explicit port, or -1 if none was given
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @return true if no port was given or it is the scheme's default
+     */
+    public boolean isDefaultPort() {
+        return port == -1 || port == (https ? 443 : 80);
+    }
+
+    public int getPathStart() {
+        return pathStart;
+    }
+
+    public int getPathEnd() {
+        return queryStart >= 0 ? queryStart : fragmentStart >= 0 ? fragmentStart : url.length();
+    }
+
+    /**
+     * @return true if the path is more than empty or "/"
+     */
+    public boolean hasPath() {
+        int length = getPathEnd() - pathStart;
+        return length > 1 || (length == 1 && url.charAt(pathStart) != '/');
+    }
+
+    /**
+     * @return offset of the '?' starting the query, or -1 if there is none
+     */
+    public int getQueryStart() {
+        return queryStart;
+    }
+
+    public int getQueryEnd() {
+        return queryStart < 0 ? -1 : fragmentStart >= 0 ? fragmentStart : url.length();
+    }
+
+    /**
+     * @return true if there is a non-empty query
+     */
+    public boolean hasQuery() {
+        return queryStart >= 0 && getQueryEnd() > queryStart + 1;
+    }
+
+    /**
+     * @return the URL this was parsed from
+     */
+    @Override
+    public String toString() {
+        return url;
+    }
+
+    /**
+     * @param url the candidate URL
+     * @param out receives the offsets if non-null
+     * @return true if the URL is valid
+     */
+    private static boolean scan(String url, HttpUrl out) {
+        int length = url.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return false;
+        }
+        boolean https;
+        int i;
+        if (url.regionMatches(true, 0, "https://", 0, 8)) {
+            https = true;
+            i = 8;
+        } else if (url.regionMatches(true, 0, "http://", 0, 7)) {
+            https = false;
+            i = 7;
+        } else {
+            return false;
+        }
+
+        int hostStart = i;
+        i = url.startsWith("[", i) ? scanIpv6(url, i) : scanHostName(url, i);
+        if (i < 0) {
+            return false;
+        }
+        int hostEnd = i;
+
+        int port = -1;
+        if (i < length && url.charAt(i) == ':') {
+            int digitsStart = ++i;
+            port = 0;
+            while (i < length && isDigit(url.charAt(i))) {
+                if (i - digitsStart == 5) {
+                    return false;
+                }
+                port = port * 10 + (url.charAt(i++) - '0');
+            }
+            if (i == digitsStart || port < 1 || port > 65535) {
+                return false;
+            }
+        }
+        if (i < length && url.charAt(i) != '/' && url.charAt(i) != '?' && url.charAt(i) != '#') {
+            return false;
+        }
+
+        int pathStart = i;
+        int queryStart = -1;
+        int fragmentStart = -1;
+        while (i < length) {
+            char c = url.charAt(i);
+            if (c == '?' && queryStart < 0 && fragmentStart < 0) {
+                queryStart = i++;
+            } else if (c == '#' && fragmentStart < 0) {
+                fragmentStart = i++;
+            } else if (c == '%') {
+                if (i + 2 >= length || !isHex(url.charAt(i + 1)) || !isHex(url.charAt(i + 2))) {
+                    return false;
+                }
+                i += 3;
+            } else if (c < 128 ? ALLOWED[c] : !Character.isISOControl(c) && !Character.isSpaceChar(c)) {
+                i++;
+            } else {
+                return false;
+            }
+        }
+
+        if (out != null) {
+            out.https = https;
+            out.hostStart = hostStart;
+            out.hostEnd = hostEnd;
+            out.port = port;
+            out.pathStart = pathStart;
+            out.queryStart = queryStart;
+            out.fragmentStart = fragmentStart;
+        }
+        return true;
+    }
+
+    /**
+     * Dot-separated labels of letters, digits, '-' and '_' (non-ASCII letters
+     * allowed for internationalized names), no label empty, longer than 63 or
+     * starting or ending with '-'; one trailing dot allowed
+     * @return offset just past the host, or -1 if invalid
+     */
+    private static int scanHostName(String url, int start) {
+        int length = url.length();
+        int i = start;
+        int labelLength = 0;
+        boolean lastHyphen = false;
+        while (i < length) {
+            char c = url.charAt(i);
+            if (c == '.') {
+                if (labelLength == 0 || lastHyphen) {
+                    return -1;
+                }
+                labelLength = 0;
+            } else if (c == '-') {
+                if (labelLength == 0) {
+                    return -1;
+                }
+                labelLength++;
+                lastHyphen = true;
+            } else if (isAlphanumeric(c) || c == '_' || (c >= 128 && Character.isLetterOrDigit(c))) {
+                labelLength++;
+                lastHyphen = false;
+            } else {
+                break;
+            }
+            if (labelLength > MAX_LABEL_LENGTH) {
+                return -1;
+            }
+            i++;
+        }
+        int hostLength = i - start;
+        boolean trailingDot = hostLength > 0 && url.charAt(i - 1) == '.';
+        if (hostLength == 0 || lastHyphen || (trailingDot && hostLength == 1)
+                || hostLength - (trailingDot ? 1 : 0) > MAX_HOST_LENGTH) {
+            return -1;
+        }
+        return i;
+    }
+
+    /**
+     * Bracketed IPv6 literal: hex digits, ':' and '.' (embedded IPv4), with
+     * at least two colons
+     * @return offset just past ']', or -1 if invalid
+     */
+    private static int scanIpv6(String url, int start) {
+        int length = url.length();
+        int colons = 0;
+        int i = start + 1;
+        while (i < length && url.charAt(i) != ']') {
+            char c = url.charAt(i);
+            if (c == ':') {
+                colons++;
+            } else if (!isHex(c) && c != '.') {
+                return -1;
+            }
+            if (i - start > 45) {
+                return -1;
+            }
+            i++;
+        }
+        return i < length && colons >= 2 ? i + 1 : -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHex(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,79 @@
+package com.urlshortener.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Percentile over the most recent samples, cheap enough to record on every
+ * request.
+ *
+ * Samples go into a fixed ring without locking. The percentile is recomputed
+ * from a copy of the ring at most once per refresh interval, by whichever
+ * recording thread wins the race, so readers only ever see a cached value.
+ */
+public class RollingPercentile {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong cursor = new AtomicLong();
+    private final double percentile;
+    private final long refreshMillis;
+    private final AtomicLong nextRefreshMillis = new AtomicLong();
+
+    private volatile long value;
+
+    /**
+     * @param capacity number of recent samples kept
+     * @param percentile percentile to track, between 0 and 1
+     * @param refreshMillis minimum interval between recomputations
+     * @param initialValue value reported until enough samples exist
+     */
+    public RollingPercentile(int capacity, double percentile, long refreshMillis, long initialValue) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be in (0, 1]: " + percentile);
+        }
+        this.samples = new AtomicLongArray(capacity);
+        this.percentile = percentile;
+        this.refreshMillis = refreshMillis;
+        this.value = initialValue;
+    }
+
+    /**
+     * Record a sample
+     * @param sample the observed value, e.g. a latency in micros
+     * @param nowMillis current epoch millis, used to pace recomputation
+     */
+    public void record(long sample, long nowMillis) {
+        long index = cursor.getAndIncrement();
+        samples.set((int) (index % samples.length()), sample);
+
+        long next = nextRefreshMillis.get();
+        if (nowMillis >= next && nextRefreshMillis.compareAndSet(next, nowMillis + refreshMillis)) {
+            recompute(Math.min(index + 1, samples.length()));
+        }
+    }
+
+    /**
+     * @return the percentile as of the last recomputation
+     */
+    public long get() {
+        return value;
+    }
+
+    /**
+     * @return total number of samples recorded
+     */
+    public long count() {
+        return cursor.get();
+    }
+
+    private void recompute(long filled) {
+        long[] copy = new long[(int) filled];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        int rank = (int) Math.ceil(percentile * copy.length) - 1;
+        value = copy[Math.max(0, rank)];
+    }
+}
@@ -0,0 +1,101 @@
+package com.urlshortener.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one call.
+ *
+ * The first caller for a key runs the loader on its own thread; callers that
+ * arrive while it is in flight wait for its result instead of loading again.
+ * A waiter that is not served within its wait budget fails over to loading
+ * the value itself, so one stuck load cannot stall every caller.
+ *
+ * @param <K> key type
+ * @param <V> value type, null results are shared like any other
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * Outcome of a coalesced call, reported to the optional listener
+     */
+    public enum Outcome { LOADED, SHARED, TIMED_OUT }
+
+    /**
+     * Listener notified once per call, e.g. for metrics
+     */
+    @FunctionalInterface
+    public interface OutcomeListener {
+        void onOutcome(Outcome outcome);
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final OutcomeListener listener;
+
+    public SingleFlight() {
+        this(outcome -> { });
+    }
+
+    public SingleFlight(OutcomeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Load a value, sharing the result with concurrent callers for the same key
+     * @param key the key being loaded
+     * @param loader loads the value when this caller leads the flight
+     * @param maxWaitMillis how long a waiter waits before loading on its own
+     * @return the loaded value
+     */
+    public V execute(K key, Supplier<V> loader, long maxWaitMillis) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+
+        if (existing == null) {
+            listener.onOutcome(Outcome.LOADED);
+            try {
+                V value = loader.get();
+                flight.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+
+        try {
+            V value = existing.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            listener.onOutcome(Outcome.SHARED);
+            return value;
+        } catch (TimeoutException e) {
+            listener.onOutcome(Outcome.TIMED_OUT);
+            return loader.get();
+        } catch (ExecutionException e) {
+            listener.onOutcome(Outcome.SHARED);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key, e);
+        }
+    }
+
+    /**
+     * @return number of keys currently being loaded
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,190 @@
+package com.urlshortener.util;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter summary over string keys, with a Count-Min
+ * sketch deciding which keys get a counter.
+ *
+ * Keeps at most {@code capacity} monitored keys in a min-heap by count, found
+ * through an open-addressing table. Every key is counted in the sketch; a key
+ * that is not monitored takes over the smallest counter only once its sketch
+ * estimate exceeds that counter, and starts from that estimate. This keeps the
+ * one-off keys of a long tail from churning the summary while any key with
+ * more than {@code total / capacity} occurrences is still guaranteed a counter.
+ * Counts are upper bounds of the true counts.
+ *
+ * All storage is allocated up front; {@link #offer} allocates nothing and
+ * only keeps references to the keys it is given. Not thread-safe.
+ */
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final CountMinSketch sketch;
+
+    // Min-heap by count
+    private final String[] keys;
+    private final long[] counts;
+    private final int[] tableSlots;
+    private int size;
+
+    // Heap index + 1 of each key, 0 for an empty slot; linear probing
+    private final int[] table;
+    private final int tableMask;
+
+    /**
+     * @param capacity keys monitored at once
+     * @param sketchDepth rows of the admission sketch
+     * @param sketchWidth counters per row of the admission sketch
+     */
+    public SpaceSaving(int capacity, int sketchDepth, int sketchWidth) {
+        if (capacity < 1 || capacity > 1 << 20) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^20");
+        }
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(sketchDepth, sketchWidth);
+        this.keys = new String[capacity];
+        this.counts = new long[capacity];
+        this.tableSlots = new int[capacity];
+        int tableSize = 2;
+        while (tableSize < capacity * 2) {
+            tableSize <<= 1;
+        }
+        this.table = new int[tableSize];
+        this.tableMask = tableSize - 1;
+    }
+
+    /**
+     * Count one occurrence of a key
+     * @param key the key, kept by reference while monitored
+     */
+    public void offer(String key) {
+        int estimate = sketch.add(key);
+        int slot = find(key);
+        if (table[slot] != 0) {
+            int heapIndex = table[slot] - 1;
+            counts[heapIndex]++;
+            siftDown(heapIndex);
+            return;
+        }
+        if (size < capacity) {
+            int heapIndex = size++;
+            keys[heapIndex] = key;
+            counts[heapIndex] = estimate;
+            tableSlots[heapIndex] = slot;
+            table[slot] = heapIndex + 1;
+            siftUp(heapIndex);
+            return;
+        }
+        if (estimate > counts[0]) {
+            // Replace the smallest counter; re-probe since removal may shift the table
+            removeFromTable(tableSlots[0]);
+            slot = find(key);
+            keys[0] = key;
+            counts[0] = estimate;
+            tableSlots[0] = slot;
+            table[slot] = 1;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Add the monitored keys and their counts into {@code totals}
+     * @param totals counts per key, summed into
+     */
+    public void addTo(Map<String, Long> totals) {
+        for (int i = 0; i < size; i++) {
+            totals.merge(keys[i], counts[i], Long::sum);
+        }
+    }
+
+    /**
+     * @return number of keys currently monitored
+     */
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(table, 0);
+        size = 0;
+        sketch.clear();
+    }
+
+    private int find(String key) {
+        int slot = spread(key.hashCode()) & tableMask;
+        while (table[slot] != 0 && !keys[table[slot] - 1].equals(key)) {
+            slot = (slot + 1) & tableMask;
+        }
+        return slot;
+    }
+
+    private void removeFromTable(int slot) {
+        // Backward-shift deletion keeps probe sequences intact without tombstones
+        table[slot] = 0;
+        int next = (slot + 1) & tableMask;
+        while (table[next] != 0) {
+            int heapIndex = table[next] - 1;
+            int home = spread(keys[heapIndex].hashCode()) & tableMask;
+            if (((next - home) & tableMask) >= ((next - slot) & tableMask)) {
+                table[slot] = table[next];
+                tableSlots[heapIndex] = slot;
+                table[next] = 0;
+                slot = next;
+            }
+            next = (next + 1) & tableMask;
+        }
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[parent] <= counts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        int slot = tableSlots[a];
+        tableSlots[a] = tableSlots[b];
+        tableSlots[b] = slot;
+        table[tableSlots[a]] = a + 1;
+        table[tableSlots[b]] = b + 1;
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        return h ^ (h >>> 13);
+    }
+}
@@ -0,0 +1,28 @@
+package com.urlshortener.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must be an absolute http(s) URL as accepted by
+ * {@link com.urlshortener.util.HttpUrl}. Null is valid; combine with
+ * {@code @NotBlank} to require a value.
+ */
+@Documented
+@Constraint(validatedBy = ValidHttpUrlValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidHttpUrl {
+
+    String message() default "URL must be a valid http:// or https:// address";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
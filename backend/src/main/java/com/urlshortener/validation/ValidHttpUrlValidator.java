@@ -0,0 +1,16 @@
+package com.urlshortener.validation;
+
+import com.urlshortener.util.HttpUrl;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Checks {@link ValidHttpUrl} fields with the single-pass URL scanner.
+ */
+public class ValidHttpUrlValidator implements ConstraintValidator<ValidHttpUrl, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || HttpUrl.isValid(value);
+    }
+}
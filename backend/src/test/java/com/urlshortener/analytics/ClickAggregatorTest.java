@@ -0,0 +1,115 @@
+package com.urlshortener.analytics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ClickAggregator
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClickAggregator Tests")
+class ClickAggregatorTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long T0 = 1_700_000_000_000L / HOUR * HOUR;
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ClickStatsStore clickStatsStore;
+
+    @Mock
+    private ClickSeriesStore clickSeriesStore;
+
+    private ClickAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        ClickEventLog clickEventLog = new ClickEventLog(new SimpleMeterRegistry(), directory.toString(),
+                16, 1, 60_000, "none", 1000, 24);
+        aggregator = new ClickAggregator(clickEventLog, clickStatsStore, clickSeriesStore,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should compact a sealed segment into per-code totals and minute buckets")
+    @SuppressWarnings("unchecked")
+    void testAggregatesSegment() throws Exception {
+        // Arrange
+        writeSegment("clicks-0000000000000000001.seg", new Object[][]{
+                {"abc123", T0 + 1_000, ClickEvents.UA_BROWSER, ClickEvents.hashClient("203.0.113.7", "a")},
+                {"abc123", T0 + 2_000, ClickEvents.UA_MOBILE, ClickEvents.hashClient("203.0.113.8", "b")},
+                {"abc123", T0 + HOUR + 5, ClickEvents.UA_BROWSER, ClickEvents.hashClient("203.0.113.7", "a")},
+                {"def456", T0 + 10, ClickEvents.UA_BOT, 0L}});
+
+        // Act
+        long aggregated = aggregator.aggregate();
+
+        // Assert
+        ArgumentCaptor<Map<String, CodeClicks>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(clickStatsStore).apply(captor.capture());
+        CodeClicks abc = captor.getValue().get("abc123");
+        assertEquals(4, aggregated);
+        assertEquals(3, abc.getTotal());
+        assertEquals(2, abc.getByUserAgent(ClickEvents.UA_BROWSER));
+        assertEquals(1, abc.getByUserAgent(ClickEvents.UA_MOBILE));
+        assertEquals(T0 + HOUR + 5, abc.getLastClickMillis());
+        assertEquals(Map.of(T0, 2L, T0 + HOUR, 1L), abc.getMinutes());
+        assertEquals(2, abc.getVisitors().estimate());
+        verify(clickSeriesStore).apply(captor.getValue());
+        verify(clickStatsStore).mergeVisitors(captor.getValue());
+        assertEquals(1, captor.getValue().get("def456").getByUserAgent(ClickEvents.UA_BOT));
+        assertNull(captor.getValue().get("def456").getVisitors());
+        assertTrue(Files.exists(directory.resolve("clicks-0000000000000000001.done")));
+    }
+
+    @Test
+    @DisplayName("Should keep a segment for the next run when the write fails")
+    void testRetriesAfterFailure() throws Exception {
+        // Arrange
+        writeSegment("clicks-0000000000000000001.seg", new Object[][]{{"abc123", T0, ClickEvents.UA_BROWSER, 0L}});
+        doThrow(new DataAccessResourceFailureException("down")).doNothing().when(clickStatsStore).apply(anyMap());
+
+        // Act
+        long failed = aggregator.aggregate();
+        boolean keptForRetry = Files.exists(directory.resolve("clicks-0000000000000000001.seg"));
+        long retried = aggregator.aggregate();
+
+        // Assert
+        assertEquals(0, failed);
+        assertTrue(keptForRetry);
+        assertEquals(1, retried);
+        verify(clickStatsStore, times(2)).apply(anyMap());
+        verify(clickSeriesStore, times(1)).apply(anyMap());
+        verify(clickStatsStore, times(1)).mergeVisitors(anyMap());
+    }
+
+    private void writeSegment(String name, Object[][] events) throws Exception {
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        ClickSegment.writeHeader(buf);
+        for (Object[] event : events) {
+            String code = (String) event[0];
+            ClickSegment.append(buf, code, ClickSegment.encodedLength(code), (Long) event[1], 0, (Byte) event[2],
+                    (Long) event[3]);
+        }
+        Files.write(directory.resolve(name), java.util.Arrays.copyOf(buf.array(), buf.position()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.urlshortener.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ClickEventBuffer
+ */
+@DisplayName("ClickEventBuffer Tests")
+class ClickEventBufferTest {
+
+    @Test
+    @DisplayName("Should hand events to the consumer in publish order")
+    void testDrainInOrder() {
+        // Arrange
+        ClickEventBuffer buffer = new ClickEventBuffer(8);
+        buffer.offer("abc123", 1_000L, 42, ClickEvents.UA_BROWSER, 7L);
+        buffer.offer("def456", 2_000L, 0, ClickEvents.UA_BOT, 0L);
+        List<String> drained = new ArrayList<>();
+
+        // Act
+        int count = buffer.drain((code, timestamp, referrer, userAgent, client) ->
+                drained.add(code + "@" + timestamp + "/" + referrer + "/" + userAgent + "/" + client), 10);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(List.of("abc123@1000/42/1/7", "def456@2000/0/3/0"), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    @DisplayName("Should refuse events while full instead of waiting, and accept them again once drained")
+    void testFullBufferRejects() {
+        // Arrange
+        ClickEventBuffer buffer = new ClickEventBuffer(3);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer("code" + i, i, 0, ClickEvents.UA_UNKNOWN, 0L));
+        }
+
+        // Act
+        boolean accepted = buffer.offer("overflow", 5, 0, ClickEvents.UA_UNKNOWN, 0L);
+        buffer.drain((code, timestamp, referrer, userAgent, client) -> { }, 1);
+        boolean acceptedAfterDrain = buffer.offer("next", 6, 0, ClickEvents.UA_UNKNOWN, 0L);
+
+        // Assert
+        assertEquals(4, buffer.capacity());
+        assertFalse(accepted);
+        assertTrue(acceptedAfterDrain);
+    }
+
+    @Test
+    @DisplayName("Should not lose or duplicate events from concurrent producers")
+    void testConcurrentProducers() throws Exception {
+        // Arrange
+        int producers = 8;
+        int perProducer = 5_000;
+        ClickEventBuffer buffer = new ClickEventBuffer(1024);
+        Map<String, Integer> received = new HashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                String code = "code" + p;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(code, i, 0, ClickEvents.UA_UNKNOWN, 0L)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            // Act
+            start.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            int total = 0;
+            while (total < producers * perProducer && System.nanoTime() < deadline) {
+                total += buffer.drain((code, timestamp, referrer, userAgent, client) ->
+                        received.merge(code, 1, Integer::sum), 256);
+            }
+
+            // Assert
+            for (Future<?> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(producers * perProducer, total);
+            for (int p = 0; p < producers; p++) {
+                assertEquals(perProducer, received.get("code" + p));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
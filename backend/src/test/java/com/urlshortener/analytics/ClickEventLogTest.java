@@ -0,0 +1,209 @@
+package com.urlshortener.analytics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ClickEventLog
+ */
+@DisplayName("ClickEventLog Tests")
+class ClickEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    private SimpleMeterRegistry registry;
+    private ClickEventLog log;
+
+    @AfterEach
+    void tearDown() {
+        if (log != null) {
+            log.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write published events to a segment that is sealed on shutdown")
+    void testWritesAndSeals() throws Exception {
+        // Arrange
+        log = start(1024, 60_000, "batch");
+
+        // Act
+        log.publish("abc123", 1_000L, 42, ClickEvents.UA_MOBILE, 99L);
+        log.publish("café", 2_000L, ClickEvents.NO_REFERRER, ClickEvents.UA_BOT, 0L);
+        log.shutdown();
+        log = null;
+
+        // Assert
+        List<Path> sealed = sealedSegments();
+        assertEquals(1, sealed.size());
+        List<String> events = read(sealed.get(0));
+        assertEquals(List.of("abc123@1000/42/2/99", "café@2000/0/3/0"), events);
+        assertEquals(2.0, registry.get("clicks.log.written").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should seal segments once they reach their maximum age")
+    void testRotatesByAge() throws Exception {
+        // Arrange
+        log = start(1024, 50, "none");
+
+        // Act
+        log.publish("abc123", 1_000L, 0, ClickEvents.UA_BROWSER, 5L);
+        List<Path> sealed = awaitSealed(1);
+
+        // Assert
+        assertEquals(List.of("abc123@1000/0/1/5"), read(sealed.get(0)));
+    }
+
+    @Test
+    @DisplayName("Should hand every written event to listeners on the writer thread")
+    void testListeners() throws Exception {
+        // Arrange
+        registry = new SimpleMeterRegistry();
+        log = new ClickEventLog(registry, directory.toString(), 1024, 1, 60_000, "none", 1000, 24);
+        List<String> seen = new java.util.concurrent.CopyOnWriteArrayList<>();
+        log.addListener((code, timestamp, referrer, userAgent, client) ->
+                seen.add(Thread.currentThread().getName() + ":" + code));
+        log.start();
+
+        // Act
+        log.publish("abc123", 1_000L, 0, ClickEvents.UA_BROWSER, 0L);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (seen.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertEquals(List.of("click-log-writer:abc123"), seen);
+    }
+
+    @Test
+    @DisplayName("Should drop and count events while the buffer is full")
+    void testDropsWhenFull() {
+        // Arrange: the writer is not started, so nothing drains the buffer
+        registry = new SimpleMeterRegistry();
+        log = new ClickEventLog(registry, directory.toString(), 4, 1, 60_000, "none", 1000, 24);
+
+        // Act
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            accepted += log.publish("abc123", i, 0, ClickEvents.UA_UNKNOWN, 0L) ? 1 : 0;
+        }
+
+        // Assert
+        assertEquals(4, accepted);
+        assertEquals(6.0, registry.get("clicks.events").tag("outcome", "dropped").counter().count());
+        assertEquals(4.0, registry.get("clicks.events").tag("outcome", "published").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should seal segments a crashed process left open, keeping their records")
+    void testRecoversOpenSegments() throws Exception {
+        // Arrange
+        Path orphan = directory.resolve("clicks-0000000000000000007.open");
+        try (FileChannel channel = FileChannel.open(orphan, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate(256);
+            ClickSegment.writeHeader(buf);
+            ClickSegment.append(buf, "abc123", 6, 5_000L, 7, ClickEvents.UA_BROWSER, 11L);
+            buf.flip();
+            channel.write(buf);
+        }
+
+        // Act
+        log = start(1024, 60_000, "none");
+
+        // Assert
+        assertEquals(List.of(directory.resolve("clicks-0000000000000000007.seg")), sealedSegments());
+        assertEquals(List.of("abc123@5000/7/1/11"), read(sealedSegments().get(0)));
+    }
+
+    @Test
+    @DisplayName("Should read version 1 segments, written before client hashes, with a client hash of 0")
+    void testReadsVersionOneSegments() throws Exception {
+        // Arrange
+        Path segment = directory.resolve("clicks-0000000000000000003.seg");
+        ByteBuffer buf = ByteBuffer.allocate(64);
+        buf.putInt(ClickSegment.MAGIC).putInt(1);
+        buf.putShort((short) 6).put("abc123".getBytes(StandardCharsets.US_ASCII))
+                .putLong(5_000L).putInt(7).put(ClickEvents.UA_BROWSER);
+        Files.write(segment, buf.array());
+
+        // Act
+        List<String> events = read(segment);
+
+        // Assert
+        assertEquals(List.of("abc123@5000/7/1/0"), events);
+    }
+
+    @Test
+    @DisplayName("Should delete aggregated segments only after the retention period")
+    void testRetention() throws Exception {
+        // Arrange
+        log = start(1024, 60_000, "none");
+        Path sealed = Files.createFile(directory.resolve("clicks-0000000000000000001.seg"));
+        log.markAggregated(sealed);
+        Path done = directory.resolve("clicks-0000000000000000001.done");
+        long now = System.currentTimeMillis();
+        Files.setLastModifiedTime(done, FileTime.fromMillis(now - 3_600_000L));
+
+        // Act
+        int keptWithinRetention = log.deleteExpired(now);
+        int deletedAfterRetention = log.deleteExpired(now + 24 * 3_600_000L);
+
+        // Assert
+        assertEquals(0, keptWithinRetention);
+        assertEquals(1, deletedAfterRetention);
+        assertFalse(Files.exists(done));
+    }
+
+    private ClickEventLog start(int capacity, long maxAgeMillis, String durability) {
+        registry = new SimpleMeterRegistry();
+        ClickEventLog eventLog = new ClickEventLog(registry, directory.toString(), capacity, 1, maxAgeMillis,
+                durability, 1000, 24);
+        eventLog.start();
+        return eventLog;
+    }
+
+    private List<Path> sealedSegments() throws Exception {
+        List<Path> sealed = new ArrayList<>();
+        try (var files = Files.newDirectoryStream(directory, "*.seg")) {
+            files.forEach(sealed::add);
+        }
+        sealed.sort(null);
+        return sealed;
+    }
+
+    private List<Path> awaitSealed(int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<Path> sealed = sealedSegments();
+        while (sealed.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            sealed = sealedSegments();
+        }
+        assertEquals(count, sealed.size());
+        return sealed;
+    }
+
+    private static List<String> read(Path segment) throws Exception {
+        List<String> events = new ArrayList<>();
+        ClickSegment.read(segment, (code, timestamp, referrer, userAgent, client) ->
+                events.add(code + "@" + timestamp + "/" + referrer + "/" + userAgent + "/" + client));
+        return events;
+    }
+}
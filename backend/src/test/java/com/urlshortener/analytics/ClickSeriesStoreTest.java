@@ -0,0 +1,123 @@
+package com.urlshortener.analytics;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ClickSeriesStore
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClickSeriesStore Tests")
+class ClickSeriesStoreTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    // A day boundary that also starts a 32-day document
+    private static final long T0 = 19_680 * DAY;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    private ClickSeriesStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ClickSeriesStore(mongoTemplate, 48, 90, 730);
+    }
+
+    @Test
+    @DisplayName("Should roll minute buckets up into hour and day slots")
+    void testRollUp() {
+        // Arrange
+        CodeClicks clicks = new CodeClicks();
+        clicks.add(T0 + 5 * MINUTE + 1, ClickEvents.UA_BROWSER, 0L);
+        clicks.add(T0 + 5 * MINUTE + 2, ClickEvents.UA_BROWSER, 0L);
+        clicks.add(T0 + 2 * HOUR, ClickEvents.UA_BROWSER, 0L);
+        clicks.add(T0 + DAY + 1, ClickEvents.UA_BROWSER, 0L);
+
+        // Act
+        Map<Long, Map<Integer, Long>> minutes = ClickSeriesStore.rollUp(clicks, ClickResolution.MINUTE);
+        Map<Long, Map<Integer, Long>> hours = ClickSeriesStore.rollUp(clicks, ClickResolution.HOUR);
+        Map<Long, Map<Integer, Long>> days = ClickSeriesStore.rollUp(clicks, ClickResolution.DAY);
+
+        // Assert
+        assertEquals(Map.of(5, 2L), minutes.get(T0));
+        assertEquals(Map.of(0, 1L), minutes.get(T0 + 2 * HOUR));
+        assertEquals(3, minutes.size());
+        assertEquals(Map.of(0, 2L, 2, 1L), hours.get(T0));
+        assertEquals(Map.of(0, 1L), hours.get(T0 + DAY));
+        assertEquals(Map.of(T0, Map.of(0, 3L, 1, 1L)), days);
+    }
+
+    @Test
+    @DisplayName("Should write every resolution with a TTL matching its retention")
+    void testApplyWritesEveryLevel() {
+        // Arrange
+        when(mongoTemplate.indexOps(anyString())).thenReturn(indexOperations);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), anyString())).thenReturn(bulkOperations);
+        CodeClicks clicks = new CodeClicks();
+        clicks.add(T0 + 5 * MINUTE, ClickEvents.UA_BROWSER, 0L);
+
+        // Act
+        store.apply(Map.of("abc123", clicks));
+
+        // Assert
+        for (ClickResolution resolution : ClickResolution.values()) {
+            verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, resolution.getCollection());
+        }
+        verify(bulkOperations, times(3)).execute();
+        Date minuteExpiry = new Date(T0 + HOUR + 48 * HOUR);
+        verify(bulkOperations).upsert(any(Query.class), argThat((Update update) ->
+                minuteExpiry.equals(update.getUpdateObject().get("$setOnInsert", Document.class).get("expireAt"))
+                        && Long.valueOf(1).equals(update.getUpdateObject().get("$inc", Document.class).get("counts.5"))));
+    }
+
+    @Test
+    @DisplayName("Should read only the documents covering the range and place counts in their slots")
+    void testRead() {
+        // Arrange
+        Document first = new Document("_id", "abc123:" + T0).append("start", new Date(T0))
+                .append("counts", new Document("58", 4L).append("59", 2L).append("10", 99L));
+        Document second = new Document("_id", "abc123:" + (T0 + HOUR)).append("start", new Date(T0 + HOUR))
+                .append("counts", new Document("0", 3L));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("click_series_minute")))
+                .thenReturn(List.of(first, second));
+
+        // Act
+        long[] counts = store.read("abc123", ClickResolution.MINUTE, T0 + 58 * MINUTE, 4);
+
+        // Assert
+        assertArrayEquals(new long[]{4, 2, 3, 0}, counts);
+        verify(mongoTemplate).find(argThat((Query query) -> query.getQueryObject().get("_id", Document.class)
+                .getList("$in", String.class).equals(List.of("abc123:" + T0, "abc123:" + (T0 + HOUR)))),
+                eq(Document.class), eq("click_series_minute"));
+    }
+}
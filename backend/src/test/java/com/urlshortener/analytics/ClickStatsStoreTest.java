@@ -0,0 +1,125 @@
+package com.urlshortener.analytics;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.urlshortener.util.HyperLogLog;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ClickStatsStore
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClickStatsStore Tests")
+class ClickStatsStoreTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BulkWriteResult bulkWriteResult;
+
+    private ClickStatsStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ClickStatsStore(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should merge into the stored sketch conditionally on its version")
+    void testMergeVisitors() {
+        // Arrange
+        HyperLogLog stored = new HyperLogLog();
+        stored.add(ClickEvents.hashClient("203.0.113.7", "a"));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("click_stats"))).thenReturn(List.of(
+                new Document("_id", "abc123").append("visitors", new Binary(stored.toBytes()))
+                        .append("visitorsVersion", 3L)));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "click_stats")).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getMatchedCount()).thenReturn(1);
+
+        // Act
+        store.mergeVisitors(Map.of("abc123", clicks("203.0.113.8", "b")));
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations).updateOne(query.capture(), update.capture());
+        assertEquals(3L, query.getValue().getQueryObject().get("visitorsVersion"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(2L, set.get("uniqueVisitors"));
+        assertEquals(2L, HyperLogLog.fromBytes((byte[]) set.get("visitors")).estimate());
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq("click_stats"));
+    }
+
+    @Test
+    @DisplayName("Should re-read and retry codes another node merged in between")
+    void testMergeVisitorsRetriesOnRace() {
+        // Arrange
+        HyperLogLog other = new HyperLogLog();
+        other.add(ClickEvents.hashClient("198.51.100.1", "c"));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("click_stats"))).thenReturn(
+                List.of(new Document("_id", "abc123")),
+                List.of(new Document("_id", "abc123").append("visitors", new Binary(other.toBytes()))
+                        .append("visitorsVersion", 1L)));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "click_stats")).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getMatchedCount()).thenReturn(0);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("click_stats")))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        store.mergeVisitors(Map.of("abc123", clicks("203.0.113.8", "b")));
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq("click_stats"));
+        assertEquals(1L, query.getValue().getQueryObject().get("visitorsVersion"));
+        assertEquals(2L, update.getValue().getUpdateObject().get("$set", Document.class).get("uniqueVisitors"));
+    }
+
+    @Test
+    @DisplayName("Should skip the merge when no click carried a client hash")
+    void testMergeVisitorsWithoutClients() {
+        // Arrange
+        CodeClicks clicks = new CodeClicks();
+        clicks.add(1_000L, ClickEvents.UA_BROWSER, 0L);
+
+        // Act
+        store.mergeVisitors(Map.of("abc123", clicks));
+
+        // Assert
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static CodeClicks clicks(String address, String userAgent) {
+        CodeClicks clicks = new CodeClicks();
+        clicks.add(1_000L, ClickEvents.UA_BROWSER, ClickEvents.hashClient(address, userAgent));
+        clicks.add(2_000L, ClickEvents.UA_BROWSER, ClickEvents.hashClient(address, userAgent));
+        return clicks;
+    }
+}
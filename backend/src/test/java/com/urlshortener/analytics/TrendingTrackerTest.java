@@ -0,0 +1,138 @@
+package com.urlshortener.analytics;
+
+import com.urlshortener.util.CoarseClock;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TrendingTracker
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TrendingTracker Tests")
+class TrendingTrackerTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long T0 = 28_000_000L * MINUTE;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ClickEventLog clickEventLog;
+
+    @Mock
+    private CoarseClock clock;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    private TrendingTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new TrendingTracker(mongoTemplate, clickEventLog, clock, "node-a", 10, 4, 256, 10_000);
+    }
+
+    @Test
+    @DisplayName("Should rank links per window and let old clicks slide out of the short window")
+    void testSlidingWindows() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("trending_nodes"))).thenReturn(List.of());
+        for (int i = 0; i < 30; i++) {
+            tracker.record("old123", T0 + i);
+        }
+        for (int i = 0; i < 5; i++) {
+            tracker.record("new456", T0 + 10 * MINUTE + i);
+        }
+        tracker.record("rare78", T0 + 10 * MINUTE);
+        when(clock.currentTimeMillis()).thenReturn(T0 + 10 * MINUTE + 1_000);
+
+        // Act
+        TrendingLinks fiveMinutes = tracker.trending(TrendingWindow.FIVE_MINUTES, 10);
+        TrendingLinks hour = tracker.trending(TrendingWindow.ONE_HOUR, 1);
+
+        // Assert
+        assertEquals(List.of("new456", "rare78"), List.copyOf(fiveMinutes.getClicks().keySet()));
+        assertEquals(5L, fiveMinutes.getClicks().get("new456"));
+        assertEquals(Map.of("old123", 30L), hour.getClicks());
+        assertEquals(1, hour.getNodes());
+    }
+
+    @Test
+    @DisplayName("Should add the published top links of other nodes")
+    void testMergesNodes() {
+        // Arrange
+        tracker.record("abc123", T0);
+        when(clock.currentTimeMillis()).thenReturn(T0 + 1_000);
+        Document other = new Document("_id", "node-b").append("windows", new Document("1h", List.of(
+                new Document("shortCode", "abc123").append("clicks", 4L),
+                new Document("shortCode", "def456").append("clicks", 2L))));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("trending_nodes"))).thenReturn(List.of(other));
+
+        // Act
+        TrendingLinks trending = tracker.trending(TrendingWindow.ONE_HOUR, 10);
+
+        // Assert
+        assertEquals(Map.of("abc123", 5L, "def456", 2L), trending.getClicks());
+        assertEquals(2, trending.getNodes());
+        assertFalse(trending.isPartial());
+    }
+
+    @Test
+    @DisplayName("Should fall back to local clicks when other nodes cannot be read")
+    void testPartialWhenMongoDown() {
+        // Arrange
+        tracker.record("abc123", T0);
+        when(clock.currentTimeMillis()).thenReturn(T0 + 1_000);
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("trending_nodes")))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        TrendingLinks trending = tracker.trending(TrendingWindow.FIVE_MINUTES, 10);
+
+        // Assert
+        assertEquals(Map.of("abc123", 1L), trending.getClicks());
+        assertTrue(trending.isPartial());
+    }
+
+    @Test
+    @DisplayName("Should publish this node's top links of every window with an expiry")
+    void testPublish() {
+        // Arrange
+        tracker.record("abc123", T0);
+        when(clock.currentTimeMillis()).thenReturn(T0 + 1_000);
+        when(mongoTemplate.indexOps("trending_nodes")).thenReturn(indexOperations);
+
+        // Act
+        tracker.publish();
+
+        // Assert
+        ArgumentCaptor<Document> snapshot = ArgumentCaptor.forClass(Document.class);
+        verify(mongoTemplate).save(snapshot.capture(), eq("trending_nodes"));
+        assertEquals("node-a", snapshot.getValue().get("_id"));
+        assertEquals(T0 + 31_000, snapshot.getValue().getDate("expireAt").getTime());
+        Document windows = snapshot.getValue().get("windows", Document.class);
+        for (TrendingWindow window : TrendingWindow.values()) {
+            assertEquals(List.of(new Document("shortCode", "abc123").append("clicks", 1L)),
+                    windows.getList(window.getLabel(), Document.class));
+        }
+    }
+}
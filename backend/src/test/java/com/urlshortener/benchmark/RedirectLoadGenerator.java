@@ -0,0 +1,129 @@
+package com.urlshortener.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop keep-alive load generator for comparing redirect throughput of
+ * the MVC listener and the NIO redirect listener.
+ *
+ * Not a unit test; run it against a started backend, e.g. with the server
+ * pinned to known cores:
+ * <pre>
+ * taskset -c 0-1 java -jar target/url-shortener-backend-1.0.0.jar --app.nio-redirect.enabled=true
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.urlshortener.benchmark.RedirectLoadGenerator \
+ *     -Dexec.args="localhost 8081 /abc123 64 30 2"
+ * </pre>
+ * Arguments: host, port, path, connections, seconds, server cores. Run it once
+ * per port and compare the requests per core it prints.
+ */
+public final class RedirectLoadGenerator {
+
+    private RedirectLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8081;
+        String path = args.length > 2 ? args[2] : "/abc123";
+        int connections = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+        int serverCores = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        byte[] request = ("GET " + path + " HTTP/1.1\r\nHost: " + host + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        LongAdder completed = new LongAdder();
+        LongAdder failed = new LongAdder();
+
+        // Warm up the server's JIT before measuring
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.min(10, seconds));
+        run(host, port, request, connections, warmupEnd, new LongAdder(), new LongAdder());
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        run(host, port, request, connections, end, completed, failed);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        double perSecond = completed.sum() / elapsed;
+        System.out.printf("%s:%d%s  connections=%d  requests=%d  errors=%d%n",
+                host, port, path, connections, completed.sum(), failed.sum());
+        System.out.printf("throughput: %.0f req/s, %.0f req/s per server core (%d cores)%n",
+                perSecond, perSecond / serverCores, serverCores);
+    }
+
+    private static void run(String host, int port, byte[] request, int connections, long endNanos,
+                            LongAdder completed, LongAdder failed) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < endNanos) {
+                    try (Socket socket = new Socket(host, port)) {
+                        socket.setTcpNoDelay(true);
+                        OutputStream out = socket.getOutputStream();
+                        InputStream in = socket.getInputStream();
+                        byte[] buf = new byte[16384];
+                        while (System.nanoTime() < endNanos) {
+                            out.write(request);
+                            if (!readResponse(in, buf)) {
+                                break;
+                            }
+                            completed.increment();
+                        }
+                    } catch (IOException e) {
+                        failed.increment();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Read one response with a Content-Length body
+     * @return false if the server closed the connection
+     */
+    private static boolean readResponse(InputStream in, byte[] buf) throws IOException {
+        int length = 0;
+        int headerEnd = -1;
+        int contentLength = 0;
+        while (headerEnd < 0) {
+            int read = in.read(buf, length, buf.length - length);
+            if (read < 0) {
+                return false;
+            }
+            length += read;
+            for (int i = 3; i < length; i++) {
+                if (buf[i] == '\n' && buf[i - 1] == '\r' && buf[i - 2] == '\n' && buf[i - 3] == '\r') {
+                    headerEnd = i + 1;
+                    break;
+                }
+            }
+        }
+        String head = new String(buf, 0, headerEnd, StandardCharsets.US_ASCII);
+        int index = head.toLowerCase().indexOf("content-length:");
+        if (index >= 0) {
+            int lineEnd = head.indexOf('\r', index);
+            contentLength = Integer.parseInt(head.substring(index + "content-length:".length(), lineEnd).trim());
+        }
+        int remaining = headerEnd + contentLength - length;
+        while (remaining > 0) {
+            int read = in.read(buf, 0, Math.min(buf.length, remaining));
+            if (read < 0) {
+                return false;
+            }
+            remaining -= read;
+        }
+        return !head.toLowerCase().contains("connection: close");
+    }
+}
@@ -0,0 +1,183 @@
+package com.urlshortener.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.urlshortener.analytics.ClickEventLog;
+import com.urlshortener.analytics.ClickEvents;
+import com.urlshortener.analytics.ClickStatsStore;
+import com.urlshortener.cache.RedirectCache;
+import com.urlshortener.controller.RedirectController;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.repository.URLRepository;
+import com.urlshortener.service.BlocklistService;
+import com.urlshortener.service.InsertCoalescer;
+import com.urlshortener.service.KeyspaceManager;
+import com.urlshortener.service.RedirectLatencyMonitor;
+import com.urlshortener.service.RedirectPolicy;
+import com.urlshortener.service.ResilientMappingLoader;
+import com.urlshortener.service.URLService;
+import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.CoarseClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation profile of a cached redirect through the controller and service.
+ *
+ * The mapping is already in the redirect cache and clicks go to a click log
+ * in a temporary directory, so the numbers cover only this application's code
+ * on the hot path, not Spring's dispatch or Mongo. Run with the GC profiler and read
+ * {@code gc.alloc.rate.norm} (bytes/op):
+ * <pre>
+ * mvn -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main RedirectPathBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedirectPathBenchmark {
+
+    private static final String SHORT_CODE = "abc123";
+    private static final String REFERRER = "https://news.example.com/";
+    private static final String USER_AGENT = "Mozilla/5.0 (X11; Linux x86_64) Gecko/20100101 Firefox/131.0";
+    private static final String CLIENT_ADDRESS = "203.0.113.7";
+    private static final int REFERRER_HASH = ClickEvents.hashReferrer(REFERRER);
+    private static final long CLIENT_HASH = ClickEvents.hashClient(CLIENT_ADDRESS, USER_AGENT);
+
+    private CoarseClock clock;
+    private RedirectCache redirectCache;
+    private ClickEventLog clickEventLog;
+    private URLService urlService;
+    private RedirectController controller;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Production logs this package at INFO
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("ROOT").setLevel(Level.INFO);
+
+        clock = new CoarseClock(5);
+        clock.start();
+        redirectCache = new RedirectCache(1000, 3600, 3600, 100, 200, 30, 86400, 2, clock, new SimpleMeterRegistry());
+        URLMapping mapping = new URLMapping(SHORT_CODE, "https://www.example.com/some/landing/page?utm_source=bench",
+                "localhost:8080", LocalDateTime.now().plusDays(7));
+        mapping.setId("0123456789abcdef01234567");
+        redirectCache.put(mapping, clock.currentTimeMillis());
+
+        clickEventLog = new ClickEventLog(new SimpleMeterRegistry(),
+                Files.createTempDirectory("clicks").toString(), 65536, 16, 60_000, "none", 1000, 1);
+        clickEventLog.start();
+
+        urlService = new URLService(Mockito.mock(URLRepository.class), new Base62Encoder(), redirectCache,
+                new RedirectLatencyMonitor(new SimpleMeterRegistry()), clock,
+                Mockito.mock(ResilientMappingLoader.class),
+                clickEventLog,
+                Mockito.mock(ClickStatsStore.class),
+                new RedirectPolicy(301, 3600, 86400, "Accept-Encoding"),
+                Mockito.mock(InsertCoalescer.class),
+                Mockito.mock(KeyspaceManager.class),
+                Mockito.mock(BlocklistService.class));
+        controller = new RedirectController(urlService);
+        request = new FixedRequest();
+        response = new DiscardingResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        clickEventLog.shutdown();
+        redirectCache.shutdown();
+        clock.stop();
+    }
+
+    @Benchmark
+    public Object serviceLookup() {
+        return urlService.getRedirect(SHORT_CODE, REFERRER_HASH, ClickEvents.UA_BROWSER, CLIENT_HASH);
+    }
+
+    @Benchmark
+    public HttpServletResponse controllerRedirect() {
+        controller.redirectToOriginalUrl(SHORT_CODE, request, response);
+        return response;
+    }
+
+    /**
+     * Answers the headers the controller reads from constants, without the
+     * mock request's header map lookups
+     */
+    static final class FixedRequest extends HttpServletRequestWrapper {
+
+        FixedRequest() {
+            super(new MockHttpServletRequest());
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.REFERER.equalsIgnoreCase(name)) {
+                return REFERRER;
+            }
+            return HttpHeaders.USER_AGENT.equalsIgnoreCase(name) ? USER_AGENT : null;
+        }
+
+        @Override
+        public String getRemoteAddr() {
+            return CLIENT_ADDRESS;
+        }
+    }
+
+    /**
+     * Keeps only the last status and header value, so the response itself adds no allocation
+     */
+    static final class DiscardingResponse extends HttpServletResponseWrapper {
+
+        int status;
+        String header;
+
+        DiscardingResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            this.header = value;
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            this.header = value;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.urlshortener.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares startup of the JVM, AOT, AOT + CDS and native builds: time from
+ * process start to the first redirect served and to the readiness probe
+ * reporting ready (after the warm-up runner), and resident memory at that
+ * point.
+ *
+ * Not a unit test; build with {@code mvn -Pfast-start package} (and
+ * {@code mvn -Pnative native:compile} for the native mode), start MongoDB,
+ * create a short code, then run from {@code backend/}:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.urlshortener.benchmark.StartupBenchmark \
+ *     -Dexec.args="abc123 5 jvm,aot,cds,native 18080"
+ * </pre>
+ * Arguments: short code, runs per mode, modes, port. Resident memory is read
+ * from /proc, so it is only reported on Linux.
+ */
+public final class StartupBenchmark {
+
+    private static final String JAR = "url-shortener-backend-1.0.0.jar";
+    private static final Path FAST_START = Path.of("target", "fast-start");
+    private static final Path NATIVE_IMAGE = Path.of("target", "url-shortener-backend");
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(120);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String shortCode = args.length > 0 ? args[0] : "abc123";
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        List<String> modes = Arrays.asList((args.length > 2 ? args[2] : "jvm,aot,cds").split(","));
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 18080;
+
+        System.out.printf("%-7s %18s %18s %12s%n", "mode", "first redirect ms", "ready ms", "RSS MB");
+        for (String mode : modes) {
+            long[] redirectMillis = new long[runs];
+            long[] readyMillis = new long[runs];
+            long[] rssKb = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                long[] sample = startOnce(command(mode.trim(), port), port, shortCode);
+                redirectMillis[run] = sample[0];
+                readyMillis[run] = sample[1];
+                rssKb[run] = sample[2];
+            }
+            System.out.printf("%-7s %18d %18d %12.1f%n", mode, median(redirectMillis), median(readyMillis),
+                    median(rssKb) / 1024.0);
+        }
+    }
+
+    private static List<String> command(String mode, int port) {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>();
+        switch (mode) {
+            case "jvm" -> command.addAll(List.of(java, "-jar", JAR));
+            case "aot" -> command.addAll(List.of(java, "-Dspring.aot.enabled=true", "-jar", JAR));
+            case "cds" -> command.addAll(List.of(java, "-XX:SharedArchiveFile=application.jsa",
+                    "-Dspring.aot.enabled=true", "-jar", JAR));
+            case "native" -> command.add(NATIVE_IMAGE.toAbsolutePath().toString());
+            default -> throw new IllegalArgumentException("Mode must be jvm, aot, cds or native");
+        }
+        command.add("--server.port=" + port);
+        command.add("--management.endpoint.health.probes.enabled=true");
+        command.add("--app.clicks.log.directory=" + FAST_START.resolve("benchmark-clicks").toAbsolutePath());
+        return command;
+    }
+
+    /**
+     * @return milliseconds to the first redirect, milliseconds to ready, and
+     *         resident set size in KB once ready (0 where unavailable)
+     */
+    private static long[] startOnce(List<String> command, int port, String shortCode)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(FAST_START.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(new File(FAST_START.toFile(), "benchmark.log")))
+                .start();
+        try {
+            long redirect = await(start, process, "http://localhost:" + port + "/" + shortCode, true);
+            long ready = await(start, process, "http://localhost:" + port + "/actuator/health/readiness", false);
+            return new long[]{redirect, ready, residentKb(process.pid())};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static long await(long startNanos, Process process, String url, boolean redirect)
+            throws IOException, InterruptedException {
+        while (System.nanoTime() - startNanos < TIMEOUT_NANOS) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited with " + process.exitValue() + ", see benchmark.log");
+            }
+            try {
+                HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+                connection.setInstanceFollowRedirects(false);
+                connection.setConnectTimeout(200);
+                connection.setReadTimeout(2_000);
+                int status = connection.getResponseCode();
+                connection.disconnect();
+                if (redirect ? status >= 300 && status < 400 : status == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No answer from " + url + " within the timeout");
+    }
+
+    private static long residentKb(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return 0;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
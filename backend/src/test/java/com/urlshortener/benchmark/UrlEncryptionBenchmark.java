@@ -0,0 +1,121 @@
+package com.urlshortener.benchmark;
+
+import com.urlshortener.cache.CachedMapping;
+import com.urlshortener.cache.RedirectCache;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.repository.URLMappingEncryptionCallbacks;
+import com.urlshortener.service.UrlEncryptionService;
+import com.urlshortener.util.CoarseClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Redirect latency with stored URL encryption off and on.
+ *
+ * A cached redirect never touches the cipher; a cache miss converts the
+ * stored document, decrypts originalUrl and caches the result, and a shorten
+ * converts and encrypts. MongoDB itself is out of scope: add the round-trip
+ * (typically 0.2-1 ms) to the miss and shorten figures.
+ * <pre>
+ * mvn -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main UrlEncryptionBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlEncryptionBenchmark {
+
+    private static final String HIT_CODE = "abc123";
+    private static final String MISS_CODE = "xyz789";
+    private static final String COLLECTION = "urls_shortened";
+    private static final String URL = "https://www.example.com/some/landing/page?utm_source=bench&utm_medium=email";
+    private static final String KEYS = "k1:AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8=";
+
+    @Param({"off", "on"})
+    public String encryption;
+
+    private CoarseClock clock;
+    private RedirectCache redirectCache;
+    private MappingMongoConverter converter;
+    private URLMappingEncryptionCallbacks callbacks;
+    private URLMapping mapping;
+    private Document stored;
+    private Function<String, URLMapping> loader;
+
+    @Setup
+    public void setUp() {
+        clock = new CoarseClock(5);
+        clock.start();
+        redirectCache = new RedirectCache(1000, 3600, 3600, 100, 200, 30, 86400, 2, clock, new SimpleMeterRegistry());
+
+        // Same conversions as the application's template (java.time as BSON dates)
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        callbacks = new URLMappingEncryptionCallbacks(
+                new UrlEncryptionService("on".equals(encryption) ? KEYS : "", new SimpleMeterRegistry()));
+
+        mapping = new URLMapping(MISS_CODE, URL, "localhost:8080");
+        mapping.setId("0123456789abcdef01234567");
+        stored = shorten();
+        // Read as the repository would, through the after-convert callback
+        loader = code -> callbacks.onAfterConvert(converter.read(URLMapping.class, stored), stored, COLLECTION);
+
+        URLMapping hot = new URLMapping(HIT_CODE, URL, "localhost:8080");
+        hot.setId("0123456789abcdef01234568");
+        redirectCache.put(hot, clock.currentTimeMillis());
+    }
+
+    @TearDown
+    public void tearDown() {
+        redirectCache.shutdown();
+        clock.stop();
+    }
+
+    @Benchmark
+    public CachedMapping cachedRedirect() {
+        return redirectCache.getOrLoad(HIT_CODE, clock.currentTimeMillis(), loader);
+    }
+
+    @Benchmark
+    public CachedMapping missRedirect() {
+        redirectCache.invalidate(MISS_CODE);
+        return redirectCache.getOrLoad(MISS_CODE, clock.currentTimeMillis(), loader);
+    }
+
+    @Benchmark
+    public Document shorten() {
+        Document document = new Document();
+        converter.write(mapping, document);
+        callbacks.onBeforeSave(mapping, document, COLLECTION);
+        return document;
+    }
+}
@@ -0,0 +1,231 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.exception.LookupUnavailableException;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.util.CoarseClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RedirectCache
+ */
+@DisplayName("RedirectCache Tests")
+class RedirectCacheTest {
+
+    private static final long TTL_SECONDS = 60;
+    private static final long COHERENT_TTL_SECONDS = 3600;
+
+    private RedirectCache redirectCache;
+
+    @BeforeEach
+    void setUp() {
+        redirectCache = new RedirectCache(1000, TTL_SECONDS, COHERENT_TTL_SECONDS, 100, 5_000,
+                30, 86400, 2, new CoarseClock(5), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should return cached mapping within TTL")
+    void testGetWithinTtl() {
+        // Arrange
+        redirectCache.put(createMapping("id-1", "abc123"), 0);
+
+        // Act
+        CachedMapping cached = redirectCache.get("abc123", 59_000);
+
+        // Assert
+        assertNotNull(cached);
+        assertEquals("https://www.example.com", cached.getOriginalUrl());
+    }
+
+    @Test
+    @DisplayName("Should expire entries after the TTL-only window")
+    void testGetAfterTtl() {
+        // Arrange
+        redirectCache.put(createMapping("id-1", "abc123"), 0);
+
+        // Act & Assert
+        assertNull(redirectCache.get("abc123", 61_000));
+    }
+
+    @Test
+    @DisplayName("Should keep entries for the coherent TTL while fed by a change stream")
+    void testCoherentTtl() {
+        // Arrange
+        redirectCache.setCoherent(true);
+        redirectCache.put(createMapping("id-1", "abc123"), 0);
+
+        // Act & Assert
+        assertNotNull(redirectCache.get("abc123", 61_000));
+
+        redirectCache.setCoherent(false);
+        assertNull(redirectCache.get("abc123", 61_000));
+    }
+
+    @Test
+    @DisplayName("Should invalidate by document id")
+    void testInvalidateById() {
+        // Arrange
+        redirectCache.put(createMapping("id-1", "abc123"), 0);
+        redirectCache.put(createMapping("id-2", "def456"), 0);
+
+        // Act
+        redirectCache.invalidateById("id-1");
+
+        // Assert
+        assertNull(redirectCache.get("abc123", 0));
+        assertNotNull(redirectCache.get("def456", 0));
+    }
+
+    @Test
+    @DisplayName("Should not cache a load overtaken by a delete of its mapping")
+    void testLoadRacingDelete() {
+        // Act
+        CachedMapping loaded = redirectCache.getOrLoad("abc123", 0, code -> {
+            // Delete event for a short code this node has not cached yet
+            redirectCache.invalidateById("id-1");
+            return createMapping("id-1", "abc123");
+        });
+
+        // Assert
+        assertNotNull(loaded);
+        assertNull(redirectCache.get("abc123", 0));
+        redirectCache.getOrLoad("abc123", 0, code -> createMapping("id-1", "abc123"));
+        assertNotNull(redirectCache.get("abc123", 0));
+    }
+
+    @Test
+    @DisplayName("Should keep an update pushed while a load was in flight")
+    void testLoadRacingUpdate() {
+        // Arrange
+        redirectCache.put(createMapping("id-1", "abc123"), 0);
+        URLMapping updated = createMapping("id-1", "abc123");
+        updated.setBlocked(true);
+
+        // Act
+        redirectCache.getOrLoad("abc123", 100_000, code -> {
+            redirectCache.refreshIfPresent(updated, 100_000);
+            return createMapping("id-1", "abc123");
+        });
+
+        // Assert
+        assertTrue(redirectCache.get("abc123", 100_000).isBlocked());
+        redirectCache.invalidateById("id-1");
+        assertNull(redirectCache.get("abc123", 100_000));
+    }
+
+    @Test
+    @DisplayName("Should refresh only entries already cached")
+    void testRefreshIfPresent() {
+        // Arrange
+        redirectCache.put(createMapping("id-1", "abc123"), 0);
+        URLMapping updated = createMapping("id-1", "abc123");
+        updated.setOriginalUrl("https://www.updated.com");
+
+        // Act
+        redirectCache.refreshIfPresent(updated, 10);
+        redirectCache.refreshIfPresent(createMapping("id-2", "def456"), 10);
+
+        // Assert
+        assertEquals("https://www.updated.com", redirectCache.get("abc123", 10).getOriginalUrl());
+        assertNull(redirectCache.get("def456", 10));
+    }
+
+    @Test
+    @DisplayName("Should serve a stale entry and refresh it in the background")
+    void testStaleWhileRevalidate() throws InterruptedException {
+        // Arrange
+        redirectCache.put(createMapping("id-1", "abc123"), 0);
+        URLMapping updated = createMapping("id-1", "abc123");
+        updated.setOriginalUrl("https://www.updated.com");
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        // Act
+        CachedMapping served = redirectCache.getOrLoad("abc123", 70_000, code -> {
+            refreshed.countDown();
+            return updated;
+        });
+
+        // Assert
+        assertEquals("https://www.example.com", served.getOriginalUrl());
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100 && redirectCache.get("abc123", System.currentTimeMillis()) == null; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals("https://www.updated.com",
+                redirectCache.get("abc123", System.currentTimeMillis()).getOriginalUrl());
+    }
+
+    @Test
+    @DisplayName("Should serve a stale entry when the lookup is unavailable")
+    void testStaleIfError() {
+        // Arrange
+        redirectCache.put(createMapping("id-1", "abc123"), 0);
+
+        // Act
+        CachedMapping served = redirectCache.getOrLoad("abc123", 3_600_000, code -> {
+            throw new LookupUnavailableException("breaker open");
+        });
+
+        // Assert
+        assertEquals("https://www.example.com", served.getOriginalUrl());
+    }
+
+    @Test
+    @DisplayName("Should not restore an entry deleted while its background refresh was running")
+    void testRefreshRacingDelete() throws InterruptedException {
+        // Arrange
+        redirectCache.put(createMapping("id-1", "abc123"), 0);
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        // Act
+        redirectCache.getOrLoad("abc123", 70_000, code -> {
+            redirectCache.invalidateById("id-1");
+            refreshed.countDown();
+            return createMapping("id-1", "abc123");
+        });
+
+        // Assert
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 20; i++) {
+            assertNull(redirectCache.get("abc123", System.currentTimeMillis()));
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not serve a stale entry deleted while the lookup was failing")
+    void testStaleIfErrorAfterDelete() {
+        // Arrange
+        redirectCache.put(createMapping("id-1", "abc123"), 0);
+
+        // Act & Assert
+        assertThrows(LookupUnavailableException.class, () -> redirectCache.getOrLoad("abc123", 3_600_000, code -> {
+            redirectCache.invalidateById("id-1");
+            throw new LookupUnavailableException("breaker open");
+        }));
+    }
+
+    @Test
+    @DisplayName("Should propagate an unavailable lookup when nothing is cached")
+    void testLookupUnavailableWithoutEntry() {
+        // Act & Assert
+        assertThrows(LookupUnavailableException.class, () -> redirectCache.getOrLoad("abc123", 0, code -> {
+            throw new LookupUnavailableException("breaker open");
+        }));
+    }
+
+    private URLMapping createMapping(String id, String shortCode) {
+        URLMapping mapping = new URLMapping(shortCode, "https://www.example.com", "localhost",
+                LocalDateTime.now().plusDays(7));
+        mapping.setId(id);
+        return mapping;
+    }
+}
@@ -0,0 +1,46 @@
+package com.urlshortener.config;
+
+import com.urlshortener.dto.ShortenURLRequest;
+import com.urlshortener.dto.ShortenURLResponse;
+import com.urlshortener.model.URLMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NativeHintsConfig
+ */
+@DisplayName("NativeHintsConfig Tests")
+class NativeHintsConfigTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeHintsConfig.ApplicationHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Should register the JSON DTOs for Jackson binding")
+    void testDtoBindingHints() {
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ShortenURLRequest.class, "setUrl").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ShortenURLResponse.class, "getShortUrl").test(hints));
+    }
+
+    @Test
+    @DisplayName("Should register the Mongo entity and Swagger UI resources")
+    void testEntityAndResourceHints() {
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onType(URLMapping.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/resources/webjars/swagger-ui/5.18.2/index.html").test(hints));
+    }
+}
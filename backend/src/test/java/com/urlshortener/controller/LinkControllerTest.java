@@ -0,0 +1,101 @@
+package com.urlshortener.controller;
+
+import com.urlshortener.config.TestSecurityConfig;
+import com.urlshortener.service.LinkAnalyticsService;
+import com.urlshortener.service.URLService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for LinkController
+ */
+@WebMvcTest(LinkController.class)
+@Import(TestSecurityConfig.class)
+@DisplayName("LinkController Tests")
+class LinkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LinkAnalyticsService linkAnalyticsService;
+
+    @MockBean
+    private URLService urlService;
+
+    @Test
+    @DisplayName("Should list a page of links with the cursor of the next page")
+    void testListLinks() throws Exception {
+        // Arrange
+        Map<String, Object> page = new java.util.HashMap<>();
+        page.put("links", List.of(Map.of("shortCode", "abc123", "clickCount", 12)));
+        page.put("count", 1);
+        page.put("nextCursor", "MXwyMDI0");
+        when(urlService.listLinks("sho.rt", "active", 10L, 1, null)).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/links")
+                        .param("domain", "sho.rt")
+                        .param("status", "active")
+                        .param("minClicks", "10")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.links[0].shortCode").value("abc123"))
+                .andExpect(jsonPath("$.nextCursor").value("MXwyMDI0"));
+    }
+
+    @Test
+    @DisplayName("Should answer 400 for a cursor issued for other filters")
+    void testListLinksBadCursor() throws Exception {
+        // Arrange
+        when(urlService.listLinks(null, null, null, null, "MXwyMDI0"))
+                .thenThrow(new IllegalArgumentException("Cursor was issued for different filters"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/links").param("cursor", "MXwyMDI0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return the click series of a link")
+    void testGetClicks() throws Exception {
+        // Arrange
+        when(linkAnalyticsService.getClickSeries("abc123", "2024-06-15T09:00:00Z", null, "hour")).thenReturn(Map.of(
+                "shortCode", "abc123",
+                "resolution", "hour",
+                "totalClicks", 5,
+                "points", List.of(Map.of("timestamp", "2024-06-15T09:00:00Z", "count", 5))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/links/abc123/clicks")
+                        .param("from", "2024-06-15T09:00:00Z")
+                        .param("resolution", "hour"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution").value("hour"))
+                .andExpect(jsonPath("$.points[0].count").value(5));
+    }
+
+    @Test
+    @DisplayName("Should answer 400 for an invalid range")
+    void testInvalidRange() throws Exception {
+        // Arrange
+        when(linkAnalyticsService.getClickSeries("abc123", null, null, "week"))
+                .thenThrow(new IllegalArgumentException("Resolution must be minute, hour or day"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/links/abc123/clicks").param("resolution", "week"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,5 +1,7 @@
 package com.urlshortener.controller;
 
+import com.urlshortener.analytics.ClickEvents;
+import com.urlshortener.cache.RedirectHeaders;
 import com.urlshortener.config.TestSecurityConfig;
 import com.urlshortener.service.URLService;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.ArgumentMatchers.anyByte;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,19 +42,43 @@ class RedirectControllerTest {
     @DisplayName("Should redirect to original URL successfully")
     void testRedirectSuccess() throws Exception {
         // Arrange
-        when(urlService.getOriginalUrl(TEST_SHORT_CODE)).thenReturn(TEST_ORIGINAL_URL);
+        when(urlService.getRedirect(TEST_SHORT_CODE, ClickEvents.hashReferrer("https://news.example.com/"),
+                ClickEvents.UA_BOT, ClickEvents.hashClient("127.0.0.1", "Mozilla/5.0 (compatible; Googlebot/2.1)")))
+                .thenReturn(
+                new RedirectHeaders(301, TEST_ORIGINAL_URL, "public, max-age=3600", "max-age=86400",
+                        "Accept-Encoding", Long.MAX_VALUE));
 
         // Act & Assert
-        mockMvc.perform(get("/" + TEST_SHORT_CODE))
+        mockMvc.perform(get("/" + TEST_SHORT_CODE)
+                        .header("Referer", "https://news.example.com/")
+                        .header("User-Agent", "Mozilla/5.0 (compatible; Googlebot/2.1)"))
                 .andExpect(status().isMovedPermanently())
-                .andExpect(header().string("Location", TEST_ORIGINAL_URL));
+                .andExpect(header().string("Location", TEST_ORIGINAL_URL))
+                .andExpect(header().string("Cache-Control", "public, max-age=3600"))
+                .andExpect(header().string("Surrogate-Control", "max-age=86400"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")));
+    }
+
+    @Test
+    @DisplayName("Should send uncached temporary redirects for exact-analytics links")
+    void testRedirectUncached() throws Exception {
+        // Arrange
+        when(urlService.getRedirect(eq(TEST_SHORT_CODE), anyInt(), anyByte(), anyLong())).thenReturn(
+                new RedirectHeaders(307, TEST_ORIGINAL_URL, "private, no-store", "no-store", null, Long.MAX_VALUE));
+
+        // Act & Assert
+        mockMvc.perform(get("/" + TEST_SHORT_CODE))
+                .andExpect(status().isTemporaryRedirect())
+                .andExpect(header().string("Location", TEST_ORIGINAL_URL))
+                .andExpect(header().string("Cache-Control", "private, no-store"))
+                .andExpect(header().string("Surrogate-Control", "no-store"));
     }
 
     @Test
     @DisplayName("Should return not found for invalid short code")
     void testRedirectNotFound() throws Exception {
         // Arrange
-        when(urlService.getOriginalUrl("invalid")).thenThrow(new IllegalArgumentException("Short URL not found"));
+        when(urlService.getRedirect(eq("invalid"), anyInt(), anyByte(), anyLong())).thenThrow(new IllegalArgumentException("Short URL not found"));
 
         // Act & Assert
         mockMvc.perform(get("/invalid"))
@@ -58,7 +89,7 @@ class RedirectControllerTest {
     @DisplayName("Should return not found for expired URL")
     void testRedirectExpired() throws Exception {
         // Arrange
-        when(urlService.getOriginalUrl(TEST_SHORT_CODE)).thenThrow(new IllegalArgumentException("Short URL has expired"));
+        when(urlService.getRedirect(eq(TEST_SHORT_CODE), anyInt(), anyByte(), anyLong())).thenThrow(new IllegalArgumentException("Short URL has expired"));
 
         // Act & Assert
         mockMvc.perform(get("/" + TEST_SHORT_CODE))
@@ -70,10 +101,13 @@ class RedirectControllerTest {
     void testGetUrlInfoSuccess() throws Exception {
         // Arrange
         when(urlService.getOriginalUrl(TEST_SHORT_CODE)).thenReturn(TEST_ORIGINAL_URL);
+        when(urlService.getUniqueVisitors(TEST_SHORT_CODE)).thenReturn(42L);
 
         // Act & Assert
         mockMvc.perform(get("/info/" + TEST_SHORT_CODE))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.originalUrl").value(TEST_ORIGINAL_URL))
+                .andExpect(jsonPath("$.uniqueVisitors").value(42));
     }
 
     @Test
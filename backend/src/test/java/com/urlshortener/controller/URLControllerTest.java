@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.urlshortener.config.TestSecurityConfig;
 import com.urlshortener.dto.ShortenURLRequest;
 import com.urlshortener.dto.ShortenURLResponse;
+import com.urlshortener.exception.WriteUnavailableException;
+import com.urlshortener.scheduling.ExpirySweeper;
+import com.urlshortener.service.LinkAnalyticsService;
 import com.urlshortener.service.URLService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -36,6 +39,12 @@ class URLControllerTest {
     @MockBean
     private URLService urlService;
 
+    @MockBean
+    private ExpirySweeper expirySweeper;
+
+    @MockBean
+    private LinkAnalyticsService linkAnalyticsService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -69,6 +78,25 @@ class URLControllerTest {
                 .andExpect(jsonPath("$.expiresAt").exists());
     }
 
+    @Test
+    @DisplayName("Should return 503 with Retry-After when the insert cannot be written")
+    void testShortenUrlWriteUnavailable() throws Exception {
+        // Arrange
+        ShortenURLRequest request = new ShortenURLRequest();
+        request.setUrl(TEST_ORIGINAL_URL);
+
+        when(urlService.shortenUrl(any(ShortenURLRequest.class)))
+                .thenThrow(new WriteUnavailableException("Insert queue is full"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/shorten")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.message").value("Insert queue is full"));
+    }
+
     @Test
     @DisplayName("Should return bad request for invalid URL")
     void testShortenUrlInvalidUrl() throws Exception {
@@ -168,4 +196,51 @@ class URLControllerTest {
         mockMvc.perform(post("/api/cleanup"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should report sweeper progress on cleanup request")
+    void testCleanupReportsProgress() throws Exception {
+        // Arrange
+        when(expirySweeper.requestSweep()).thenReturn(java.util.Map.of(
+            "status", "RUNNING",
+            "deletedCount", 1500L,
+            "totalDeleted", 42000L
+        ));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/cleanup"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.deletedCount").value(1500))
+                .andExpect(jsonPath("$.totalDeleted").value(42000))
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    @DisplayName("Should return trending links for a window")
+    void testTrending() throws Exception {
+        // Arrange
+        when(linkAnalyticsService.getTrending("5m", 5)).thenReturn(java.util.Map.of(
+            "window", "5m",
+            "links", java.util.List.of(java.util.Map.of("shortCode", "hot123", "clicks", 900L))
+        ));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/stats/trending").param("window", "5m").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("5m"))
+                .andExpect(jsonPath("$.links[0].shortCode").value("hot123"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown trending windows")
+    void testTrendingBadWindow() throws Exception {
+        // Arrange
+        when(linkAnalyticsService.getTrending("2h", null))
+                .thenThrow(new IllegalArgumentException("Window must be 5m, 1h or 24h"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/stats/trending").param("window", "2h"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,67 @@
+package com.urlshortener.filter;
+
+import com.urlshortener.resilience.Bulkhead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BulkheadFilter
+ */
+@DisplayName("BulkheadFilter Tests")
+class BulkheadFilterTest {
+
+    private Bulkhead adminLane;
+    private Bulkhead redirectLane;
+    private SimpleMeterRegistry meterRegistry;
+    private BulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        adminLane = new Bulkhead("admin", 1, 0, 0);
+        redirectLane = new Bulkhead("redirect", 10, 0, 0);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new BulkheadFilter(Map.of(
+                RequestPriority.REDIRECT, redirectLane,
+                RequestPriority.SHORTEN, new Bulkhead("shorten", 5, 0, 0),
+                RequestPriority.ADMIN, adminLane), 1, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should keep redirects flowing while the admin lane is full")
+    void testLaneIsolation() throws Exception {
+        // Arrange
+        assertTrue(adminLane.tryEnter());
+        MockHttpServletResponse stats = new MockHttpServletResponse();
+        MockHttpServletResponse redirect = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/stats"), stats, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), redirect, new MockFilterChain());
+
+        // Assert
+        assertEquals(503, stats.getStatus());
+        assertEquals("1", stats.getHeader("Retry-After"));
+        assertEquals(200, redirect.getStatus());
+        assertEquals(1.0, meterRegistry.get("bulkhead.rejected").tag("lane", "admin").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should release the lane slot after the request completes")
+    void testReleasesSlot() throws Exception {
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        // Assert
+        assertEquals(0, redirectLane.getActive());
+    }
+}
@@ -0,0 +1,99 @@
+package com.urlshortener.filter;
+
+import com.urlshortener.resilience.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConcurrencyLimitFilter
+ */
+@DisplayName("ConcurrencyLimitFilter Tests")
+class ConcurrencyLimitFilterTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(4, 1, 4);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(limiter, Map.of(
+                RequestPriority.REDIRECT, 1.0,
+                RequestPriority.SHORTEN, 0.75,
+                RequestPriority.ADMIN, 0.5), 2, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should pass requests through and release the permit")
+    void testAdmitted() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), response, new MockFilterChain());
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should shed stats with 503 and Retry-After while redirects are still admitted")
+    void testShedsLowPriorityFirst() throws Exception {
+        // Arrange
+        limiter.tryAcquire(1.0);
+        limiter.tryAcquire(1.0);
+        MockHttpServletResponse stats = new MockHttpServletResponse();
+        MockHttpServletResponse redirect = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/stats"), stats, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), redirect, new MockFilterChain());
+
+        // Assert
+        assertEquals(503, stats.getStatus());
+        assertEquals("2", stats.getHeader("Retry-After"));
+        assertEquals(200, redirect.getStatus());
+        assertEquals(1.0, meterRegistry.get("concurrency.shed").tag("priority", "admin").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should never limit health checks")
+    void testHealthBypassed() throws Exception {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(1.0);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/health"), response, new MockFilterChain());
+
+        // Assert
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should classify request paths by priority")
+    void testClassify() {
+        assertEquals(RequestPriority.REDIRECT, RequestPriority.classify("/abc123"));
+        assertEquals(RequestPriority.REDIRECT, RequestPriority.classify("/info/abc123"));
+        assertEquals(RequestPriority.SHORTEN, RequestPriority.classify("/api/shorten"));
+        assertEquals(RequestPriority.ADMIN, RequestPriority.classify("/api/cleanup"));
+        assertNull(RequestPriority.classify("/actuator/health"));
+        assertEquals(RequestPriority.ADMIN, RequestPriority.classify("/swagger-ui/index.html"));
+        assertEquals(RequestPriority.ADMIN, RequestPriority.classify("/v3/api-docs"));
+        assertEquals(RequestPriority.ADMIN, RequestPriority.classify("/favicon.ico"));
+        assertEquals(RequestPriority.ADMIN, RequestPriority.classify("/"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.urlshortener.filter;
+
+import com.urlshortener.resilience.ClientRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimitFilter
+ */
+@DisplayName("RateLimitFilter Tests")
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitFilter(new ClientRateLimiter(1.0 / 60, 2, 1024), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should return 429 with Retry-After once a client exceeds its burst")
+    void testLimited() throws Exception {
+        // Arrange
+        filter.doFilter(shorten("10.0.0.1", null), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(shorten("10.0.0.1", null), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(shorten("10.0.0.1", null), response, new MockFilterChain());
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertTrue(Long.parseLong(response.getHeader("Retry-After")) > 1);
+        assertTrue(response.getContentAsString().contains("Rate limit exceeded"));
+    }
+
+    @Test
+    @DisplayName("Should not give a fresh bucket to a client rotating its API key header")
+    void testRotatingApiKey() throws Exception {
+        // Arrange
+        filter.doFilter(shorten("10.0.0.1", "key-1"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(shorten("10.0.0.1", "key-2"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse rotated = new MockHttpServletResponse();
+        MockHttpServletResponse otherClient = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(shorten("10.0.0.1", "key-3"), rotated, new MockFilterChain());
+        filter.doFilter(shorten("10.0.0.2", "key-1"), otherClient, new MockFilterChain());
+
+        // Assert
+        assertEquals(429, rotated.getStatus());
+        assertEquals(200, otherClient.getStatus());
+    }
+
+    private MockHttpServletRequest shorten(String remoteAddr, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/shorten");
+        request.setRemoteAddr(remoteAddr);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,170 @@
+package com.urlshortener.nio;
+
+import com.urlshortener.analytics.ClickEvents;
+import com.urlshortener.cache.RedirectHeaders;
+import com.urlshortener.exception.LookupUnavailableException;
+import com.urlshortener.service.URLService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyByte;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NioRedirectServer
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NioRedirectServer Tests")
+class NioRedirectServerTest {
+
+    @Mock
+    private URLService urlService;
+
+    private NioRedirectServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = new NioRedirectServer(urlService, new SimpleMeterRegistry(), 0, 128, 1, 2, 8192, 30, 1024);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("Should answer GET /{shortCode} with the policy status and headers")
+    void testRedirect() throws Exception {
+        // Arrange
+        when(urlService.getRedirect("abc123", ClickEvents.hashReferrer("https://news.example.com/"),
+                ClickEvents.UA_MOBILE, ClickEvents.hashClient("127.0.0.1", "Mozilla/5.0 (iPhone; CPU iPhone OS 17_0)")))
+                .thenReturn(redirect("https://www.example.com"));
+
+        try (Socket socket = connect()) {
+            // Act
+            send(socket, "GET /abc123 HTTP/1.1\r\nHost: localhost\r\nReferer: https://news.example.com/\r\n"
+                    + "User-Agent: Mozilla/5.0 (iPhone; CPU iPhone OS 17_0)\r\n\r\n");
+            String response = readResponse(socket.getInputStream());
+
+            // Assert
+            assertTrue(response.startsWith("HTTP/1.1 301 Moved Permanently\r\n"));
+            assertTrue(response.contains("Location: https://www.example.com\r\n"));
+            assertTrue(response.contains("Cache-Control: public, max-age=3600\r\n"));
+            assertTrue(response.contains("Surrogate-Control: max-age=86400\r\n"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve pipelined requests on one keep-alive connection")
+    void testPipelinedKeepAlive() throws Exception {
+        // Arrange
+        when(urlService.getRedirect(eq("abc123"), anyInt(), anyByte(), anyLong())).thenReturn(redirect("https://www.example.com"));
+        when(urlService.getRedirect(eq("def456"), anyInt(), anyByte(), anyLong())).thenReturn(redirect("https://www.example.org"));
+
+        try (Socket socket = connect()) {
+            // Act
+            send(socket, "GET /abc123 HTTP/1.1\r\nHost: localhost\r\n\r\nGET /def456 HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            String first = readResponse(socket.getInputStream());
+            String second = readResponse(socket.getInputStream());
+            send(socket, "GET /abc123 HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            String third = readResponse(socket.getInputStream());
+
+            // Assert
+            assertTrue(first.contains("Location: https://www.example.com\r\n"));
+            assertTrue(second.contains("Location: https://www.example.org\r\n"));
+            assertTrue(third.contains("Location: https://www.example.com\r\n"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer unknown codes with 404 and lookup outages with 503")
+    void testErrors() throws Exception {
+        // Arrange
+        when(urlService.getRedirect(eq("missing"), anyInt(), anyByte(), anyLong())).thenThrow(new IllegalArgumentException("Short code not found"));
+        when(urlService.getRedirect(eq("down"), anyInt(), anyByte(), anyLong())).thenThrow(new LookupUnavailableException("breaker open"));
+
+        try (Socket socket = connect()) {
+            // Act
+            send(socket, "GET /missing HTTP/1.1\r\n\r\nGET /down HTTP/1.1\r\n\r\nGET /a/b HTTP/1.1\r\n\r\n");
+
+            // Assert
+            assertTrue(readResponse(socket.getInputStream()).startsWith("HTTP/1.1 404"));
+            String unavailable = readResponse(socket.getInputStream());
+            assertTrue(unavailable.startsWith("HTTP/1.1 503"));
+            assertTrue(unavailable.contains("Retry-After: 1\r\n"));
+            assertTrue(readResponse(socket.getInputStream()).startsWith("HTTP/1.1 404"));
+        }
+        verify(urlService, never()).getRedirect(eq("a"), anyInt(), anyByte(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should reject other methods and close the connection")
+    void testMethodNotAllowed() throws Exception {
+        try (Socket socket = connect()) {
+            // Act
+            send(socket, "POST /abc123 HTTP/1.1\r\nContent-Length: 0\r\n\r\n");
+            String response = readResponse(socket.getInputStream());
+
+            // Assert
+            assertTrue(response.startsWith("HTTP/1.1 405"));
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        verifyNoInteractions(urlService);
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket("localhost", server.getPort());
+        socket.setSoTimeout(5_000);
+        return socket;
+    }
+
+    private void send(Socket socket, String request) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(request.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    /**
+     * Read one response: headers up to the blank line plus Content-Length bytes
+     */
+    private String readResponse(InputStream in) throws IOException {
+        StringBuilder head = new StringBuilder();
+        while (!head.toString().endsWith("\r\n\r\n")) {
+            int b = in.read();
+            if (b < 0) {
+                break;
+            }
+            head.append((char) b);
+        }
+        int contentLength = 0;
+        for (String line : head.toString().split("\r\n")) {
+            if (line.startsWith("Content-Length: ")) {
+                contentLength = Integer.parseInt(line.substring("Content-Length: ".length()));
+            }
+        }
+        byte[] body = in.readNBytes(contentLength);
+        return head + new String(body, StandardCharsets.US_ASCII);
+    }
+
+    private static RedirectHeaders redirect(String location) {
+        return new RedirectHeaders(301, location, "public, max-age=3600", "max-age=86400", "Accept-Encoding",
+                Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,59 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.UrlEncryptionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for URLMappingEncryptionCallbacks
+ */
+@DisplayName("URLMappingEncryptionCallbacks Tests")
+class URLMappingEncryptionCallbacksTest {
+
+    private static final String URL = "https://www.example.com/landing";
+
+    private final UrlEncryptionService encryptionService =
+            new UrlEncryptionService("k1:AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8=", new SimpleMeterRegistry());
+    private final URLMappingEncryptionCallbacks callbacks = new URLMappingEncryptionCallbacks(encryptionService);
+
+    @Test
+    @DisplayName("Should encrypt the stored document only and decrypt on read")
+    void testRoundTrip() {
+        // Arrange
+        URLMapping mapping = new URLMapping("abc123", URL, "localhost:8080");
+        Document document = new Document("shortCode", "abc123").append("originalUrl", URL);
+
+        // Act
+        callbacks.onBeforeSave(mapping, document, "urls_shortened");
+        URLMapping read = new URLMapping("abc123", document.getString("originalUrl"), "localhost:8080");
+        callbacks.onAfterConvert(read, document, "urls_shortened");
+
+        // Assert
+        assertEquals(URL, mapping.getOriginalUrl());
+        assertTrue(encryptionService.isCurrent(document.getString("originalUrl")));
+        assertEquals(URL, read.getOriginalUrl());
+    }
+
+    @Test
+    @DisplayName("Should store plaintext when encryption is disabled and still read legacy plaintext")
+    void testDisabled() {
+        // Arrange
+        URLMappingEncryptionCallbacks disabled = new URLMappingEncryptionCallbacks(
+                new UrlEncryptionService("", new SimpleMeterRegistry()));
+        URLMapping mapping = new URLMapping("abc123", URL, "localhost:8080");
+        Document document = new Document("shortCode", "abc123").append("originalUrl", URL);
+
+        // Act
+        disabled.onBeforeSave(mapping, document, "urls_shortened");
+        callbacks.onAfterConvert(mapping, document, "urls_shortened");
+
+        // Assert
+        assertEquals(URL, document.getString("originalUrl"));
+        assertEquals(URL, mapping.getOriginalUrl());
+    }
+}
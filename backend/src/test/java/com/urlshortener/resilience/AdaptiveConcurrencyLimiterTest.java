@@ -0,0 +1,90 @@
+package com.urlshortener.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimiter
+ */
+@DisplayName("AdaptiveConcurrencyLimiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    @DisplayName("Should reject low-share requests before full-share requests")
+    void testPriorityShares() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(1.0));
+        }
+
+        // Act & Assert
+        assertFalse(limiter.tryAcquire(0.5));
+        assertTrue(limiter.tryAcquire(1.0));
+        assertEquals(6, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should grow the limit while latency stays flat under load")
+    void testLimitGrows() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            saturate(limiter, 5 * MILLIS);
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() > 10, "Limit should grow, was " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit when latency rises")
+    void testLimitShrinks() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100);
+        for (int i = 0; i < 100; i++) {
+            saturate(limiter, 5 * MILLIS);
+        }
+        int before = limiter.getLimit();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            saturate(limiter, 50 * MILLIS);
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() < before, "Limit should shrink from " + before + ", was " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should not grow the limit while mostly idle")
+    void testIdleDoesNotGrow() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire(1.0));
+            limiter.release(5 * MILLIS, true);
+        }
+
+        // Assert
+        assertEquals(10, limiter.getLimit());
+    }
+
+    private void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire(1.0)) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(rttNanos, true);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.urlshortener.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Bulkhead
+ */
+@DisplayName("Bulkhead Tests")
+class BulkheadTest {
+
+    @Test
+    @DisplayName("Should reject immediately when full and the queue is disabled")
+    void testRejectsWhenFull() {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("admin", 2, 0, 1_000);
+        assertTrue(bulkhead.tryEnter());
+        assertTrue(bulkhead.tryEnter());
+
+        // Act & Assert
+        assertFalse(bulkhead.tryEnter());
+        assertEquals(2, bulkhead.getActive());
+    }
+
+    @Test
+    @DisplayName("Should admit a queued caller once a slot frees up")
+    void testQueuedCallerAdmitted() throws Exception {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("redirect", 1, 1, 5_000);
+        assertTrue(bulkhead.tryEnter());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> queued = executor.submit(bulkhead::tryEnter);
+            for (int i = 0; i < 100 && bulkhead.getQueueDepth() == 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, bulkhead.getQueueDepth());
+
+            // Act
+            bulkhead.exit();
+
+            // Assert
+            assertTrue(queued.get(5, TimeUnit.SECONDS));
+            assertEquals(0, bulkhead.getQueueDepth());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject callers beyond the queue depth without waiting")
+    void testQueueBound() throws Exception {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("shorten", 1, 1, 5_000);
+        assertTrue(bulkhead.tryEnter());
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                started.countDown();
+                return bulkhead.tryEnter();
+            });
+            started.await();
+            for (int i = 0; i < 100 && bulkhead.getQueueDepth() == 0; i++) {
+                Thread.sleep(10);
+            }
+
+            // Act
+            long start = System.nanoTime();
+            boolean entered = bulkhead.tryEnter();
+
+            // Assert
+            assertFalse(entered);
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.urlshortener.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CircuitBreaker
+ */
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker("test", 10, 4, 0.5, 0.8, 50, 1_000, 2);
+    }
+
+    @Test
+    @DisplayName("Should open once the failure rate crosses the threshold")
+    void testOpensOnFailureRate() {
+        // Arrange
+        breaker.onSuccess(1, 0);
+        breaker.onSuccess(1, 0);
+        breaker.onFailure(0);
+
+        // Act
+        breaker.onFailure(0);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(999));
+    }
+
+    @Test
+    @DisplayName("Should open when most calls are slow")
+    void testOpensOnSlowCalls() {
+        // Act
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess(100, 0);
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should not open before the minimum number of calls")
+    void testMinimumCalls() {
+        // Act
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should close after successful half-open probes")
+    void testHalfOpenRecovery() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(0);
+        }
+
+        // Act
+        assertTrue(breaker.tryAcquire(1_000));
+        assertTrue(breaker.tryAcquire(1_000));
+        assertFalse(breaker.tryAcquire(1_000));
+        breaker.onSuccess(1, 1_001);
+        breaker.onSuccess(1, 1_001);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should re-open when a half-open probe fails")
+    void testHalfOpenFailure() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(0);
+        }
+        assertTrue(breaker.tryAcquire(1_000));
+
+        // Act
+        breaker.onFailure(1_001);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(1_500));
+    }
+}
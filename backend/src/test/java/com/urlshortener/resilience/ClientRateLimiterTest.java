@@ -0,0 +1,89 @@
+package com.urlshortener.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ClientRateLimiter
+ */
+@DisplayName("ClientRateLimiter Tests")
+class ClientRateLimiterTest {
+
+    private static final long SECOND = 1_000_000L;
+
+    @Test
+    @DisplayName("Should allow a burst and then limit the client")
+    void testBurst() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 3, 1024);
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", SECOND));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", SECOND));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", SECOND));
+        long wait = limiter.tryAcquire("10.0.0.1", SECOND);
+        assertEquals(SECOND, wait);
+    }
+
+    @Test
+    @DisplayName("Should refill at the configured rate")
+    void testRefill() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 1024);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", SECOND));
+        assertTrue(limiter.tryAcquire("10.0.0.1", SECOND + SECOND / 2) > 0);
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 2 * SECOND));
+    }
+
+    @Test
+    @DisplayName("Should track clients independently")
+    void testIndependentClients() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 1 << 16);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", SECOND));
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire("10.0.0.1", SECOND) > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", SECOND));
+    }
+
+    @Test
+    @DisplayName("Should keep memory bounded and reuse idle buckets")
+    void testIdleSlotsReused() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 4);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("client-" + i, SECOND);
+        }
+
+        // Act: every earlier bucket has refilled, so a new client gets a fresh one
+        long wait = limiter.tryAcquire("newcomer", 10 * SECOND);
+
+        // Assert
+        assertEquals(0, wait);
+        assertEquals(4, limiter.getSlots());
+    }
+
+    @Test
+    @DisplayName("Should never loosen the limit when buckets collide")
+    void testCollisionsShareBucket() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 2);
+        int allowed = 0;
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            if (limiter.tryAcquire("client-" + i, SECOND) == 0) {
+                allowed++;
+            }
+        }
+
+        // Assert: at most one request per slot in the window
+        assertTrue(allowed <= limiter.getSlots(), "Allowed " + allowed);
+        assertTrue(limiter.getCollisions() <= limiter.getSlots());
+    }
+}
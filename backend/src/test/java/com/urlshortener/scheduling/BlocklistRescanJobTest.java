@@ -0,0 +1,139 @@
+package com.urlshortener.scheduling;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.urlshortener.cache.RedirectCache;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.Blocklist;
+import com.urlshortener.service.BlocklistService;
+import com.urlshortener.service.UrlEncryptionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BlocklistRescanJob
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BlocklistRescanJob Tests")
+class BlocklistRescanJobTest {
+
+    private static final String COLLECTION = "urls_shortened";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LeaseLock leaseLock;
+
+    @Mock
+    private BlocklistService blocklistService;
+
+    @Mock
+    private RedirectCache redirectCache;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BulkWriteResult bulkWriteResult;
+
+    private BlocklistRescanJob job;
+
+    private final Blocklist blocklist = Blocklist.parse(List.of("evil.example", "~/phish/"));
+
+    private final UrlEncryptionService encryptionService =
+            new UrlEncryptionService("k1:AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8=", new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        job = new BlocklistRescanJob(mongoTemplate, leaseLock, blocklistService, redirectCache, encryptionService,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(job, "nodeId", "node-1");
+        ReflectionTestUtils.setField(job, "enabled", true);
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+        ReflectionTestUtils.setField(job, "leaseSeconds", 60L);
+    }
+
+    @Test
+    @DisplayName("Should stream mappings, decrypt them, flag newly blocked ones in bulk and record the scanned version")
+    void testRescan() {
+        // Arrange
+        when(mongoTemplate.getCollectionName(URLMapping.class)).thenReturn(COLLECTION);
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq(COLLECTION))).thenReturn(Stream.of(
+                mapping("a1", "code01", "https://www.evil.example/login"),
+                mapping("a2", "code02", "https://fine.example/"),
+                mapping("a3", "code03", encryptionService.encrypt("https://host.example/phish/kit", "code03")),
+                mapping("a4", "code04", "not a url")));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getModifiedCount()).thenReturn(1);
+        when(leaseLock.tryAcquire(eq("blocklist-rescan"), eq("node-1"), any())).thenReturn(true);
+
+        // Act
+        long flagged = job.rescan(blocklist, Duration.ofSeconds(60));
+
+        // Assert
+        assertEquals(2, flagged);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(2)).updateOne(any(Query.class), updates.capture());
+        assertEquals("evil.example", updates.getAllValues().get(0).getUpdateObject()
+                .get("$set", Document.class).get("blockedBy"));
+        assertEquals("~/phish/", updates.getAllValues().get(1).getUpdateObject()
+                .get("$set", Document.class).get("blockedBy"));
+        verify(redirectCache).invalidate("code01");
+        verify(redirectCache).invalidate("code03");
+        verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq("blocklist_rescan"));
+    }
+
+    @Test
+    @DisplayName("Should skip a blocklist version that was already scanned")
+    void testPollSkipsScannedVersion() {
+        // Arrange
+        when(blocklistService.current()).thenReturn(blocklist);
+        when(mongoTemplate.findById("blocklist-rescan", Document.class, "blocklist_rescan"))
+                .thenReturn(new Document("fingerprint", blocklist.getFingerprint()));
+
+        // Act
+        job.poll();
+
+        // Assert
+        verifyNoInteractions(leaseLock);
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(Document.class), anyString());
+    }
+
+    @Test
+    @DisplayName("Should do nothing while the blocklist is empty")
+    void testPollWithEmptyBlocklist() {
+        // Arrange
+        when(blocklistService.current()).thenReturn(Blocklist.EMPTY);
+
+        // Act
+        job.poll();
+
+        // Assert
+        verifyNoInteractions(mongoTemplate, leaseLock);
+    }
+
+    private static Document mapping(String id, String shortCode, String originalUrl) {
+        return new Document("_id", id).append("shortCode", shortCode).append("originalUrl", originalUrl);
+    }
+}
@@ -0,0 +1,102 @@
+package com.urlshortener.scheduling;
+
+import com.mongodb.client.result.DeleteResult;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.MappingRemovalListener;
+import com.urlshortener.service.RedirectLatencyMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ExpirySweeper
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpirySweeper Tests")
+class ExpirySweeperTest {
+
+    private static final String COLLECTION = "urls_shortened";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LeaseLock leaseLock;
+
+    @Mock
+    private MappingRemovalListener removalListener;
+
+    private ExpirySweeper expirySweeper;
+
+    @BeforeEach
+    void setUp() {
+        expirySweeper = new ExpirySweeper(mongoTemplate, leaseLock,
+                new RedirectLatencyMonitor(new SimpleMeterRegistry()),
+                List.of(removalListener), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(expirySweeper, "nodeId", "node-1");
+        ReflectionTestUtils.setField(expirySweeper, "batchSize", 2);
+        ReflectionTestUtils.setField(expirySweeper, "maxDeletesPerSecond", 1_000_000);
+        when(mongoTemplate.getCollectionName(URLMapping.class)).thenReturn(COLLECTION);
+    }
+
+    @Test
+    @DisplayName("Should delete in bounded batches and notify removal listeners")
+    void testSweepInBatches() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION)))
+                .thenReturn(List.of(expired("a1", "code01"), expired("a2", "code02")))
+                .thenReturn(List.of(expired("a3", "code03")));
+        when(mongoTemplate.remove(any(Query.class), eq(COLLECTION)))
+                .thenReturn(DeleteResult.acknowledged(2))
+                .thenReturn(DeleteResult.acknowledged(1));
+        when(leaseLock.tryAcquire(eq("expiry-sweeper"), eq("node-1"), any())).thenReturn(true);
+
+        List<String> removed = new ArrayList<>();
+        doAnswer(invocation -> removed.addAll(invocation.getArgument(0)))
+                .when(removalListener).onMappingsRemoved(anyCollection());
+
+        // Act
+        expirySweeper.sweep(Duration.ofSeconds(30));
+
+        // Assert
+        assertEquals(List.of("code01", "code02", "code03"), removed);
+        verify(mongoTemplate, times(2)).remove(any(Query.class), eq(COLLECTION));
+    }
+
+    @Test
+    @DisplayName("Should stop sweeping when the lease is lost")
+    void testSweepStopsWithoutLease() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION)))
+                .thenReturn(List.of(expired("a1", "code01"), expired("a2", "code02")));
+        when(mongoTemplate.remove(any(Query.class), eq(COLLECTION))).thenReturn(DeleteResult.acknowledged(2));
+        when(leaseLock.tryAcquire(eq("expiry-sweeper"), eq("node-1"), any())).thenReturn(false);
+
+        // Act
+        expirySweeper.sweep(Duration.ofSeconds(30));
+
+        // Assert
+        verify(mongoTemplate, times(1)).remove(any(Query.class), eq(COLLECTION));
+        verify(removalListener, times(1)).onMappingsRemoved(anyCollection());
+    }
+
+    private Document expired(String id, String shortCode) {
+        return new Document("_id", id).append("shortCode", shortCode);
+    }
+}
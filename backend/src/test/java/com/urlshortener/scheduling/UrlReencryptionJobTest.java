@@ -0,0 +1,149 @@
+package com.urlshortener.scheduling;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.UrlEncryptionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UrlReencryptionJob
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UrlReencryptionJob Tests")
+class UrlReencryptionJobTest {
+
+    private static final String COLLECTION = "urls_shortened";
+    private static final String KEY_1 = "k1:AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8=";
+    private static final String KEY_2 = "k2:ICEiIyQlJicoKSorLC0uLzAxMjM0NTY3ODk6Ozw9Pj8=";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LeaseLock leaseLock;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BulkWriteResult bulkWriteResult;
+
+    private final UrlEncryptionService oldKeys = new UrlEncryptionService(KEY_1, new SimpleMeterRegistry());
+    private final UrlEncryptionService newKeys = new UrlEncryptionService(KEY_2 + "," + KEY_1, new SimpleMeterRegistry());
+
+    private UrlReencryptionJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new UrlReencryptionJob(mongoTemplate, leaseLock, newKeys, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(job, "nodeId", "node-1");
+        ReflectionTestUtils.setField(job, "enabled", true);
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+        ReflectionTestUtils.setField(job, "leaseSeconds", 60L);
+    }
+
+    @Test
+    @DisplayName("Should rewrite plaintext and old-key values under the active key and record the pass")
+    void testReencrypt() {
+        // Arrange
+        String oldValue = oldKeys.encrypt("https://old.example/a", "code02");
+        when(mongoTemplate.getCollectionName(URLMapping.class)).thenReturn(COLLECTION);
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq(COLLECTION))).thenReturn(Stream.of(
+                mapping("a1", "code01", "https://plain.example/"),
+                mapping("a2", "code02", oldValue),
+                mapping("a3", "code03", "enc:k9:AAAA")));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getModifiedCount()).thenReturn(2);
+        when(leaseLock.tryAcquire(eq("url-reencryption"), eq("node-1"), any())).thenReturn(true);
+
+        // Act
+        long rewritten = job.reencrypt("k2", Duration.ofSeconds(60));
+
+        // Assert
+        assertEquals(2, rewritten);
+        ArgumentCaptor<Query> filters = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(2)).updateOne(filters.capture(), updates.capture());
+        assertEquals(oldValue, filters.getAllValues().get(1).getQueryObject().get("originalUrl"));
+        String first = updates.getAllValues().get(0).getUpdateObject().get("$set", Document.class).getString("originalUrl");
+        String second = updates.getAllValues().get(1).getUpdateObject().get("$set", Document.class).getString("originalUrl");
+        assertTrue(newKeys.isCurrent(first));
+        assertEquals("https://plain.example/", newKeys.decrypt(first, "code01"));
+        assertEquals("https://old.example/a", newKeys.decrypt(second, "code02"));
+        ArgumentCaptor<Update> progress = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), progress.capture(), eq("url_reencryption"));
+        Document set = progress.getValue().getUpdateObject().get("$set", Document.class);
+        assertNull(set.get("keyId"));
+        assertEquals("k2", set.get("passKeyId"));
+        assertEquals(1L, set.get("failed"));
+    }
+
+    @Test
+    @DisplayName("Should retry a pass that left values it could not decrypt")
+    void testPollRetriesIncompletePass() {
+        // Arrange
+        when(mongoTemplate.findById("url-reencryption", Document.class, "url_reencryption"))
+                .thenReturn(new Document("keyId", "k1").append("passKeyId", "k2").append("failed", 1L));
+
+        // Act
+        job.poll();
+
+        // Assert
+        verify(leaseLock).tryAcquire(eq("url-reencryption"), eq("node-1"), any());
+    }
+
+    @Test
+    @DisplayName("Should skip a key that was already applied")
+    void testPollSkipsAppliedKey() {
+        // Arrange
+        when(mongoTemplate.findById("url-reencryption", Document.class, "url_reencryption"))
+                .thenReturn(new Document("keyId", "k2"));
+
+        // Act
+        job.poll();
+
+        // Assert
+        verifyNoInteractions(leaseLock);
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(Document.class), anyString());
+    }
+
+    @Test
+    @DisplayName("Should do nothing while encryption is disabled")
+    void testPollWithoutKeys() {
+        // Arrange
+        job = new UrlReencryptionJob(mongoTemplate, leaseLock, new UrlEncryptionService("", new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(job, "enabled", true);
+
+        // Act
+        job.poll();
+
+        // Assert
+        verifyNoInteractions(mongoTemplate, leaseLock);
+    }
+
+    private static Document mapping(String id, String shortCode, String originalUrl) {
+        return new Document("_id", id).append("shortCode", shortCode).append("originalUrl", originalUrl);
+    }
+}
@@ -0,0 +1,90 @@
+package com.urlshortener.service;
+
+import com.urlshortener.util.HttpUrl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BlocklistService
+ */
+@DisplayName("BlocklistService Tests")
+class BlocklistServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should block listed domains, their subdomains and listed substrings")
+    void testMatch() throws IOException {
+        // Arrange
+        Path file = write(List.of("# phishing", "*.Evil.Example.", "", "~/wp-login.php"), 1_000);
+        BlocklistService service = new BlocklistService(file.toString(), new SimpleMeterRegistry());
+
+        // Act
+        service.load();
+
+        // Assert
+        assertEquals("evil.example", service.match(HttpUrl.parse("https://login.evil.example/x")));
+        assertEquals("~/wp-login.php", service.match(HttpUrl.parse("http://good.example/WP-LOGIN.php?a=1")));
+        assertNull(service.match(HttpUrl.parse("https://notevil.example/")));
+        assertEquals(1, service.current().getDomainCount());
+        assertEquals(1, service.current().getSubstringCount());
+    }
+
+    @Test
+    @DisplayName("Should swap in a changed file and keep the last version when it disappears")
+    void testReload() throws IOException {
+        // Arrange
+        Path file = write(List.of("evil.example"), 1_000);
+        BlocklistService service = new BlocklistService(file.toString(), new SimpleMeterRegistry());
+        service.load();
+        Blocklist first = service.current();
+
+        // Act
+        boolean unchanged = service.reloadIfChanged();
+        write(List.of("evil.example", "worse.example"), 2_000);
+        boolean changed = service.reloadIfChanged();
+        Blocklist second = service.current();
+        Files.delete(file);
+        boolean missing = service.reloadIfChanged();
+
+        // Assert
+        assertFalse(unchanged);
+        assertTrue(changed);
+        assertNotEquals(first.getFingerprint(), second.getFingerprint());
+        assertFalse(missing);
+        assertSame(second, service.current());
+        assertEquals("worse.example", service.match(HttpUrl.parse("http://a.worse.example")));
+    }
+
+    @Test
+    @DisplayName("Should allow everything when no file is configured")
+    void testNoFile() {
+        // Arrange
+        BlocklistService service = new BlocklistService("", new SimpleMeterRegistry());
+
+        // Act
+        service.load();
+
+        // Assert
+        assertTrue(service.current().isEmpty());
+        assertNull(service.match(HttpUrl.parse("https://evil.example")));
+    }
+
+    private Path write(List<String> lines, long modifiedMillis) throws IOException {
+        Path file = directory.resolve("blocklist.txt");
+        Files.write(file, lines);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedMillis));
+        return file;
+    }
+}
@@ -0,0 +1,123 @@
+package com.urlshortener.service;
+
+import com.mongodb.ReadPreference;
+import com.urlshortener.model.URLMapping;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HedgedMappingReader
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HedgedMappingReader Tests")
+class HedgedMappingReaderTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private HedgedMappingReader reader;
+
+    @AfterEach
+    void tearDown() {
+        if (reader != null) {
+            reader.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should read with the redirect read preference when hedging is off")
+    void testReadPreferenceWithoutHedging() {
+        // Arrange
+        reader = createReader(false, 0.1);
+        when(mongoTemplate.findOne(any(Query.class), eq(URLMapping.class))).thenReturn(createMapping("primary"));
+
+        // Act
+        URLMapping mapping = reader.findByShortCode("abc123");
+
+        // Assert
+        assertEquals("primary", mapping.getOriginalUrl());
+        verify(mongoTemplate).findOne(argThat((Query query) ->
+                ReadPreference.primaryPreferred().equals(query.getReadPreference())), eq(URLMapping.class));
+    }
+
+    @Test
+    @DisplayName("Should take the hedge's answer when the primary is slow")
+    void testHedgeWinsOverSlowPrimary() {
+        // Arrange
+        reader = createReader(true, 1.0);
+        stubReads(createMapping("primary"), 2_000, createMapping("secondary"));
+
+        // Act
+        URLMapping mapping = reader.findByShortCode("abc123");
+
+        // Assert
+        assertEquals("secondary", mapping.getOriginalUrl());
+    }
+
+    @Test
+    @DisplayName("Should not trust a miss from the hedge")
+    void testHedgeMissWaitsForPrimary() {
+        // Arrange
+        reader = createReader(true, 1.0);
+        stubReads(createMapping("primary"), 100, null);
+
+        // Act
+        URLMapping mapping = reader.findByShortCode("abc123");
+
+        // Assert
+        assertEquals("primary", mapping.getOriginalUrl());
+    }
+
+    @Test
+    @DisplayName("Should stop hedging once the budget is spent")
+    void testHedgeBudget() {
+        // Arrange
+        reader = createReader(true, 0.001);
+        stubReads(createMapping("primary"), 20, createMapping("secondary"));
+
+        // Act
+        int hedged = 0;
+        for (int i = 0; i < 20; i++) {
+            if ("secondary".equals(reader.findByShortCode("abc123").getOriginalUrl())) {
+                hedged++;
+            }
+        }
+
+        // Assert
+        assertTrue(hedged <= 10, "Hedges should be capped by the burst allowance, got " + hedged);
+    }
+
+    private void stubReads(URLMapping primary, long primaryDelayMillis, URLMapping secondary) {
+        when(mongoTemplate.findOne(any(Query.class), eq(URLMapping.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            if (ReadPreference.secondary().equals(query.getReadPreference())) {
+                return secondary;
+            }
+            Thread.sleep(primaryDelayMillis);
+            return primary;
+        });
+    }
+
+    private HedgedMappingReader createReader(boolean hedging, double maxRate) {
+        return new HedgedMappingReader(mongoTemplate, new SimpleMeterRegistry(), "primaryPreferred", hedging,
+                "secondary", 0.95, 1, 5, maxRate, 4);
+    }
+
+    private URLMapping createMapping(String originalUrl) {
+        URLMapping mapping = new URLMapping();
+        mapping.setShortCode("abc123");
+        mapping.setOriginalUrl(originalUrl);
+        return mapping;
+    }
+}
@@ -0,0 +1,229 @@
+package com.urlshortener.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.urlshortener.exception.WriteUnavailableException;
+import com.urlshortener.model.URLMapping;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InsertCoalescer
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InsertCoalescer Tests")
+class InsertCoalescerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    private InsertCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write inserts queued within the linger window as one insertMany")
+    void testCoalescesConcurrentInserts() throws Exception {
+        // Arrange
+        coalescer = start(true, 200, 256);
+        stubBulk();
+
+        // Act
+        List<CompletableFuture<URLMapping>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(coalescer.submit(mapping("code" + i)));
+        }
+
+        // Assert
+        for (int i = 0; i < 5; i++) {
+            URLMapping inserted = futures.get(i).get(5, TimeUnit.SECONDS);
+            assertEquals("code" + i, inserted.getShortCode());
+            assertNotNull(inserted.getId());
+        }
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.UNORDERED, URLMapping.class);
+        verify(bulkOperations).insert(argThat((List<?> list) -> list.size() == 5));
+    }
+
+    @Test
+    @DisplayName("Should fail only the caller whose short code is taken")
+    void testDuplicateKeyFailsOnlyItsCaller() throws Exception {
+        // Arrange
+        coalescer = start(true, 200, 256);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, URLMapping.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        MongoBulkWriteException duplicate = new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("write errors", duplicate));
+
+        // Act
+        CompletableFuture<URLMapping> first = coalescer.submit(mapping("abc123"));
+        CompletableFuture<URLMapping> second = coalescer.submit(mapping("taken1"));
+        CompletableFuture<URLMapping> third = coalescer.submit(mapping("def456"));
+
+        // Assert
+        assertEquals("abc123", first.get(5, TimeUnit.SECONDS).getShortCode());
+        ExecutionException error = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DuplicateKeyException.class, error.getCause());
+        assertEquals("def456", third.get(5, TimeUnit.SECONDS).getShortCode());
+    }
+
+    @Test
+    @DisplayName("Should cap batches at the configured size")
+    void testMaxBatchSize() throws Exception {
+        // Arrange
+        coalescer = start(true, 200, 2);
+        stubBulk();
+
+        // Act
+        List<CompletableFuture<URLMapping>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(coalescer.submit(mapping("code" + i)));
+        }
+        for (CompletableFuture<URLMapping> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        // Assert
+        verify(bulkOperations, atLeast(3)).insert(anyList());
+        verify(bulkOperations, never()).insert(argThat((List<?> list) -> list.size() > 2));
+    }
+
+    @Test
+    @DisplayName("Should write on the caller's thread when batching is disabled")
+    void testDisabled() {
+        // Arrange
+        coalescer = start(false, 200, 256);
+        stubBulk();
+
+        // Act
+        URLMapping inserted = coalescer.insert(mapping("abc123"));
+
+        // Assert
+        assertEquals("abc123", inserted.getShortCode());
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    @DisplayName("Should withdraw an insert that timed out before its batch was written")
+    void testTimedOutInsertIsNotWritten() {
+        // Arrange
+        when(mongoTemplate.indexOps(URLMapping.class)).thenReturn(indexOperations);
+        coalescer = new InsertCoalescer(mongoTemplate, new SimpleMeterRegistry(), true, 1_000, 256, 1, 1000, 100);
+        coalescer.start();
+
+        // Act & Assert
+        assertThrows(WriteUnavailableException.class, () -> coalescer.insert(mapping("abc123")));
+        verify(mongoTemplate, after(1_500).never()).bulkOps(any(BulkOperations.BulkMode.class), eq(URLMapping.class));
+    }
+
+    @Test
+    @DisplayName("Should create the unique shortCode index under the annotation's name when missing")
+    void testCreatesShortCodeIndex() {
+        // Arrange
+        when(mongoTemplate.indexOps(URLMapping.class)).thenReturn(indexOperations);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                IndexInfo.indexInfoOf(new Document("name", "_id_").append("key", new Document("_id", 1)))));
+        InsertCoalescer insertCoalescer = new InsertCoalescer(mongoTemplate, new SimpleMeterRegistry(),
+                false, 200, 256, 1, 1000, 5_000);
+
+        // Act
+        insertCoalescer.start();
+
+        // Assert
+        verify(indexOperations).ensureIndex(argThat((Index index) ->
+                index.getIndexKeys().containsKey("shortCode")
+                        && Boolean.TRUE.equals(index.getIndexOptions().get("unique"))
+                        && "shortCode".equals(index.getIndexOptions().get("name"))));
+    }
+
+    @Test
+    @DisplayName("Should reuse the unique shortCode index created from the @Indexed annotation")
+    void testReusesAnnotationIndex() {
+        // Arrange
+        when(mongoTemplate.indexOps(URLMapping.class)).thenReturn(indexOperations);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                IndexInfo.indexInfoOf(new Document("name", "_id_").append("key", new Document("_id", 1))),
+                IndexInfo.indexInfoOf(new Document("name", "shortCode")
+                        .append("key", new Document("shortCode", 1)).append("unique", true))));
+        InsertCoalescer insertCoalescer = new InsertCoalescer(mongoTemplate, new SimpleMeterRegistry(),
+                false, 200, 256, 1, 1000, 5_000);
+
+        // Act
+        insertCoalescer.start();
+
+        // Assert
+        verify(indexOperations, never()).ensureIndex(any());
+    }
+
+    @Test
+    @DisplayName("Should refuse to start without the unique shortCode index")
+    void testFailsWithoutShortCodeIndex() {
+        // Arrange
+        when(mongoTemplate.indexOps(URLMapping.class)).thenReturn(indexOperations);
+        InsertCoalescer insertCoalescer = new InsertCoalescer(mongoTemplate, new SimpleMeterRegistry(),
+                false, 200, 256, 1, 1000, 5_000);
+        when(indexOperations.ensureIndex(any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, insertCoalescer::start);
+    }
+
+    private InsertCoalescer start(boolean enabled, long lingerMillis, int maxBatchSize) {
+        when(mongoTemplate.indexOps(URLMapping.class)).thenReturn(indexOperations);
+        InsertCoalescer insertCoalescer = new InsertCoalescer(mongoTemplate, new SimpleMeterRegistry(),
+                enabled, lingerMillis, maxBatchSize, 1, 1000, 5_000);
+        insertCoalescer.start();
+        return insertCoalescer;
+    }
+
+    private void stubBulk() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, URLMapping.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    private static URLMapping mapping(String shortCode) {
+        return new URLMapping(shortCode, "https://www.example.com", "localhost:8080");
+    }
+}
@@ -0,0 +1,103 @@
+package com.urlshortener.service;
+
+import com.urlshortener.model.URLMapping;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for KeyspaceManager
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KeyspaceManager Tests")
+class KeyspaceManagerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry registry;
+    private KeyspaceManager keyspaceManager;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        keyspaceManager = new KeyspaceManager(mongoTemplate, registry, 6, 0.05, 1000);
+    }
+
+    @Test
+    @DisplayName("Should move to a longer code once the collection fills the keyspace past the threshold")
+    void testGrowsWithOccupancy() {
+        // Arrange
+        long nearlyFull = (long) (KeyspaceManager.keyspaceSize(6) * 0.04);
+        long full = KeyspaceManager.keyspaceSize(6) / 20 + 1;
+        when(mongoTemplate.estimatedCount(URLMapping.class)).thenReturn(nearlyFull, full);
+
+        // Act
+        keyspaceManager.refresh();
+        int before = keyspaceManager.currentLength();
+        keyspaceManager.refresh();
+
+        // Assert
+        assertEquals(6, before);
+        assertEquals(7, keyspaceManager.currentLength());
+        assertTrue(keyspaceManager.utilization() < 0.001);
+        assertEquals(7.0, registry.get("keyspace.code_length").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should ignore occasional collisions but grow on a sustained collision rate")
+    void testGrowsWithCollisionRate() {
+        // Arrange
+        keyspaceManager.recordAttempt(6, true);
+        for (int i = 0; i < 99; i++) {
+            keyspaceManager.recordAttempt(6, false);
+        }
+        int afterOccasional = keyspaceManager.currentLength();
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            keyspaceManager.recordAttempt(6, true);
+        }
+
+        // Assert
+        assertEquals(6, afterOccasional);
+        assertEquals(7, keyspaceManager.currentLength());
+        assertEquals(101.0, registry.get("keyspace.attempts").tag("outcome", "collision").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not count attempts made at a previous length against the new one")
+    void testIgnoresStaleLengths() {
+        // Act
+        for (int i = 0; i < 200; i++) {
+            keyspaceManager.recordAttempt(5, true);
+        }
+
+        // Assert
+        assertEquals(6, keyspaceManager.currentLength());
+        assertEquals(0.0, keyspaceManager.utilization());
+        assertEquals(0.0, keyspaceManager.expectedCollisions());
+    }
+
+    @Test
+    @DisplayName("Should keep the current length when occupancy cannot be read")
+    void testRefreshFailure() {
+        // Arrange
+        when(mongoTemplate.estimatedCount(URLMapping.class)).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        keyspaceManager.refresh();
+
+        // Assert
+        assertEquals(6, keyspaceManager.currentLength());
+    }
+}
@@ -0,0 +1,128 @@
+package com.urlshortener.service;
+
+import com.urlshortener.analytics.ClickResolution;
+import com.urlshortener.analytics.ClickSeriesStore;
+import com.urlshortener.analytics.TrendingLinks;
+import com.urlshortener.analytics.TrendingTracker;
+import com.urlshortener.analytics.TrendingWindow;
+import com.urlshortener.util.CoarseClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LinkAnalyticsService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LinkAnalyticsService Tests")
+class LinkAnalyticsServiceTest {
+
+    private static final long NOW = Instant.parse("2024-06-15T12:30:00Z").toEpochMilli();
+
+    @Mock
+    private ClickSeriesStore clickSeriesStore;
+
+    @Mock
+    private TrendingTracker trendingTracker;
+
+    @Mock
+    private CoarseClock clock;
+
+    private LinkAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LinkAnalyticsService(clickSeriesStore, trendingTracker, clock);
+        lenient().when(clock.currentTimeMillis()).thenReturn(NOW);
+    }
+
+    @Test
+    @DisplayName("Should return zero-filled points at the requested resolution")
+    @SuppressWarnings("unchecked")
+    void testRequestedResolution() {
+        // Arrange
+        long from = Instant.parse("2024-06-15T09:00:00Z").toEpochMilli();
+        when(clickSeriesStore.read("abc123", ClickResolution.HOUR, from, 3)).thenReturn(new long[]{5, 0, 2});
+
+        // Act
+        Map<String, Object> series = service.getClickSeries("abc123",
+                "2024-06-15T09:15:00Z", "2024-06-15T12:00:00Z", "hour");
+
+        // Assert
+        List<Map<String, Object>> points = (List<Map<String, Object>>) series.get("points");
+        assertEquals("hour", series.get("resolution"));
+        assertEquals("2024-06-15T09:00:00Z", series.get("from"));
+        assertEquals(7L, series.get("totalClicks"));
+        assertEquals(3, points.size());
+        assertEquals("2024-06-15T10:00:00Z", points.get(1).get("timestamp"));
+        assertEquals(0L, points.get(1).get("count"));
+    }
+
+    @Test
+    @DisplayName("Should pick the finest resolution that is retained and fits")
+    void testChoosesResolution() {
+        // Arrange
+        when(clickSeriesStore.retentionMillis(ClickResolution.MINUTE)).thenReturn(48 * 3_600_000L);
+        when(clickSeriesStore.retentionMillis(ClickResolution.HOUR)).thenReturn(90 * 86_400_000L);
+        when(clickSeriesStore.read(anyString(), any(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> new long[(int) invocation.getArgument(3)]);
+
+        // Act
+        Object lastDay = service.getClickSeries("abc123", null, null, null).get("resolution");
+        Object lastWeek = service.getClickSeries("abc123", "2024-06-08T12:30:00Z", null, null).get("resolution");
+        Object lastYear = service.getClickSeries("abc123", "2023-06-15T12:30:00Z", null, null).get("resolution");
+
+        // Assert
+        assertEquals("minute", lastDay);
+        assertEquals("hour", lastWeek);
+        assertEquals("day", lastYear);
+    }
+
+    @Test
+    @DisplayName("Should reject bad ranges instead of reading too many points")
+    void testRejectsBadRanges() {
+        assertThrows(IllegalArgumentException.class, () ->
+                service.getClickSeries("abc123", "2024-06-01T00:00:00Z", null, "minute"));
+        assertThrows(IllegalArgumentException.class, () ->
+                service.getClickSeries("abc123", "2024-06-15T12:00:00Z", "2024-06-15T11:00:00Z", "hour"));
+        assertThrows(IllegalArgumentException.class, () ->
+                service.getClickSeries("abc123", "yesterday", null, "hour"));
+        assertThrows(IllegalArgumentException.class, () ->
+                service.getClickSeries("abc123", null, null, "week"));
+        verifyNoInteractions(clickSeriesStore);
+    }
+
+    @Test
+    @DisplayName("Should list trending links in order, defaulting to the last hour")
+    void testTrending() {
+        // Arrange
+        Map<String, Long> clicks = new LinkedHashMap<>();
+        clicks.put("hot123", 900L);
+        clicks.put("warm45", 40L);
+        when(trendingTracker.trending(TrendingWindow.ONE_HOUR, 10))
+                .thenReturn(new TrendingLinks(TrendingWindow.ONE_HOUR, clicks, 3, false));
+
+        // Act
+        Map<String, Object> trending = service.getTrending(null, null);
+
+        // Assert
+        assertEquals("1h", trending.get("window"));
+        assertEquals(3, trending.get("nodes"));
+        assertEquals(List.of(Map.of("shortCode", "hot123", "clicks", 900L),
+                Map.of("shortCode", "warm45", "clicks", 40L)), trending.get("links"));
+        assertThrows(IllegalArgumentException.class, () -> service.getTrending("2h", null));
+        assertThrows(IllegalArgumentException.class, () -> service.getTrending("5m", 0));
+    }
+}
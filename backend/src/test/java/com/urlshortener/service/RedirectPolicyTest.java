@@ -0,0 +1,105 @@
+package com.urlshortener.service;
+
+import com.urlshortener.cache.CachedMapping;
+import com.urlshortener.cache.RedirectHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RedirectPolicy
+ */
+@DisplayName("RedirectPolicy Tests")
+class RedirectPolicyTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private RedirectPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        policy = new RedirectPolicy(301, 3600, 86400, "Accept-Encoding");
+    }
+
+    @Test
+    @DisplayName("Should cap cache lifetimes for links without expiry and reuse the headers")
+    void testNoExpiry() {
+        // Arrange
+        CachedMapping mapping = mapping(CachedMapping.NO_EXPIRY, 0, false);
+
+        // Act
+        RedirectHeaders headers = policy.headersFor(mapping, NOW);
+
+        // Assert
+        assertEquals(301, headers.getStatus());
+        assertEquals("https://www.example.com", headers.getLocation());
+        assertEquals("public, max-age=3600", headers.getCacheControl());
+        assertEquals("max-age=86400", headers.getSurrogateControl());
+        assertEquals("Accept-Encoding", headers.getVary());
+        assertSame(headers, policy.headersFor(mapping, NOW + 365L * 86_400_000));
+    }
+
+    @Test
+    @DisplayName("Should count max-age down to expiresAt")
+    void testMaxAgeFromRemainingTime() {
+        // Arrange: expires in 1800.5 seconds
+        CachedMapping mapping = mapping(NOW + 1_800_500, 0, false);
+
+        // Act
+        RedirectHeaders first = policy.headersFor(mapping, NOW);
+        RedirectHeaders sameSecond = policy.headersFor(mapping, NOW + 400);
+        RedirectHeaders nextSecond = policy.headersFor(mapping, NOW + 600);
+
+        // Assert
+        assertEquals("public, max-age=1800", first.getCacheControl());
+        assertEquals("max-age=1800", first.getSurrogateControl());
+        assertSame(first, sameSecond);
+        assertNotSame(first, nextSecond);
+        assertEquals("public, max-age=1799", nextSecond.getCacheControl());
+    }
+
+    @Test
+    @DisplayName("Should keep the browser cap while only the CDN lifetime counts down")
+    void testSurrogateCountsDownFirst() {
+        // Arrange: expires in two days
+        CachedMapping mapping = mapping(NOW + 2 * 86_400_000L, 0, false);
+
+        // Act
+        RedirectHeaders first = policy.headersFor(mapping, NOW + 86_400_000L + 1_000);
+
+        // Assert
+        assertEquals("public, max-age=3600", first.getCacheControl());
+        assertEquals("max-age=86399", first.getSurrogateControl());
+    }
+
+    @Test
+    @DisplayName("Should send no-store and the link's own status for exact analytics")
+    void testExactAnalytics() {
+        // Arrange
+        CachedMapping mapping = mapping(NOW + 60_000, 307, true);
+
+        // Act
+        RedirectHeaders headers = policy.headersFor(mapping, NOW);
+
+        // Assert
+        assertEquals(307, headers.getStatus());
+        assertEquals("private, no-store", headers.getCacheControl());
+        assertEquals("no-store", headers.getSurrogateControl());
+        assertNull(headers.getVary());
+    }
+
+    @Test
+    @DisplayName("Should only accept redirect statuses as default")
+    void testUnsupportedDefaultStatus() {
+        assertThrows(IllegalArgumentException.class, () -> new RedirectPolicy(200, 3600, 86400, ""));
+        assertTrue(RedirectPolicy.isSupportedStatus(308));
+        assertFalse(RedirectPolicy.isSupportedStatus(303));
+    }
+
+    private static CachedMapping mapping(long expiresAtMillis, int redirectStatus, boolean exactAnalytics) {
+        return new CachedMapping("id", "abc123", "https://www.example.com", expiresAtMillis, NOW,
+                redirectStatus, exactAnalytics);
+    }
+}
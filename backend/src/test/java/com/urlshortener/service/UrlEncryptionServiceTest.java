@@ -0,0 +1,136 @@
+package com.urlshortener.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UrlEncryptionService
+ */
+@DisplayName("UrlEncryptionService Tests")
+class UrlEncryptionServiceTest {
+
+    private static final String KEY_1 = "k1:AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8=";
+    private static final String KEY_2 = "k2:ICEiIyQlJicoKSorLC0uLzAxMjM0NTY3ODk6Ozw9Pj8=";
+    private static final String URL = "https://www.example.com/private/report?token=s3cr3t&ü=1";
+
+    @Test
+    @DisplayName("Should encrypt with a fresh nonce each time and decrypt back to the URL")
+    void testRoundTrip() {
+        // Arrange
+        UrlEncryptionService service = new UrlEncryptionService(KEY_1, new SimpleMeterRegistry());
+
+        // Act
+        String first = service.encrypt(URL, "abc123");
+        String second = service.encrypt(URL, "abc123");
+
+        // Assert
+        assertTrue(first.startsWith("enc:k1:"));
+        assertFalse(first.contains("example"));
+        assertNotEquals(first, second);
+        assertEquals(URL, service.decrypt(first, "abc123"));
+        assertEquals(URL, service.decrypt(second, "abc123"));
+        assertTrue(service.isCurrent(first));
+    }
+
+    @Test
+    @DisplayName("Should pass plaintext through and leave URLs unchanged when no keys are configured")
+    void testPlaintext() {
+        // Arrange
+        UrlEncryptionService enabled = new UrlEncryptionService(KEY_1, new SimpleMeterRegistry());
+        UrlEncryptionService disabled = new UrlEncryptionService("", new SimpleMeterRegistry());
+
+        // Act & Assert
+        assertEquals(URL, enabled.decrypt(URL, "abc123"));
+        assertFalse(enabled.isCurrent(URL));
+        assertFalse(disabled.isEnabled());
+        assertEquals(URL, disabled.encrypt(URL, "abc123"));
+        assertNull(enabled.decrypt(null, "abc123"));
+    }
+
+    @Test
+    @DisplayName("Should decrypt values under an older key after a rotation and encrypt with the new one")
+    void testRotation() {
+        // Arrange
+        UrlEncryptionService before = new UrlEncryptionService(KEY_1, new SimpleMeterRegistry());
+        UrlEncryptionService after = new UrlEncryptionService(KEY_2 + "," + KEY_1, new SimpleMeterRegistry());
+        String old = before.encrypt(URL, "abc123");
+
+        // Act
+        String rotated = after.encrypt(after.decrypt(old, "abc123"), "abc123");
+
+        // Assert
+        assertEquals("k2", after.getActiveKeyId());
+        assertFalse(after.isCurrent(old));
+        assertTrue(rotated.startsWith("enc:k2:"));
+        assertEquals(URL, after.decrypt(rotated, "abc123"));
+        assertThrows(IllegalStateException.class, () -> before.decrypt(rotated, "abc123"));
+    }
+
+    @Test
+    @DisplayName("Should reject values moved to another short code or tampered with")
+    void testAuthentication() {
+        // Arrange
+        UrlEncryptionService service = new UrlEncryptionService(KEY_1, new SimpleMeterRegistry());
+        String stored = service.encrypt(URL, "abc123");
+        int at = "enc:k1:".length() + 5;
+        String tampered = stored.substring(0, at) + (stored.charAt(at) == 'A' ? 'B' : 'A') + stored.substring(at + 1);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> service.decrypt(stored, "xyz789"));
+        assertThrows(IllegalStateException.class, () -> service.decrypt(tampered, "abc123"));
+        assertThrows(IllegalStateException.class, () -> service.decrypt("enc:k1:@@@", "abc123"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed key configuration")
+    void testKeyRingParse() {
+        // Act & Assert
+        assertTrue(KeyRing.parse(" ").isEmpty());
+        assertEquals(2, KeyRing.parse(KEY_2 + ", " + KEY_1).size());
+        assertThrows(IllegalArgumentException.class, () -> KeyRing.parse("k1:AAECAwQ="));
+        assertThrows(IllegalArgumentException.class, () -> KeyRing.parse("AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8="));
+        assertThrows(IllegalArgumentException.class, () -> KeyRing.parse(KEY_1 + "," + KEY_1));
+    }
+
+    @Test
+    @DisplayName("Should encrypt and decrypt concurrently with per-thread ciphers")
+    void testConcurrentUse() throws Exception {
+        // Arrange
+        UrlEncryptionService service = new UrlEncryptionService(KEY_1, new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        String code = "c" + thread + "_" + i;
+                        String url = URL + "&n=" + i;
+                        if (!url.equals(service.decrypt(service.encrypt(url, code), code))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+
+            // Assert
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.urlshortener.startup;
+
+import com.urlshortener.analytics.ClickStatsStore;
+import com.urlshortener.analytics.TrendingLinks;
+import com.urlshortener.analytics.TrendingTracker;
+import com.urlshortener.analytics.TrendingWindow;
+import com.urlshortener.cache.RedirectCache;
+import com.urlshortener.dto.ShortenURLRequest;
+import com.urlshortener.model.URLMapping;
+import com.urlshortener.service.URLService;
+import com.urlshortener.util.CoarseClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WarmupRunner
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WarmupRunner Tests")
+class WarmupRunnerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private URLService urlService;
+
+    @Mock
+    private TrendingTracker trendingTracker;
+
+    @Mock
+    private ClickStatsStore clickStatsStore;
+
+    private RedirectCache redirectCache;
+    private CoarseClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new CoarseClock(5);
+        redirectCache = new RedirectCache(1000, 60, 3600, 100, 5_000, 30, 86400, 2, clock, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should cache trending codes first, then the most clicked ones, skipping expired links")
+    void testPreloadHotCodes() {
+        // Arrange
+        Map<String, Long> trending = new LinkedHashMap<>();
+        trending.put("hot001", 50L);
+        when(trendingTracker.trending(TrendingWindow.ONE_DAY, 3))
+                .thenReturn(new TrendingLinks(TrendingWindow.ONE_DAY, trending, 1, false));
+        when(clickStatsStore.topCodes(3)).thenReturn(List.of("top001", "hot001", "old001"));
+        when(mongoTemplate.find(any(Query.class), eq(URLMapping.class))).thenReturn(List.of(
+                mapping("hot001", 1), mapping("top001", 1), mapping("old001", -1)));
+        WarmupRunner runner = runner(30_000, 3, 1_000, 0);
+
+        // Act
+        List<String> cached = runner.preloadHotCodes(deadline(30_000));
+
+        // Assert
+        assertEquals(List.of("hot001", "top001"), cached);
+        assertNotNull(redirectCache.get("hot001", clock.currentTimeMillis()));
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(URLMapping.class));
+    }
+
+    @Test
+    @DisplayName("Should carry on with an empty cache when hot codes cannot be read")
+    void testPreloadWithoutMongo() {
+        // Arrange
+        when(trendingTracker.trending(TrendingWindow.ONE_DAY, 10))
+                .thenReturn(new TrendingLinks(TrendingWindow.ONE_DAY, Map.of(), 0, true));
+        when(clickStatsStore.topCodes(10)).thenThrow(new DataAccessResourceFailureException("down"));
+        WarmupRunner runner = runner(30_000, 10, 1_000, 0);
+
+        // Act
+        List<String> cached = runner.preloadHotCodes(deadline(30_000));
+
+        // Assert
+        assertTrue(cached.isEmpty());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should ping Mongo once per pooled connection")
+    void testOpenConnections() {
+        // Arrange
+        when(mongoTemplate.executeCommand("{ ping: 1 }")).thenReturn(new Document("ok", 1.0));
+        WarmupRunner runner = runner(30_000, 0, 1_000, 4);
+
+        // Act
+        int opened = runner.openConnections(deadline(30_000));
+
+        // Assert
+        assertEquals(4, opened);
+        verify(mongoTemplate, times(4)).executeCommand("{ ping: 1 }");
+    }
+
+    @Test
+    @DisplayName("Should spread synthetic calls over the hot codes and stop at the call cap")
+    void testExercisePaths() {
+        // Arrange
+        WarmupRunner runner = runner(30_000, 0, 2_500, 0);
+
+        // Act
+        int calls = runner.exercisePaths(List.of("hot001", "top001"), deadline(30_000));
+
+        // Assert
+        assertEquals(2_500, calls);
+        verify(urlService, times(1_250)).warmUp(eq("hot001"), any(ShortenURLRequest.class));
+        verify(urlService, times(1_250)).warmUp(eq("top001"), any(ShortenURLRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should only exercise the shorten path when no hot codes are cached")
+    void testExercisePathsWithoutCodes() {
+        // Arrange
+        WarmupRunner runner = runner(30_000, 0, 10, 0);
+
+        // Act
+        runner.exercisePaths(List.of(), deadline(30_000));
+
+        // Assert
+        verify(urlService, times(10)).warmUp(isNull(), any(ShortenURLRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should skip all steps once the time budget is spent")
+    void testBudgetExhausted() {
+        // Arrange
+        WarmupRunner runner = runner(0, 10, 1_000, 0);
+
+        // Act
+        runner.run(null);
+
+        // Assert
+        verifyNoInteractions(mongoTemplate, trendingTracker, clickStatsStore, urlService);
+        verify(urlService, never()).warmUp(anyString(), any());
+    }
+
+    private WarmupRunner runner(long budgetMillis, int hotCodes, int maxCalls, int poolConnections) {
+        return new WarmupRunner(mongoTemplate, redirectCache, urlService, trendingTracker, clickStatsStore, clock,
+                budgetMillis, hotCodes, maxCalls, poolConnections);
+    }
+
+    private static long deadline(long budgetMillis) {
+        return System.nanoTime() + budgetMillis * 1_000_000L;
+    }
+
+    private static URLMapping mapping(String shortCode, int expiresInDays) {
+        URLMapping mapping = new URLMapping();
+        mapping.setId("id-" + shortCode);
+        mapping.setShortCode(shortCode);
+        mapping.setOriginalUrl("https://www.example.com/" + shortCode);
+        mapping.setCreatedAt(LocalDateTime.now().minusDays(2));
+        mapping.setExpiresAt(LocalDateTime.now().plusDays(expiresInDays));
+        return mapping;
+    }
+}
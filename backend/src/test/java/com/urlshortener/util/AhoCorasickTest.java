@@ -0,0 +1,65 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AhoCorasick
+ */
+@DisplayName("AhoCorasick Tests")
+class AhoCorasickTest {
+
+    @Test
+    @DisplayName("Should find any pattern case-insensitively, following failure links")
+    void testFind() {
+        // Arrange
+        AhoCorasick matcher = new AhoCorasick(List.of("he", "she", "his", "hers", "/wp-login"));
+
+        // Act & Assert
+        assertEquals(1, matcher.find("uSHErs"));
+        assertEquals(2, matcher.find("ahis"));
+        assertEquals(4, matcher.find("https://site.example/WP-Login.php"));
+        assertEquals(-1, matcher.find("xyz"));
+        assertEquals(-1, new AhoCorasick(List.of()).find("anything"));
+    }
+
+    @Test
+    @DisplayName("Should agree with a naive substring search on random input")
+    void testAgainstNaiveSearch() {
+        // Arrange
+        SplittableRandom random = new SplittableRandom(7);
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            patterns.add(randomString(random, 2 + random.nextInt(5)));
+        }
+        AhoCorasick matcher = new AhoCorasick(patterns);
+
+        for (int round = 0; round < 2_000; round++) {
+            String text = randomString(random, random.nextInt(40));
+
+            // Act
+            int found = matcher.find(text);
+
+            // Assert
+            boolean expected = patterns.stream().anyMatch(text::contains);
+            assertEquals(expected, found >= 0, text);
+            if (found >= 0) {
+                assertTrue(text.contains(patterns.get(found)));
+            }
+        }
+    }
+
+    private static String randomString(SplittableRandom random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+}
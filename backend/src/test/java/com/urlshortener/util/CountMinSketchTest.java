@@ -0,0 +1,51 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CountMinSketch
+ */
+@DisplayName("CountMinSketch Tests")
+class CountMinSketchTest {
+
+    @Test
+    @DisplayName("Should never undercount and stay close for frequent keys")
+    void testEstimates() {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("code" + (i % 2_000));
+        }
+        for (int i = 0; i < 500; i++) {
+            sketch.add("hot123");
+        }
+
+        // Assert
+        for (int i = 0; i < 2_000; i++) {
+            assertTrue(sketch.estimate("code" + i) >= 5);
+        }
+        assertTrue(sketch.estimate("hot123") >= 500);
+        assertTrue(sketch.estimate("hot123") < 520);
+    }
+
+    @Test
+    @DisplayName("Should return the running estimate from add and reset on clear")
+    void testAddAndClear() {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(2, 16);
+
+        // Act
+        sketch.add("abc123");
+        int second = sketch.add("abc123");
+        sketch.clear();
+
+        // Assert
+        assertEquals(2, second);
+        assertEquals(0, sketch.estimate("abc123"));
+    }
+}
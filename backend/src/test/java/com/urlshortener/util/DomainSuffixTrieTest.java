@@ -0,0 +1,51 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DomainSuffixTrie
+ */
+@DisplayName("DomainSuffixTrie Tests")
+class DomainSuffixTrieTest {
+
+    private final DomainSuffixTrie trie = new DomainSuffixTrie(List.of("example.com", "mail.example.com", "evil.test"));
+
+    @Test
+    @DisplayName("Should match a domain and its subdomains case-insensitively")
+    void testMatchesSubdomains() {
+        // Act & Assert
+        assertEquals(0, match("example.com"));
+        assertEquals(0, match("WWW.Example.COM"));
+        assertEquals(2, match("a.b.evil.test."));
+    }
+
+    @Test
+    @DisplayName("Should only match at label boundaries")
+    void testLabelBoundaries() {
+        // Act & Assert
+        assertEquals(-1, match("badexample.com"));
+        assertEquals(-1, match("example.com.attacker.net"));
+        assertEquals(-1, match("com"));
+    }
+
+    @Test
+    @DisplayName("Should report the most specific rule and match inside a larger string")
+    void testMostSpecificAndRegion() {
+        // Arrange
+        String url = "https://x.mail.example.com/path";
+
+        // Act & Assert
+        assertEquals(1, trie.match(url, 8, 26));
+        assertEquals(0, new DomainSuffixTrie(List.of("example.com")).match(url, 8, 26));
+        assertEquals(-1, new DomainSuffixTrie(List.of()).match(url, 8, 26));
+    }
+
+    private int match(String host) {
+        return trie.match(host, 0, host.length());
+    }
+}
@@ -0,0 +1,134 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HierarchicalTimingWheel
+ */
+@DisplayName("HierarchicalTimingWheel Tests")
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MILLIS = 10;
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    private List<List<String>> batches;
+    private HierarchicalTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        batches = new ArrayList<>();
+        wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, START_MILLIS, batches::add);
+    }
+
+    @Test
+    @DisplayName("Should fire at the deadline and not before")
+    void testFiresAtDeadline() {
+        // Arrange
+        wheel.schedule("a", START_MILLIS + 500);
+
+        // Act & Assert
+        wheel.advance(START_MILLIS + 490);
+        assertTrue(batches.isEmpty());
+        assertEquals(1, wheel.size());
+
+        wheel.advance(START_MILLIS + 500);
+        assertEquals(List.of(List.of("a")), batches);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should deliver everything due in one advance as a single batch")
+    void testBatchesExpiries() {
+        // Arrange
+        wheel.schedule("a", START_MILLIS + 100);
+        wheel.schedule("b", START_MILLIS + 200);
+        wheel.schedule("c", START_MILLIS + 5_000);
+
+        // Act
+        wheel.advance(START_MILLIS + 300);
+
+        // Assert
+        assertEquals(1, batches.size());
+        assertEquals(List.of("a", "b"), batches.get(0));
+    }
+
+    @Test
+    @DisplayName("Should not fire cancelled timeouts")
+    void testCancel() {
+        // Arrange
+        HierarchicalTimingWheel.Timeout<String> timeout = wheel.schedule("a", START_MILLIS + 100);
+        wheel.advance(START_MILLIS);
+
+        // Act
+        assertTrue(timeout.cancel());
+        wheel.advance(START_MILLIS + 1_000);
+
+        // Assert
+        assertTrue(batches.isEmpty());
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.cancel());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should cascade long deadlines through the outer levels")
+    void testCascadesOuterLevels() {
+        // Arrange - 1 minute, 1 hour and 3 days are on three different levels
+        long minute = START_MILLIS + 60_000;
+        long hour = START_MILLIS + 3_600_000;
+        long days = START_MILLIS + 3 * 86_400_000L;
+        wheel.schedule("minute", minute);
+        wheel.schedule("hour", hour);
+        wheel.schedule("days", days);
+
+        // Act & Assert
+        wheel.advance(minute - TICK_MILLIS);
+        assertTrue(batches.isEmpty());
+        wheel.advance(minute);
+        assertEquals(List.of("minute"), batches.get(0));
+
+        wheel.advance(hour - TICK_MILLIS);
+        assertEquals(1, batches.size());
+        wheel.advance(hour);
+        assertEquals(List.of("hour"), batches.get(1));
+
+        wheel.advance(days - TICK_MILLIS);
+        assertEquals(2, batches.size());
+        wheel.advance(days);
+        assertEquals(List.of("days"), batches.get(2));
+    }
+
+    @Test
+    @DisplayName("Should handle deadlines beyond the wheel range")
+    void testBeyondRange() {
+        // Arrange - 2^26 ticks of 10ms is about 7.7 days
+        long deadline = START_MILLIS + 10 * 86_400_000L;
+        wheel.schedule("far", deadline);
+
+        // Act & Assert
+        wheel.advance(deadline - TICK_MILLIS);
+        assertTrue(batches.isEmpty());
+        wheel.advance(deadline);
+        assertEquals(List.of(List.of("far")), batches);
+    }
+
+    @Test
+    @DisplayName("Should fire deadlines in the past on the next advance")
+    void testPastDeadline() {
+        // Arrange
+        wheel.schedule("late", START_MILLIS - 1_000);
+
+        // Act
+        wheel.advance(START_MILLIS);
+
+        // Assert
+        assertEquals(List.of(List.of("late")), batches);
+    }
+}
@@ -0,0 +1,88 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HttpUrl
+ */
+@DisplayName("HttpUrl Tests")
+class HttpUrlTest {
+
+    @Test
+    @DisplayName("Should record host, port, path and query offsets in one parse")
+    void testParse() {
+        // Arrange
+        String url = "https://Sub.Example.com:8443/a/b?x=1&y=%20#top";
+
+        // Act
+        HttpUrl parsed = HttpUrl.parse(url);
+
+        // Assert
+        assertNotNull(parsed);
+        assertEquals("https", parsed.getScheme());
+        assertEquals("Sub.Example.com", parsed.getHost());
+        assertEquals(8443, parsed.getPort());
+        assertFalse(parsed.isDefaultPort());
+        assertEquals("/a/b", url.substring(parsed.getPathStart(), parsed.getPathEnd()));
+        assertEquals("?x=1&y=%20", url.substring(parsed.getQueryStart(), parsed.getQueryEnd()));
+        assertTrue(parsed.hasPath());
+        assertTrue(parsed.hasQuery());
+    }
+
+    @Test
+    @DisplayName("Should treat a bare or slash-only path and an empty query as absent")
+    void testEmptyParts() {
+        // Act
+        HttpUrl bare = HttpUrl.parse("http://example.com");
+        HttpUrl slash = HttpUrl.parse("http://example.com:80/?");
+
+        // Assert
+        assertFalse(bare.hasPath());
+        assertFalse(bare.hasQuery());
+        assertEquals(-1, bare.getPort());
+        assertEquals(-1, bare.getQueryStart());
+        assertFalse(slash.hasPath());
+        assertFalse(slash.hasQuery());
+        assertTrue(slash.isDefaultPort());
+    }
+
+    @Test
+    @DisplayName("Should accept IP, IPv6, internationalized and single-label hosts")
+    void testValidHosts() {
+        // Act & Assert
+        assertTrue(HttpUrl.isValid("http://127.0.0.1:8080/x"));
+        assertEquals("[2001:db8::1]", HttpUrl.parse("http://[2001:db8::1]:8080/").getHost());
+        assertTrue(HttpUrl.isValid("https://bücher.example/café"));
+        assertTrue(HttpUrl.isValid("http://localhost"));
+        assertTrue(HttpUrl.isValid("https://example.com./"));
+        assertTrue(HttpUrl.isValid("https://my_host.example.com"));
+    }
+
+    @Test
+    @DisplayName("Should reject what the old prefix regex let through")
+    void testInvalidUrls() {
+        // Act & Assert
+        assertFalse(HttpUrl.isValid("https://"));
+        assertFalse(HttpUrl.isValid("https:///path"));
+        assertFalse(HttpUrl.isValid("http://exa mple.com"));
+        assertFalse(HttpUrl.isValid("http://user@example.com"));
+        assertFalse(HttpUrl.isValid("http://-example.com"));
+        assertFalse(HttpUrl.isValid("http://example-.com"));
+        assertFalse(HttpUrl.isValid("http://example..com"));
+        assertFalse(HttpUrl.isValid("http://example.com:0"));
+        assertFalse(HttpUrl.isValid("http://example.com:65536"));
+        assertFalse(HttpUrl.isValid("http://example.com:"));
+        assertFalse(HttpUrl.isValid("http://example.com/a b"));
+        assertFalse(HttpUrl.isValid("http://example.com/<script>"));
+        assertFalse(HttpUrl.isValid("http://example.com/%zz"));
+        assertFalse(HttpUrl.isValid("http://example.com/#a#b"));
+        assertFalse(HttpUrl.isValid("http://[::1"));
+        assertFalse(HttpUrl.isValid("http://" + "a".repeat(64) + ".com"));
+        assertFalse(HttpUrl.isValid("https://example.com/" + "a".repeat(HttpUrl.MAX_LENGTH)));
+        assertFalse(HttpUrl.isValid("javascript://example.com"));
+        assertNull(HttpUrl.parse(null));
+    }
+}
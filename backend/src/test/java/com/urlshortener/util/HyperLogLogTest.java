@@ -0,0 +1,106 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HyperLogLog
+ */
+@DisplayName("HyperLogLog Tests")
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("Should count small sets exactly enough while staying sparse")
+    void testSmallSetsStaySparse() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog();
+        SplittableRandom random = new SplittableRandom(1);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            long hash = random.nextLong();
+            sketch.add(hash);
+            sketch.add(hash);
+        }
+
+        // Assert
+        assertTrue(sketch.isSparse());
+        assertEquals(100, sketch.estimate(), 2);
+        assertTrue(sketch.toBytes().length < 400);
+    }
+
+    @Test
+    @DisplayName("Should switch to dense registers and stay within a few percent on large sets")
+    void testLargeSetsGoDense() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog();
+        SplittableRandom random = new SplittableRandom(2);
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(random.nextLong());
+        }
+
+        // Assert
+        assertFalse(sketch.isSparse());
+        assertEquals(100_000, sketch.estimate(), 3_000);
+        assertEquals(2 + 12_288, sketch.toBytes().length);
+    }
+
+    @Test
+    @DisplayName("Should round-trip both encodings through bytes")
+    void testSerialization() {
+        // Arrange
+        HyperLogLog sparse = new HyperLogLog();
+        HyperLogLog dense = new HyperLogLog();
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 500; i++) {
+            sparse.add(random.nextLong());
+        }
+        for (int i = 0; i < 20_000; i++) {
+            dense.add(random.nextLong());
+        }
+
+        // Act
+        HyperLogLog sparseCopy = HyperLogLog.fromBytes(sparse.toBytes());
+        HyperLogLog denseCopy = HyperLogLog.fromBytes(dense.toBytes());
+
+        // Assert
+        assertTrue(sparseCopy.isSparse());
+        assertEquals(sparse.estimate(), sparseCopy.estimate());
+        assertFalse(denseCopy.isSparse());
+        assertEquals(dense.estimate(), denseCopy.estimate());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{2, 12}));
+    }
+
+    @Test
+    @DisplayName("Should merge overlapping sketches into their union, idempotently")
+    void testMerge() {
+        // Arrange
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        SplittableRandom random = new SplittableRandom(4);
+        long[] hashes = new long[30_000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextLong();
+        }
+        for (int i = 0; i < 20_000; i++) {
+            first.add(hashes[i]);
+        }
+        for (int i = 10_000; i < 30_000; i++) {
+            second.add(hashes[i]);
+        }
+
+        // Act
+        long union = first.merge(second).estimate();
+        long again = first.merge(second).estimate();
+
+        // Assert
+        assertEquals(30_000, union, 900);
+        assertEquals(union, again);
+    }
+}
@@ -0,0 +1,57 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RollingPercentile
+ */
+@DisplayName("RollingPercentile Tests")
+class RollingPercentileTest {
+
+    @Test
+    @DisplayName("Should report the initial value before any recomputation")
+    void testInitialValue() {
+        // Arrange
+        RollingPercentile percentile = new RollingPercentile(100, 0.95, 1_000, 42);
+
+        // Act & Assert
+        assertEquals(42, percentile.get());
+    }
+
+    @Test
+    @DisplayName("Should track the requested percentile of recent samples")
+    void testPercentile() {
+        // Arrange
+        RollingPercentile percentile = new RollingPercentile(100, 0.95, 1_000, 0);
+
+        // Act
+        for (int i = 1; i <= 100; i++) {
+            percentile.record(i, 0);
+        }
+        percentile.record(100, 1_000);
+
+        // Assert
+        assertEquals(96, percentile.get());
+    }
+
+    @Test
+    @DisplayName("Should forget samples that fall out of the window")
+    void testWindow() {
+        // Arrange
+        RollingPercentile percentile = new RollingPercentile(10, 0.5, 0, 0);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            percentile.record(1_000, i);
+        }
+        for (int i = 0; i < 10; i++) {
+            percentile.record(5, 100 + i);
+        }
+
+        // Assert
+        assertEquals(5, percentile.get());
+    }
+}
@@ -0,0 +1,87 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpaceSaving
+ */
+@DisplayName("SpaceSaving Tests")
+class SpaceSavingTest {
+
+    @Test
+    @DisplayName("Should count exactly while there is a counter for every key")
+    void testExactBelowCapacity() {
+        // Arrange
+        SpaceSaving summary = new SpaceSaving(8, 4, 256);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            summary.offer("abc123");
+        }
+        summary.offer("def456");
+        summary.offer("def456");
+
+        // Assert
+        Map<String, Long> counts = new HashMap<>();
+        summary.addTo(counts);
+        assertEquals(Map.of("abc123", 5L, "def456", 2L), counts);
+    }
+
+    @Test
+    @DisplayName("Should keep the heavy hitters of a long-tailed stream within the capacity")
+    void testFindsHeavyHitters() {
+        // Arrange
+        SpaceSaving summary = new SpaceSaving(20, 4, 1024);
+        SplittableRandom random = new SplittableRandom(7);
+        String[] hot = {"hot0", "hot1", "hot2", "hot3", "hot4"};
+        String[] tail = new String[50_000];
+        for (int i = 0; i < tail.length; i++) {
+            tail[i] = "tail" + i;
+        }
+
+        // Act: 5 links with 2000 clicks each among 50000 one-off clicks
+        for (int round = 0; round < 2_000; round++) {
+            for (String code : hot) {
+                summary.offer(code);
+            }
+            for (int i = 0; i < 25; i++) {
+                summary.offer(tail[random.nextInt(tail.length)]);
+            }
+        }
+
+        // Assert
+        Map<String, Long> counts = new HashMap<>();
+        summary.addTo(counts);
+        assertEquals(20, summary.size());
+        for (String code : hot) {
+            assertTrue(counts.get(code) >= 2_000, code + " undercounted");
+            assertTrue(counts.get(code) < 2_100, code + " overcounted");
+        }
+    }
+
+    @Test
+    @DisplayName("Should forget everything when cleared and reuse its storage")
+    void testClear() {
+        // Arrange
+        SpaceSaving summary = new SpaceSaving(2, 2, 64);
+        summary.offer("abc123");
+        summary.offer("def456");
+        summary.offer("ghi789");
+
+        // Act
+        summary.clear();
+        summary.offer("xyz000");
+
+        // Assert
+        Map<String, Long> counts = new HashMap<>();
+        summary.addTo(counts);
+        assertEquals(Map.of("xyz000", 1L), counts);
+    }
+}
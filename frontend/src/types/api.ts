@@ -38,6 +38,11 @@ export interface CleanupRequest {
 export interface CleanupResponse {
   deletedCount: number;
   message: string;
+  status?: 'IDLE' | 'RUNNING' | 'FAILED';
+  leader?: string | null;
+  totalDeleted?: number;
+  lastRunStartedAt?: string | null;
+  lastRunFinishedAt?: string | null;
 }
 
 // Error handling types
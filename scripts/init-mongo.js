@@ -4,8 +4,8 @@ print('Starting MongoDB initialization...');
 // Switch to urlshortener database
 db = db.getSiblingDB('urlshortener');
 
-// Create url_mappings collection with validation
-db.createCollection('url_mappings', {
+// Create urls_shortened collection with validation
+db.createCollection('urls_shortened', {
   validator: {
     $jsonSchema: {
       bsonType: 'object',
@@ -13,13 +13,12 @@ db.createCollection('url_mappings', {
       properties: {
         shortCode: {
           bsonType: 'string',
-          pattern: '^[A-Za-z0-9]{6,8}$',
-          description: 'Short code must be 6-8 alphanumeric characters'
+          description: 'Generated or custom short code'
         },
         originalUrl: {
           bsonType: 'string',
-          pattern: '^https?://.+',
-          description: 'Original URL must be a valid HTTP/HTTPS URL'
+          pattern: '^(https?://|enc:).+',
+          description: 'HTTP/HTTPS URL, or one encrypted with app.encryption.keys'
         },
         createdAt: {
           bsonType: 'date',
@@ -39,15 +38,15 @@ db.createCollection('url_mappings', {
 });
 
 // Create indexes for optimal performance
-db.url_mappings.createIndex({ 'shortCode': 1 }, { unique: true });
-db.url_mappings.createIndex({ 'expiresAt': 1 }, { expireAfterSeconds: 0 });
-db.url_mappings.createIndex({ 'createdAt': -1 });
-db.url_mappings.createIndex({ 'domain': 1 });
+db.urls_shortened.createIndex({ 'shortCode': 1 }, { unique: true, name: 'shortCode' });
+db.urls_shortened.createIndex({ 'expiresAt': 1 }, { expireAfterSeconds: 0 });
+db.urls_shortened.createIndex({ 'createdAt': -1 });
+db.urls_shortened.createIndex({ 'domain': 1 });
 
-print('Created url_mappings collection with indexes');
+print('Created urls_shortened collection with indexes');
 
 // Insert sample data for testing (optional)
-db.url_mappings.insertOne({
+db.urls_shortened.insertOne({
   shortCode: 'sample1',
   originalUrl: 'https://www.example.com',
   createdAt: new Date(),
@@ -57,4 +56,4 @@ db.url_mappings.insertOne({
 
 print('MongoDB initialization completed successfully');
 print('Collections created:', db.getCollectionNames());
-print('Indexes on url_mappings:', db.url_mappings.getIndexes());
\ No newline at end of file
+print('Indexes on urls_shortened:', db.urls_shortened.getIndexes());
\ No newline at end of file